@@ -0,0 +1,410 @@
+/*
+ * Centro Pokémon - Dump da Pokédex
+ * ---------------------------------------
+ * @file        DumpPokedex.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Semeia a Pokédex sem rede a partir de um dump NDJSON em gzip
+ *              dos documentos da PokeAPI (carga por COPY) e gera esse dump a
+ *              partir de um banco já carregado.
+ */
+package com.centropokemon.build;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.PokemonDescricao;
+import com.centropokemon.model.PokemonStats;
+import com.centropokemon.model.Tipo;
+import com.centropokemon.service.DataInicializacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Uso, a partir do módulo:
+ * {@code mvn compile exec:java@exportar-pokedex -Dpokedex.dump=/caminho/pokedex.ndjson.gz}
+ * em um ambiente com a Pokédex carregada e
+ * {@code mvn compile exec:java@importar-pokedex -Dpokedex.dump=...} no
+ * ambiente novo (CI, homologação sem rede); o banco vem de
+ * {@code -Dpokedex.banco}, {@code -Dpokedex.usuario} e {@code -Dpokedex.senha}.
+ * O esquema já deve existir (a aplicação subiu ao menos uma vez).
+ * <p>
+ * Formato: NDJSON em gzip, uma linha por Pokémon,
+ * {@code {"pokemon": <pokemon/{id}>, "species": <pokemon-species/{id}>}}.
+ * Os documentos podem vir inteiros da PokeAPI ou só com os campos que
+ * {@link DataInicializacao#montarPokemon} lê, que é o que a exportação grava.
+ * <p>
+ * A importação lê em lotes de {@value #LOTE} linhas e monta cada lote em
+ * paralelo com a mesma extração da {@link DataInicializacao}. Tudo entra em
+ * uma transação: os IDs dos Pokémon são reservados na sequência de uma vez e
+ * cada tabela ({@code pokemons}, {@code pokemon_stats}, {@code pokemon_tipos},
+ * {@code pokemon_habilidades}, {@code pokemon_descricoes}) é carregada por um
+ * único {@code COPY ... FROM STDIN}; tipos que faltam entram por INSERT comum.
+ * Pokémon que já estão na Pokédex ficam como estão (as consultas apontam para
+ * essas linhas): a carga semeia, quem atualiza é a {@link DataInicializacao}.
+ */
+public final class DumpPokedex {
+
+    /** Resumo da importação. */
+    record Resultado(int linhas, int importados, int ignorados, int invalidas) {}
+
+    static final int LOTE = 256;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private DumpPokedex() {}
+
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length < 3 || !List.of("importar", "exportar").contains(args[0])) {
+            System.err.println("[pokedex] uso: DumpPokedex importar|exportar <arquivo.ndjson.gz> <jdbc-url> [usuario] [senha]");
+            System.exit(2);
+        }
+        Path arquivo = Path.of(args[1]);
+        boolean importar = args[0].equals("importar");
+        if (importar && !Files.isRegularFile(arquivo)) {
+            System.err.println("[pokedex] dump inexistente: " + arquivo);
+            System.exit(2);
+        }
+        long inicio = System.nanoTime();
+        try (Connection banco = DriverManager.getConnection(args[2],
+                args.length > 3 ? args[3] : null, args.length > 4 ? args[4] : null)) {
+            if (importar) {
+                Resultado r = importar(banco, arquivo);
+                System.out.printf("[pokedex] %d linhas -> %d importados, %d já na Pokédex ou repetidos, %d inválidas, em %d ms%n",
+                        r.linhas(), r.importados(), r.ignorados(), r.invalidas(), (System.nanoTime() - inicio) / 1_000_000);
+            } else {
+                int exportados = exportar(banco, arquivo);
+                System.out.printf("[pokedex] %d Pokémon -> %s (%.1f KB), em %d ms%n", exportados, arquivo,
+                        Files.size(arquivo) / 1e3, (System.nanoTime() - inicio) / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Carrega o dump na Pokédex, em uma transação.
+     * @param banco conexão PostgreSQL
+     * @param arquivo dump NDJSON em gzip
+     * @return contagens da importação
+     */
+    static Resultado importar(Connection banco, Path arquivo) throws IOException, SQLException {
+        boolean autoCommit = banco.getAutoCommit();
+        banco.setAutoCommit(false);
+        try {
+            Set<Integer> naPokedex = new HashSet<>();
+            try (Statement st = banco.createStatement();
+                 ResultSet rs = st.executeQuery(
+                         "SELECT pokeapi_id FROM pokemons WHERE treinador_id IS NULL AND pokeapi_id IS NOT NULL")) {
+                while (rs.next()) naPokedex.add(rs.getInt(1));
+            }
+
+            List<Pokemon> montados = new ArrayList<>();
+            int linhas = 0;
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(arquivo), 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+                List<String> lote = new ArrayList<>(LOTE);
+                for (String linha; (linha = in.readLine()) != null; ) {
+                    if (linha.isBlank()) continue;
+                    linhas++;
+                    lote.add(linha);
+                    if (lote.size() == LOTE) {
+                        montados.addAll(lote.parallelStream().map(DumpPokedex::montar).toList());
+                        lote.clear();
+                    }
+                }
+                montados.addAll(lote.parallelStream().map(DumpPokedex::montar).toList());
+            }
+
+            List<Pokemon> novos = new ArrayList<>();
+            int ignorados = 0;
+            int invalidas = 0;
+            for (Pokemon p : montados) {
+                if (p == null) invalidas++;
+                else if (!naPokedex.add(p.getPokeApiId())) ignorados++;
+                else novos.add(p);
+            }
+
+            Map<String, Integer> tipos = resolverTipos(banco, novos);
+            long[] ids = reservarIds(banco, novos.size());
+            StringBuilder pokemons = new StringBuilder();
+            StringBuilder stats = new StringBuilder();
+            StringBuilder tiposDosPokemons = new StringBuilder();
+            StringBuilder habilidades = new StringBuilder();
+            StringBuilder descricoes = new StringBuilder();
+            for (int i = 0; i < novos.size(); i++) {
+                Pokemon p = novos.get(i);
+                long id = ids[i];
+                linha(pokemons, id, p.getNomePt(), p.getNomeEn(), p.getPokeApiId(), p.getSpriteUrl(),
+                        p.getVidaAtual(), p.getVidaMaxima(), p.getNivel());
+                PokemonStats s = p.getStats();
+                if (completos(s)) {
+                    linha(stats, id, s.getHp(), s.getAtaque(), s.getDefesa(), s.getVelocidade(),
+                            s.getAtaqueEspecial(), s.getDefesaEspecial());
+                }
+                for (Tipo t : p.getTipos()) linha(tiposDosPokemons, id, tipos.get(chave(t.getNomeEn())));
+                for (String h : p.getHabilidades()) linha(habilidades, id, h);
+                for (PokemonDescricao d : p.getDescricoes()) linha(descricoes, id, d.getDescricaoPt(), d.getDescricaoEn());
+            }
+
+            CopyManager copy = banco.unwrap(PGConnection.class).getCopyAPI();
+            copiar(copy, "pokemons (id, nome_pt, nome_en, pokeapi_id, sprite_url, vida_atual, vida_maxima, nivel)", pokemons);
+            copiar(copy, "pokemon_stats (pokemon_id, hp, ataque, defesa, velocidade, ataque_especial, defesa_especial)", stats);
+            copiar(copy, "pokemon_tipos (pokemon_id, tipo_id)", tiposDosPokemons);
+            copiar(copy, "pokemon_habilidades (pokemon_id, habilidade)", habilidades);
+            copiar(copy, "pokemon_descricoes (pokemon_id, descricao_pt, descricao_en)", descricoes);
+            banco.commit();
+            return new Resultado(linhas, novos.size(), ignorados, invalidas);
+        } catch (IOException | SQLException | RuntimeException e) {
+            banco.rollback();
+            throw e;
+        } finally {
+            banco.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Grava a Pokédex do banco como dump (temporário + move atômico).
+     * @param banco conexão PostgreSQL
+     * @param arquivo destino do dump NDJSON em gzip
+     * @return Pokémon exportados
+     */
+    static int exportar(Connection banco, Path arquivo) throws IOException, SQLException {
+        String daPokedex = " JOIN pokemons p ON p.id = x.pokemon_id WHERE p.treinador_id IS NULL ORDER BY x.pokemon_id, ";
+        Map<Integer, List<String>> tipos = new HashMap<>();
+        Map<Integer, List<String>> habilidades = new HashMap<>();
+        Map<Integer, PokemonDescricao> descricoes = new HashMap<>();
+        try (Statement st = banco.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT x.pokemon_id, t.nome_en FROM pokemon_tipos x"
+                    + " JOIN tipos t ON t.id = x.tipo_id" + daPokedex + "t.id")) {
+                while (rs.next()) tipos.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getString(2));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT x.pokemon_id, x.habilidade FROM pokemon_habilidades x"
+                    + daPokedex + "x.habilidade")) {
+                while (rs.next()) habilidades.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getString(2));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT x.pokemon_id, x.descricao_pt, x.descricao_en FROM pokemon_descricoes x"
+                    + daPokedex + "x.id")) {
+                while (rs.next()) descricoes.putIfAbsent(rs.getInt(1), new PokemonDescricao(null, rs.getString(2), rs.getString(3)));
+            }
+        }
+
+        Path destino = arquivo.toAbsolutePath();
+        Files.createDirectories(destino.getParent());
+        Path temporario = Files.createTempFile(destino.getParent(), "pokedex", ".tmp");
+        int exportados = 0;
+        try {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temporario), 1 << 16), StandardCharsets.UTF_8));
+                 Statement st = banco.createStatement();
+                 ResultSet rs = st.executeQuery("""
+                         SELECT p.id, p.pokeapi_id, p.nome_en, p.nome_pt, p.sprite_url, s.hp, s.ataque, s.defesa,
+                                s.velocidade, s.ataque_especial, s.defesa_especial
+                         FROM pokemons p LEFT JOIN pokemon_stats s ON s.pokemon_id = p.id
+                         WHERE p.treinador_id IS NULL AND p.pokeapi_id IS NOT NULL
+                         ORDER BY p.pokeapi_id, p.id""")) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    Pokemon p = new Pokemon(id, rs.getString(4), rs.getString(3), rs.getString(5));
+                    p.setPokeApiId(rs.getInt(2));
+                    p.setStats(new PokemonStats(p, rs.getObject(6, Integer.class), rs.getObject(7, Integer.class),
+                            rs.getObject(8, Integer.class), rs.getObject(9, Integer.class),
+                            rs.getObject(10, Integer.class), rs.getObject(11, Integer.class)));
+                    List<Tipo> tiposDoPokemon = new ArrayList<>();
+                    for (String nomeEn : tipos.getOrDefault(id, List.of())) {
+                        Tipo t = new Tipo();
+                        t.setNomeEn(nomeEn);
+                        tiposDoPokemon.add(t);
+                    }
+                    p.setTipos(tiposDoPokemon);
+                    p.setHabilidades(habilidades.getOrDefault(id, List.of()));
+                    PokemonDescricao d = descricoes.get(id);
+                    p.setDescricoes(d == null ? List.of() : List.of(d));
+                    out.write(MAPPER.writeValueAsString(documento(p)));
+                    out.write('\n');
+                    exportados++;
+                }
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+        return exportados;
+    }
+
+    /** @return Pokémon montado de uma linha do dump, ou null se a linha não serve para a Pokédex */
+    static Pokemon montar(String linha) {
+        try {
+            JsonNode documento = MAPPER.readTree(linha);
+            JsonNode pokemon = documento.path("pokemon");
+            if (pokemon.path("id").asInt() <= 0) return null;
+            Pokemon p = DataInicializacao.montarPokemon(pokemon, documento.path("species"));
+            return p.getNomeEn().isBlank() || p.getSpriteUrl() == null ? null : p;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Linha do dump para um Pokémon: só os campos que
+     * {@link DataInicializacao#montarPokemon} lê, no formato da PokeAPI.
+     */
+    static ObjectNode documento(Pokemon p) {
+        ObjectNode documento = MAPPER.createObjectNode();
+        ObjectNode pokemon = documento.putObject("pokemon");
+        pokemon.put("id", p.getPokeApiId());
+        pokemon.put("name", p.getNomeEn());
+        pokemon.putObject("sprites").put("front_default", p.getSpriteUrl());
+        ArrayNode abilities = pokemon.putArray("abilities");
+        for (String h : p.getHabilidades()) abilities.addObject().putObject("ability").put("name", h);
+        ArrayNode types = pokemon.putArray("types");
+        for (Tipo t : p.getTipos()) types.addObject().putObject("type").put("name", t.getNomeEn());
+        ArrayNode stats = pokemon.putArray("stats");
+        PokemonStats s = p.getStats();
+        if (s != null) {
+            stat(stats, "hp", s.getHp());
+            stat(stats, "attack", s.getAtaque());
+            stat(stats, "defense", s.getDefesa());
+            stat(stats, "special-attack", s.getAtaqueEspecial());
+            stat(stats, "special-defense", s.getDefesaEspecial());
+            stat(stats, "speed", s.getVelocidade());
+        }
+        ObjectNode species = documento.putObject("species");
+        species.putArray("names").addObject().put("name", p.getNomePt()).putObject("language").put("name", "pt-BR");
+        ArrayNode textos = species.putArray("flavor_text_entries");
+        if (p.getDescricoes() != null && !p.getDescricoes().isEmpty()) {
+            PokemonDescricao d = p.getDescricoes().get(0);
+            texto(textos, d.getDescricaoPt(), "pt-BR");
+            texto(textos, d.getDescricaoEn(), "en");
+        }
+        return documento;
+    }
+
+    private static void stat(ArrayNode stats, String nome, Integer valor) {
+        if (valor != null) stats.addObject().put("base_stat", valor).putObject("stat").put("name", nome);
+    }
+
+    private static void texto(ArrayNode textos, String texto, String idioma) {
+        if (texto != null) textos.addObject().put("flavor_text", texto).putObject("language").put("name", idioma);
+    }
+
+    /**
+     * Mesma resolução da {@link DataInicializacao}: tipo existente pelo nome
+     * em inglês, depois pelo nome em português; senão é criado.
+     * @return ID do tipo por {@link #chave} do nome em inglês
+     */
+    private static Map<String, Integer> resolverTipos(Connection banco, List<Pokemon> pokemons) throws SQLException {
+        Map<String, Integer> porNomeEn = new HashMap<>();
+        Map<String, Integer> porNomePt = new HashMap<>();
+        try (Statement st = banco.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id, nome_en, nome_pt FROM tipos ORDER BY id")) {
+            while (rs.next()) {
+                porNomeEn.putIfAbsent(chave(rs.getString(2)), rs.getInt(1));
+                porNomePt.putIfAbsent(chave(rs.getString(3)), rs.getInt(1));
+            }
+        }
+        Map<String, Integer> resolvidos = new HashMap<>();
+        try (PreparedStatement inserir = banco.prepareStatement(
+                "INSERT INTO tipos (nome, nome_en, nome_pt) VALUES (?, ?, ?) RETURNING id")) {
+            for (Pokemon p : pokemons) {
+                for (Tipo t : p.getTipos()) {
+                    String chave = chave(t.getNomeEn());
+                    if (resolvidos.containsKey(chave)) continue;
+                    Integer id = porNomeEn.get(chave);
+                    if (id == null) id = porNomePt.get(chave(t.getNomePt()));
+                    if (id == null) {
+                        inserir.setString(1, t.getNome());
+                        inserir.setString(2, t.getNomeEn());
+                        inserir.setString(3, t.getNomePt());
+                        try (ResultSet rs = inserir.executeQuery()) {
+                            rs.next();
+                            id = rs.getInt(1);
+                        }
+                    }
+                    resolvidos.put(chave, id);
+                }
+            }
+        }
+        return resolvidos;
+    }
+
+    /** Reserva {@code n} IDs da sequência de {@code pokemons} em uma ida ao banco. */
+    private static long[] reservarIds(Connection banco, int n) throws SQLException {
+        long[] ids = new long[n];
+        if (n == 0) return ids;
+        try (PreparedStatement st = banco.prepareStatement(
+                "SELECT nextval(pg_get_serial_sequence('pokemons', 'id')) FROM generate_series(1, ?)")) {
+            st.setInt(1, n);
+            try (ResultSet rs = st.executeQuery()) {
+                for (int i = 0; i < n && rs.next(); i++) ids[i] = rs.getLong(1);
+            }
+        }
+        return ids;
+    }
+
+    private static void copiar(CopyManager copy, String tabela, StringBuilder linhas) throws SQLException, IOException {
+        if (linhas.isEmpty()) return;
+        copy.copyIn("COPY " + tabela + " FROM STDIN", new StringReader(linhas.toString()));
+    }
+
+    /** Acrescenta uma linha no formato texto do COPY (tab entre campos, {@code \N} para nulo). */
+    static void linha(StringBuilder destino, Object... campos) {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) destino.append('\t');
+            if (campos[i] == null) {
+                destino.append("\\N");
+                continue;
+            }
+            String valor = campos[i].toString();
+            for (int c = 0; c < valor.length(); c++) {
+                char ch = valor.charAt(c);
+                switch (ch) {
+                    case '\\' -> destino.append("\\\\");
+                    case '\t' -> destino.append("\\t");
+                    case '\n' -> destino.append("\\n");
+                    case '\r' -> destino.append("\\r");
+                    default -> destino.append(ch);
+                }
+            }
+        }
+        destino.append('\n');
+    }
+
+    private static boolean completos(PokemonStats s) {
+        return s != null && s.getHp() != null && s.getAtaque() != null && s.getDefesa() != null
+                && s.getVelocidade() != null && s.getAtaqueEspecial() != null && s.getDefesaEspecial() != null;
+    }
+
+    private static String chave(String nome) {
+        return nome == null ? "" : nome.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Centro Pokémon - Importador do Acervo de Sons
+ * ---------------------------------------
+ * @file        ImportadorAcervo.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Copia uma árvore de sons para o acervo endereçado por
+ *              conteúdo (objetos/<sha256>) e grava o índice caminho -> hash.
+ */
+package com.centropokemon.build;
+
+import com.centropokemon.service.AcervoSonsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Uso, a partir do módulo:
+ * {@code mvn compile exec:java@importar-acervo -Dacervo.destino=/srv/centro/acervo-sons}
+ * (a origem padrão é {@code src/main/resources/static/sons}; mude com
+ * {@code -Dacervo.origem=...}).
+ * <p>
+ * Cada arquivo é copiado para um temporário dentro do acervo enquanto o
+ * SHA-256 é calculado e depois movido atomicamente para
+ * {@code objetos/<xx>/<sha256>}; se o objeto já existe (mesmo conteúdo em
+ * outra pasta ou em uma importação anterior) o temporário é descartado. O
+ * índice é reescrito inteiro, também via temporário + move, e reflete só a
+ * árvore importada; objetos que deixaram de ser referenciados continuam no
+ * disco e não atrapalham. Rodar de novo sobre a mesma árvore não grava
+ * nenhum objeto.
+ */
+public final class ImportadorAcervo {
+
+    /** Resumo da importação. */
+    record Resultado(int arquivos, int objetosNovos, int objetosDistintos, long bytesLogicos, long bytesObjetos) {}
+
+    private ImportadorAcervo() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("[acervo] uso: ImportadorAcervo <origem> <destino>");
+            System.exit(2);
+        }
+        Path origem = Path.of(args[0]);
+        Path destino = Path.of(args[1]);
+        if (!Files.isDirectory(origem)) {
+            System.err.println("[acervo] origem inexistente: " + origem);
+            System.exit(2);
+        }
+        long inicio = System.nanoTime();
+        Resultado r = importar(origem, destino);
+        System.out.printf("[acervo] %d arquivos (%.1f MB) -> %d objetos distintos (%.1f MB), %d novos, em %d ms%n",
+                r.arquivos(), r.bytesLogicos() / 1e6, r.objetosDistintos(), r.bytesObjetos() / 1e6,
+                r.objetosNovos(), (System.nanoTime() - inicio) / 1_000_000);
+        System.out.println("[acervo] configure centro.audio.acervo=" + destino.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Importa a árvore e grava o índice.
+     * @param origem raiz dos sons (equivale a {@code static/sons})
+     * @param destino raiz do acervo
+     * @return contagens da importação
+     */
+    static Resultado importar(Path origem, Path destino) throws IOException {
+        Path temporarios = destino.resolve(AcervoSonsService.OBJETOS).resolve("tmp");
+        Files.createDirectories(temporarios);
+        List<Path> arquivos;
+        try (Stream<Path> todos = Files.walk(origem)) {
+            arquivos = todos.filter(Files::isRegularFile).sorted().toList();
+        }
+        Map<String, Map<String, Object>> indice = new TreeMap<>();
+        Map<String, Long> distintos = new LinkedHashMap<>();
+        int novos = 0;
+        long bytesLogicos = 0;
+        for (Path arquivo : arquivos) {
+            String caminho = origem.relativize(arquivo).toString().replace('\\', '/');
+            Path temporario = Files.createTempFile(temporarios, "import", ".tmp");
+            String sha256;
+            long tamanho;
+            try {
+                MessageDigest digest = sha256();
+                try (InputStream in = new DigestInputStream(Files.newInputStream(arquivo), digest);
+                     OutputStream out = Files.newOutputStream(temporario)) {
+                    tamanho = in.transferTo(out);
+                }
+                sha256 = HexFormat.of().formatHex(digest.digest());
+                Path objeto = AcervoSonsService.objeto(destino, sha256);
+                if (!Files.exists(objeto)) {
+                    Files.createDirectories(objeto.getParent());
+                    Files.move(temporario, objeto, StandardCopyOption.ATOMIC_MOVE);
+                    novos++;
+                }
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+            Map<String, Object> entrada = new LinkedHashMap<>();
+            entrada.put("sha256", sha256);
+            entrada.put("tamanho", tamanho);
+            indice.put(caminho, entrada);
+            distintos.putIfAbsent(sha256, tamanho);
+            bytesLogicos += tamanho;
+        }
+
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("versao", 1);
+        corpo.put("gerado", Instant.now().toString());
+        corpo.put("arquivos", indice);
+        Path temporario = Files.createTempFile(destino, AcervoSonsService.INDICE, ".tmp");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(temporario.toFile(), corpo);
+        Files.move(temporario, destino.resolve(AcervoSonsService.INDICE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new Resultado(arquivos.size(), novos, distintos.size(), bytesLogicos,
+                distintos.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Centro Pokémon - Pipeline de Assets Estáticos
+ * ---------------------------------------
+ * @file        PipelineAssets.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Etapa de build que gera cópias com hash de conteúdo no nome,
+ *              variantes .gz e .br e reescreve as referências do HTML e do
+ *              CSS para as URLs com hash.
+ */
+package com.centropokemon.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.centropokemon.config.WebConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Executada pelo {@code exec-maven-plugin} na fase {@code process-classes}.
+ * Como as demais ferramentas de {@code src/build/java}, é compilada à parte,
+ * em {@code target/build-classes}, e não entra no jar da aplicação.
+ * Lê sempre de {@code src/main/resources/static} e grava em
+ * {@code target/classes/static}, então rodar duas vezes dá o mesmo resultado:
+ * <ol>
+ *   <li>imagens, fontes e scripts são copiados para
+ *       {@code assets/<pasta>/<nome>.<hash>.<ext>};</li>
+ *   <li>os {@code url(...)} relativos de cada CSS são trocados pelas URLs com
+ *       hash e só então o CSS recebe o seu hash, para que mudar uma fonte mude
+ *       também o nome da folha de estilo;</li>
+ *   <li>os {@code src}/{@code href} das páginas HTML passam a apontar para
+ *       {@code /assets/...};</li>
+ *   <li>todo arquivo de texto (e as fontes TTF) ganha irmãos {@code .gz}
+ *       (nível 9) e {@code .br} (qualidade 11), mantidos só se menores.</li>
+ * </ol>
+ * Os arquivos originais continuam no lugar, porque scripts montam caminhos
+ * como {@code /imagens/pokebola.png} em tempo de execução e o banco guarda
+ * sprites padrão com esse formato. O mapa original → com hash vai para
+ * {@code static/asset-manifest.json}. Os sons ficam fora: são servidos por
+ * rotas próprias.
+ * <p>
+ * O Brotli vem do brotli4j, que só existe no classpath do build (escopo
+ * {@code provided}); sem a biblioteca nativa a etapa segue apenas com gzip.
+ */
+public final class PipelineAssets {
+
+    /** Pasta, dentro de {@code static}, que recebe as cópias com hash (a mesma que o {@link WebConfig} serve). */
+    public static final String PASTA_ASSETS = WebConfig.PASTA_ASSETS;
+
+    private static final Set<String> PASTAS_FINGERPRINT = Set.of("css", "js", "fontes", "imagens");
+    private static final Set<String> EXTENSOES_COMPRIMIVEIS = Set.of("html", "css", "js", "json", "svg", "txt", "ttf");
+    private static final Pattern URL_CSS = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+    private static final Pattern ATRIBUTO_HTML = Pattern.compile("\\b(src|href)=\"(/[^\"#?]+)([^\"]*)\"");
+    private static final int TAMANHO_HASH = 10;
+
+    private final Path origem;
+    private final Path destino;
+    private final boolean brotli;
+    private final Map<String, String> manifesto = new TreeMap<>();
+
+    PipelineAssets(Path origem, Path destino, boolean brotli) {
+        this.origem = origem;
+        this.destino = destino;
+        this.brotli = brotli;
+    }
+
+    /**
+     * @param args pasta de origem e pasta de destino dos recursos estáticos
+     */
+    public static void main(String[] args) throws IOException {
+        Path origem = Path.of(args.length > 0 ? args[0] : "src/main/resources/static");
+        Path destino = Path.of(args.length > 1 ? args[1] : "target/classes/static");
+        if (!Files.isDirectory(origem)) {
+            System.out.println("[assets] " + origem + " não existe; nada a fazer");
+            return;
+        }
+        new PipelineAssets(origem, destino, carregarBrotli()).executar();
+    }
+
+    /**
+     * Executa as quatro etapas e grava o manifesto.
+     * @return mapa caminho original → caminho com hash (ambos absolutos na URL)
+     */
+    Map<String, String> executar() throws IOException {
+        limpar(destino.resolve(PASTA_ASSETS));
+        List<Path> css = new ArrayList<>();
+        for (Path arquivo : listar()) {
+            if (extensao(arquivo).equals("css")) {
+                css.add(arquivo);
+            } else {
+                publicar(arquivo, Files.readAllBytes(arquivo));
+            }
+        }
+        for (Path arquivo : css) {
+            String conteudo = Files.readString(arquivo, StandardCharsets.UTF_8);
+            publicar(arquivo, reescreverCss(conteudo, url(arquivo)).getBytes(StandardCharsets.UTF_8));
+        }
+        int paginas = 0;
+        try (Stream<Path> html = Files.list(origem)) {
+            for (Path pagina : html.filter(p -> extensao(p).equals("html")).sorted().toList()) {
+                byte[] reescrito = reescreverHtml(Files.readString(pagina, StandardCharsets.UTF_8))
+                        .getBytes(StandardCharsets.UTF_8);
+                Path saida = destino.resolve(pagina.getFileName().toString());
+                Files.write(saida, reescrito);
+                comprimir(saida, reescrito);
+                paginas++;
+            }
+        }
+        Files.writeString(destino.resolve("asset-manifest.json"), manifestoJson(), StandardCharsets.UTF_8);
+        System.out.printf("[assets] %d arquivos com hash, %d páginas reescritas, brotli %s%n",
+                manifesto.size(), paginas, brotli ? "ativo" : "indisponível");
+        return manifesto;
+    }
+
+    private List<Path> listar() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        for (String pasta : PASTAS_FINGERPRINT) {
+            Path dir = origem.resolve(pasta);
+            if (!Files.isDirectory(dir)) continue;
+            try (Stream<Path> s = Files.walk(dir)) {
+                s.filter(Files::isRegularFile).sorted().forEach(arquivos::add);
+            }
+        }
+        return arquivos;
+    }
+
+    /**
+     * Grava a cópia com hash (e suas variantes comprimidas) e registra no manifesto.
+     */
+    private void publicar(Path original, byte[] conteudo) throws IOException {
+        String relativo = origem.relativize(original).toString().replace('\\', '/');
+        String nome = original.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String comHash = ponto < 0
+                ? nome + "." + hash(conteudo)
+                : nome.substring(0, ponto) + "." + hash(conteudo) + nome.substring(ponto);
+        int barra = relativo.lastIndexOf('/');
+        String relativoComHash = PASTA_ASSETS + "/" + (barra < 0 ? "" : relativo.substring(0, barra + 1)) + comHash;
+        Path copia = destino.resolve(relativoComHash);
+        Files.createDirectories(copia.getParent());
+        Files.write(copia, conteudo);
+        comprimir(copia, conteudo);
+        comprimir(destino.resolve(relativo), Files.readAllBytes(original));
+        manifesto.put("/" + relativo, "/" + relativoComHash);
+    }
+
+    /**
+     * Troca os {@code url(...)} relativos ou absolutos que apontam para assets
+     * conhecidos pela URL com hash. Dados inline e URLs externas ficam intactos.
+     */
+    String reescreverCss(String css, String urlCss) {
+        Matcher m = URL_CSS.matcher(css);
+        StringBuilder sb = new StringBuilder(css.length());
+        while (m.find()) {
+            String alvo = m.group(2).trim();
+            String resolvido = alvo.startsWith("data:") || alvo.contains("://") ? null : resolver(urlCss, alvo);
+            String novo = resolvido == null ? null : manifesto.get(resolvido);
+            String substituto = novo == null ? m.group() : "url('" + novo + "')";
+            m.appendReplacement(sb, Matcher.quoteReplacement(substituto));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Troca {@code src="/..."} e {@code href="/..."} por {@code /assets/...}
+     * quando o alvo tem versão com hash, preservando query e fragmento.
+     */
+    String reescreverHtml(String html) {
+        Matcher m = ATRIBUTO_HTML.matcher(html);
+        StringBuilder sb = new StringBuilder(html.length());
+        while (m.find()) {
+            String novo = manifesto.get(m.group(2));
+            String substituto = novo == null ? m.group() : m.group(1) + "=\"" + novo + m.group(3) + "\"";
+            m.appendReplacement(sb, Matcher.quoteReplacement(substituto));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private void comprimir(Path arquivo, byte[] conteudo) throws IOException {
+        if (!EXTENSOES_COMPRIMIVEIS.contains(extensao(arquivo))) return;
+        gravarSeMenor(arquivo.resolveSibling(arquivo.getFileName() + ".gz"), gzip(conteudo), conteudo.length);
+        if (brotli) {
+            gravarSeMenor(arquivo.resolveSibling(arquivo.getFileName() + ".br"),
+                    Encoder.compress(conteudo, new Encoder.Parameters().setQuality(11)), conteudo.length);
+        }
+    }
+
+    private static void gravarSeMenor(Path destino, byte[] comprimido, int tamanhoOriginal) throws IOException {
+        if (comprimido.length < tamanhoOriginal) {
+            Files.createDirectories(destino.getParent());
+            Files.write(destino, comprimido);
+        } else {
+            Files.deleteIfExists(destino);
+        }
+    }
+
+    private static byte[] gzip(byte[] conteudo) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 3 + 64);
+        try (OutputStream gz = new GZIPOutputStream(saida) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gz.write(conteudo);
+        }
+        return saida.toByteArray();
+    }
+
+    private String url(Path arquivo) {
+        return "/" + origem.relativize(arquivo).toString().replace('\\', '/');
+    }
+
+    /** Resolve {@code alvo} relativo à URL do arquivo que o referencia. */
+    static String resolver(String urlBase, String alvo) {
+        if (alvo.startsWith("/")) return alvo;
+        List<String> partes = new ArrayList<>(List.of(urlBase.substring(1, urlBase.lastIndexOf('/') + 1).split("/")));
+        partes.removeIf(String::isEmpty);
+        for (String parte : alvo.split("/")) {
+            if (parte.equals("..")) {
+                if (partes.isEmpty()) return null;
+                partes.remove(partes.size() - 1);
+            } else if (!parte.equals(".") && !parte.isEmpty()) {
+                partes.add(parte);
+            }
+        }
+        return "/" + String.join("/", partes);
+    }
+
+    private String manifestoJson() {
+        StringBuilder sb = new StringBuilder("{\n");
+        int i = 0;
+        for (Map.Entry<String, String> e : manifesto.entrySet()) {
+            sb.append("  \"").append(escapar(e.getKey())).append("\": \"").append(escapar(e.getValue())).append('"');
+            sb.append(++i < manifesto.size() ? ",\n" : "\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    private static String escapar(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String hash(byte[] conteudo) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(conteudo);
+            return HexFormat.of().formatHex(digest).substring(0, TAMANHO_HASH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static String extensao(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return ponto < 0 ? "" : nome.substring(ponto + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static void limpar(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static boolean carregarBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            System.out.println("[assets] brotli indisponível (" + e.getMessage() + "); gerando só gzip");
+            return false;
+        }
+    }
+}
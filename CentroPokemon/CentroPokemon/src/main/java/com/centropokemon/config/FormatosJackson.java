@@ -0,0 +1,134 @@
+/*
+ * Centro Pokémon - Formatos de Representação
+ * ---------------------------------------
+ * @file        FormatosJackson.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Representações JSON, CBOR e Smile da API, negociadas pelo
+ *              Accept e geradas pela mesma configuração Jackson.
+ */
+package com.centropokemon.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * CBOR e Smile carregam exatamente os mesmos campos do JSON: os três
+ * {@link ObjectMapper} saem do {@link Jackson2ObjectMapperBuilder} do Spring
+ * Boot (mesmos módulos, {@code spring.jackson.*} e anotações das entidades),
+ * só mudando a fábrica de geradores. Os conversores HTTP de {@link WebConfig}
+ * usam esses mappers, então respostas e corpos de requisição seguem o
+ * {@code Accept}/{@code Content-Type} em qualquer controller.
+ * <p>
+ * Como o corpo muda com o formato, a ETag também muda: a versão lógica do
+ * recurso ganha o sufixo do formato ({@code "abc"}, {@code "abc-cbor"},
+ * {@code "abc-smile"}) e as respostas levam {@code Vary: Accept}.
+ */
+@Component
+public class FormatosJackson {
+
+    /** {@code application/x-jackson-smile}, o tipo usado pelo conversor Smile do Spring. */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** Representações suportadas; JSON é o padrão. */
+    public enum Formato {
+        JSON(MediaType.APPLICATION_JSON, "json", ""),
+        CBOR(MediaType.APPLICATION_CBOR, "cbor", "-cbor"),
+        SMILE(APPLICATION_SMILE, "smile", "-smile");
+
+        private final MediaType tipo;
+        private final String representacao;
+        private final String sufixoEtag;
+
+        Formato(MediaType tipo, String representacao, String sufixoEtag) {
+            this.tipo = tipo;
+            this.representacao = representacao;
+            this.sufixoEtag = sufixoEtag;
+        }
+
+        /** @return Content-Type do formato */
+        public MediaType tipo() { return tipo; }
+
+        /** @return nome curto da representação (ex.: chave de cache) */
+        public String representacao() { return representacao; }
+
+        /**
+         * @param etag ETag lógica do recurso (entre aspas, forte ou fraca)
+         * @return ETag desta representação
+         */
+        public String etag(String etag) {
+            if (etag == null || sufixoEtag.isEmpty() || !etag.endsWith("\"")) return etag;
+            return etag.substring(0, etag.length() - 1) + sufixoEtag + "\"";
+        }
+    }
+
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+    private final ObjectMapper smile;
+
+    public FormatosJackson(ObjectMapper json, Jackson2ObjectMapperBuilder builder) {
+        this.json = json;
+        this.cbor = builder.factory(new CBORFactory()).build();
+        this.smile = builder.factory(new SmileFactory()).build();
+    }
+
+    /**
+     * @param formato formato desejado
+     * @return mapper do formato
+     */
+    public ObjectMapper mapper(Formato formato) {
+        return switch (formato) {
+            case JSON -> json;
+            case CBOR -> cbor;
+            case SMILE -> smile;
+        };
+    }
+
+    /**
+     * Escolhe o formato pelo {@code Accept}: vence o tipo de maior
+     * {@code q} (empate fica com o primeiro listado); JSON, {@code +json},
+     * curingas, cabeçalho ausente ou inválido dão JSON. Tipos que nenhum
+     * formato atende são ignorados.
+     * @param accept valor do cabeçalho (pode ser null)
+     * @return formato da resposta
+     */
+    public static Formato negociar(String accept) {
+        if (accept == null || accept.isBlank()) return Formato.JSON;
+        List<MediaType> tipos;
+        try {
+            tipos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Formato.JSON;
+        }
+        Formato escolhido = Formato.JSON;
+        double melhor = -1;
+        for (MediaType tipo : tipos) {
+            Formato f = formatoDe(tipo);
+            double q = tipo.getQualityValue();
+            if (f != null && q > 0 && q > melhor) {
+                escolhido = f;
+                melhor = q;
+            }
+        }
+        return escolhido;
+    }
+
+    private static Formato formatoDe(MediaType tipo) {
+        if (tipo.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) return Formato.CBOR;
+        if (tipo.equalsTypeAndSubtype(APPLICATION_SMILE)) return Formato.SMILE;
+        if (tipo.isWildcardType() || (tipo.getType().equals("application")
+                && (tipo.isWildcardSubtype() || tipo.getSubtype().equals("json")
+                    || "json".equals(tipo.getSubtypeSuffix())))) {
+            return Formato.JSON;
+        }
+        return null;
+    }
+}
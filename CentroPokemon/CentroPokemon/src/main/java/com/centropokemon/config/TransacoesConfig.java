@@ -0,0 +1,65 @@
+/*
+ * Centro Pokémon - Configuração de Transações
+ * ---------------------------------------
+ * @file        TransacoesConfig.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Gerenciador de transações JPA que limita cada transação ao
+ *              prazo restante da requisição.
+ */
+package com.centropokemon.config;
+
+import com.centropokemon.service.Prazo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+
+/**
+ * Substitui o {@link JpaTransactionManager} do Spring Boot (mesmos
+ * customizadores) por um que lê o {@link Prazo} da requisição:
+ * <ul>
+ *   <li>prazo já esgotado: a transação nem começa
+ *       ({@link com.centropokemon.exception.PrazoEsgotadoException});</li>
+ *   <li>senão o timeout da transação é o menor entre o declarado e o
+ *       restante, arredondado para cima em segundos. O Hibernate aplica o
+ *       que sobra dele em cada {@code Statement.setQueryTimeout}, e o banco
+ *       cancela a consulta que passar.</li>
+ * </ul>
+ * Vale também para os métodos dos repositórios, que abrem a própria
+ * transação ({@code readOnly}) quando chamados fora de uma.
+ */
+@Configuration
+public class TransacoesConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager gerenciador = new JpaTransactionManagerComPrazo();
+        customizers.ifAvailable(c -> c.customize((TransactionManager) gerenciador));
+        return gerenciador;
+    }
+
+    /** {@link JpaTransactionManager} com timeout limitado pelo {@link Prazo}. */
+    static class JpaTransactionManagerComPrazo extends JpaTransactionManager {
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            Prazo.verificar("abrir transação");
+            super.doBegin(transaction, definition);
+        }
+
+        @Override
+        protected int determineTimeout(TransactionDefinition definition) {
+            int declarado = super.determineTimeout(definition);
+            long restante = Prazo.restanteNanos();
+            if (restante == Long.MAX_VALUE) return declarado;
+            int segundos = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (restante + 999_999_999L) / 1_000_000_000L));
+            return declarado == TransactionDefinition.TIMEOUT_DEFAULT ? segundos : Math.min(declarado, segundos);
+        }
+    }
+}
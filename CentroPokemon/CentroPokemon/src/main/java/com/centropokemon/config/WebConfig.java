@@ -0,0 +1,95 @@
+/*
+ * Centro Pokémon - Configuração Web
+ * ---------------------------------------
+ * @file        WebConfig.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.3
+ * @date        19/10/2026
+ * @description Registro de interceptors, dos recursos estáticos com hash
+ *              e dos conversores CBOR/Smile do Spring MVC.
+ */
+package com.centropokemon.config;
+
+import com.centropokemon.security.LimiteTaxaInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuração do Spring MVC da aplicação.
+ * <p>
+ * {@code /assets/**} serve as cópias geradas no build por
+ * {@code com.centropokemon.build.PipelineAssets} (em {@code src/build/java}): como
+ * o nome muda junto com o conteúdo, a resposta é {@code immutable} por um ano.
+ * O {@link EncodedResourceResolver} entrega o irmão {@code .br} ou {@code .gz}
+ * conforme o {@code Accept-Encoding} (com {@code Vary: Accept-Encoding}), sem
+ * comprimir nada por requisição.
+ * <p>
+ * Os conversores CBOR e Smile que o Spring registra sozinhos (ao achar as
+ * bibliotecas no classpath) usam um mapper sem a configuração do Boot; aqui
+ * são trocados, na mesma posição (depois do JSON, que segue como padrão),
+ * pelos de {@link FormatosJackson}.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /** Pasta, dentro de {@code static}, com as cópias com hash geradas no build. */
+    public static final String PASTA_ASSETS = "assets";
+
+    private static final Duration VALIDADE_ASSETS = Duration.ofDays(365);
+
+    private final LimiteTaxaInterceptor limiteTaxa;
+
+    private final FormatosJackson formatos;
+
+    public WebConfig(LimiteTaxaInterceptor limiteTaxa, FormatosJackson formatos) {
+        this.limiteTaxa = limiteTaxa;
+        this.formatos = formatos;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(limiteTaxa).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/" + PASTA_ASSETS + "/**")
+                .addResourceLocations("classpath:/static/" + PASTA_ASSETS + "/")
+                .setCacheControl(CacheControl.maxAge(VALIDADE_ASSETS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        HttpMessageConverter<?> cbor = new MappingJackson2CborHttpMessageConverter(
+                formatos.mapper(FormatosJackson.Formato.CBOR));
+        HttpMessageConverter<?> smile = new MappingJackson2SmileHttpMessageConverter(
+                formatos.mapper(FormatosJackson.Formato.SMILE));
+        boolean temCbor = false;
+        boolean temSmile = false;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.set(i, cbor);
+                temCbor = true;
+            } else if (converters.get(i) instanceof MappingJackson2SmileHttpMessageConverter) {
+                converters.set(i, smile);
+                temSmile = true;
+            }
+        }
+        if (!temSmile) converters.add(smile);
+        if (!temCbor) converters.add(cbor);
+    }
+}
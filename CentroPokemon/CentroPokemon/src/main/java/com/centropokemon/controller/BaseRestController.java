@@ -3,17 +3,23 @@
  * ---------------------------------------
  * @file        BaseRestController.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.2
- * @date        23/11/2025
+ * @version     1.6
+ * @date        19/10/2026
  * @description Classe base abstrata para controllers REST do Centro Pokémon.
  *              Fornece configurações comuns e métodos utilitários para respostas HTTP.
  */
 package com.centropokemon.controller;
 
+import com.centropokemon.config.FormatosJackson;
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import com.centropokemon.service.Prazo;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -37,7 +43,12 @@ public abstract class BaseRestController {
             return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (ServicoSobrecarregadoException e) {
+            return serviceUnavailable();
         } catch (Exception e) {
+            if (Prazo.esgotou(e)) {
+                return gatewayTimeout();
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -53,6 +64,79 @@ public abstract class BaseRestController {
         return ResponseEntity.ok(body);
     }
 
+    /**
+     * Cria uma resposta de sucesso (200 OK) com ETag e política de cache.
+     * 
+     * @param <T> tipo do corpo da resposta
+     * @param body corpo da resposta
+     * @param etag ETag forte (entre aspas)
+     * @param cache política de Cache-Control
+     * @return ResponseEntity com status 200
+     */
+    protected <T> ResponseEntity<T> ok(T body, String etag, CacheControl cache) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(cache).body(body);
+    }
+
+    /**
+     * GET condicional: se {@code If-None-Match} confere com a ETag, responde
+     * 304 sem executar {@code body}; caso contrário executa e responde 200.
+     * A ETag deve ser obtida sem carregar a entidade. O corpo sai em JSON,
+     * CBOR ou Smile conforme o {@code Accept}, então a ETag enviada e
+     * comparada é a da representação negociada
+     * ({@link FormatosJackson.Formato#etag}), com {@code Vary: Accept}.
+     * 
+     * @param <T> tipo do corpo da resposta
+     * @param request requisição atual
+     * @param etag ETag forte (entre aspas)
+     * @param cache política de Cache-Control
+     * @param body carregamento do corpo, executado apenas se necessário
+     * @return ResponseEntity com status 304 ou 200
+     */
+    protected <T> ResponseEntity<T> conditional(WebRequest request, String etag, CacheControl cache, Supplier<T> body) {
+        String variante = FormatosJackson.negociar(request.getHeader(HttpHeaders.ACCEPT)).etag(etag);
+        if (etagMatches(request, variante)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(variante).cacheControl(cache)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(variante).cacheControl(cache).varyBy(HttpHeaders.ACCEPT).body(body.get());
+    }
+
+    /**
+     * Cria uma resposta de não modificado (304 NOT MODIFIED).
+     * 
+     * @param <T> tipo do corpo da resposta
+     * @param etag ETag atual
+     * @param cache política de Cache-Control
+     * @return ResponseEntity com status 304
+     */
+    protected <T> ResponseEntity<T> notModified(String etag, CacheControl cache) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
+    }
+
+    /**
+     * Verifica se algum valor de {@code If-None-Match} corresponde à ETag
+     * (comparação fraca, como exige a RFC 9110 para GET/HEAD).
+     * 
+     * @param request requisição atual
+     * @param etag ETag atual (entre aspas)
+     * @return true se o cliente já possui essa versão
+     */
+    protected boolean etagMatches(WebRequest request, String etag) {
+        if (etag == null) return false;
+        String semPrefixo = etag.startsWith("W/") ? etag.substring(2) : etag;
+        String[] valores = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (valores == null) return false;
+        for (String valor : valores) {
+            for (String v : valor.split(",")) {
+                String t = v.trim();
+                if (t.equals("*")) return true;
+                if (t.startsWith("W/")) t = t.substring(2);
+                if (t.equals(semPrefixo)) return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Cria uma resposta de criação bem-sucedida (201 CREATED).
      * 
@@ -104,6 +188,29 @@ public abstract class BaseRestController {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
+    /**
+     * Cria uma resposta de serviço indisponível (503 SERVICE UNAVAILABLE),
+     * sugerindo nova tentativa em 1 segundo via {@code Retry-After}.
+     * 
+     * @param <T> tipo do corpo da resposta
+     * @return ResponseEntity com status 503
+     */
+    protected <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+
+    /**
+     * Cria uma resposta de prazo esgotado (504 GATEWAY TIMEOUT), para quando
+     * o {@link Prazo} da requisição acabou antes da consulta ao banco ou da
+     * resposta da PokeAPI.
+     * 
+     * @param <T> tipo do corpo da resposta
+     * @return ResponseEntity com status 504
+     */
+    protected <T> ResponseEntity<T> gatewayTimeout() {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+    }
+
     /**
      * Cria uma resposta de sem conteúdo (204 NO CONTENT).
      * 
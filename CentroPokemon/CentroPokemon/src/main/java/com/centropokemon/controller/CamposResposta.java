@@ -0,0 +1,104 @@
+/*
+ * Centro Pokémon - Campos da Resposta
+ * ---------------------------------------
+ * @file        CamposResposta.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Interpreta o parâmetro ?fields= (campos esparsos) e poda a
+ *              resposta para os campos pedidos.
+ */
+package com.centropokemon.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * {@code ?fields=nomePt,spriteUrl} pede só esses campos de cada Pokémon.
+ * Sem o parâmetro (ou vazio) vale a resposta completa. Os nomes são os das
+ * propriedades JSON, separados por vírgula, e precisam estar entre os
+ * permitidos pelo endpoint; nome desconhecido é erro do cliente.
+ * <p>
+ * A lista é normalizada (ordenada, sem repetição), então
+ * {@code spriteUrl,nomePt} e {@code nomePt,spriteUrl} são a mesma
+ * representação: mesma chave de cache e mesma ETag.
+ */
+final class CamposResposta {
+
+    /** Resposta completa. */
+    static final CamposResposta TODOS = new CamposResposta(null);
+
+    private final SortedSet<String> nomes;
+
+    private CamposResposta(SortedSet<String> nomes) {
+        this.nomes = nomes;
+    }
+
+    /**
+     * @param fields valor de {@code ?fields=} (pode ser null)
+     * @param permitidos campos que o endpoint sabe devolver
+     * @return campos pedidos
+     * @throws IllegalArgumentException se algum campo não é permitido
+     */
+    static CamposResposta ler(String fields, Set<String> permitidos) {
+        if (fields == null || fields.isBlank()) return TODOS;
+        SortedSet<String> nomes = new TreeSet<>();
+        for (String nome : fields.split(",")) {
+            String n = nome.trim();
+            if (n.isEmpty()) continue;
+            if (!permitidos.contains(n)) throw new IllegalArgumentException("Campo desconhecido: " + n);
+            nomes.add(n);
+        }
+        return nomes.isEmpty() || nomes.containsAll(permitidos) ? TODOS
+                : new CamposResposta(Collections.unmodifiableSortedSet(nomes));
+    }
+
+    /** @return true se a resposta é a completa */
+    boolean todos() {
+        return nomes == null;
+    }
+
+    /**
+     * @param campo nome da propriedade
+     * @return true se o campo vai na resposta
+     */
+    boolean inclui(String campo) {
+        return nomes == null || nomes.contains(campo);
+    }
+
+    /** @return sufixo da representação ({@code ""} ou {@code "?nomePt,spriteUrl"}), para chaves de cache */
+    String representacao() {
+        return nomes == null ? "" : "?" + String.join(",", nomes);
+    }
+
+    /**
+     * ETag desta seleção de campos: a completa mantém a original, as demais
+     * ganham um sufixo derivado da lista normalizada.
+     * @param etag ETag lógica (entre aspas, pode ser null)
+     * @return ETag da seleção
+     */
+    String etag(String etag) {
+        if (etag == null || nomes == null || !etag.endsWith("\"")) return etag;
+        return etag.substring(0, etag.length() - 1) + "-f" + Integer.toHexString(representacao().hashCode()) + "\"";
+    }
+
+    /**
+     * Mantém só os campos pedidos em um objeto ou em cada objeto de um array.
+     * @param no árvore JSON da resposta completa
+     * @return a mesma árvore, podada
+     */
+    JsonNode podar(JsonNode no) {
+        if (nomes == null) return no;
+        if (no instanceof ObjectNode objeto) {
+            objeto.retain(nomes);
+        } else if (no.isArray()) {
+            no.forEach(this::podar);
+        }
+        return no;
+    }
+}
@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        ConsultaController.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.3
- * @date        23/11/2025
+ * @version     1.5
+ * @date        19/10/2026
  * @description Endpoints REST para agendar e listar consultas médicas dos
  *              Pokémon de um treinador.
  */
@@ -12,19 +12,28 @@ package com.centropokemon.controller;
 
 import com.centropokemon.model.Consulta;
 import com.centropokemon.service.ConsultaService;
+import com.centropokemon.service.VersaoRecursoService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/treinadores/{treinadorId}/consultas")
 public class ConsultaController extends BaseRestController {
+    /** Dados do treinador: só no navegador dele, sempre revalidando. */
+    private static final CacheControl CACHE_CONSULTAS = CacheControl.noCache().cachePrivate();
+
     private final ConsultaService service;
+    private final VersaoRecursoService versoes;
 
-    public ConsultaController(ConsultaService service) {
+    public ConsultaController(ConsultaService service, VersaoRecursoService versoes) {
         this.service = service;
+        this.versoes = versoes;
     }
 
     public static class AgendarRequest {
@@ -79,9 +88,25 @@ public class ConsultaController extends BaseRestController {
         return created(ConsultaResponse.of(c));
     }
 
+    /**
+     * Lista as consultas do treinador.
+     * Por padrão retorna apenas o mês atual e os seguintes; {@code ?historico=true}
+     * inclui também os meses anteriores ainda não arquivados.
+     * Responde 304 quando {@code If-None-Match} confere com a versão atual
+     * das consultas (e a janela não mudou de mês), sem consultar a lista.
+     */
     @GetMapping
-    public ResponseEntity<List<ConsultaResponse>> listar(@PathVariable Integer treinadorId) {
-        List<ConsultaResponse> out = service.listar(treinadorId).stream().map(ConsultaResponse::of).toList();
-        return ok(out);
+    public ResponseEntity<List<ConsultaResponse>> listar(@PathVariable Integer treinadorId,
+                                                         @RequestParam(defaultValue = "false") boolean historico,
+                                                         WebRequest request) {
+        String janela = historico ? "h" : YearMonth.now().toString();
+        return versoes.etagConsultas(treinadorId, janela)
+                .map(etag -> conditional(request, etag, CACHE_CONSULTAS, () -> carregarLista(treinadorId, historico)))
+                .orElseGet(() -> ok(carregarLista(treinadorId, historico)));
+    }
+
+    private List<ConsultaResponse> carregarLista(Integer treinadorId, boolean historico) {
+        List<Consulta> lista = historico ? service.listarHistorico(treinadorId) : service.listar(treinadorId);
+        return lista.stream().map(ConsultaResponse::of).toList();
     }
 }
\ No newline at end of file
@@ -3,18 +3,47 @@
  * ---------------------------------------
  * @file        PokedexController.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.4
- * @date        23/11/2025
+ * @version     1.9
+ * @date        19/10/2026
  * @description Controlador responsável pelos endpoints da Pokédex via API.
+ *              Busca por nome/ID responde 304 a revalidações com ETag válida
+ *              e envia o corpo pré-serializado (JSON, CBOR ou Smile, conforme
+ *              o Accept) quando está em cache. Aceita ?fields= para
+ *              devolver só parte dos campos e /batch para vários Pokémon
+ *              em uma única requisição.
  */
 
 package com.centropokemon.controller;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import com.centropokemon.config.FormatosJackson;
+import com.centropokemon.config.FormatosJackson.Formato;
+import com.centropokemon.service.CachePokedexService;
+import com.centropokemon.service.CachePokedexService.Corpo;
+import com.centropokemon.service.LotePokedexService;
+import com.centropokemon.service.LotePokedexService.Resultado;
 import com.centropokemon.service.PokedexService;
+import com.centropokemon.service.VersaoRecursoService;
 import com.centropokemon.exception.PokemonNotFoundException;
 import com.centropokemon.model.Pokemon;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Controlador REST da Pokédex.
@@ -24,40 +53,251 @@ import com.centropokemon.model.Pokemon;
 @RequestMapping("/api/pokemons")
 public class PokedexController extends BaseRestController {
 
+    /** Dados da Pokédex mudam raramente: revalida sempre, mas aceita caches compartilhados. */
+    private static final CacheControl CACHE_POKEDEX = CacheControl.noCache().cachePublic();
+    /** Respostas aleatórias não devem ser reaproveitadas. */
+    private static final CacheControl CACHE_ALEATORIO = CacheControl.noStore();
+    /** Propriedades JSON de {@link Pokemon} aceitas em {@code ?fields=}. */
+    static final Set<String> CAMPOS_POKEDEX = Set.of("id", "pokeApiId", "nomePt", "nomeEn", "spriteUrl",
+            "vidaAtual", "vidaMaxima", "nivel", "habilidades", "tipos", "stats", "descricoes", "altura", "peso");
+
     private final PokedexService service;
+    private final VersaoRecursoService versoes;
+    private final CachePokedexService cache;
+    private final FormatosJackson formatos;
+    private final LotePokedexService lotes;
 
-    public PokedexController(PokedexService service) {
+    public PokedexController(PokedexService service, VersaoRecursoService versoes,
+                             CachePokedexService cache, FormatosJackson formatos, LotePokedexService lotes) {
         this.service = service;
+        this.versoes = versoes;
+        this.cache = cache;
+        this.formatos = formatos;
+        this.lotes = lotes;
+    }
+
+    /**
+     * Item de um lote: o ID ou nome pedido, o status HTTP que a busca
+     * individual daria e, se encontrado, o Pokémon.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemLote(Integer id, String nome, int status, JsonNode pokemon) {}
+
+    /** Resposta de {@code /batch}: itens na ordem pedida (IDs, depois nomes). */
+    public record Lote(int total, int encontrados, List<ItemLote> itens) {}
+
+    /**
+     * Busca vários Pokémon de uma vez.
+     * Endpoint: GET /api/pokemons/batch?ids=1,4,7&amp;nomes=pikachu,eevee
+     * <p>
+     * Itens com corpo no {@link CachePokedexService} saem direto dele; as
+     * faltas vão em paralelo para a PokeAPI pelo {@link LotePokedexService}
+     * (concorrência limitada e prazo único para o lote). Cada item traz seu
+     * próprio status (200, 404, 503, 504 ou 500), então uma falta não
+     * derruba o lote. Pedidos repetidos contam uma vez. Aceita
+     * {@code ?fields=} como a busca individual.
+     *
+     * @param ids IDs da PokeAPI separados por vírgula
+     * @param nomes nomes (inglês) separados por vírgula
+     * @param fields campos desejados de cada Pokémon (opcional)
+     * @return 200 com o lote, ou 400 sem itens, com item inválido ou acima de
+     *         {@code centro.pokedex.lote.max-itens}
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<Lote> lote(@RequestParam(required = false) String ids,
+                                     @RequestParam(required = false) String nomes,
+                                     @RequestParam(required = false) String fields) {
+        CamposResposta campos;
+        Map<String, ItemLote> pedidos = new LinkedHashMap<>();
+        try {
+            campos = CamposResposta.ler(fields, CAMPOS_POKEDEX);
+            for (String v : separar(ids)) {
+                Integer id = Integer.valueOf(v);
+                pedidos.putIfAbsent(VersaoRecursoService.chaveId(id), new ItemLote(id, null, 0, null));
+            }
+            for (String nome : separar(nomes)) {
+                pedidos.putIfAbsent(VersaoRecursoService.chaveNome(nome), new ItemLote(null, nome, 0, null));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest();
+        }
+        if (pedidos.isEmpty() || pedidos.size() > lotes.getMaxItens()) return badRequest();
+
+        Map<String, JsonNode> encontrados = new LinkedHashMap<>();
+        List<String> faltas = new ArrayList<>();
+        for (String chave : pedidos.keySet()) {
+            Corpo corpo = emCache(chave, Formato.JSON, campos);
+            if (corpo != null) encontrados.put(chave, ler(corpo));
+            else faltas.add(chave);
+        }
+        Map<String, Resultado<JsonNode>> carregados = lotes.resolver(faltas, chave -> {
+            ItemLote pedido = pedidos.get(chave);
+            Corpo corpo = carregar(chave, Formato.JSON, campos, () -> pedido.id() != null
+                    ? service.buscarPokemonPorId(pedido.id()) : service.buscarPokemonPorNome(pedido.nome()));
+            return corpo != null ? ler(corpo) : null;
+        });
+
+        List<ItemLote> itens = new ArrayList<>(pedidos.size());
+        pedidos.forEach((chave, pedido) -> {
+            JsonNode pokemon = encontrados.get(chave);
+            int status = HttpStatus.OK.value();
+            if (pokemon == null) {
+                Resultado<JsonNode> r = carregados.get(chave);
+                pokemon = r.valor();
+                status = switch (r.situacao()) {
+                    case OK -> HttpStatus.OK.value();
+                    case NAO_ENCONTRADO -> HttpStatus.NOT_FOUND.value();
+                    case SOBRECARGA -> HttpStatus.SERVICE_UNAVAILABLE.value();
+                    case TEMPO_ESGOTADO -> HttpStatus.GATEWAY_TIMEOUT.value();
+                    case ERRO -> HttpStatus.INTERNAL_SERVER_ERROR.value();
+                };
+            }
+            itens.add(new ItemLote(pedido.id(), pedido.nome(), status, pokemon));
+        });
+        int achados = (int) itens.stream().filter(i -> i.pokemon() != null).count();
+        return ResponseEntity.ok().cacheControl(CACHE_POKEDEX).varyBy(HttpHeaders.ACCEPT)
+                .body(new Lote(itens.size(), achados, itens));
     }
 
     /**
      * Busca um Pokémon pelo nome (inglês) e retorna a entidade.
      *
      * @param nome nome do Pokémon (inglês)
+     * @param fields campos desejados, separados por vírgula (opcional)
      * @return resposta HTTP com o Pokémon encontrado
      * @throws PokemonNotFoundException quando não é encontrado
      */
     @GetMapping("/{nome}")
-    public ResponseEntity<Pokemon> buscarPokemon(@PathVariable String nome) {
-        Pokemon pokemon = service.buscarPokemonPorNome(nome);
-        return pokemon != null ? ok(pokemon) : notFound();
+    public ResponseEntity<byte[]> buscarPokemon(@PathVariable String nome,
+                                                @RequestParam(required = false) String fields, WebRequest request) {
+        return responder(request, VersaoRecursoService.chaveNome(nome), fields,
+                () -> service.buscarPokemonPorNome(nome));
     }
 
     @GetMapping("/random")
     public ResponseEntity<Pokemon> aleatorio() {
         Pokemon pokemon = service.buscarPokemonAleatorio();
-        return pokemon != null ? ok(pokemon) : notFound();
+        return pokemon != null ? ResponseEntity.ok().cacheControl(CACHE_ALEATORIO).body(pokemon) : notFound();
     }
 
     @GetMapping("/type/{type}/random")
     public ResponseEntity<Pokemon> aleatorioPorTipo(@PathVariable String type) {
         Pokemon pokemon = service.buscarPokemonAleatorioPorTipo(type);
-        return pokemon != null ? ok(pokemon) : notFound();
+        return pokemon != null ? ResponseEntity.ok().cacheControl(CACHE_ALEATORIO).body(pokemon) : notFound();
     }
 
     @GetMapping("/id/{id}")
-    public ResponseEntity<Pokemon> buscarPorId(@PathVariable Integer id) {
-        Pokemon pokemon = service.buscarPokemonPorId(id);
-        return pokemon != null ? ok(pokemon) : notFound();
+    public ResponseEntity<byte[]> buscarPorId(@PathVariable Integer id,
+                                              @RequestParam(required = false) String fields, WebRequest request) {
+        return responder(request, VersaoRecursoService.chaveId(id), fields, () -> service.buscarPokemonPorId(id));
+    }
+
+    /**
+     * Ordem de atendimento: 304 pela ETag registrada; corpo pronto do
+     * {@link CachePokedexService} escrito direto (sem PokeAPI, banco ou
+     * Jackson); e só então a busca, serializada uma vez e guardada. Cada
+     * formato negociado pelo {@code Accept} é uma representação separada no
+     * cache, com sua própria variante de ETag.
+     * <p>
+     * Uma seleção de {@code ?fields=} também é uma representação: se o corpo
+     * completo do mesmo formato já está em cache, a seleção sai dele (podado,
+     * sem buscar o Pokémon); senão o Pokémon é buscado e só os campos pedidos
+     * são serializados.
+     * @param chave chave da rota
+     * @param fields valor de {@code ?fields=} (pode ser null)
+     * @param carregar busca o Pokémon quando não há corpo em cache
+     * @return 200 com o corpo, 304, 400 (campo desconhecido) ou 404
+     */
+    private ResponseEntity<byte[]> responder(WebRequest request, String chave, String fields,
+                                             Supplier<Pokemon> carregar) {
+        CamposResposta campos;
+        try {
+            campos = CamposResposta.ler(fields, CAMPOS_POKEDEX);
+        } catch (IllegalArgumentException e) {
+            return badRequest();
+        }
+        Formato formato = FormatosJackson.negociar(request.getHeader(HttpHeaders.ACCEPT));
+        ResponseEntity<byte[]> naoModificado = naoModificado(request, chave, formato, campos);
+        if (naoModificado != null) return naoModificado;
+        Corpo corpo = emCache(chave, formato, campos);
+        if (corpo == null) {
+            corpo = carregar(chave, formato, campos, carregar);
+            if (corpo == null) return notFound();
+        }
+        return ResponseEntity.ok()
+                .eTag(corpo.etag())
+                .cacheControl(CACHE_POKEDEX)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(formato.tipo())
+                .body(corpo.corpo());
+    }
+
+    /**
+     * Corpo pronto da representação, direto do cache ou podado a partir do
+     * corpo completo do mesmo formato.
+     * @return o corpo, ou null se for preciso buscar o Pokémon
+     */
+    private Corpo emCache(String chave, Formato formato, CamposResposta campos) {
+        String representacao = formato.representacao() + campos.representacao();
+        Corpo corpo = cache.buscar(chave, representacao);
+        if (corpo != null || campos.todos()) return corpo;
+        Corpo completo = cache.buscar(chave, formato.representacao());
+        if (completo == null) return null;
+        ObjectMapper mapper = formatos.mapper(formato);
+        try {
+            byte[] podado = mapper.writeValueAsBytes(campos.podar(mapper.readTree(completo.corpo())));
+            return cache.derivar(chave, representacao, completo, podado, campos.etag(completo.etag()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao podar o Pokémon " + chave, e);
+        }
+    }
+
+    /**
+     * Busca o Pokémon, serializa só os campos pedidos e guarda o corpo.
+     * @return o corpo, ou null se o Pokémon não existe
+     */
+    private Corpo carregar(String chave, Formato formato, CamposResposta campos, Supplier<Pokemon> carregar) {
+        Pokemon pokemon = carregar.get();
+        if (pokemon == null) return null;
+        ObjectMapper mapper = formatos.mapper(formato);
+        try {
+            byte[] bytes = campos.todos() ? mapper.writeValueAsBytes(pokemon)
+                    : mapper.writeValueAsBytes(campos.podar(formatos.mapper(Formato.JSON).valueToTree(pokemon)));
+            return cache.guardar(pokemon, chave, formato.representacao() + campos.representacao(), bytes,
+                    campos.etag(formato.etag(versoes.registrarPokedex(pokemon, chave))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o Pokémon " + chave, e);
+        }
+    }
+
+    private JsonNode ler(Corpo corpo) {
+        try {
+            return formatos.mapper(Formato.JSON).readTree(corpo.corpo());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corpo da Pokédex ilegível", e);
+        }
+    }
+
+    private static List<String> separar(String valores) {
+        List<String> lista = new ArrayList<>();
+        if (valores == null) return lista;
+        for (String v : valores.split(",")) {
+            if (!v.isBlank()) lista.add(v.trim());
+        }
+        return lista;
+    }
+
+    /**
+     * Responde 304 se o cliente já tem a versão registrada para a chave,
+     * sem consultar a PokeAPI nem o banco.
+     * @return resposta 304 ou null se for preciso carregar o Pokémon
+     */
+    private <T> ResponseEntity<T> naoModificado(WebRequest request, String chave, Formato formato,
+                                                CamposResposta campos) {
+        if (request.getHeader("If-None-Match") == null) return null;
+        String etag = campos.etag(formato.etag(versoes.etagPokedex(chave)));
+        if (!etagMatches(request, etag)) return null;
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_POKEDEX)
+                .varyBy(HttpHeaders.ACCEPT).build();
     }
 }
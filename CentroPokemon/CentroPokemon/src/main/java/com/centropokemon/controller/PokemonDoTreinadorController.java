@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        PokemonDoTreinadorController.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.2
- * @date        23/11/2025
+ * @version     1.4
+ * @date        19/10/2026
  * @description Endpoints REST para gerenciar a coleção de Pokémon de um treinador.
  *              Permite adicionar Pokémon da Pokédex, listar a coleção e remover Pokémon.
  */
@@ -13,11 +13,17 @@ package com.centropokemon.controller;
 
 import com.centropokemon.model.Pokemon;
 import com.centropokemon.service.CadastroPokemonService;
+import com.centropokemon.service.VersaoRecursoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador REST para gerenciar a coleção de Pokémon de um treinador.
@@ -32,10 +38,21 @@ import java.util.List;
 @RequestMapping("/api/treinadores/{treinadorId}/pokemons")
 public class PokemonDoTreinadorController extends BaseRestController {
 
+    /** Dados do treinador: só no navegador dele, sempre revalidando. */
+    private static final CacheControl CACHE_COLECAO = CacheControl.noCache().cachePrivate();
+    /** Campos de {@link PokemonResponse} aceitos em {@code ?fields=}. */
+    static final Set<String> CAMPOS_COLECAO = Set.of("id", "pokeApiId", "nomePt", "nomeEn", "spriteUrl",
+            "vidaAtual", "vidaMaxima", "nivel", "habilidades", "tipos");
+
     private final CadastroPokemonService cadastro;
+    private final VersaoRecursoService versoes;
+    private final ObjectMapper json;
 
-    public PokemonDoTreinadorController(CadastroPokemonService cadastro) {
+    public PokemonDoTreinadorController(CadastroPokemonService cadastro, VersaoRecursoService versoes,
+                                        ObjectMapper json) {
         this.cadastro = cadastro;
+        this.versoes = versoes;
+        this.json = json;
     }
 
     /**
@@ -149,14 +166,46 @@ public class PokemonDoTreinadorController extends BaseRestController {
      * incluindo o inicial e todos os adicionados via Pokédex.
      * Usado para exibir a coleção e para selecionar Pokémon em consultas/cura.
      * 
+     * Responde 304 quando {@code If-None-Match} confere com a versão atual
+     * da coleção, sem carregar os Pokémon.
+     * <p>
+     * Com {@code ?fields=nomePt,spriteUrl} cada item traz só os campos
+     * pedidos e a leitura no banco se limita a eles: as colunas simples numa
+     * consulta, e tipos/habilidades só se estiverem na lista (descrições e
+     * stats nunca). Cada seleção de campos tem sua própria ETag.
+     * 
      * @param treinadorId ID do treinador
-     * @return lista de Pokémon da coleção
+     * @param fields campos desejados, separados por vírgula (opcional)
+     * @return lista de Pokémon da coleção, ou 400 se algum campo não existe
      */
     @GetMapping
-    public ResponseEntity<List<PokemonResponse>> listar(@PathVariable Integer treinadorId) {
-        List<PokemonResponse> lista = cadastro.listar(treinadorId)
-                .stream().map(PokemonResponse::of).toList();
-        return ok(lista);
+    public ResponseEntity<?> listar(@PathVariable Integer treinadorId,
+                                    @RequestParam(required = false) String fields, WebRequest request) {
+        CamposResposta campos;
+        try {
+            campos = CamposResposta.ler(fields, CAMPOS_COLECAO);
+        } catch (IllegalArgumentException e) {
+            return badRequest();
+        }
+        if (campos.todos()) {
+            return versoes.etagPokemons(treinadorId)
+                    .map(etag -> conditional(request, etag, CACHE_COLECAO, () -> carregarLista(treinadorId)))
+                    .orElseGet(() -> ok(carregarLista(treinadorId)));
+        }
+        return versoes.etagPokemons(treinadorId)
+                .map(etag -> conditional(request, campos.etag(etag), CACHE_COLECAO,
+                        () -> carregarCampos(treinadorId, campos)))
+                .orElseGet(() -> ok(carregarCampos(treinadorId, campos)));
+    }
+
+    private List<PokemonResponse> carregarLista(Integer treinadorId) {
+        return cadastro.listar(treinadorId).stream().map(PokemonResponse::of).toList();
+    }
+
+    private JsonNode carregarCampos(Integer treinadorId, CamposResposta campos) {
+        List<PokemonResponse> lista = cadastro.listarParcial(treinadorId, campos.inclui("tipos"),
+                campos.inclui("habilidades")).stream().map(PokemonResponse::of).toList();
+        return campos.podar(json.valueToTree(lista));
     }
 
     /**
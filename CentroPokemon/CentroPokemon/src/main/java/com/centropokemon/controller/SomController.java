@@ -0,0 +1,248 @@
+/*
+ * Centro Pokémon - Controlador de Sons
+ * ---------------------------------------
+ * @file        SomController.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.4
+ * @date        19/10/2026
+ * @description Serve os sons de static/sons com negociação de formato
+ *              (Opus/OGG ou o WAV original), cache HTTP e Range, e os
+ *              gritos por ID da PokeAPI a partir do índice montado na subida,
+ *              além do sprite dos sons da interface.
+ */
+package com.centropokemon.controller;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import com.centropokemon.service.IndiceGritosService;
+import com.centropokemon.service.SpriteSonsService;
+import com.centropokemon.service.SpriteSonsService.Sprite;
+import com.centropokemon.service.TranscodificacaoAudioService;
+import com.centropokemon.service.TranscodificacaoAudioService.Formato;
+import com.centropokemon.service.TranscodificacaoAudioService.Origem;
+import com.centropokemon.service.TranscodificacaoAudioService.Som;
+import com.centropokemon.service.TransmissaoAudioService;
+import com.centropokemon.service.TransmissaoAudioService.Intervalo;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Controlador REST dos sons.
+ * <p>
+ * {@code GET /api/sons/{caminho}} devolve o arquivo de {@code static/sons}
+ * em Opus quando o cliente pede ({@code ?formato=opus} ou {@code Accept:
+ * audio/ogg}), e o original nos demais casos. Como a mesma URL pode render
+ * formatos diferentes, a resposta leva {@code Vary: Accept}. Pedidos com
+ * {@code Range}/{@code If-Range} recebem 206 com o trecho, enviado por
+ * {@link TransmissaoAudioService} (sendfile quando possível).
+ * <p>
+ * {@code GET /api/cries/{id}[/{forma}]} resolve o grito pelo
+ * {@link IndiceGritosService} e o entrega da mesma forma, sem redirecionar;
+ * {@code GET /api/cries/manifest} devolve o índice inteiro.
+ * <p>
+ * {@code GET /api/sons/ui/manifest} descreve o sprite dos sons da interface
+ * ({@link SpriteSonsService}), servido em {@code /api/sons/ui/sprite-<hash>.mp3}
+ * com cache imutável.
+ */
+@RestController
+@RequestMapping("/api")
+public class SomController extends BaseRestController {
+
+    /** Sons não mudam sem mudar de tamanho (e de ETag); podem ficar em cache por uma semana. */
+    private static final CacheControl CACHE_SONS = CacheControl.maxAge(Duration.ofDays(7)).cachePublic();
+    /** O índice só muda em um novo deploy; revalida por ETag depois de uma hora. */
+    private static final CacheControl CACHE_MANIFESTO = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+    /** O sprite tem o hash do conteúdo no nome; o manifesto aponta para o atual e sempre revalida. */
+    private static final CacheControl CACHE_SPRITE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final TranscodificacaoAudioService audio;
+    private final TransmissaoAudioService transmissao;
+    private final IndiceGritosService indice;
+    private final SpriteSonsService sprites;
+
+    public SomController(TranscodificacaoAudioService audio, TransmissaoAudioService transmissao,
+                         IndiceGritosService indice, SpriteSonsService sprites) {
+        this.audio = audio;
+        this.transmissao = transmissao;
+        this.indice = indice;
+        this.sprites = sprites;
+    }
+
+    /**
+     * @param caminho caminho relativo a {@code static/sons}
+     * @param formato {@code opus} ou {@code wav} (opcional; tem precedência sobre o Accept)
+     * @param accept cabeçalho Accept
+     * @return 304, 404, 416 ou 503; null quando o corpo (200/206) já foi
+     *         entregue diretamente na resposta
+     */
+    @GetMapping("/sons/{*caminho}")
+    public ResponseEntity<Void> som(@PathVariable String caminho,
+                                    @RequestParam(required = false) String formato,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                    WebRequest request,
+                                    HttpServletRequest servletRequest,
+                                    HttpServletResponse servletResponse) throws IOException {
+        return enviar(caminho, formato, accept, request, servletRequest, servletResponse);
+    }
+
+    /**
+     * Grito de um Pokémon pelo ID da PokeAPI, na forma base ou na forma pedida
+     * (ex.: {@code /api/cries/905/therian}, {@code /api/cries/65/mega}).
+     * @param id ID da PokeAPI
+     * @param forma forma, opcional
+     * @return como {@link #som}; 404 se o índice não tem o grito
+     */
+    @GetMapping({"/cries/{id:\\d+}", "/cries/{id:\\d+}/{forma}"})
+    public ResponseEntity<Void> grito(@PathVariable int id,
+                                      @PathVariable(required = false) String forma,
+                                      @RequestParam(required = false) String formato,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                      WebRequest request,
+                                      HttpServletRequest servletRequest,
+                                      HttpServletResponse servletResponse) throws IOException {
+        String caminho = indice.buscar(id, forma);
+        if (caminho == null) return notFound();
+        return enviar(caminho, formato, accept, request, servletRequest, servletResponse);
+    }
+
+    /**
+     * Índice completo ID/forma -> arquivo, pré-serializado e pré-comprimido na
+     * subida.
+     * @param acceptEncoding cabeçalho Accept-Encoding
+     * @return manifesto JSON (gzip quando aceito) ou 304
+     */
+    @GetMapping("/cries/manifest")
+    public ResponseEntity<byte[]> manifesto(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                            String acceptEncoding, WebRequest request) {
+        String etag = indice.getEtag();
+        if (etagMatches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).cacheControl(CACHE_MANIFESTO).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        boolean gzip = aceitaGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_MANIFESTO)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return resposta.body(gzip ? indice.getManifestoGzip() : indice.getManifesto());
+    }
+
+    /**
+     * Manifesto do sprite atual: URL do sprite e início/duração de cada som.
+     * @return manifesto JSON ou 304
+     */
+    @GetMapping("/sons/ui/manifest")
+    public ResponseEntity<byte[]> manifestoSprite(WebRequest request) {
+        Sprite sprite = sprites.getSprite();
+        if (etagMatches(request, sprite.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(sprite.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(sprite.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(sprite.manifesto());
+    }
+
+    /**
+     * @param arquivo {@code sprite-<hash>.mp3}
+     * @return o sprite, ou 404 se o hash não é o atual
+     */
+    @GetMapping("/sons/ui/{arquivo:sprite-[0-9a-f]+\\.mp3}")
+    public ResponseEntity<byte[]> sprite(@PathVariable String arquivo) {
+        Sprite sprite = sprites.getSprite();
+        if (!sprite.arquivo().equals(arquivo)) return notFound();
+        return ResponseEntity.ok()
+                .eTag("\"" + sprite.hash() + "\"")
+                .cacheControl(CACHE_SPRITE)
+                .contentType(MediaType.parseMediaType("audio/mpeg"))
+                .body(sprite.audio());
+    }
+
+    private ResponseEntity<Void> enviar(String caminho, String formato, String accept, WebRequest request,
+                                        HttpServletRequest servletRequest,
+                                        HttpServletResponse servletResponse) throws IOException {
+        Origem origem;
+        try {
+            origem = audio.localizar(caminho);
+        } catch (IllegalArgumentException e) {
+            return notFound();
+        }
+        Formato preferido = TranscodificacaoAudioService.negociar(formato, accept);
+        String etag = audio.etag(origem, preferido);
+        if (etagMatches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).cacheControl(CACHE_SONS).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        Som som = audio.servir(origem, preferido);
+        Intervalo intervalo = TransmissaoAudioService.intervalo(servletRequest.getHeader(HttpHeaders.RANGE),
+                servletRequest.getHeader(HttpHeaders.IF_RANGE), som.etag(), som.tamanho());
+        if (intervalo == null) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + som.tamanho()).build();
+        }
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.setETag(som.etag());
+        cabecalhos.setCacheControl(CACHE_SONS);
+        cabecalhos.setVary(List.of(HttpHeaders.ACCEPT));
+        cabecalhos.setContentType(som.tipo());
+        try {
+            transmissao.transmitir(servletRequest, servletResponse, som.recurso(), som.tamanho(), intervalo, cabecalhos);
+        } catch (ServicoSobrecarregadoException e) {
+            return serviceUnavailable();
+        }
+        if (!intervalo.parcial()) audio.registrarEnvio(origem, som);
+        return null;
+    }
+
+    /**
+     * Lê o Accept-Encoding token a token: {@code gzip} (ou {@code *}, se gzip
+     * não aparece) vale quando o q é maior que zero, então {@code gzip;q=0}
+     * recusa e {@code x-gzip} sozinho não conta. q malformado vale zero.
+     * @param acceptEncoding cabeçalho Accept-Encoding (pode ser null)
+     * @return true se o cliente aceita o corpo em gzip
+     */
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        double gzip = -1;
+        double curinga = -1;
+        for (String parte : acceptEncoding.split(",")) {
+            String[] campos = parte.split(";");
+            String codificacao = campos[0].trim().toLowerCase(Locale.ROOT);
+            if (!codificacao.equals("gzip") && !codificacao.equals("*")) continue;
+            double q = 1;
+            for (int i = 1; i < campos.length; i++) {
+                String parametro = campos[i].trim();
+                if (parametro.length() < 2 || !parametro.substring(0, 2).equalsIgnoreCase("q=")) continue;
+                try {
+                    q = Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    q = 0;
+                }
+            }
+            if (!(q >= 0)) q = 0;
+            if (codificacao.equals("gzip")) gzip = Math.max(gzip, q);
+            else curinga = Math.max(curinga, q);
+        }
+        return (gzip >= 0 ? gzip : curinga) > 0;
+    }
+}
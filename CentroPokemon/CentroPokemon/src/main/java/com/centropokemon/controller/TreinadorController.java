@@ -3,24 +3,34 @@
  * ---------------------------------------
  * @file        TreinadorController.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.1
- * @date        23/11/2025
+ * @version     1.5
+ * @date        19/10/2026
  * @description Endpoints REST para cadastro e autenticação de Treinadores.
- *              Suporta cadastro com Pokémon inicial (starter).
+ *              Suporta cadastro com Pokémon inicial (starter) e emite o
+ *              token de sessão assinado no login. Abre o fluxo de eventos
+ *              (SSE) do painel do treinador.
  */
 
 package com.centropokemon.controller;
 
+import com.centropokemon.exception.ServicoSobrecarregadoException;
 import com.centropokemon.model.Treinador;
+import com.centropokemon.security.TokenSessaoService;
 import com.centropokemon.service.TreinadorService;
 import com.centropokemon.service.CadastroPokemonService;
+import com.centropokemon.service.EventosTreinadorService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.dao.DataIntegrityViolationException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
 
 /**
  * Controlador REST para o ciclo de vida do {@link Treinador}.
- * Exponde endpoints para cadastro e login.
+ * Exponde endpoints para cadastro, login e eventos do painel.
  */
 @RestController
 @RequestMapping("/api/treinadores")
@@ -28,14 +38,21 @@ public class TreinadorController extends BaseRestController {
 
     private final TreinadorService service;
     private final CadastroPokemonService cadastroPokemon;
+    private final TokenSessaoService tokens;
+    private final EventosTreinadorService eventos;
 
     /**
      * Construtor com injeção do serviço de treinadores.
      * @param service serviço de domínio
+     * @param tokens emissor dos tokens de sessão
+     * @param eventos assinaturas SSE dos painéis
      */
-    public TreinadorController(TreinadorService service, CadastroPokemonService cadastroPokemon) {
+    public TreinadorController(TreinadorService service, CadastroPokemonService cadastroPokemon,
+                               TokenSessaoService tokens, EventosTreinadorService eventos) {
         this.service = service;
         this.cadastroPokemon = cadastroPokemon;
+        this.tokens = tokens;
+        this.eventos = eventos;
     }
 
     /**
@@ -64,7 +81,10 @@ public class TreinadorController extends BaseRestController {
 
     /**
      * Resposta segura do treinador (sem expor hash de senha).
+     * Em login e cadastro inclui o token de sessão a enviar como
+     * {@code Authorization: Bearer} nas rotas do treinador.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class TreinadorResponse {
         public Integer id;
         public String nome;
@@ -72,6 +92,8 @@ public class TreinadorController extends BaseRestController {
         public String email;
         public String telefone;
         public Boolean ativo;
+        public String token;
+        public Instant expiraEm;
 
         public static TreinadorResponse of(Treinador t) {
             TreinadorResponse r = new TreinadorResponse();
@@ -83,6 +105,28 @@ public class TreinadorController extends BaseRestController {
             r.ativo = t.getAtivo();
             return r;
         }
+
+        public TreinadorResponse comToken(TokenSessaoService.TokenEmitido emitido) {
+            this.token = emitido.token();
+            this.expiraEm = emitido.expiraEm();
+            return this;
+        }
+    }
+
+    /**
+     * Bilhete curto para abrir o fluxo de eventos pelo {@code EventSource},
+     * que só consegue mandar a credencial na URL.
+     */
+    public static class BilheteEventosResponse {
+        public String bilhete;
+        public Instant expiraEm;
+
+        public static BilheteEventosResponse of(TokenSessaoService.TokenEmitido emitido) {
+            BilheteEventosResponse r = new BilheteEventosResponse();
+            r.bilhete = emitido.token();
+            r.expiraEm = emitido.expiraEm();
+            return r;
+        }
     }
 
     /**
@@ -102,6 +146,8 @@ public class TreinadorController extends BaseRestController {
             t = service.cadastrar(req.nome, req.usuario, req.email, req.senha, req.telefone);
         } catch (IllegalArgumentException | DataIntegrityViolationException ex) {
             return conflict();
+        } catch (ServicoSobrecarregadoException ex) {
+            return serviceUnavailable();
         }
         if (req.starterId != null && cadastroPokemon != null) {
             Integer id = req.starterId;
@@ -111,7 +157,7 @@ public class TreinadorController extends BaseRestController {
                 cadastroPokemon.cadastrar(t.getId(), id, name, name, sprite, null, null);
             } catch (IllegalArgumentException ignored) {}
         }
-        return created(TreinadorResponse.of(t));
+        return created(TreinadorResponse.of(t).comToken(tokens.emitir(t.getId())));
     }
 
     private String defaultStarterName(Integer id) {
@@ -145,15 +191,49 @@ public class TreinadorController extends BaseRestController {
      * Endpoint: POST /api/treinadores/login
      * Autentica um treinador por usuário ou e-mail.
      * @param req dados de login
-     * @return 200 com treinador (safe response) ou 401
+     * @return 200 com treinador (safe response) e token de sessão, 401, ou
+     *         503 se o pool de hash de senhas estiver saturado
      */
     @PostMapping("/login")
     public ResponseEntity<TreinadorResponse> login(@RequestBody LoginRequest req) {
         if (req == null || req.usuarioOuEmail == null || req.senha == null) {
             return badRequest();
         }
-        return service.autenticar(req.usuarioOuEmail, req.senha)
-                .map(t -> ok(TreinadorResponse.of(t)))
-                .orElseGet(this::unauthorized);
+        try {
+            return service.autenticar(req.usuarioOuEmail, req.senha)
+                    .map(t -> ok(TreinadorResponse.of(t).comToken(tokens.emitir(t.getId()))))
+                    .orElseGet(this::unauthorized);
+        } catch (ServicoSobrecarregadoException ex) {
+            return serviceUnavailable();
+        }
+    }
+
+    /**
+     * Endpoint: GET /api/treinadores/{treinadorId}/eventos
+     * Fluxo Server-Sent Events do painel: pokemon-adicionado, pokemon-removido,
+     * pokemons-curados e consulta-agendada. Substitui a consulta periódica de
+     * status e coleção. O token vai em {@code Authorization} ou, para o
+     * {@code EventSource} do navegador, um bilhete em {@code ?bilhete=}
+     * (ver {@link #bilheteEventos}).
+     * @param treinadorId id do treinador (o mesmo do token)
+     * @return fluxo {@code text/event-stream}
+     */
+    @GetMapping(path = "/{treinadorId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(@PathVariable Integer treinadorId) {
+        return eventos.assinar(treinadorId);
+    }
+
+    /**
+     * Endpoint: POST /api/treinadores/{treinadorId}/eventos/bilhete
+     * Troca o token de sessão ({@code Authorization: Bearer}) por um bilhete
+     * de {@code centro.sessao.bilhete-eventos} para
+     * {@code new EventSource(".../eventos?bilhete=...")}. O bilhete só abre o
+     * fluxo de eventos; vencido, a reconexão recebe 401 e o painel pede outro.
+     * @param treinadorId id do treinador (o mesmo do token)
+     * @return bilhete e expiração
+     */
+    @PostMapping("/{treinadorId}/eventos/bilhete")
+    public ResponseEntity<BilheteEventosResponse> bilheteEventos(@PathVariable Integer treinadorId) {
+        return ok(BilheteEventosResponse.of(tokens.emitirBilheteEventos(treinadorId)));
     }
-}
\ No newline at end of file
+}
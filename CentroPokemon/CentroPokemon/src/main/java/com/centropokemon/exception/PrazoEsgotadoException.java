@@ -0,0 +1,26 @@
+/*
+ * Centro Pokémon - Exceção de prazo esgotado
+ * ---------------------------------------
+ * @file        PrazoEsgotadoException.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        2026-10-19
+ * @description Exceção para quando o prazo da requisição acaba antes do
+ *              trabalho: o resto é abandonado, pois ninguém lerá a resposta.
+ */
+
+package com.centropokemon.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+/**
+ * Exceção lançada quando o prazo da requisição
+ * ({@link com.centropokemon.service.Prazo}) esgota antes de uma consulta ao
+ * banco ou chamada à PokeAPI. Deve virar HTTP 504.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class PrazoEsgotadoException extends RuntimeException {
+    public PrazoEsgotadoException(String message) {
+        super(message);
+    }
+}
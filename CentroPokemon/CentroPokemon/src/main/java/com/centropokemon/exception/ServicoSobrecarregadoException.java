@@ -0,0 +1,25 @@
+/*
+ * Centro Pokémon - Exceção de serviço sobrecarregado
+ * ---------------------------------------
+ * @file        ServicoSobrecarregadoException.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        2026-10-19
+ * @description Exceção para quando um recurso limitado (pool, fila) não
+ *              consegue atender a requisição dentro do orçamento.
+ */
+
+package com.centropokemon.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+/**
+ * Exceção lançada quando a requisição é rejeitada por sobrecarga
+ * (fila cheia ou tempo de espera esgotado). Deve virar HTTP 503.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServicoSobrecarregadoException extends RuntimeException {
+    public ServicoSobrecarregadoException(String message) {
+        super(message);
+    }
+}
@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        Consulta.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.1
- * @date        23/11/2025
+ * @version     1.2
+ * @date        19/10/2026
  * @description Entidade JPA que representa uma consulta médica agendada
  *              para um Pokémon de um treinador. Inclui tipo de consulta,
  *              data/hora e observações.
@@ -15,7 +15,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "consultas")
+@Table(name = "consultas",
+        indexes = @Index(name = "idx_consultas_treinador_data", columnList = "treinador_id, data_hora"))
 public class Consulta {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        Treinador.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.3
- * @date        23/11/2025
+ * @version     1.4
+ * @date        19/10/2026
  * @description Entidade JPA que representa o treinador cadastrado no sistema.
  *              Suporta login por usuário/e-mail e associa Pokémon do treinador
  *              para futuras consultas, vacinações e tratamentos.
@@ -65,6 +65,20 @@ public class Treinador {
     @Column(name = "atualizado_em", nullable = false)
     private LocalDateTime atualizadoEm;
 
+    /**
+     * Versão da coleção de Pokémon, incrementada a cada alteração (ETag).
+     * Só é escrita por {@code TreinadorRepository.incrementarVersaoPokemons}.
+     */
+    @Column(name = "versao_pokemons", insertable = false, updatable = false)
+    private Long versaoPokemons;
+
+    /**
+     * Versão das consultas do treinador, incrementada a cada agendamento (ETag).
+     * Só é escrita por {@code TreinadorRepository.incrementarVersaoConsultas}.
+     */
+    @Column(name = "versao_consultas", insertable = false, updatable = false)
+    private Long versaoConsultas;
+
     /** Lista de Pokémon cadastrados pelo treinador. */
     @OneToMany(mappedBy = "treinador", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference("treinador-pokemon")
@@ -133,6 +147,12 @@ public class Treinador {
     /** @param atualizadoEm data de atualização */
     public void setAtualizadoEm(LocalDateTime atualizadoEm) { this.atualizadoEm = atualizadoEm; }
 
+    /** @return versão da coleção de Pokémon (pode ser null antes da primeira alteração) */
+    public Long getVersaoPokemons() { return versaoPokemons; }
+
+    /** @return versão das consultas (pode ser null antes do primeiro agendamento) */
+    public Long getVersaoConsultas() { return versaoConsultas; }
+
     /** @return lista de Pokémon do treinador */
     public List<Pokemon> getPokemons() { return pokemons; }
     /** @param pokemons lista de Pokémon do treinador */
@@ -3,9 +3,11 @@
  * ---------------------------------------
  * @file        ConsultaRepository.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.0
- * @date        2025-11-19
+ * @version     1.2
+ * @date        19/10/2026
  * @description Interface JPA para persistência e consulta de agendamentos.
+ *              As listagens por treinador usam o índice
+ *              idx_consultas_treinador_data (treinador_id, data_hora).
  */
 package com.centropokemon.repository;
 
@@ -13,9 +15,25 @@ import com.centropokemon.model.Consulta;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ConsultaRepository extends JpaRepository<Consulta, Integer> {
+
+    /**
+     * Lista todo o histórico de consultas do treinador.
+     * @param treinadorId identificador do treinador
+     * @return consultas ordenadas por data/hora
+     */
     List<Consulta> findByTreinadorIdOrderByDataHoraAsc(Integer treinadorId);
+
+    /**
+     * Lista as consultas do treinador a partir de uma data/hora.
+     * O filtro em data_hora entra no índice: só as linhas da janela são lidas.
+     * @param treinadorId identificador do treinador
+     * @param inicio data/hora mínima (inclusiva)
+     * @return consultas ordenadas por data/hora
+     */
+    List<Consulta> findByTreinadorIdAndDataHoraGreaterThanEqualOrderByDataHoraAsc(Integer treinadorId, LocalDateTime inicio);
 }
\ No newline at end of file
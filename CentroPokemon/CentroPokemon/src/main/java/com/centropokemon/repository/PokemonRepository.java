@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        PokemonRepository.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.1
- * @date        23/11/2025
+ * @version     1.2
+ * @date        19/10/2026
  * @description Interface de repositório JPA para operações de persistência de Pokémon.
  *              Inclui consultas por nome (PT/EN), PokeAPI ID e relacionamento com treinador.
  */
@@ -15,6 +15,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.centropokemon.model.Pokemon;
@@ -62,6 +64,33 @@ public interface PokemonRepository extends JpaRepository<Pokemon, Integer> {
      */
     List<Pokemon> findByTreinadorId(Integer treinadorId);
 
+    /**
+     * Colunas simples dos Pokémon de um treinador, sem carregar descrições,
+     * tipos, stats nem habilidades (as associações da entidade).
+     * Cada linha: id, pokeApiId, nomePt, nomeEn, spriteUrl, vidaAtual, vidaMaxima, nivel.
+     * @param treinadorId identificador do treinador
+     * @return uma linha por Pokémon, em ordem de ID
+     */
+    @Query("select p.id, p.pokeApiId, p.nomePt, p.nomeEn, p.spriteUrl, p.vidaAtual, p.vidaMaxima, p.nivel "
+            + "from Pokemon p where p.treinador.id = :treinadorId order by p.id")
+    List<Object[]> listarColunasPorTreinadorId(@Param("treinadorId") Integer treinadorId);
+
+    /**
+     * Nome em português dos tipos dos Pokémon de um treinador, numa única consulta.
+     * @param treinadorId identificador do treinador
+     * @return linhas (id do Pokémon, nomePt do tipo)
+     */
+    @Query("select p.id, t.nomePt from Pokemon p join p.tipos t where p.treinador.id = :treinadorId")
+    List<Object[]> listarTiposPorTreinadorId(@Param("treinadorId") Integer treinadorId);
+
+    /**
+     * Habilidades dos Pokémon de um treinador, numa única consulta.
+     * @param treinadorId identificador do treinador
+     * @return linhas (id do Pokémon, habilidade)
+     */
+    @Query("select p.id, h from Pokemon p join p.habilidades h where p.treinador.id = :treinadorId")
+    List<Object[]> listarHabilidadesPorTreinadorId(@Param("treinadorId") Integer treinadorId);
+
     /**
      * Busca um Pokémon específico de um treinador pelo ID da PokeAPI.
      * @param treinadorId identificador do treinador
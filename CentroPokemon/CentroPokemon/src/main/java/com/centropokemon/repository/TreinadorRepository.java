@@ -3,17 +3,23 @@
  * ---------------------------------------
  * @file        TreinadorRepository.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.0
- * @date        2025-11-18
+ * @version     1.2
+ * @date        2026-10-19
  * @description Interface de repositório JPA para operações de persistência de Treinadores.
  */
 
 package com.centropokemon.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.centropokemon.model.Treinador;
 
@@ -59,6 +65,64 @@ public interface TreinadorRepository extends JpaRepository<Treinador, Integer> {
      */
     boolean existsByUsuarioIgnoreCase(String usuario);
 
+    /**
+     * Busca, em uma única consulta, treinadores cujo usuário OU e-mail
+     * correspondam ao valor informado (ignorando maiúsculas/minúsculas).
+     * Pode retornar dois registros se o valor for o usuário de um treinador
+     * e o e-mail de outro.
+     * @param valor usuário ou e-mail
+     * @return treinadores encontrados
+     */
+    @Query("select t from Treinador t where lower(t.usuario) = lower(:valor) or lower(t.email) = lower(:valor)")
+    List<Treinador> findByUsuarioOuEmail(@Param("valor") String valor);
+
+    /**
+     * Lista usuários e e-mails de todos os treinadores,
+     * sem carregar as entidades. Usado para pré-carregar o filtro de Bloom.
+     * Deve ser consumido dentro de uma transação e fechado após o uso.
+     * @return pares {usuario, email}
+     */
+    @Query("select t.usuario, t.email from Treinador t")
+    Stream<Object[]> streamUsuariosEEmails();
+
+    /**
+     * Lê a versão da coleção de Pokémon do treinador sem carregar a entidade.
+     * @param id ID do treinador
+     * @return versão (0 se nunca alterada), ou vazio se o treinador não existe
+     */
+    @Query("select coalesce(t.versaoPokemons, 0) from Treinador t where t.id = :id")
+    Optional<Long> buscarVersaoPokemons(@Param("id") Integer id);
+
+    /**
+     * Lê a versão das consultas do treinador sem carregar a entidade.
+     * @param id ID do treinador
+     * @return versão (0 se nunca alterada), ou vazio se o treinador não existe
+     */
+    @Query("select coalesce(t.versaoConsultas, 0) from Treinador t where t.id = :id")
+    Optional<Long> buscarVersaoConsultas(@Param("id") Integer id);
+
+    /**
+     * Incrementa a versão da coleção de Pokémon. Deve ser chamado depois
+     * que a alteração foi gravada.
+     * @param id ID do treinador
+     * @return linhas atualizadas
+     */
+    @Modifying
+    @Transactional
+    @Query("update Treinador t set t.versaoPokemons = coalesce(t.versaoPokemons, 0) + 1 where t.id = :id")
+    int incrementarVersaoPokemons(@Param("id") Integer id);
+
+    /**
+     * Incrementa a versão das consultas. Deve ser chamado depois que a
+     * alteração foi gravada.
+     * @param id ID do treinador
+     * @return linhas atualizadas
+     */
+    @Modifying
+    @Transactional
+    @Query("update Treinador t set t.versaoConsultas = coalesce(t.versaoConsultas, 0) + 1 where t.id = :id")
+    int incrementarVersaoConsultas(@Param("id") Integer id);
+
     /**
      * Alias em português para {@link #findByEmailIgnoreCase(String)}.
      * @param email e-mail do treinador
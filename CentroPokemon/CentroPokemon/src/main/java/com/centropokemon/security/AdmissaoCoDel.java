@@ -0,0 +1,232 @@
+/*
+ * Centro Pokémon - Controle de Admissão (CoDel)
+ * ---------------------------------------
+ * @file        AdmissaoCoDel.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Fila de admissão do servidor com prioridades que detecta
+ *              sobrecarga pelo tempo de espera na fila (CoDel) e passa a
+ *              descartar cedo o trabalho de baixa prioridade.
+ */
+package com.centropokemon.security;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limita as requisições em execução no servidor a {@code permissoes}; as
+ * demais esperam em fila, servida por prioridade (dentro da mesma
+ * prioridade, por ordem de chegada).
+ * <p>
+ * Sobrecarga é medida como no CoDel: a cada {@code intervalo} olha-se a
+ * <em>menor</em> espera de quem passou pela fila. Se até a menor espera
+ * ficou acima do {@code alvo}, a fila não esvaziou em nenhum momento do
+ * intervalo e há fila permanente, não uma rajada. Nesse estado:
+ * <ul>
+ *   <li>{@link Prioridade#BAIXA} que precisaria esperar é descartada na hora;</li>
+ *   <li>{@link Prioridade#MEDIA} espera no máximo o {@code alvo};</li>
+ *   <li>{@link Prioridade#ALTA} continua esperando até {@code espera}.</li>
+ * </ul>
+ * Fora da sobrecarga todas esperam até {@code espera}. Descartar cedo
+ * mantém a espera de quem fica perto do alvo, em vez de toda requisição
+ * ficar lenta e passar do prazo do cliente.
+ * <p>
+ * Usa {@link ReentrantLock} (e não {@code synchronized}) para não fixar
+ * threads virtuais enquanto esperam na fila.
+ */
+public class AdmissaoCoDel {
+
+    /** Prioridade da requisição; sob sobrecarga as mais baixas saem primeiro. */
+    public enum Prioridade { ALTA, MEDIA, BAIXA }
+
+    /** Resultado da tentativa de admissão. */
+    public enum Resultado {
+        ADMITIDA,
+        /** Descartada pela sobrecarga. */
+        DESCARTADA,
+        /** Esperou {@code espera} sem vaga. */
+        ESPERA_ESGOTADA,
+        /** Fila cheia na chegada. */
+        FILA_CHEIA
+    }
+
+    private static final Prioridade[] PRIORIDADES = Prioridade.values();
+
+    private final int permissoes;
+    private final int fila;
+    private final long alvoNanos;
+    private final long intervaloNanos;
+    private final long esperaNanos;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition[] vaga = new Condition[PRIORIDADES.length];
+    private final int[] aguardando = new int[PRIORIDADES.length];
+    private int emUso;
+    private boolean sobrecarregado;
+    private long fimIntervalo;
+    private long menorEspera = Long.MAX_VALUE;
+    private int amostras;
+
+    /**
+     * @param permissoes requisições executando ao mesmo tempo
+     * @param fila requisições que podem esperar
+     * @param alvo espera tolerada; menor espera do intervalo acima disso é sobrecarga
+     * @param intervalo janela de observação da menor espera
+     * @param espera espera máxima fora da sobrecarga (e da prioridade alta)
+     */
+    public AdmissaoCoDel(int permissoes, int fila, Duration alvo, Duration intervalo, Duration espera) {
+        this.permissoes = Math.max(1, permissoes);
+        this.fila = Math.max(0, fila);
+        this.alvoNanos = alvo.toNanos();
+        this.intervaloNanos = Math.max(1, intervalo.toNanos());
+        this.esperaNanos = espera.toNanos();
+        for (int i = 0; i < vaga.length; i++) {
+            vaga[i] = trava.newCondition();
+        }
+        this.fimIntervalo = System.nanoTime() + intervaloNanos;
+    }
+
+    /**
+     * Ocupa uma permissão, esperando na fila se preciso. Quem recebe
+     * {@link Resultado#ADMITIDA} deve chamar {@link #liberar()} ao terminar.
+     */
+    public Resultado admitir(Prioridade prioridade) throws InterruptedException {
+        int p = prioridade.ordinal();
+        trava.lock();
+        try {
+            long chegada = System.nanoTime();
+            avancar(chegada);
+            if (emUso < permissoes && totalAguardando() == 0) {
+                emUso++;
+                observar(0);
+                return Resultado.ADMITIDA;
+            }
+            if (totalAguardando() >= fila) return Resultado.FILA_CHEIA;
+            if (limiteEspera(prioridade) <= 0) return Resultado.DESCARTADA;
+            aguardando[p]++;
+            try {
+                while (true) {
+                    long agora = System.nanoTime();
+                    avancar(agora);
+                    if (emUso < permissoes && !haMaisPrioritaria(p)) {
+                        emUso++;
+                        observar(agora - chegada);
+                        return Resultado.ADMITIDA;
+                    }
+                    long restante = chegada + limiteEspera(prioridade) - agora;
+                    if (restante <= 0) {
+                        observar(agora - chegada);
+                        return sobrecarregado ? Resultado.DESCARTADA : Resultado.ESPERA_ESGOTADA;
+                    }
+                    // acorda no fim do intervalo para reavaliar a sobrecarga mesmo sem liberações
+                    vaga[p].awaitNanos(Math.min(restante, Math.max(1, fimIntervalo - agora)));
+                }
+            } finally {
+                aguardando[p]--;
+                if (emUso < permissoes) sinalizar();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** Devolve a permissão e passa a vez ao próximo da fila de maior prioridade. */
+    public void liberar() {
+        trava.lock();
+        try {
+            emUso--;
+            avancar(System.nanoTime());
+            sinalizar();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private long limiteEspera(Prioridade prioridade) {
+        if (!sobrecarregado) return esperaNanos;
+        return switch (prioridade) {
+            case ALTA -> esperaNanos;
+            case MEDIA -> Math.min(alvoNanos, esperaNanos);
+            case BAIXA -> 0;
+        };
+    }
+
+    private void observar(long espera) {
+        menorEspera = Math.min(menorEspera, espera);
+        amostras++;
+    }
+
+    /** Fecha o intervalo, se acabou, decidindo se há sobrecarga. */
+    private void avancar(long agora) {
+        if (agora < fimIntervalo) return;
+        boolean antes = sobrecarregado;
+        // sem amostras, ninguém saiu da fila no intervalo: sobrecarga se há quem espere
+        sobrecarregado = amostras > 0 ? menorEspera > alvoNanos : totalAguardando() > 0;
+        menorEspera = Long.MAX_VALUE;
+        amostras = 0;
+        fimIntervalo = agora + intervaloNanos;
+        if (sobrecarregado && !antes) {
+            for (Condition c : vaga) c.signalAll();
+        }
+    }
+
+    private void sinalizar() {
+        for (int i = 0; i < PRIORIDADES.length; i++) {
+            if (aguardando[i] > 0) {
+                vaga[i].signal();
+                return;
+            }
+        }
+    }
+
+    private boolean haMaisPrioritaria(int p) {
+        for (int i = 0; i < p; i++) {
+            if (aguardando[i] > 0) return true;
+        }
+        return false;
+    }
+
+    private int totalAguardando() {
+        int total = 0;
+        for (int a : aguardando) total += a;
+        return total;
+    }
+
+    /** @return requisições executando */
+    public int getEmUso() {
+        trava.lock();
+        try {
+            return emUso;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** @return requisições na fila */
+    public int getAguardando() {
+        trava.lock();
+        try {
+            return totalAguardando();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** @return true se o último intervalo fechou com fila permanente */
+    public boolean isSobrecarregado() {
+        trava.lock();
+        try {
+            return sobrecarregado;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("emUso=%d aguardando=%d sobrecarregado=%s",
+                getEmUso(), getAguardando(), isSobrecarregado());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Centro Pokémon - Filtro de Admissão
+ * ---------------------------------------
+ * @file        AdmissaoFilter.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Porta de entrada global das rotas /api/**: admite as
+ *              requisições pela fila CoDel e, sob sobrecarga, recusa com 503
+ *              primeiro a navegação da Pokédex, depois as rotas locais.
+ */
+package com.centropokemon.security;
+
+import com.centropokemon.security.AdmissaoCoDel.Prioridade;
+import com.centropokemon.security.AdmissaoCoDel.Resultado;
+import com.centropokemon.service.Prazo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Antes dos compartimentos e da autenticação, toda requisição
+ * {@code /api/**} passa pela {@link AdmissaoCoDel} do servidor, com
+ * prioridade pela rota:
+ * <ul>
+ *   <li>alta: cura e demais rotas {@code /api/centro/**}, login e cadastro;</li>
+ *   <li>média: coleção, consultas e demais rotas locais;</li>
+ *   <li>baixa: Pokédex ({@code /api/pokemons/**}) e áudio.</li>
+ * </ul>
+ * Quem não é admitido recebe 503 com {@code Retry-After} sem passar pelo
+ * resto da cadeia; quem só é admitido depois de esgotar o {@link Prazo}
+ * na fila recebe 504, sem executar. {@code centro.admissao.permissoes} deve
+ * ficar perto do que o servidor sustenta (banco, CPU): acima disso a espera
+ * acontece dentro dos controllers e a fila não a enxerga.
+ * <p>
+ * Métricas: {@code centro.admissao.em-uso}, {@code centro.admissao.fila},
+ * {@code centro.admissao.sobrecarga} (0 ou 1),
+ * {@code centro.admissao.espera{prioridade}} e
+ * {@code centro.admissao.rejeitadas{prioridade,motivo}}.
+ */
+@Component
+@Order(AdmissaoFilter.ORDEM)
+public class AdmissaoFilter extends OncePerRequestFilter {
+
+    /** Depois dos filtros de observação e encoding do Spring Boot, antes de token e compartimentos. */
+    public static final int ORDEM = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private final boolean habilitado;
+    private final AdmissaoCoDel admissao;
+    private final Map<Prioridade, Timer> espera = new EnumMap<>(Prioridade.class);
+    private final Map<Prioridade, Map<Resultado, Counter>> rejeitadas = new EnumMap<>(Prioridade.class);
+
+    public AdmissaoFilter(MeterRegistry metricas,
+                          @Value("${centro.admissao.habilitado:true}") boolean habilitado,
+                          @Value("${centro.admissao.permissoes:64}") int permissoes,
+                          @Value("${centro.admissao.fila:1024}") int fila,
+                          @Value("${centro.admissao.alvo-ms:10}") long alvoMs,
+                          @Value("${centro.admissao.intervalo-ms:100}") long intervaloMs,
+                          @Value("${centro.admissao.espera-ms:1000}") long esperaMs) {
+        this.habilitado = habilitado;
+        this.admissao = new AdmissaoCoDel(permissoes, fila, Duration.ofMillis(alvoMs),
+                Duration.ofMillis(intervaloMs), Duration.ofMillis(esperaMs));
+        for (Prioridade p : Prioridade.values()) {
+            String prioridade = p.name().toLowerCase(Locale.ROOT);
+            espera.put(p, Timer.builder("centro.admissao.espera").tag("prioridade", prioridade)
+                    .description("Espera na fila de admissão").register(metricas));
+            Map<Resultado, Counter> porMotivo = new EnumMap<>(Resultado.class);
+            for (Resultado r : Resultado.values()) {
+                if (r == Resultado.ADMITIDA) continue;
+                porMotivo.put(r, Counter.builder("centro.admissao.rejeitadas").tag("prioridade", prioridade)
+                        .tag("motivo", r.name().toLowerCase(Locale.ROOT).replace('_', '-')).register(metricas));
+            }
+            rejeitadas.put(p, porMotivo);
+        }
+        Gauge.builder("centro.admissao.em-uso", admissao, AdmissaoCoDel::getEmUso)
+                .description("Requisições admitidas em execução").register(metricas);
+        Gauge.builder("centro.admissao.fila", admissao, AdmissaoCoDel::getAguardando)
+                .description("Requisições esperando admissão").register(metricas);
+        Gauge.builder("centro.admissao.sobrecarga", admissao, a -> a.isSobrecarregado() ? 1 : 0)
+                .description("1 enquanto há fila permanente de admissão").register(metricas);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || "OPTIONS".equalsIgnoreCase(request.getMethod())
+                || !CaminhoRequisicao.de(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Prioridade prioridade = prioridade(request);
+        long inicio = System.nanoTime();
+        Resultado resultado;
+        try {
+            resultado = admissao.admitir(prioridade);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado = Resultado.ESPERA_ESGOTADA;
+        }
+        if (resultado != Resultado.ADMITIDA) {
+            rejeitadas.get(prioridade).get(resultado).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        espera.get(prioridade).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        try {
+            if (Prazo.restanteNanos() <= 0) {
+                rejeitadas.get(prioridade).get(Resultado.ESPERA_ESGOTADA).increment();
+                response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+                return;
+            }
+            chain.doFilter(request, response);
+        } finally {
+            admissao.liberar();
+        }
+    }
+
+    static Prioridade prioridade(HttpServletRequest request) {
+        return switch (CompartimentosFilter.classificar(request)) {
+            case AUTENTICACAO -> Prioridade.ALTA;
+            case POKEDEX, AUDIO -> Prioridade.BAIXA;
+            case LOCAL -> CaminhoRequisicao.de(request).startsWith("/api/centro/") ? Prioridade.ALTA : Prioridade.MEDIA;
+        };
+    }
+
+    /** @return fila de admissão do servidor */
+    public AdmissaoCoDel getAdmissao() {
+        return admissao;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Centro Pokémon - Caminho da Requisição
+ * ---------------------------------------
+ * @file        CaminhoRequisicao.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Caminho da requisição como o Spring MVC o enxerga ao rotear,
+ *              para que filtros e interceptors classifiquem a mesma rota
+ *              que o controller atende.
+ */
+package com.centropokemon.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * {@code getRequestURI()} é o caminho cru: {@code /api/treinadores/%36/pokemons}
+ * e {@code /api/treinadores;x/6/pokemons} chegam ao controller do treinador 6,
+ * mas não casam com um padrão escrito sobre o caminho decodificado. Aqui o
+ * caminho sai como o Spring roteia: sem o contexto da aplicação, decodificado,
+ * sem parâmetros de matriz ({@code ;...}) e sem barras repetidas.
+ */
+final class CaminhoRequisicao {
+
+    private static final UrlPathHelper CAMINHOS = new UrlPathHelper();
+
+    static {
+        CAMINHOS.setAlwaysUseFullPath(true);
+        CAMINHOS.setUrlDecode(true);
+        CAMINHOS.setRemoveSemicolonContent(true);
+    }
+
+    private CaminhoRequisicao() {
+    }
+
+    /** @return caminho decodificado e normalizado, relativo ao contexto */
+    static String de(HttpServletRequest request) {
+        return CAMINHOS.getLookupPathForRequest(request);
+    }
+
+    /** @return true se algum segmento é {@code .} ou {@code ..} */
+    static boolean temSegmentoPonto(String caminho) {
+        for (String segmento : caminho.split("/")) {
+            if (segmento.equals(".") || segmento.equals("..")) return true;
+        }
+        return false;
+    }
+}
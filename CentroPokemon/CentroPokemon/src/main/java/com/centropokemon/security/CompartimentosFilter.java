@@ -0,0 +1,189 @@
+/*
+ * Centro Pokémon - Compartimentos de Concorrência
+ * ---------------------------------------
+ * @file        CompartimentosFilter.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Limita as requisições simultâneas de cada grupo de rotas com
+ *              permissões e fila próprias, para que a Pokédex (dependente da
+ *              PokeAPI) não esgote a capacidade das rotas só locais.
+ */
+package com.centropokemon.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compartimentos (bulkheads) e valores padrão, configuráveis em
+ * {@code centro.compartimento.<grupo>.permissoes}, {@code .fila} e
+ * {@code .espera-ms}:
+ * <ul>
+ *   <li>{@code pokedex}: {@code /api/pokemons/**}, que pode esperar a PokeAPI;</li>
+ *   <li>{@code audio}: {@code /api/sons/**} e {@code /api/cries/**};</li>
+ *   <li>{@code autenticacao}: login e cadastro;</li>
+ *   <li>{@code local}: demais rotas {@code /api/**} (centro, coleção,
+ *       consultas), que só dependem do banco.</li>
+ * </ul>
+ * Cada requisição ocupa uma permissão do seu grupo enquanto o controller
+ * executa. Sem permissão livre ela espera até {@code espera-ms}, se houver
+ * lugar na fila do grupo; fila cheia ou espera esgotada responde 503 com
+ * {@code Retry-After}. Assim uma PokeAPI travada prende no máximo as
+ * permissões de {@code pokedex}, e cura, login e coleção seguem atendidos.
+ * <p>
+ * Fluxos assíncronos (SSE) liberam a permissão quando o controller devolve
+ * o emitter. Métricas: {@code centro.compartimento.ativas{grupo}},
+ * {@code centro.compartimento.fila{grupo}} e
+ * {@code centro.compartimento.rejeitadas{grupo,motivo}}.
+ */
+@Component
+public class CompartimentosFilter extends OncePerRequestFilter {
+
+    /** Grupos de rotas com capacidade independente. */
+    public enum Grupo {
+        POKEDEX(16, 32, 500),
+        AUDIO(64, 64, 200),
+        AUTENTICACAO(16, 32, 1000),
+        LOCAL(64, 128, 1000);
+
+        private final int permissoesPadrao;
+        private final int filaPadrao;
+        private final long esperaMsPadrao;
+
+        Grupo(int permissoesPadrao, int filaPadrao, long esperaMsPadrao) {
+            this.permissoesPadrao = permissoesPadrao;
+            this.filaPadrao = filaPadrao;
+            this.esperaMsPadrao = esperaMsPadrao;
+        }
+
+        String chave() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Resultado da tentativa de entrar no compartimento. */
+    enum Entrada { LIBERADA, FILA_CHEIA, ESPERA_ESGOTADA }
+
+    private final boolean habilitado;
+    private final Map<Grupo, Compartimento> compartimentos = new EnumMap<>(Grupo.class);
+
+    public CompartimentosFilter(Environment env, MeterRegistry metricas,
+                                @Value("${centro.compartimento.habilitado:true}") boolean habilitado) {
+        this.habilitado = habilitado;
+        for (Grupo g : Grupo.values()) {
+            String prefixo = "centro.compartimento." + g.chave();
+            Compartimento c = new Compartimento(
+                    env.getProperty(prefixo + ".permissoes", Integer.class, g.permissoesPadrao),
+                    env.getProperty(prefixo + ".fila", Integer.class, g.filaPadrao),
+                    env.getProperty(prefixo + ".espera-ms", Long.class, g.esperaMsPadrao),
+                    Counter.builder("centro.compartimento.rejeitadas").tag("grupo", g.chave())
+                            .tag("motivo", "fila").register(metricas),
+                    Counter.builder("centro.compartimento.rejeitadas").tag("grupo", g.chave())
+                            .tag("motivo", "espera").register(metricas));
+            Gauge.builder("centro.compartimento.ativas", c, Compartimento::ativas).tag("grupo", g.chave())
+                    .description("Requisições ocupando permissões do grupo").register(metricas);
+            Gauge.builder("centro.compartimento.fila", c.aguardando, AtomicInteger::get).tag("grupo", g.chave())
+                    .description("Requisições esperando permissão do grupo").register(metricas);
+            compartimentos.put(g, c);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || "OPTIONS".equalsIgnoreCase(request.getMethod())
+                || !CaminhoRequisicao.de(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Compartimento c = compartimentos.get(classificar(request));
+        Entrada entrada;
+        try {
+            entrada = c.entrar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entrada = Entrada.ESPERA_ESGOTADA;
+        }
+        if (entrada != Entrada.LIBERADA) {
+            (entrada == Entrada.FILA_CHEIA ? c.rejeitadasFila : c.rejeitadasEspera).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            c.permissoes.release();
+        }
+    }
+
+    static Grupo classificar(HttpServletRequest request) {
+        String uri = CaminhoRequisicao.de(request);
+        if (uri.startsWith("/api/pokemons")) {
+            return Grupo.POKEDEX;
+        }
+        if (uri.startsWith("/api/sons/") || uri.startsWith("/api/cries/")) {
+            return Grupo.AUDIO;
+        }
+        if (uri.equals("/api/treinadores/login") || uri.equals("/api/treinadores/cadastrar")) {
+            return Grupo.AUTENTICACAO;
+        }
+        return Grupo.LOCAL;
+    }
+
+    private static final class Compartimento {
+        final Semaphore permissoes;
+        final int total;
+        final int fila;
+        final long esperaNanos;
+        final AtomicInteger aguardando = new AtomicInteger();
+        final Counter rejeitadasFila;
+        final Counter rejeitadasEspera;
+
+        Compartimento(int permissoes, int fila, long esperaMs, Counter rejeitadasFila, Counter rejeitadasEspera) {
+            this.total = Math.max(1, permissoes);
+            this.permissoes = new Semaphore(total, true);
+            this.fila = Math.max(0, fila);
+            this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, esperaMs));
+            this.rejeitadasFila = rejeitadasFila;
+            this.rejeitadasEspera = rejeitadasEspera;
+        }
+
+        Entrada entrar() throws InterruptedException {
+            if (permissoes.tryAcquire()) return Entrada.LIBERADA;
+            if (aguardando.incrementAndGet() > fila) {
+                aguardando.decrementAndGet();
+                return Entrada.FILA_CHEIA;
+            }
+            try {
+                return permissoes.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS) ? Entrada.LIBERADA : Entrada.ESPERA_ESGOTADA;
+            } finally {
+                aguardando.decrementAndGet();
+            }
+        }
+
+        int ativas() {
+            return total - permissoes.availablePermits();
+        }
+    }
+}
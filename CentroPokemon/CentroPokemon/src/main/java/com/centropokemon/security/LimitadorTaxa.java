@@ -0,0 +1,98 @@
+/*
+ * Centro Pokémon - Limitador de Taxa
+ * ---------------------------------------
+ * @file        LimitadorTaxa.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Baldes de fichas (token bucket) por cliente, sem bloqueio,
+ *              para um grupo de rotas.
+ */
+package com.centropokemon.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket implementado como GCRA: cada balde guarda apenas o "instante
+ * teórico de chegada" (TAT) em um {@link AtomicLong}. Consumir uma ficha é
+ * uma leitura e um CAS, sem alocação e sem lock; o comportamento é idêntico
+ * ao de um balde com {@code rajada} fichas reabastecido a {@code taxa}/s.
+ * <p>
+ * Os baldes ficam em um {@link ConcurrentHashMap} (leitura sem lock, escrita
+ * particionada por bin). Um balde cujo TAT já passou está cheio e equivale a
+ * um balde novo, então {@link #removerOciosos()} pode descartá-lo sem mudar
+ * o resultado de nenhuma requisição futura.
+ */
+public class LimitadorTaxa {
+
+    private final String grupo;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final LongSupplier relogio;
+    private final ConcurrentHashMap<Object, AtomicLong> baldes = new ConcurrentHashMap<>();
+
+    /**
+     * @param grupo nome do grupo de rotas (para logs e métricas)
+     * @param taxaPorSegundo fichas repostas por segundo
+     * @param rajada capacidade do balde
+     */
+    public LimitadorTaxa(String grupo, double taxaPorSegundo, int rajada) {
+        this(grupo, taxaPorSegundo, rajada, System::nanoTime);
+    }
+
+    LimitadorTaxa(String grupo, double taxaPorSegundo, int rajada, LongSupplier relogio) {
+        if (taxaPorSegundo <= 0 || rajada < 1) {
+            throw new IllegalArgumentException("Limite inválido para o grupo " + grupo);
+        }
+        this.grupo = grupo;
+        this.intervaloNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / taxaPorSegundo));
+        this.toleranciaNanos = intervaloNanos * (rajada - 1L);
+        this.relogio = relogio;
+    }
+
+    /**
+     * Tenta consumir uma ficha do balde do cliente.
+     * @param cliente chave do cliente (IP ou ID do treinador)
+     * @return 0 se permitido; senão, nanossegundos até a próxima ficha
+     */
+    public long consumir(Object cliente) {
+        long agora = relogio.getAsLong();
+        AtomicLong tat = baldes.get(cliente);
+        if (tat == null) {
+            tat = baldes.computeIfAbsent(cliente, k -> new AtomicLong(agora));
+        }
+        while (true) {
+            long atual = tat.get();
+            long base = atual - agora < 0 ? agora : atual;
+            long espera = base - toleranciaNanos - agora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (tat.compareAndSet(atual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove os baldes cheios (ociosos há tempo suficiente para reabastecer).
+     * Uma requisição concorrente com a remoção pode, no pior caso, ganhar uma
+     * ficha extra, o que evita qualquer sincronização com o caminho quente.
+     * @return quantidade removida
+     */
+    public int removerOciosos() {
+        long agora = relogio.getAsLong();
+        int antes = baldes.size();
+        baldes.values().removeIf(tat -> tat.get() - agora <= 0);
+        return antes - baldes.size();
+    }
+
+    /** @return nome do grupo */
+    public String getGrupo() { return grupo; }
+
+    /** @return baldes em memória */
+    public int getTamanho() { return baldes.size(); }
+}
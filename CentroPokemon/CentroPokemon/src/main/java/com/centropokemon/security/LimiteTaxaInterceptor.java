@@ -0,0 +1,156 @@
+/*
+ * Centro Pokémon - Interceptor de Limite de Taxa
+ * ---------------------------------------
+ * @file        LimiteTaxaInterceptor.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.4
+ * @date        19/10/2026
+ * @description Aplica limites de taxa por cliente/treinador e grupo de rotas
+ *              a todos os controllers que estendem BaseRestController.
+ */
+package com.centropokemon.security;
+
+import com.centropokemon.controller.BaseRestController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grupos de rotas e limites padrão (configuráveis em
+ * {@code centro.limite.<grupo>.taxa} e {@code centro.limite.<grupo>.rajada}):
+ * <ul>
+ *   <li>{@code autenticacao}: login e cadastro, por IP;</li>
+ *   <li>{@code pokedex}: {@code /api/pokemons/**}, que pode chamar a PokeAPI;</li>
+ *   <li>{@code audio}: {@code /api/sons/**} e {@code /api/cries/**}, com muitos pedidos pequenos por página;</li>
+ *   <li>{@code escrita}: demais POST/PUT/PATCH/DELETE;</li>
+ *   <li>{@code leitura}: demais GET.</li>
+ * </ul>
+ * O cliente é o treinador autenticado pelo {@link TokenSessaoFilter} quando
+ * houver sessão, senão o IP. Ao exceder o limite responde 429 com
+ * {@code Retry-After} em segundos.
+ */
+@Component
+public class LimiteTaxaInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteTaxaInterceptor.class);
+
+    /** Grupos de rotas com limites independentes. */
+    public enum Grupo {
+        AUTENTICACAO(0.2, 5),
+        POKEDEX(5, 20),
+        AUDIO(50, 100),
+        ESCRITA(2, 10),
+        LEITURA(20, 40);
+
+        private final double taxaPadrao;
+        private final int rajadaPadrao;
+
+        Grupo(double taxaPadrao, int rajadaPadrao) {
+            this.taxaPadrao = taxaPadrao;
+            this.rajadaPadrao = rajadaPadrao;
+        }
+
+        String chave() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final boolean habilitado;
+    private final boolean confiarEncaminhado;
+    private final Map<Grupo, LimitadorTaxa> limitadores = new EnumMap<>(Grupo.class);
+    private final Map<Grupo, Counter> rejeicoes = new EnumMap<>(Grupo.class);
+
+    public LimiteTaxaInterceptor(Environment env, MeterRegistry metricas,
+                                 @Value("${centro.limite.habilitado:true}") boolean habilitado,
+                                 @Value("${centro.limite.confiar-x-forwarded-for:false}") boolean confiarEncaminhado) {
+        this.habilitado = habilitado;
+        this.confiarEncaminhado = confiarEncaminhado;
+        for (Grupo g : Grupo.values()) {
+            double taxa = env.getProperty("centro.limite." + g.chave() + ".taxa", Double.class, g.taxaPadrao);
+            int rajada = env.getProperty("centro.limite." + g.chave() + ".rajada", Integer.class, g.rajadaPadrao);
+            limitadores.put(g, new LimitadorTaxa(g.chave(), taxa, rajada));
+            rejeicoes.put(g, Counter.builder("centro.limite.rejeitadas").tag("grupo", g.chave()).register(metricas));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!habilitado || !(handler instanceof HandlerMethod hm)
+                || !BaseRestController.class.isAssignableFrom(hm.getBeanType())) {
+            return true;
+        }
+        Grupo grupo = classificar(request);
+        long espera = limitadores.get(grupo).consumir(cliente(request, grupo));
+        if (espera == 0) {
+            return true;
+        }
+        rejeicoes.get(grupo).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1))));
+        return false;
+    }
+
+    /**
+     * Remove periodicamente os baldes ociosos de todos os grupos.
+     */
+    @Scheduled(fixedDelayString = "${centro.limite.limpeza-ms:60000}")
+    public void removerOciosos() {
+        for (LimitadorTaxa l : limitadores.values()) {
+            int removidos = l.removerOciosos();
+            if (removidos > 0) {
+                log.debug("Limite {}: {} baldes ociosos removidos, {} ativos", l.getGrupo(), removidos, l.getTamanho());
+            }
+        }
+    }
+
+    static Grupo classificar(HttpServletRequest request) {
+        String uri = CaminhoRequisicao.de(request);
+        String metodo = request.getMethod();
+        if (uri.startsWith("/api/pokemons")) {
+            return Grupo.POKEDEX;
+        }
+        if (uri.startsWith("/api/sons/") || uri.startsWith("/api/cries/")) {
+            return Grupo.AUDIO;
+        }
+        boolean leitura = "GET".equals(metodo) || "HEAD".equals(metodo);
+        if (leitura) {
+            return Grupo.LEITURA;
+        }
+        if (uri.equals("/api/treinadores/login") || uri.equals("/api/treinadores/cadastrar")) {
+            return Grupo.AUTENTICACAO;
+        }
+        return Grupo.ESCRITA;
+    }
+
+    private Object cliente(HttpServletRequest request, Grupo grupo) {
+        if (grupo != Grupo.AUTENTICACAO
+                && request.getAttribute(TokenSessaoFilter.ATRIBUTO_SESSAO) instanceof TokenSessaoService.Sessao s) {
+            return s.treinadorId();
+        }
+        if (confiarEncaminhado) {
+            String encaminhado = request.getHeader("X-Forwarded-For");
+            if (encaminhado != null && !encaminhado.isBlank()) {
+                int virgula = encaminhado.indexOf(',');
+                return (virgula < 0 ? encaminhado : encaminhado.substring(0, virgula)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
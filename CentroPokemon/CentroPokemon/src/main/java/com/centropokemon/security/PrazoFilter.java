@@ -0,0 +1,102 @@
+/*
+ * Centro Pokémon - Filtro de Prazo
+ * ---------------------------------------
+ * @file        PrazoFilter.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Dá a cada requisição /api/** um prazo, vindo do cabeçalho
+ *              X-Prazo-Ms ou do padrão do grupo de rotas, e o mantém na
+ *              thread enquanto ela é atendida.
+ */
+package com.centropokemon.security;
+
+import com.centropokemon.security.CompartimentosFilter.Grupo;
+import com.centropokemon.service.Prazo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * O prazo é relativo, em milissegundos, para não depender do relógio do
+ * cliente: {@code X-Prazo-Ms: 1500}. Sem cabeçalho (ou com valor inválido)
+ * vale o padrão do grupo ({@code centro.prazo.<grupo>-ms}); o cabeçalho só
+ * pode encurtar o prazo, nunca passar do padrão. Roda antes da admissão,
+ * então a espera na fila já consome o prazo.
+ * <p>
+ * Quem usa o prazo está em {@link Prazo}. Métrica:
+ * {@code centro.prazo.esgotados} (requisições que terminaram depois do prazo).
+ */
+@Component
+@Order(PrazoFilter.ORDEM)
+public class PrazoFilter extends OncePerRequestFilter {
+
+    /** Cabeçalho com o prazo do cliente, em milissegundos. */
+    public static final String CABECALHO = "X-Prazo-Ms";
+
+    /** Logo antes da admissão. */
+    public static final int ORDEM = AdmissaoFilter.ORDEM - 1;
+
+    private static final Map<Grupo, Long> PADRAO_MS = Map.of(
+            Grupo.POKEDEX, 10_000L,
+            Grupo.AUDIO, 30_000L,
+            Grupo.AUTENTICACAO, 5_000L,
+            Grupo.LOCAL, 5_000L);
+
+    private final boolean habilitado;
+    private final Map<Grupo, Duration> padroes = new EnumMap<>(Grupo.class);
+    private final Counter esgotados;
+
+    public PrazoFilter(Environment env, MeterRegistry metricas,
+                       @Value("${centro.prazo.habilitado:true}") boolean habilitado) {
+        this.habilitado = habilitado;
+        for (Grupo g : Grupo.values()) {
+            padroes.put(g, Duration.ofMillis(
+                    env.getProperty("centro.prazo." + g.chave() + "-ms", Long.class, PADRAO_MS.get(g))));
+        }
+        this.esgotados = Counter.builder("centro.prazo.esgotados")
+                .description("Requisições que terminaram depois do prazo").register(metricas);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !CaminhoRequisicao.de(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Prazo.definir(prazo(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (Prazo.restanteNanos() <= 0) esgotados.increment();
+            Prazo.limpar();
+        }
+    }
+
+    Duration prazo(HttpServletRequest request) {
+        Duration padrao = padroes.get(CompartimentosFilter.classificar(request));
+        String cabecalho = request.getHeader(CABECALHO);
+        if (cabecalho == null) return padrao;
+        try {
+            long ms = Long.parseLong(cabecalho.trim());
+            return ms < 0 ? padrao : Duration.ofMillis(Math.min(ms, padrao.toMillis()));
+        } catch (NumberFormatException e) {
+            return padrao;
+        }
+    }
+}
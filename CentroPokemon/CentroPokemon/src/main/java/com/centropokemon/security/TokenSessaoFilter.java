@@ -0,0 +1,108 @@
+/*
+ * Centro Pokémon - Filtro de Sessão
+ * ---------------------------------------
+ * @file        TokenSessaoFilter.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.3
+ * @date        19/10/2026
+ * @description Exige um token de sessão válido nas rotas de um treinador e
+ *              confere se o treinador do token é o mesmo do caminho.
+ */
+package com.centropokemon.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Protege {@code /api/treinadores/{id}/**} e {@code /api/centro/treinadores/{id}/**}.
+ * Sem token (ou com token inválido/expirado) responde 401; com token de outro
+ * treinador responde 403. A verificação é só CPU, sem acesso ao banco.
+ * A sessão validada fica disponível no atributo {@link #ATRIBUTO_SESSAO}.
+ * <p>
+ * O caminho conferido é o que o Spring roteia ({@link CaminhoRequisicao}),
+ * então {@code %36} ou {@code ;x} no caminho não escapam da verificação.
+ * Qualquer outro caminho sob {@code /api/treinadores/} ou
+ * {@code /api/centro/treinadores/} que não seja login, cadastro ou
+ * {@code .../{id}/...} recebe 400 em vez de seguir sem token.
+ * <p>
+ * O token vem em {@code Authorization: Bearer}. O fluxo de eventos
+ * ({@code GET /api/treinadores/{id}/eventos}) aceita ainda {@code ?bilhete=},
+ * porque o {@code EventSource} do navegador não envia cabeçalhos próprios:
+ * o bilhete é pedido com o token em {@code POST .../eventos/bilhete}, dura
+ * pouco e não vale em nenhuma outra rota, então o token de sessão nunca
+ * aparece em URL.
+ */
+@Component
+public class TokenSessaoFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_SESSAO = TokenSessaoFilter.class.getName() + ".sessao";
+
+    /** Sem zeros à esquerda: o Spring converte {@code {treinadorId}} com {@code Integer.decode}, que lê {@code 010} como octal. */
+    private static final Pattern ROTA_TREINADOR = Pattern.compile("^/api/(?:centro/)?treinadores/(0|[1-9]\\d{0,9})(?:/.*)?$");
+    private static final Pattern PREFIXO_TREINADORES = Pattern.compile("^/api/(?:centro/)?treinadores(?:/.*)?$");
+    private static final Set<String> ROTAS_PUBLICAS = Set.of("/api/treinadores/login", "/api/treinadores/cadastrar");
+    private static final Pattern ROTA_EVENTOS = Pattern.compile("^/api/treinadores/\\d+/eventos$");
+    private static final String PREFIXO_BEARER = "Bearer ";
+
+    private final TokenSessaoService tokens;
+
+    public TokenSessaoFilter(TokenSessaoService tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) return true;
+        String caminho = CaminhoRequisicao.de(request);
+        return !PREFIXO_TREINADORES.matcher(caminho).matches() || ROTAS_PUBLICAS.contains(caminho);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String caminho = CaminhoRequisicao.de(request);
+        Matcher m = ROTA_TREINADOR.matcher(caminho);
+        long treinadorId;
+        try {
+            if (!m.matches() || CaminhoRequisicao.temSegmentoPonto(caminho)) throw new NumberFormatException(caminho);
+            treinadorId = Long.parseLong(m.group(1));
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Optional<TokenSessaoService.Sessao> sessao = sessao(request, caminho);
+        if (sessao.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (treinadorId != sessao.get().treinadorId()) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        request.setAttribute(ATRIBUTO_SESSAO, sessao.get());
+        chain.doFilter(request, response);
+    }
+
+    private Optional<TokenSessaoService.Sessao> sessao(HttpServletRequest request, String caminho) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, PREFIXO_BEARER, 0, PREFIXO_BEARER.length())) {
+            return tokens.verificar(header.substring(PREFIXO_BEARER.length()).trim());
+        }
+        if ("GET".equals(request.getMethod()) && ROTA_EVENTOS.matcher(caminho).matches()) {
+            return tokens.verificarBilheteEventos(request.getParameter("bilhete"));
+        }
+        return Optional.empty();
+    }
+}
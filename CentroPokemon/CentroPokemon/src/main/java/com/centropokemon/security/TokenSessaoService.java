@@ -0,0 +1,209 @@
+/*
+ * Centro Pokémon - Tokens de Sessão
+ * ---------------------------------------
+ * @file        TokenSessaoService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Emissão e verificação de tokens de sessão assinados com
+ *              HMAC-SHA256. O token carrega o ID do treinador e a expiração,
+ *              dispensando sessão no servidor e consulta ao banco.
+ *              Emite também bilhetes curtos para o fluxo de eventos (SSE).
+ */
+package com.centropokemon.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Formato do token: {@code kid.treinadorId.expiracao.assinatura}, em que a
+ * expiração é o epoch em segundos e a assinatura é o HMAC-SHA256 (base64url)
+ * dos três primeiros campos.
+ * <p>
+ * As chaves vêm de {@code centro.sessao.chaves} no formato
+ * {@code kid:segredoBase64,kid:segredoBase64}. A primeira assina os novos
+ * tokens; as demais apenas validam, o que permite rotacionar a chave sem
+ * invalidar as sessões em andamento. Sem chaves configuradas é gerada uma
+ * chave aleatória, válida só enquanto a instância estiver no ar.
+ * <p>
+ * O {@code EventSource} do navegador não envia cabeçalhos, então o fluxo de
+ * eventos recebe a credencial na URL, onde ela vaza para logs de acesso e
+ * histórico. Por isso ali vai um bilhete, não o token de sessão:
+ * {@code kid.treinadorId.expiracao.eventos.assinatura}, válido por
+ * {@code centro.sessao.bilhete-eventos} (1 minuto por padrão) e só aceito
+ * nessa rota. O campo a mais impede que o bilhete passe por token de
+ * sessão e vice-versa.
+ */
+@Service
+public class TokenSessaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSessaoService.class);
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DEC = Base64.getUrlDecoder();
+    private static final String ESCOPO_EVENTOS = "eventos";
+
+    /**
+     * Sessão extraída de um token válido.
+     * @param treinadorId ID do treinador autenticado
+     * @param expiraEm instante de expiração
+     */
+    public record Sessao(Integer treinadorId, Instant expiraEm) {}
+
+    /**
+     * Token emitido no login, ou bilhete do fluxo de eventos.
+     * @param token valor a enviar em {@code Authorization: Bearer} (ou em
+     *              {@code ?bilhete=}, no caso do bilhete)
+     * @param expiraEm instante de expiração
+     */
+    public record TokenEmitido(String token, Instant expiraEm) {}
+
+    private final Map<String, SecretKeySpec> chaves;
+    private final String chaveAtiva;
+    private final Duration validade;
+    private final Duration validadeBilhete;
+    private final Clock relogio;
+
+    @Autowired
+    public TokenSessaoService(@Value("${centro.sessao.chaves:}") String chavesConfiguradas,
+                              @Value("${centro.sessao.validade:PT12H}") Duration validade,
+                              @Value("${centro.sessao.bilhete-eventos:PT1M}") Duration validadeBilhete) {
+        this(chavesConfiguradas, validade, validadeBilhete, Clock.systemUTC());
+    }
+
+    TokenSessaoService(String chavesConfiguradas, Duration validade, Clock relogio) {
+        this(chavesConfiguradas, validade, Duration.ofMinutes(1), relogio);
+    }
+
+    TokenSessaoService(String chavesConfiguradas, Duration validade, Duration validadeBilhete, Clock relogio) {
+        this.chaves = lerChaves(chavesConfiguradas);
+        this.chaveAtiva = chaves.keySet().iterator().next();
+        this.validade = validade;
+        this.validadeBilhete = validadeBilhete;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Emite um token para o treinador com a chave ativa.
+     * @param treinadorId ID do treinador
+     * @return token e sua expiração
+     */
+    public TokenEmitido emitir(Integer treinadorId) {
+        return emitir(treinadorId, validade, null);
+    }
+
+    /**
+     * Emite o bilhete curto que abre o fluxo de eventos do treinador.
+     * @param treinadorId ID do treinador (já autenticado pelo token de sessão)
+     * @return bilhete e sua expiração
+     */
+    public TokenEmitido emitirBilheteEventos(Integer treinadorId) {
+        return emitir(treinadorId, validadeBilhete, ESCOPO_EVENTOS);
+    }
+
+    /**
+     * Verifica assinatura e expiração sem acessar o banco.
+     * @param token valor recebido do cliente
+     * @return sessão, ou vazio se o token for inválido, expirado ou de chave desconhecida
+     */
+    public Optional<Sessao> verificar(String token) {
+        return verificar(token, null);
+    }
+
+    /**
+     * Verifica um bilhete do fluxo de eventos; token de sessão não serve.
+     * @param bilhete valor recebido em {@code ?bilhete=}
+     * @return sessão, ou vazio se o bilhete for inválido ou expirado
+     */
+    public Optional<Sessao> verificarBilheteEventos(String bilhete) {
+        return verificar(bilhete, ESCOPO_EVENTOS);
+    }
+
+    private TokenEmitido emitir(Integer treinadorId, Duration duracao, String escopo) {
+        if (treinadorId == null) {
+            throw new IllegalArgumentException("Treinador obrigatório");
+        }
+        Instant expiraEm = relogio.instant().plus(duracao);
+        String corpo = chaveAtiva + "." + treinadorId + "." + expiraEm.getEpochSecond()
+                + (escopo == null ? "" : "." + escopo);
+        String token = corpo + "." + B64.encodeToString(assinar(chaves.get(chaveAtiva), corpo));
+        return new TokenEmitido(token, expiraEm);
+    }
+
+    private Optional<Sessao> verificar(String token, String escopo) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        int fimCorpo = token.lastIndexOf('.');
+        if (fimCorpo <= 0) return Optional.empty();
+        String corpo = token.substring(0, fimCorpo);
+        String[] campos = corpo.split("\\.");
+        if (escopo == null ? campos.length != 3 : campos.length != 4 || !escopo.equals(campos[3])) {
+            return Optional.empty();
+        }
+
+        SecretKeySpec chave = chaves.get(campos[0]);
+        if (chave == null) return Optional.empty();
+        try {
+            byte[] recebida = B64_DEC.decode(token.substring(fimCorpo + 1));
+            if (!MessageDigest.isEqual(recebida, assinar(chave, corpo))) return Optional.empty();
+            Integer treinadorId = Integer.valueOf(campos[1]);
+            Instant expiraEm = Instant.ofEpochSecond(Long.parseLong(campos[2]));
+            if (!relogio.instant().isBefore(expiraEm)) return Optional.empty();
+            return Optional.of(new Sessao(treinadorId, expiraEm));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] assinar(SecretKeySpec chave, String corpo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(corpo.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível", e);
+        }
+    }
+
+    private static Map<String, SecretKeySpec> lerChaves(String configuradas) {
+        Map<String, SecretKeySpec> chaves = new LinkedHashMap<>();
+        if (configuradas != null) {
+            for (String item : configuradas.split(",")) {
+                String entrada = item.trim();
+                if (entrada.isEmpty()) continue;
+                int sep = entrada.indexOf(':');
+                if (sep <= 0 || entrada.substring(0, sep).contains(".")) {
+                    throw new IllegalStateException("Chave de sessão inválida (use kid:segredoBase64): " + entrada.substring(0, Math.max(sep, 0)));
+                }
+                byte[] segredo = Base64.getDecoder().decode(entrada.substring(sep + 1).trim());
+                if (segredo.length < 32) {
+                    throw new IllegalStateException("Segredo da chave " + entrada.substring(0, sep) + " deve ter ao menos 32 bytes");
+                }
+                chaves.put(entrada.substring(0, sep), new SecretKeySpec(segredo, ALGORITMO));
+            }
+        }
+        if (chaves.isEmpty()) {
+            byte[] segredo = new byte[32];
+            new SecureRandom().nextBytes(segredo);
+            chaves.put("local", new SecretKeySpec(segredo, ALGORITMO));
+            log.warn("centro.sessao.chaves não configurado; usando chave aleatória (tokens não sobrevivem a reinícios nem valem entre instâncias)");
+        }
+        return chaves;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Centro Pokémon - Acervo de Sons
+ * ---------------------------------------
+ * @file        AcervoSonsService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Origem única dos arquivos de som: acervo endereçado por
+ *              conteúdo fora do jar, diretório comum ou static/sons do
+ *              classpath (desenvolvimento).
+ */
+package com.centropokemon.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Os sons (~227 MB) não vão mais dentro do jar. Em produção ficam em um
+ * acervo endereçado por conteúdo, em {@code centro.audio.acervo}:
+ * <pre>
+ * acervo/
+ *   indice.json              caminho lógico -> {sha256, tamanho}
+ *   objetos/ab/abcd...ef     um arquivo por conteúdo distinto
+ * </pre>
+ * Cada conteúdo é gravado uma única vez, mesmo que apareça em várias pastas,
+ * e o hash serve de chave estável para ETags e para o cache de derivados
+ * (arquivos iguais compartilham a mesma conversão Opus). O acervo é gerado
+ * por {@code com.centropokemon.build.ImportadorAcervo} e o índice é lido uma
+ * vez, na subida.
+ * <p>
+ * Sem acervo, os sons vêm de {@code centro.audio.diretorio} (árvore comum
+ * de arquivos) ou, por último, de {@code static/sons} no classpath, que só
+ * existe em {@code target/classes} durante o desenvolvimento e os testes.
+ * Os caminhos lógicos são sempre relativos a {@code static/sons} e separados
+ * por {@code /}, qualquer que seja a origem.
+ */
+@Service
+public class AcervoSonsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AcervoSonsService.class);
+    /** Índice do acervo, na raiz. */
+    public static final String INDICE = "indice.json";
+    /** Pasta dos objetos, na raiz; cada objeto fica em {@code objetos/<2 primeiros hex>/<sha256>}. */
+    public static final String OBJETOS = "objetos";
+    private static final String PASTA_CLASSPATH = "static/sons/";
+    private static final String MARCADOR_CLASSPATH = "/static/sons/";
+
+    /** De onde os sons estão sendo lidos. */
+    public enum Modo { ACERVO, DIRETORIO, CLASSPATH }
+
+    /**
+     * Arquivo de som.
+     * @param caminho caminho lógico, relativo a {@code static/sons}
+     * @param recurso conteúdo
+     * @param tamanho tamanho em bytes
+     * @param sha256 hash do conteúdo (só no modo acervo; null nos demais)
+     */
+    public record Arquivo(String caminho, Resource recurso, long tamanho, String sha256) {}
+
+    private record Entrada(String sha256, long tamanho) {}
+
+    private final Modo modo;
+    private final Path raiz;
+    private final NavigableMap<String, Entrada> indice;
+
+    public AcervoSonsService(ObjectMapper json,
+                             @Value("${centro.audio.acervo:}") String acervo,
+                             @Value("${centro.audio.diretorio:}") String diretorio) {
+        if (StringUtils.hasText(acervo)) {
+            this.modo = Modo.ACERVO;
+            this.raiz = Path.of(acervo).toAbsolutePath().normalize();
+            this.indice = lerIndice(json, raiz);
+            log.info("Sons: acervo {} com {} arquivos", raiz, indice.size());
+        } else if (StringUtils.hasText(diretorio)) {
+            this.modo = Modo.DIRETORIO;
+            this.raiz = Path.of(diretorio).toAbsolutePath().normalize();
+            this.indice = null;
+            log.info("Sons: diretório {}", raiz);
+        } else {
+            this.modo = Modo.CLASSPATH;
+            this.raiz = null;
+            this.indice = null;
+            if (!new ClassPathResource(PASTA_CLASSPATH).exists()) {
+                log.warn("Sons: static/sons não está no classpath (fica fora do jar); "
+                        + "configure centro.audio.acervo ou centro.audio.diretorio");
+            }
+        }
+    }
+
+    /** @return origem atual dos sons */
+    public Modo getModo() { return modo; }
+
+    /**
+     * @param caminho caminho lógico já normalizado (sem {@code ..} nem {@code /} inicial)
+     * @return o arquivo, ou null se não existir
+     */
+    public Arquivo localizar(String caminho) {
+        if (modo == Modo.ACERVO) {
+            Entrada e = indice.get(caminho);
+            return e == null ? null : new Arquivo(caminho, new FileSystemResource(objeto(raiz, e.sha256())),
+                    e.tamanho(), e.sha256());
+        }
+        Resource recurso = modo == Modo.DIRETORIO
+                ? new FileSystemResource(raiz.resolve(caminho))
+                : new ClassPathResource(PASTA_CLASSPATH + caminho);
+        try {
+            return recurso.exists() ? new Arquivo(caminho, recurso, recurso.contentLength(), null) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Som ilegível: " + caminho, e);
+        }
+    }
+
+    /**
+     * Lista os arquivos sob um prefixo, em ordem de caminho.
+     * @param prefixo prefixo lógico terminado em {@code /} (ex.: {@code cries/})
+     * @param extensao extensão com ponto, sem diferenciar maiúsculas (ex.: {@code .wav})
+     * @return arquivos encontrados
+     */
+    public List<Arquivo> listar(String prefixo, String extensao) {
+        List<Arquivo> arquivos = new ArrayList<>();
+        if (modo == Modo.ACERVO) {
+            indice.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).forEach((caminho, e) -> {
+                if (temExtensao(caminho, extensao)) {
+                    arquivos.add(new Arquivo(caminho, new FileSystemResource(objeto(raiz, e.sha256())),
+                            e.tamanho(), e.sha256()));
+                }
+            });
+            return arquivos;
+        }
+        try {
+            if (modo == Modo.DIRETORIO) {
+                Path pasta = raiz.resolve(prefixo);
+                if (!Files.isDirectory(pasta)) return arquivos;
+                try (Stream<Path> todos = Files.walk(pasta)) {
+                    for (Path p : (Iterable<Path>) todos.filter(Files::isRegularFile)::iterator) {
+                        String caminho = raiz.relativize(p).toString().replace('\\', '/');
+                        if (temExtensao(caminho, extensao)) {
+                            arquivos.add(new Arquivo(caminho, new FileSystemResource(p), Files.size(p), null));
+                        }
+                    }
+                }
+            } else {
+                Resource[] recursos = new PathMatchingResourcePatternResolver()
+                        .getResources("classpath:" + PASTA_CLASSPATH + prefixo + "**/*" + extensao);
+                for (Resource r : recursos) {
+                    String url = UriUtils.decode(r.getURL().toString(), StandardCharsets.UTF_8);
+                    int i = url.indexOf(MARCADOR_CLASSPATH);
+                    if (i >= 0 && r.isReadable()) {
+                        arquivos.add(new Arquivo(url.substring(i + MARCADOR_CLASSPATH.length()), r,
+                                r.contentLength(), null));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar os sons em " + prefixo, e);
+        }
+        arquivos.sort(Comparator.comparing(Arquivo::caminho));
+        return arquivos;
+    }
+
+    /**
+     * Pasta real no sistema de arquivos, para quem quer observar alterações.
+     * @param prefixo pasta lógica (ex.: {@code Pokémon Tick-Tock Walk})
+     * @return a pasta, ou null no modo acervo ou com os sons dentro de um jar
+     */
+    public Path pastaLocal(String prefixo) {
+        if (modo == Modo.DIRETORIO) return raiz.resolve(prefixo);
+        if (modo == Modo.ACERVO) return null;
+        ClassPathResource recurso = new ClassPathResource(PASTA_CLASSPATH + prefixo);
+        try {
+            return recurso.isFile() ? recurso.getFile().toPath() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param raiz raiz do acervo
+     * @param sha256 hash em hexadecimal minúsculo
+     * @return caminho do objeto
+     */
+    public static Path objeto(Path raiz, String sha256) {
+        return raiz.resolve(OBJETOS).resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private static NavigableMap<String, Entrada> lerIndice(ObjectMapper json, Path raiz) {
+        Path arquivo = raiz.resolve(INDICE);
+        try {
+            JsonNode arquivos = json.readTree(arquivo.toFile()).path("arquivos");
+            NavigableMap<String, Entrada> mapa = new TreeMap<>();
+            arquivos.fields().forEachRemaining(e -> mapa.put(e.getKey(),
+                    new Entrada(e.getValue().path("sha256").asText(), e.getValue().path("tamanho").asLong())));
+            return Collections.unmodifiableNavigableMap(mapa);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Acervo de sons sem índice legível: " + arquivo, e);
+        }
+    }
+
+    private static boolean temExtensao(String caminho, String extensao) {
+        return caminho.regionMatches(true, caminho.length() - extensao.length(), extensao, 0, extensao.length());
+    }
+}
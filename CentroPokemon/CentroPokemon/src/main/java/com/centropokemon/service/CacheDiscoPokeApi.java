@@ -0,0 +1,314 @@
+/*
+ * Centro Pokémon - Cache em Disco da PokeAPI
+ * ---------------------------------------
+ * @file        CacheDiscoPokeApi.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Guarda em disco, comprimidas, as respostas cruas da PokeAPI
+ *              com validade e validadores (ETag/Last-Modified), limitado em
+ *              bytes e com remoção do menos usado (LRU).
+ */
+package com.centropokemon.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Um arquivo {@code <sha-256 da chave>.gz} por recurso, com cabeçalho
+ * (chave, validade, ETag, Last-Modified) e o corpo cru, tudo em gzip. A
+ * gravação vai para um temporário e entra com move atômico, então um
+ * reinício no meio nunca deixa entrada pela metade.
+ * <p>
+ * A validade segue o {@code Cache-Control} da PokeAPI: {@code max-age}
+ * define quanto tempo a entrada serve sem consulta; {@code no-cache} a
+ * deixa vencida desde já (sempre revalida); {@code no-store} não é
+ * guardado. Sem diretiva vale {@code ttlPadrao}. Entrada vencida continua
+ * no disco: é revalidada com {@code If-None-Match}/{@code If-Modified-Since}
+ * e, se a PokeAPI responder 304, só a validade é renovada.
+ * <p>
+ * O índice (chave → bytes em disco) fica em memória em ordem de acesso e é
+ * remontado na partida pela data de modificação dos arquivos, que cada
+ * leitura atualiza; acima de {@code maxBytes} os menos usados são apagados.
+ */
+public class CacheDiscoPokeApi {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheDiscoPokeApi.class);
+    private static final int VERSAO = 1;
+    private static final String EXTENSAO = ".gz";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age\\s*=\\s*\"?(\\d+)");
+
+    /**
+     * Resposta guardada.
+     * @param corpo corpo cru da resposta
+     * @param etag ETag da PokeAPI, ou null
+     * @param ultimaModificacao Last-Modified da PokeAPI, ou null
+     * @param expiraEm instante (epoch ms) até o qual serve sem revalidar
+     */
+    public record Entrada(byte[] corpo, String etag, String ultimaModificacao, long expiraEm) {
+
+        /** @return true se ainda serve sem consultar a PokeAPI */
+        public boolean fresca(long agoraMs) {
+            return agoraMs < expiraEm;
+        }
+
+        /** @return true se dá para revalidar com requisição condicional */
+        public boolean temValidador() {
+            return etag != null || ultimaModificacao != null;
+        }
+    }
+
+    private final Path diretorio;
+    private final long maxBytes;
+    private final Duration ttlPadrao;
+    private final ReentrantLock trava = new ReentrantLock();
+    private final LinkedHashMap<String, Long> indice = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    /**
+     * @param diretorio pasta das entradas (criada se não existir)
+     * @param maxBytes tamanho máximo em disco (comprimido)
+     * @param ttlPadrao validade de respostas sem {@code max-age}
+     */
+    public CacheDiscoPokeApi(Path diretorio, long maxBytes, Duration ttlPadrao) {
+        this.diretorio = diretorio;
+        this.maxBytes = Math.max(0, maxBytes);
+        this.ttlPadrao = ttlPadrao;
+        try {
+            Files.createDirectories(diretorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar " + diretorio, e);
+        }
+        carregarIndice();
+    }
+
+    /**
+     * @param chave caminho do recurso (ex.: {@code /pokemon/25})
+     * @return entrada guardada (fresca ou vencida), ou null
+     */
+    public Entrada ler(String chave) {
+        String nome = nomeArquivo(chave);
+        trava.lock();
+        try {
+            if (indice.get(nome) == null) return null;
+        } finally {
+            trava.unlock();
+        }
+        Path arquivo = diretorio.resolve(nome);
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(arquivo)))) {
+            if (in.readInt() != VERSAO || !chave.equals(in.readUTF())) return null;
+            long expiraEm = in.readLong();
+            String etag = vazioComoNulo(in.readUTF());
+            String ultimaModificacao = vazioComoNulo(in.readUTF());
+            byte[] corpo = in.readNBytes(in.readInt());
+            Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis()));
+            return new Entrada(corpo, etag, ultimaModificacao, expiraEm);
+        } catch (NoSuchFileException e) {
+            esquecer(nome);
+            return null;
+        } catch (IOException e) {
+            log.debug("Entrada ilegível no cache da PokeAPI {}: {}", arquivo, e.toString());
+            remover(chave);
+            return null;
+        }
+    }
+
+    /** Grava (ou substitui) a entrada e remove as menos usadas se passar do limite. */
+    public void gravar(String chave, Entrada entrada) {
+        String nome = nomeArquivo(chave);
+        Path destino = diretorio.resolve(nome);
+        Path temporario = diretorio.resolve(nome + ".tmp-" + Thread.currentThread().threadId());
+        long tamanho;
+        try {
+            try (OutputStream arquivo = Files.newOutputStream(temporario);
+                 DataOutputStream out = new DataOutputStream(new GZIPOutputStream(arquivo))) {
+                out.writeInt(VERSAO);
+                out.writeUTF(chave);
+                out.writeLong(entrada.expiraEm());
+                out.writeUTF(entrada.etag() == null ? "" : entrada.etag());
+                out.writeUTF(entrada.ultimaModificacao() == null ? "" : entrada.ultimaModificacao());
+                out.writeInt(entrada.corpo().length);
+                out.write(entrada.corpo());
+            }
+            tamanho = Files.size(temporario);
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Falha ao gravar {} no cache da PokeAPI: {}", chave, e.toString());
+            apagar(temporario);
+            return;
+        }
+        trava.lock();
+        try {
+            Long anterior = indice.put(nome, tamanho);
+            bytes += tamanho - (anterior == null ? 0 : anterior);
+            despejar();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** Apaga a entrada, se existir. */
+    public void remover(String chave) {
+        String nome = nomeArquivo(chave);
+        esquecer(nome);
+        apagar(diretorio.resolve(nome));
+    }
+
+    /**
+     * Monta a entrada de uma resposta 200 (ou renova uma após 304) conforme
+     * o {@code Cache-Control}.
+     * @param corpo corpo a guardar
+     * @param cabecalhos cabeçalhos da resposta
+     * @param anterior entrada revalidada (seus validadores valem se a resposta não trouxer novos), ou null
+     * @return entrada a gravar, ou null se a resposta não pode ser guardada ({@code no-store})
+     */
+    public Entrada entrada(byte[] corpo, HttpHeaders cabecalhos, Entrada anterior) {
+        String cacheControl = String.join(",", cabecalhos.allValues("Cache-Control")).toLowerCase(Locale.ROOT);
+        if (cacheControl.contains("no-store")) return null;
+        long agora = System.currentTimeMillis();
+        long validadeMs;
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        if (cacheControl.contains("no-cache")) {
+            validadeMs = 0;
+        } else if (maxAge.find()) {
+            long idade = cabecalhos.firstValueAsLong("Age").orElse(0);
+            validadeMs = Math.max(0, Long.parseLong(maxAge.group(1)) - idade) * 1000;
+        } else {
+            validadeMs = ttlPadrao.toMillis();
+        }
+        String etag = cabecalhos.firstValue("ETag").orElse(anterior == null ? null : anterior.etag());
+        String ultimaModificacao = cabecalhos.firstValue("Last-Modified")
+                .orElse(anterior == null ? null : anterior.ultimaModificacao());
+        return new Entrada(corpo, etag, ultimaModificacao, agora + validadeMs);
+    }
+
+    /** @return bytes ocupados em disco */
+    public long getBytes() {
+        trava.lock();
+        try {
+            return bytes;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** @return entradas guardadas */
+    public int getEntradas() {
+        trava.lock();
+        try {
+            return indice.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void carregarIndice() {
+        record Arquivo(String nome, long tamanho, long modificado) {}
+        List<Arquivo> arquivos;
+        try (Stream<Path> conteudo = Files.list(diretorio)) {
+            arquivos = conteudo.filter(p -> {
+                        String nome = p.getFileName().toString();
+                        if (nome.contains(".tmp-")) {
+                            apagar(p);
+                            return false;
+                        }
+                        return nome.endsWith(EXTENSAO);
+                    })
+                    .map(p -> {
+                        try {
+                            return new Arquivo(p.getFileName().toString(), Files.size(p),
+                                    Files.getLastModifiedTime(p).toMillis());
+                        } catch (IOException e) {
+                            return null;
+                        }
+                    })
+                    .filter(a -> a != null)
+                    .sorted(Comparator.comparingLong(Arquivo::modificado))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler " + diretorio, e);
+        }
+        trava.lock();
+        try {
+            for (Arquivo a : arquivos) {
+                indice.put(a.nome(), a.tamanho());
+                bytes += a.tamanho();
+            }
+            despejar();
+        } finally {
+            trava.unlock();
+        }
+        log.info("Cache da PokeAPI em {}: {} entradas, {} KiB", diretorio, indice.size(), bytes / 1024);
+    }
+
+    /** Remove as menos usadas até caber em {@code maxBytes}; chamar com a trava. */
+    private void despejar() {
+        Iterator<Map.Entry<String, Long>> it = indice.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> maisAntiga = it.next();
+            bytes -= maisAntiga.getValue();
+            it.remove();
+            apagar(diretorio.resolve(maisAntiga.getKey()));
+        }
+    }
+
+    private void esquecer(String nome) {
+        trava.lock();
+        try {
+            Long tamanho = indice.remove(nome);
+            if (tamanho != null) bytes -= tamanho;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.debug("Não foi possível apagar {}: {}", arquivo, e.toString());
+        }
+    }
+
+    private static String nomeArquivo(String chave) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(chave.getBytes(StandardCharsets.UTF_8))) + EXTENSAO;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor.isEmpty() ? null : valor;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Centro Pokémon - Cache de Respostas da Pokédex
+ * ---------------------------------------
+ * @file        CachePokedexService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Guarda o corpo já serializado (byte[] UTF-8) de cada entrada
+ *              da Pokédex por representação, para que acertos sejam
+ *              escritos direto na resposta, sem PokeAPI, banco nem Jackson.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.model.Pokemon;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cada acerto de {@code /api/pokemons/{nome}} ou {@code /api/pokemons/id/{id}}
+ * produzia o mesmo JSON a partir do grafo da entidade (descrições e stats via
+ * {@code @JsonManagedReference}). Aqui o corpo fica pronto:
+ * <ul>
+ *   <li>chave = rota ({@code nome:pikachu}, {@code id:25}) + representação
+ *       (formato negociado, como {@code json} ou {@code cbor}, mais a seleção
+ *       de {@code ?fields=}, como {@code json?nomePt,spriteUrl});</li>
+ *   <li>o mesmo corpo é registrado para o nome e o ID do Pokémon, como as
+ *       ETags do {@link VersaoRecursoService}, e com a mesma validade
+ *       ({@code centro.etag.pokedex-ttl});</li>
+ *   <li>{@link DataInicializacao} chama {@link #invalidar} sempre que grava a
+ *       linha da Pokédex, derrubando todas as chaves e representações daquele
+ *       ID (inclusive as que chegaram por outra rota, como {@code nome:25})
+ *       e, junto, as ETags do {@link VersaoRecursoService}: sem isso a
+ *       revalidação ainda responderia 304 com a versão antiga.</li>
+ * </ul>
+ * O tamanho é limitado por {@code centro.pokedex.cache-max-entradas} chaves;
+ * ao atingir o limite as entradas vencidas saem e, se não bastar, o cache é
+ * esvaziado, a mesma política do registro de ETags.
+ */
+@Service
+public class CachePokedexService {
+
+    /**
+     * Corpo pronto para envio.
+     * @param corpo bytes UTF-8 da resposta
+     * @param etag ETag forte correspondente
+     * @param pokeApiId ID do Pokémon (para invalidação)
+     * @param expiraEm instante de expiração ({@link System#nanoTime()})
+     */
+    public record Corpo(byte[] corpo, String etag, Integer pokeApiId, long expiraEm) {}
+
+    private final ConcurrentHashMap<String, Map<String, Corpo>> corpos = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<String>> chavesPorId = new ConcurrentHashMap<>();
+    private final VersaoRecursoService versoes;
+    private final long ttlNanos;
+    private final int maxEntradas;
+    private final Counter acertos;
+    private final Counter faltas;
+
+    public CachePokedexService(MeterRegistry metricas, VersaoRecursoService versoes,
+                               @Value("${centro.etag.pokedex-ttl:PT1H}") Duration ttl,
+                               @Value("${centro.pokedex.cache-max-entradas:10000}") int maxEntradas) {
+        this.versoes = versoes;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntradas = maxEntradas;
+        this.acertos = Counter.builder("centro.pokedex.cache").tag("resultado", "acerto").register(metricas);
+        this.faltas = Counter.builder("centro.pokedex.cache").tag("resultado", "falta").register(metricas);
+        Gauge.builder("centro.pokedex.cache.chaves", corpos, Map::size)
+                .description("Chaves da Pokédex com corpo pronto").register(metricas);
+    }
+
+    /**
+     * @param chave chave da rota ({@link VersaoRecursoService#chaveNome}/{@link VersaoRecursoService#chaveId})
+     * @param representacao representação (ex.: {@code json})
+     * @return corpo válido ou null
+     */
+    public Corpo buscar(String chave, String representacao) {
+        Map<String, Corpo> porRepresentacao = corpos.get(chave);
+        Corpo c = porRepresentacao == null ? null : porRepresentacao.get(representacao);
+        if (c == null || c.expiraEm() - System.nanoTime() < 0) {
+            if (c != null) porRepresentacao.remove(representacao, c);
+            faltas.increment();
+            return null;
+        }
+        acertos.increment();
+        return c;
+    }
+
+    /**
+     * Registra o corpo serializado para a rota pedida e para o nome/ID do Pokémon.
+     * @param pokemon entidade serializada
+     * @param chaveRota chave pela qual foi pedido
+     * @param representacao representação
+     * @param corpo bytes da resposta
+     * @param etag ETag forte da entrada
+     * @return o corpo registrado
+     */
+    public Corpo guardar(Pokemon pokemon, String chaveRota, String representacao, byte[] corpo, String etag) {
+        if (corpos.size() >= maxEntradas) {
+            long agora = System.nanoTime();
+            corpos.values().forEach(m -> m.values().removeIf(c -> c.expiraEm() - agora < 0));
+            corpos.values().removeIf(Map::isEmpty);
+            if (corpos.size() >= maxEntradas) {
+                corpos.clear();
+                chavesPorId.clear();
+            }
+        }
+        Corpo c = new Corpo(corpo, etag, pokemon.getPokeApiId(), System.nanoTime() + ttlNanos);
+        registrar(chaveRota, representacao, c);
+        if (pokemon.getPokeApiId() != null) registrar(VersaoRecursoService.chaveId(pokemon.getPokeApiId()), representacao, c);
+        if (pokemon.getNomeEn() != null) registrar(VersaoRecursoService.chaveNome(pokemon.getNomeEn()), representacao, c);
+        return c;
+    }
+
+    /**
+     * Registra, só para a rota pedida, um corpo derivado de outro já em cache
+     * (a seleção de campos feita a partir do corpo completo), com a mesma
+     * validade e o mesmo Pokémon para invalidação.
+     * @param chaveRota chave pela qual foi pedido
+     * @param representacao representação derivada
+     * @param origem corpo de onde foi derivado
+     * @param corpo bytes da resposta
+     * @param etag ETag forte da representação
+     * @return o corpo registrado
+     */
+    public Corpo derivar(String chaveRota, String representacao, Corpo origem, byte[] corpo, String etag) {
+        Corpo c = new Corpo(corpo, etag, origem.pokeApiId(), origem.expiraEm());
+        registrar(chaveRota, representacao, c);
+        return c;
+    }
+
+    /**
+     * Descarta todas as chaves e representações de um Pokémon da Pokédex e
+     * as ETags registradas para ele.
+     * @param pokeApiId ID da PokeAPI (null é ignorado)
+     */
+    public void invalidar(Integer pokeApiId) {
+        if (pokeApiId == null) return;
+        versoes.invalidarPokedex(pokeApiId);
+        Set<String> chaves = chavesPorId.remove(pokeApiId);
+        if (chaves != null) chaves.forEach(corpos::remove);
+    }
+
+    private void registrar(String chave, String representacao, Corpo c) {
+        corpos.computeIfAbsent(chave, k -> new ConcurrentHashMap<>(2)).put(representacao, c);
+        if (c.pokeApiId() != null) {
+            chavesPorId.computeIfAbsent(c.pokeApiId(), k -> ConcurrentHashMap.newKeySet()).add(chave);
+        }
+    }
+}
@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        CadastroPokemonService.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.2
- * @date        23/11/2025
+ * @version     1.5
+ * @date        19/10/2026
  * @description Regras de domínio para adicionar, listar e remover Pokémon
  *              da coleção de um treinador. Permite que treinadores construam
  *              sua equipe de Pokémon para consultas, vacinações e tratamentos.
@@ -18,11 +18,14 @@ import com.centropokemon.model.Tipo;
 import com.centropokemon.repository.PokemonRepository;
 import com.centropokemon.repository.TreinadorRepository;
 import com.centropokemon.repository.TipoRepository;
+import com.centropokemon.service.EventosTreinadorService.PokemonEvento;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -40,14 +43,17 @@ public class CadastroPokemonService {
     private final PokemonRepository pokemons;
     private final TreinadorRepository treinadores;
     private final TipoRepository tiposRepo;
+    private final EventosTreinadorService eventos;
 
     /**
-     * Construtor com repositórios necessários.
+     * Construtor com repositórios necessários e o canal de eventos dos painéis.
      */
-    public CadastroPokemonService(PokemonRepository pokemons, TreinadorRepository treinadores, TipoRepository tiposRepo) {
+    public CadastroPokemonService(PokemonRepository pokemons, TreinadorRepository treinadores, TipoRepository tiposRepo,
+                                  EventosTreinadorService eventos) {
         this.pokemons = pokemons;
         this.treinadores = treinadores;
         this.tiposRepo = tiposRepo;
+        this.eventos = eventos;
     }
 
     /**
@@ -80,7 +86,10 @@ public class CadastroPokemonService {
         p.setSpriteUrl(spriteUrl);
         p.setVidaAtual(vidaAtual != null ? vidaAtual : 100);
         p.setVidaMaxima(vidaMaxima != null ? vidaMaxima : 100);
-        return pokemons.save(p);
+        Pokemon salvo = pokemons.save(p);
+        treinadores.incrementarVersaoPokemons(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.POKEMON_ADICIONADO, PokemonEvento.of(salvo));
+        return salvo;
     }
 
     /**
@@ -134,7 +143,10 @@ public class CadastroPokemonService {
                 .collect(Collectors.toList());
         p.setTipos(resolved);
 
-        return pokemons.save(p);
+        Pokemon salvo = pokemons.save(p);
+        treinadores.incrementarVersaoPokemons(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.POKEMON_ADICIONADO, PokemonEvento.of(salvo));
+        return salvo;
     }
 
     /**
@@ -172,6 +184,48 @@ public class CadastroPokemonService {
         return pokemons.buscarPorTreinadorId(treinadorId);
     }
 
+    /**
+     * Lista a coleção com só o necessário para uma resposta parcial
+     * ({@code ?fields=}): as colunas simples vêm numa consulta e tipos e
+     * habilidades, cada um em uma consulta a mais, apenas se pedidos.
+     * Descrições e stats nunca são lidos. Os Pokémon devolvidos não são
+     * gerenciados pelo JPA e não devem ser gravados.
+     *
+     * @param treinadorId id do treinador
+     * @param comTipos carrega os tipos (só {@code nomePt})
+     * @param comHabilidades carrega as habilidades
+     * @return Pokémon da coleção, em ordem de ID
+     */
+    public List<Pokemon> listarParcial(Integer treinadorId, boolean comTipos, boolean comHabilidades) {
+        Map<Integer, Pokemon> porId = new LinkedHashMap<>();
+        for (Object[] linha : pokemons.listarColunasPorTreinadorId(treinadorId)) {
+            Pokemon p = new Pokemon((Integer) linha[0], (String) linha[2], (String) linha[3], (String) linha[4]);
+            p.setPokeApiId((Integer) linha[1]);
+            p.setVidaAtual((Integer) linha[5]);
+            p.setVidaMaxima((Integer) linha[6]);
+            p.setNivel((Integer) linha[7]);
+            p.setHabilidades(new ArrayList<>());
+            porId.put(p.getId(), p);
+        }
+        if (porId.isEmpty()) return List.of();
+        if (comTipos) {
+            for (Object[] linha : pokemons.listarTiposPorTreinadorId(treinadorId)) {
+                Pokemon p = porId.get((Integer) linha[0]);
+                if (p == null) continue;
+                Tipo t = new Tipo();
+                t.setNomePt((String) linha[1]);
+                p.getTipos().add(t);
+            }
+        }
+        if (comHabilidades) {
+            for (Object[] linha : pokemons.listarHabilidadesPorTreinadorId(treinadorId)) {
+                Pokemon p = porId.get((Integer) linha[0]);
+                if (p != null) p.getHabilidades().add((String) linha[1]);
+            }
+        }
+        return new ArrayList<>(porId.values());
+    }
+
     /**
      * Remove um Pokémon da coleção do treinador.
      * Só remove se o Pokémon realmente pertencer ao treinador.
@@ -183,7 +237,10 @@ public class CadastroPokemonService {
     public boolean remover(Integer treinadorId, Integer pokemonId) {
         Optional<Pokemon> pOpt = pokemons.findByIdAndTreinadorId(pokemonId, treinadorId);
         if (pOpt.isEmpty()) return false;
-        pokemons.delete(pOpt.get());
+        Pokemon removido = pOpt.get();
+        pokemons.delete(removido);
+        treinadores.incrementarVersaoPokemons(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.POKEMON_REMOVIDO, PokemonEvento.of(removido));
         return true;
     }
 
@@ -199,6 +256,9 @@ public class CadastroPokemonService {
         Pokemon p = pokemons.findByIdAndTreinadorId(pokemonId, treinadorId)
                 .orElseThrow(() -> new IllegalArgumentException("Pokémon não encontrado"));
         p.tratar(); // Método que já existe no model Pokemon
-        return pokemons.save(p);
+        Pokemon salvo = pokemons.save(p);
+        treinadores.incrementarVersaoPokemons(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.POKEMONS_CURADOS, List.of(PokemonEvento.of(salvo)));
+        return salvo;
     }
 }
@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        CentroService.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.1
- * @date        23/11/2025
+ * @version     1.3
+ * @date        19/10/2026
  * @description Regras de domínio para tratar Pokémon do treinador:
  *              curar um, curar todos, verificar necessidade e contagens.
  */
@@ -12,6 +12,8 @@ package com.centropokemon.service;
 
 import com.centropokemon.model.Pokemon;
 import com.centropokemon.repository.PokemonRepository;
+import com.centropokemon.repository.TreinadorRepository;
+import com.centropokemon.service.EventosTreinadorService.PokemonEvento;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -22,9 +24,13 @@ import java.util.Optional;
 public class CentroService {
 
     private final PokemonRepository pokemons;
+    private final TreinadorRepository treinadores;
+    private final EventosTreinadorService eventos;
 
-    public CentroService(PokemonRepository pokemons) {
+    public CentroService(PokemonRepository pokemons, TreinadorRepository treinadores, EventosTreinadorService eventos) {
         this.pokemons = pokemons;
+        this.treinadores = treinadores;
+        this.eventos = eventos;
     }
 
     /**
@@ -39,7 +45,10 @@ public class CentroService {
         if (pOpt.isEmpty()) throw new IllegalArgumentException("Pokémon não pertence ao treinador");
         Pokemon p = pOpt.get();
         p.tratar();
-        return pokemons.save(p);
+        Pokemon salvo = pokemons.save(p);
+        treinadores.incrementarVersaoPokemons(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.POKEMONS_CURADOS, List.of(PokemonEvento.of(salvo)));
+        return salvo;
     }
 
     /**
@@ -53,7 +62,11 @@ public class CentroService {
         for (Pokemon p : lista) {
             p.tratar();
         }
-        return new ArrayList<>(pokemons.saveAll(lista));
+        List<Pokemon> curados = new ArrayList<>(pokemons.saveAll(lista));
+        treinadores.incrementarVersaoPokemons(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.POKEMONS_CURADOS,
+                curados.stream().map(PokemonEvento::of).toList());
+        return curados;
     }
 
     /**
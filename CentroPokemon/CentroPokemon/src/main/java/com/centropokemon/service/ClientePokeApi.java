@@ -0,0 +1,443 @@
+/*
+ * Centro Pokémon - Cliente da PokeAPI
+ * ---------------------------------------
+ * @file        ClientePokeApi.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.4
+ * @date        19/10/2026
+ * @description Faz as chamadas HTTP à PokeAPI sob um limite adaptativo de
+ *              concorrência, com timeout limitado pelo prazo da requisição,
+ *              hedge opcional para espelhos, cache em disco com revalidação
+ *              condicional e métricas por desfecho.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.exception.PrazoEsgotadoException;
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import com.centropokemon.service.CacheDiscoPokeApi.Entrada;
+import com.centropokemon.service.LimiteAdaptativo.Desfecho;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Toda chamada de {@link DataInicializacao} à PokeAPI passa por aqui e
+ * ocupa uma vaga do {@link LimiteAdaptativo}. Em vez de um número fixo de
+ * chamadas paralelas (pouco para uma PokeAPI folgada, demais para uma
+ * sobrecarregada, que responde com 429), o limite acompanha a latência:
+ * <ul>
+ *   <li>2xx e 404 são respostas normais: a latência entra no gradiente;</li>
+ *   <li>429, 5xx e prazo esgotado ({@code centro.pokeapi.timeout}) são
+ *       sobrecarga: o limite recua;</li>
+ *   <li>demais falhas (rede, 4xx) não mexem no limite.</li>
+ * </ul>
+ * Sem vaga, a chamada espera na fila do limite; fila cheia ou espera
+ * esgotada serve a entrada vencida do cache em disco, se houver, e senão
+ * lança {@link ServicoSobrecarregadoException} (HTTP 503, ou item
+ * {@code SOBRECARGA} em um lote).
+ * <p>
+ * Com {@link Prazo} definido, a espera por vaga e o timeout de cada
+ * tentativa ficam limitados ao tempo restante; prazo esgotado (antes ou
+ * durante a chamada) lança {@link PrazoEsgotadoException} sem contar como
+ * sobrecarga da PokeAPI.
+ * <p>
+ * Com hedge ({@code centro.pokeapi.hedge.habilitado}), uma chamada que não
+ * respondeu até o percentil configurado da latência recente ganha uma
+ * cópia, enviada a um dos espelhos ({@code centro.pokeapi.espelhos}, em
+ * rodízio) ou, sem espelhos, à própria URL base. A primeira resposta HTTP
+ * vence e a outra tentativa é cancelada. A cópia usa a vaga da original no
+ * limite; o teto de carga extra é o orçamento da {@link PoliticaHedge}.
+ * <p>
+ * Com o {@link CacheDiscoPokeApi} ({@code centro.pokeapi.cache.habilitado}),
+ * antes de tudo a resposta guardada é consultada:
+ * <ul>
+ *   <li>fresca: volta do disco, sem vaga no limite nem chamada;</li>
+ *   <li>vencida: a chamada sai com {@code If-None-Match}/{@code If-Modified-Since};
+ *       304 renova a validade e devolve o corpo guardado;</li>
+ *   <li>200 substitui a entrada; 404 a apaga;</li>
+ *   <li>sobrecarga ou falha de rede com entrada vencida: devolve a vencida
+ *       em vez de null.</li>
+ * </ul>
+ * <p>
+ * Métricas: {@code centro.pokeapi.limite}, {@code centro.pokeapi.em-voo},
+ * {@code centro.pokeapi.fila}, {@code centro.pokeapi.chamadas{desfecho}},
+ * {@code centro.pokeapi.recusadas}, {@code centro.pokeapi.cache{resultado}},
+ * {@code centro.pokeapi.cache.bytes}, {@code centro.pokeapi.cache.entradas} e, com hedge,
+ * {@code centro.pokeapi.hedge.atraso}, {@code centro.pokeapi.hedge.disparados},
+ * {@code centro.pokeapi.hedge.vencedores} e {@code centro.pokeapi.hedge.sem-orcamento}.
+ */
+@Service
+public class ClientePokeApi {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientePokeApi.class);
+    private static final String FRESCA = "fresca";
+    private static final String REVALIDADA = "revalidada";
+    private static final String ATUALIZADA = "atualizada";
+    private static final String VENCIDA = "vencida";
+
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String apiBase;
+    private final List<String> espelhos;
+    private final AtomicInteger rodizio = new AtomicInteger();
+    private final Duration timeout;
+    private final LimiteAdaptativo limite;
+    private final PoliticaHedge hedge;
+    private final CacheDiscoPokeApi cache;
+    private final Map<Desfecho, Timer> chamadas = new EnumMap<>(Desfecho.class);
+    private final Counter recusadas;
+    private final Counter hedgesDisparados;
+    private final Counter hedgesVencedores;
+    private final Counter hedgesSemOrcamento;
+    private final Map<String, Counter> usosCache = new HashMap<>();
+
+    @Autowired
+    public ClientePokeApi(MeterRegistry metricas,
+                          @Value("${centro.pokeapi.url:https://pokeapi.co/api/v2}") String apiBase,
+                          @Value("${centro.pokeapi.timeout:PT5S}") Duration timeout,
+                          @Value("${centro.pokeapi.limite.inicial:8}") int inicial,
+                          @Value("${centro.pokeapi.limite.minimo:2}") int minimo,
+                          @Value("${centro.pokeapi.limite.maximo:64}") int maximo,
+                          @Value("${centro.pokeapi.limite.fila:64}") int fila,
+                          @Value("${centro.pokeapi.limite.espera-ms:2000}") long esperaMs,
+                          @Value("${centro.pokeapi.espelhos:}") String[] espelhos,
+                          @Value("${centro.pokeapi.hedge.habilitado:false}") boolean hedgeHabilitado,
+                          @Value("${centro.pokeapi.hedge.percentil:0.95}") double percentil,
+                          @Value("${centro.pokeapi.hedge.orcamento:0.05}") double orcamento,
+                          @Value("${centro.pokeapi.hedge.atraso-minimo-ms:20}") long atrasoMinimoMs,
+                          @Value("${centro.pokeapi.cache.habilitado:true}") boolean cacheHabilitado,
+                          @Value("${centro.pokeapi.cache.diretorio:${java.io.tmpdir}/centro-pokeapi}") String cacheDiretorio,
+                          @Value("${centro.pokeapi.cache.max-mb:256}") long cacheMaxMb,
+                          @Value("${centro.pokeapi.cache.ttl-padrao:PT1H}") Duration cacheTtlPadrao) {
+        this(metricas, apiBase, List.of(espelhos), timeout,
+                new LimiteAdaptativo(inicial, minimo, maximo, fila, Duration.ofMillis(esperaMs)),
+                hedgeHabilitado ? new PoliticaHedge(percentil, orcamento, Duration.ofMillis(atrasoMinimoMs), 100) : null,
+                cacheHabilitado ? new CacheDiscoPokeApi(Path.of(cacheDiretorio), cacheMaxMb * 1024 * 1024, cacheTtlPadrao) : null);
+    }
+
+    /**
+     * Cliente sem hedge.
+     * @param apiBase URL base (ex.: {@code https://pokeapi.co/api/v2})
+     * @param timeout prazo de conexão e de resposta de cada chamada
+     * @param limite limite de concorrência compartilhado pelas chamadas
+     */
+    public ClientePokeApi(MeterRegistry metricas, String apiBase, Duration timeout, LimiteAdaptativo limite) {
+        this(metricas, apiBase, List.of(), timeout, limite, null);
+    }
+
+    /**
+     * @param apiBase URL base (ex.: {@code https://pokeapi.co/api/v2})
+     * @param espelhos URLs base que recebem as cópias; vazia para copiar na própria {@code apiBase}
+     * @param timeout prazo de conexão e de resposta de cada tentativa
+     * @param limite limite de concorrência compartilhado pelas chamadas
+     * @param hedge política de hedge, ou null para nunca copiar
+     */
+    public ClientePokeApi(MeterRegistry metricas, String apiBase, List<String> espelhos, Duration timeout,
+                          LimiteAdaptativo limite, PoliticaHedge hedge) {
+        this(metricas, apiBase, espelhos, timeout, limite, hedge, null);
+    }
+
+    /**
+     * @param apiBase URL base (ex.: {@code https://pokeapi.co/api/v2})
+     * @param espelhos URLs base que recebem as cópias; vazia para copiar na própria {@code apiBase}
+     * @param timeout prazo de conexão e de resposta de cada tentativa
+     * @param limite limite de concorrência compartilhado pelas chamadas
+     * @param hedge política de hedge, ou null para nunca copiar
+     * @param cache cache em disco das respostas, ou null para sempre chamar
+     */
+    public ClientePokeApi(MeterRegistry metricas, String apiBase, List<String> espelhos, Duration timeout,
+                          LimiteAdaptativo limite, PoliticaHedge hedge, CacheDiscoPokeApi cache) {
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.apiBase = semBarraFinal(apiBase);
+        this.espelhos = espelhos.stream().map(String::trim).filter(e -> !e.isEmpty())
+                .map(ClientePokeApi::semBarraFinal).toList();
+        this.timeout = timeout;
+        this.limite = limite;
+        this.hedge = hedge;
+        this.cache = cache;
+        for (Desfecho d : Desfecho.values()) {
+            chamadas.put(d, Timer.builder("centro.pokeapi.chamadas")
+                    .tag("desfecho", d.name().toLowerCase(Locale.ROOT)).register(metricas));
+        }
+        this.recusadas = Counter.builder("centro.pokeapi.recusadas").register(metricas);
+        Gauge.builder("centro.pokeapi.limite", limite, LimiteAdaptativo::getLimite)
+                .description("Chamadas simultâneas permitidas à PokeAPI").register(metricas);
+        Gauge.builder("centro.pokeapi.em-voo", limite, LimiteAdaptativo::getEmVoo)
+                .description("Chamadas à PokeAPI em andamento").register(metricas);
+        Gauge.builder("centro.pokeapi.fila", limite, LimiteAdaptativo::getAguardando)
+                .description("Chamadas esperando vaga no limite da PokeAPI").register(metricas);
+        this.hedgesDisparados = Counter.builder("centro.pokeapi.hedge.disparados")
+                .description("Cópias disparadas para chamadas lentas").register(metricas);
+        this.hedgesVencedores = Counter.builder("centro.pokeapi.hedge.vencedores")
+                .description("Cópias que responderam antes da chamada original").register(metricas);
+        this.hedgesSemOrcamento = Counter.builder("centro.pokeapi.hedge.sem-orcamento")
+                .description("Chamadas lentas que ficaram sem cópia por falta de orçamento").register(metricas);
+        if (hedge != null) {
+            Gauge.builder("centro.pokeapi.hedge.atraso", hedge, h -> Math.max(0, h.atrasoNanos()) / 1e6)
+                    .description("Espera antes da cópia, em ms (percentil da latência recente)").register(metricas);
+        }
+        if (cache != null) {
+            for (String resultado : List.of(FRESCA, REVALIDADA, ATUALIZADA, VENCIDA)) {
+                usosCache.put(resultado, Counter.builder("centro.pokeapi.cache").tag("resultado", resultado)
+                        .description("Consultas ao cache em disco da PokeAPI").register(metricas));
+            }
+            Gauge.builder("centro.pokeapi.cache.bytes", cache, CacheDiscoPokeApi::getBytes)
+                    .description("Bytes em disco do cache da PokeAPI").register(metricas);
+            Gauge.builder("centro.pokeapi.cache.entradas", cache, CacheDiscoPokeApi::getEntradas)
+                    .description("Respostas guardadas no cache da PokeAPI").register(metricas);
+        }
+    }
+
+    /**
+     * GET em um recurso da PokeAPI.
+     * @param caminho caminho a partir da URL base (ex.: {@code /pokemon/25})
+     * @return JSON da resposta, ou null se não existe ou a chamada falhou
+     * @throws ServicoSobrecarregadoException se não houve vaga no limite a tempo
+     *         nem entrada vencida no cache para servir
+     * @throws PrazoEsgotadoException se o prazo da requisição acabou antes da resposta
+     */
+    public JsonNode buscar(String caminho) {
+        Prazo.verificar("chamar a PokeAPI");
+        Entrada guardada = cache == null ? null : cache.ler(caminho);
+        if (guardada != null && guardada.fresca(System.currentTimeMillis())) {
+            JsonNode json = lerJson(guardada.corpo());
+            if (json != null) {
+                usosCache.get(FRESCA).increment();
+                return json;
+            }
+        }
+        try {
+            if (!limite.adquirir(Prazo.restanteNanos())) {
+                Prazo.verificar("conseguir vaga na PokeAPI");
+                recusadas.increment();
+                JsonNode json = vencida(guardada);
+                if (json != null) return json;
+                throw new ServicoSobrecarregadoException("PokeAPI no limite de concorrência (" + limite + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoSobrecarregadoException("Interrompido esperando vaga na PokeAPI");
+        }
+        long inicio = System.nanoTime();
+        Desfecho desfecho = Desfecho.IGNORAR;
+        Duration prazoChamada = timeout;
+        try {
+            prazoChamada = Prazo.limitar(timeout, "chamar a PokeAPI");
+            HttpResponse<byte[]> resposta = hedge == null
+                    ? http.send(requisicao(apiBase, caminho, prazoChamada, guardada), HttpResponse.BodyHandlers.ofByteArray())
+                    : enviarComHedge(caminho, prazoChamada, guardada);
+            int status = resposta.statusCode();
+            desfecho = classificar(status);
+            if (status == 304 && guardada != null) {
+                usosCache.get(REVALIDADA).increment();
+                guardar(caminho, guardada.corpo(), resposta, guardada);
+                return mapper.readTree(guardada.corpo());
+            }
+            if (status / 100 != 2) {
+                if (desfecho == Desfecho.SOBRECARGA) {
+                    log.debug("PokeAPI {} em {}", status, caminho);
+                    return vencida(guardada);
+                }
+                if (status == 404 && guardada != null) cache.remover(caminho);
+                return null;
+            }
+            JsonNode json = mapper.readTree(resposta.body());
+            if (cache != null) {
+                usosCache.get(ATUALIZADA).increment();
+                guardar(caminho, resposta.body(), resposta, null);
+            }
+            return json;
+        } catch (HttpTimeoutException e) {
+            if (prazoChamada.compareTo(timeout) < 0) {
+                // foi o prazo da requisição, não a PokeAPI, que cortou a chamada
+                throw new PrazoEsgotadoException("Prazo da requisição esgotado esperando a PokeAPI em " + caminho);
+            }
+            desfecho = Desfecho.SOBRECARGA;
+            log.debug("PokeAPI sem resposta no prazo em {}", caminho);
+            return vencida(guardada);
+        } catch (IOException e) {
+            log.debug("PokeAPI falhou em {}: {}", caminho, e.toString());
+            return vencida(guardada);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            limite.liberar(duracao, desfecho);
+            chamadas.get(desfecho).record(duracao, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void guardar(String caminho, byte[] corpo, HttpResponse<?> resposta, Entrada anterior) {
+        Entrada nova = cache.entrada(corpo, resposta.headers(), anterior);
+        if (nova != null) {
+            cache.gravar(caminho, nova);
+        } else if (anterior != null) {
+            cache.remover(caminho);
+        }
+    }
+
+    /** @return corpo da entrada vencida, servido quando a PokeAPI falha; null sem entrada */
+    private JsonNode vencida(Entrada guardada) {
+        if (guardada == null) return null;
+        JsonNode json = lerJson(guardada.corpo());
+        if (json != null) usosCache.get(VENCIDA).increment();
+        return json;
+    }
+
+    private JsonNode lerJson(byte[] corpo) {
+        try {
+            return mapper.readTree(corpo);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Envia a chamada e, se ela passar do atraso da política e houver
+     * orçamento, uma cópia para o próximo espelho; devolve a primeira
+     * resposta e cancela a outra tentativa.
+     */
+    private HttpResponse<byte[]> enviarComHedge(String caminho, Duration prazoChamada, Entrada guardada)
+            throws IOException, InterruptedException {
+        hedge.contarChamada();
+        long inicio = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> original = http.sendAsync(
+                requisicao(apiBase, caminho, prazoChamada, guardada), HttpResponse.BodyHandlers.ofByteArray());
+        long atraso = hedge.atrasoNanos();
+        if (atraso >= 0) {
+            try {
+                HttpResponse<byte[]> resposta = original.get(atraso, TimeUnit.NANOSECONDS);
+                hedge.registrar(System.nanoTime() - inicio);
+                return resposta;
+            } catch (TimeoutException e) {
+                if (hedge.consumir() && Prazo.restanteNanos() > 0) {
+                    return correr(original, inicio, caminho, prazoChamada, guardada);
+                }
+                hedgesSemOrcamento.increment();
+            } catch (ExecutionException e) {
+                throw comoIOException(e);
+            } catch (InterruptedException e) {
+                original.cancel(true);
+                throw e;
+            }
+        }
+        HttpResponse<byte[]> resposta = aguardar(original);
+        hedge.registrar(System.nanoTime() - inicio);
+        return resposta;
+    }
+
+    /** Dispara a cópia e espera a primeira resposta entre ela e a original. */
+    private HttpResponse<byte[]> correr(CompletableFuture<HttpResponse<byte[]>> original, long inicioOriginal,
+                                        String caminho, Duration prazoChamada, Entrada guardada)
+            throws IOException, InterruptedException {
+        hedgesDisparados.increment();
+        long inicioCopia = System.nanoTime();
+        Duration prazoCopia = prazoChamada.minusNanos(inicioCopia - inicioOriginal);
+        CompletableFuture<HttpResponse<byte[]>> copia = http.sendAsync(
+                requisicao(proximoEspelho(), caminho, prazoCopia, guardada), HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<HttpResponse<byte[]>> primeira = new CompletableFuture<>();
+        AtomicInteger falhas = new AtomicInteger();
+        original.whenComplete((r, e) -> {
+            if (e == null) primeira.complete(r);
+            else if (falhas.incrementAndGet() == 2) primeira.completeExceptionally(e);
+        });
+        copia.whenComplete((r, e) -> {
+            if (e == null) primeira.complete(r);
+            else if (falhas.incrementAndGet() == 2) primeira.completeExceptionally(e);
+        });
+        try {
+            HttpResponse<byte[]> resposta = primeira.get();
+            boolean copiaVenceu = copia.isDone() && !copia.isCompletedExceptionally() && copia.join() == resposta;
+            if (copiaVenceu) hedgesVencedores.increment();
+            hedge.registrar(System.nanoTime() - (copiaVenceu ? inicioCopia : inicioOriginal));
+            return resposta;
+        } catch (ExecutionException e) {
+            throw comoIOException(e);
+        } finally {
+            original.cancel(true);
+            copia.cancel(true);
+        }
+    }
+
+    private static HttpResponse<byte[]> aguardar(CompletableFuture<HttpResponse<byte[]>> tentativa)
+            throws IOException, InterruptedException {
+        try {
+            return tentativa.get();
+        } catch (ExecutionException e) {
+            throw comoIOException(e);
+        } catch (InterruptedException e) {
+            tentativa.cancel(true);
+            throw e;
+        }
+    }
+
+    private static IOException comoIOException(ExecutionException e) {
+        return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+
+    /** @param guardada entrada vencida a revalidar (cabeçalhos condicionais), ou null */
+    private static HttpRequest requisicao(String base, String caminho, Duration prazo, Entrada guardada) {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(prazo.isNegative() || prazo.isZero() ? Duration.ofMillis(1) : prazo)
+                .header("Accept", "application/json")
+                .GET();
+        if (guardada != null && guardada.etag() != null) {
+            requisicao.header("If-None-Match", guardada.etag());
+        }
+        if (guardada != null && guardada.ultimaModificacao() != null) {
+            requisicao.header("If-Modified-Since", guardada.ultimaModificacao());
+        }
+        return requisicao.build();
+    }
+
+    private String proximoEspelho() {
+        if (espelhos.isEmpty()) return apiBase;
+        return espelhos.get(Math.floorMod(rodizio.getAndIncrement(), espelhos.size()));
+    }
+
+    private static String semBarraFinal(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /** @return limite de concorrência em uso */
+    public LimiteAdaptativo getLimite() {
+        return limite;
+    }
+
+    static Desfecho classificar(int status) {
+        if (status / 100 == 2 || status == 304 || status == 404) return Desfecho.SUCESSO;
+        if (status == 429 || status / 100 == 5) return Desfecho.SOBRECARGA;
+        return Desfecho.IGNORAR;
+    }
+}
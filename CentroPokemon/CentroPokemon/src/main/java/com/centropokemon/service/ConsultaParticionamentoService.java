@@ -0,0 +1,95 @@
+/*
+ * Centro Pokémon - Manutenção das Partições de Consultas
+ * ---------------------------------------
+ * @file        ConsultaParticionamentoService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Mantém a tabela consultas particionada por mês: cria as
+ *              partições futuras e arquiva as que saíram da janela de retenção.
+ */
+package com.centropokemon.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Executa periodicamente a função {@code consultas_manter_particoes} criada pelo
+ * script {@code db/09_particionamento_consultas.sql}. Se o script ainda não foi
+ * aplicado no banco, a manutenção é ignorada.
+ * <p>
+ * O particionamento serve só ao arquivamento (DETACH barato de meses antigos);
+ * não acelera as listagens, que são buscas por treinador no índice
+ * {@code (treinador_id, data_hora)} e custam mais na tabela particionada.
+ * <p>
+ * Ao arquivar um mês, a função incrementa na mesma transação a
+ * {@code versao_consultas} dos treinadores com consultas nele, porque elas
+ * saem de {@code ?historico=true} e a ETag dessa listagem precisa mudar.
+ * Bancos com a versão anterior da função pegam a mudança ao reaplicar o
+ * script (idempotente).
+ */
+@Service
+public class ConsultaParticionamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultaParticionamentoService.class);
+
+    private final JdbcTemplate jdbc;
+    private final boolean habilitado;
+    private final int mesesFuturos;
+    private final int mesesRetencao;
+
+    public ConsultaParticionamentoService(JdbcTemplate jdbc,
+                                          @Value("${centro.consultas.particoes.habilitado:true}") boolean habilitado,
+                                          @Value("${centro.consultas.particoes.meses-futuros:3}") int mesesFuturos,
+                                          @Value("${centro.consultas.particoes.meses-retencao:24}") int mesesRetencao) {
+        this.jdbc = jdbc;
+        this.habilitado = habilitado;
+        this.mesesFuturos = mesesFuturos;
+        this.mesesRetencao = mesesRetencao;
+    }
+
+    /**
+     * Garante as partições da janela atual assim que a aplicação sobe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        manterParticoes();
+    }
+
+    /**
+     * Manutenção diária (03:30). Criar a partição com meses de antecedência evita
+     * que agendamentos caiam na partição padrão.
+     */
+    @Scheduled(cron = "${centro.consultas.particoes.cron:0 30 3 * * *}")
+    public void manterParticoes() {
+        if (!habilitado) return;
+        try {
+            if (!funcaoDisponivel()) {
+                log.debug("consultas_manter_particoes ausente; execute db/09_particionamento_consultas.sql");
+                return;
+            }
+            List<String> acoes = jdbc.query(
+                    "SELECT acao, particao FROM consultas_manter_particoes(?, ?)",
+                    (rs, i) -> rs.getString("acao") + " " + rs.getString("particao"),
+                    mesesFuturos, mesesRetencao);
+            acoes.forEach(a -> log.info("Partição de consultas: {}", a));
+        } catch (Exception e) {
+            log.warn("Falha na manutenção das partições de consultas: {}", e.getMessage());
+        }
+    }
+
+    private boolean funcaoDisponivel() {
+        Boolean existe = jdbc.queryForObject(
+                "SELECT to_regprocedure('public.consultas_manter_particoes(integer,integer)') IS NOT NULL",
+                Boolean.class);
+        return Boolean.TRUE.equals(existe);
+    }
+}
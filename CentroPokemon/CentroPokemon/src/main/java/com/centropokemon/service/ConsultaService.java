@@ -3,8 +3,8 @@
  * ---------------------------------------
  * @file        ConsultaService.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.0
- * @date        2025-11-19
+ * @version     1.4
+ * @date        19/10/2026
  * @description Regras de domínio para agendamento e listagem de consultas
  *              médicas dos Pokémon de um treinador.
  */
@@ -18,6 +18,7 @@ import com.centropokemon.repository.PokemonRepository;
 import com.centropokemon.repository.TreinadorRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -26,11 +27,14 @@ public class ConsultaService {
     private final ConsultaRepository consultas;
     private final TreinadorRepository treinadores;
     private final PokemonRepository pokemons;
+    private final EventosTreinadorService eventos;
 
-    public ConsultaService(ConsultaRepository consultas, TreinadorRepository treinadores, PokemonRepository pokemons) {
+    public ConsultaService(ConsultaRepository consultas, TreinadorRepository treinadores, PokemonRepository pokemons,
+                           EventosTreinadorService eventos) {
         this.consultas = consultas;
         this.treinadores = treinadores;
         this.pokemons = pokemons;
+        this.eventos = eventos;
     }
 
     public Consulta agendar(Integer treinadorId, Integer pokemonId, String tipo, LocalDateTime dataHora, String observacoes) {
@@ -42,10 +46,30 @@ public class ConsultaService {
         c.setTipo(tipo);
         c.setDataHora(dataHora);
         c.setObservacoes(observacoes);
-        return consultas.save(c);
+        Consulta salva = consultas.save(c);
+        treinadores.incrementarVersaoConsultas(treinadorId);
+        eventos.publicar(treinadorId, EventosTreinadorService.CONSULTA_AGENDADA,
+                EventosTreinadorService.ConsultaEvento.of(salva));
+        return salva;
     }
 
+    /**
+     * Lista as consultas do mês atual em diante, que é a janela usada pelo painel.
+     * A leitura desce pelo índice (treinador_id, data_hora) direto no início da janela.
+     * @param treinadorId identificador do treinador
+     * @return consultas ordenadas por data/hora
+     */
     public List<Consulta> listar(Integer treinadorId) {
+        LocalDateTime inicioJanela = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        return consultas.findByTreinadorIdAndDataHoraGreaterThanEqualOrderByDataHoraAsc(treinadorId, inicioJanela);
+    }
+
+    /**
+     * Lista todo o histórico de consultas do treinador, incluindo meses anteriores.
+     * @param treinadorId identificador do treinador
+     * @return consultas ordenadas por data/hora
+     */
+    public List<Consulta> listarHistorico(Integer treinadorId) {
         return consultas.findByTreinadorIdOrderByDataHoraAsc(treinadorId);
     }
 }
\ No newline at end of file
@@ -3,11 +3,15 @@
  * ---------------------------------------
  * @file        DataInicializacao.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.1
- * @date        2025-11-17
+ * @version     1.5
+ * @date        19/10/2026
  * @description Serviço responsável por buscar dados na PokeAPI v2 e montar
  *               objetos de domínio (Pokémon, Tipos, Stats, Descrições).
- *               Persistência será integrada nas próximas etapas.
+ *               Cada gravação na Pokédex invalida o corpo em cache
+ *               (CachePokedexService) daquele Pokémon. As chamadas saem
+ *               pelo ClientePokeApi, sob limite adaptativo de concorrência.
+ *               A montagem a partir do JSON (montarPokemon) é compartilhada
+ *               com a carga em massa do DumpPokedex.
  */
 
 package com.centropokemon.service;
@@ -19,9 +23,10 @@ import com.centropokemon.model.Tipo;
 import com.centropokemon.repository.PokemonRepository;
 import com.centropokemon.repository.TipoRepository;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,11 +39,17 @@ import java.util.Optional;
  * Serviço de inicialização de dados a partir da PokeAPI v2.
  * Realiza requisições HTTP, interpreta respostas e constrói entidades JPA
  * prontas para persistência.
+ * <p>
+ * Com {@code spring.threads.virtual.enabled} cada requisição roda em uma
+ * thread virtual: a espera pela PokeAPI desmonta a thread virtual da
+ * portadora em vez de prender uma thread do Tomcat. O HTTP, o prazo e o
+ * limite de concorrência ficam no {@link ClientePokeApi}; sem vaga no
+ * limite, {@link com.centropokemon.exception.ServicoSobrecarregadoException}
+ * sobe até o controller (503).
  */
 @Service
 public class DataInicializacao {
 
-    private static final String API_BASE = "https://pokeapi.co/api/v2";
     private static final int TOTAL_POKEMON = 898;
 
     /**
@@ -69,16 +80,18 @@ public class DataInicializacao {
     }
 
     /**
-     * Construtor com injeção de repositórios e clientes HTTP/JSON.
+     * Construtor com injeção de repositórios e do cliente da PokeAPI.
      */
     public DataInicializacao(
             PokemonRepository pokemonRepository,
-            TipoRepository tipoRepository
+            TipoRepository tipoRepository,
+            CachePokedexService cachePokedex,
+            ClientePokeApi pokeApi
     ) {
-        this.http = new RestTemplate();
-        this.mapper = new ObjectMapper();
+        this.pokeApi = pokeApi;
         this.pokemonRepository = pokemonRepository;
         this.tipoRepository = tipoRepository;
+        this.cachePokedex = cachePokedex;
     }
 
     /**
@@ -95,6 +108,24 @@ public class DataInicializacao {
             return null;
         }
 
+        JsonNode speciesNode = getSpeciesNode(String.valueOf(pokemonNode.path("id").asInt()));
+        Pokemon pokemon = montarPokemon(pokemonNode, speciesNode);
+        pokemon.setTipos(resolverTipos(pokemon.getTipos()));
+
+        Pokemon salvo = salvarOuAtualizarPokemon(pokemon);
+        return salvo;
+    }
+
+    /**
+     * Monta o Pokémon (sem gravar) a partir dos documentos da PokeAPI: nome
+     * em EN/PT, sprite com fallback, altura e peso, habilidades, tipos
+     * traduzidos (ainda não resolvidos no banco), stats e descrição PT/EN.
+     *
+     * @param pokemonNode documento de {@code pokemon/{id}}
+     * @param speciesNode documento de {@code pokemon-species/{id}}, ou null/ausente
+     * @return entidade Pokemon preenchida, sem ID
+     */
+    public static Pokemon montarPokemon(JsonNode pokemonNode, JsonNode speciesNode) {
         int id = pokemonNode.path("id").asInt();
         String nomeEn = pokemonNode.path("name").asText();
         String spriteUrl = extrairMelhorSprite(pokemonNode.path("sprites"));
@@ -127,8 +158,7 @@ public class DataInicializacao {
         }
         pokemon.setHabilidades(habilidades);
 
-        List<Tipo> tipos = extrairTipos(pokemonNode.path("types"));
-        pokemon.setTipos(resolverTipos(tipos));
+        pokemon.setTipos(extrairTipos(pokemonNode.path("types")));
 
         PokemonStats stats = extrairStats(pokemonNode.path("stats"));
         stats.setPokemon(pokemon);
@@ -138,7 +168,6 @@ public class DataInicializacao {
             pokemon.setVidaAtual(stats.getHp());
         }
 
-        JsonNode speciesNode = getSpeciesNode(String.valueOf(id));
         String nomePt = extrairNomePt(speciesNode);
         pokemon.setNomePt(nomePt != null ? nomePt : nomeEn);
 
@@ -148,9 +177,7 @@ public class DataInicializacao {
             descricoes.add(descricao);
         }
         pokemon.setDescricoes(descricoes);
-
-        Pokemon salvo = salvarOuAtualizarPokemon(pokemon);
-        return salvo;
+        return pokemon;
     }
 
     public Pokemon carregarPokemonAleatorio() {
@@ -175,10 +202,10 @@ public class DataInicializacao {
         return carregarPokemon(idStr);
     }
 
-    private final RestTemplate http;
-    private final ObjectMapper mapper;
+    private final ClientePokeApi pokeApi;
     private final PokemonRepository pokemonRepository;
     private final TipoRepository tipoRepository;
+    private final CachePokedexService cachePokedex;
 
     private List<Tipo> resolverTipos(List<Tipo> tipos) {
         List<Tipo> resolvidos = new ArrayList<>();
@@ -243,7 +270,11 @@ public class DataInicializacao {
         } else {
             alvo = pokemon;
         }
-        return pokemonRepository.save(alvo);
+        Pokemon salvo = pokemonRepository.save(alvo);
+        if (salvo.getTreinador() == null) {
+            cachePokedex.invalidar(salvo.getPokeApiId());
+        }
+        return salvo;
     }
 
     /**
@@ -253,7 +284,7 @@ public class DataInicializacao {
      * @param sprites nó JSON de sprites
      * @return URL da imagem
      */
-    private String extrairMelhorSprite(JsonNode sprites) {
+    private static String extrairMelhorSprite(JsonNode sprites) {
         if (sprites == null || sprites.isMissingNode()) return null;
         JsonNode other = sprites.path("other");
         String official = other.path("official-artwork").path("front_default").asText(null);
@@ -272,7 +303,7 @@ public class DataInicializacao {
      * @param types nó JSON "types"
      * @return lista de tipos traduzidos
      */
-    private List<Tipo> extrairTipos(JsonNode types) {
+    private static List<Tipo> extrairTipos(JsonNode types) {
         List<Tipo> lista = new ArrayList<>();
         if (types == null || !types.isArray()) return lista;
         for (JsonNode t : types) {
@@ -293,7 +324,7 @@ public class DataInicializacao {
      * @param stats nó JSON "stats"
      * @return entidade PokemonStats preenchida
      */
-    private PokemonStats extrairStats(JsonNode stats) {
+    private static PokemonStats extrairStats(JsonNode stats) {
         if (stats == null || !stats.isArray()) return new PokemonStats();
         Integer hp = null, atk = null, def = null, spd = null, spAtk = null, spDef = null;
         for (JsonNode s : stats) {
@@ -318,7 +349,7 @@ public class DataInicializacao {
      * @param species nó JSON "pokemon-species"
      * @return nome em português ou null
      */
-    private String extrairNomePt(JsonNode species) {
+    private static String extrairNomePt(JsonNode species) {
         if (species == null || species.isMissingNode()) return null;
         JsonNode names = species.path("names");
         if (names.isArray()) {
@@ -345,7 +376,7 @@ public class DataInicializacao {
      * @param pokemon entidade alvo
      * @return PokemonDescricao com textos PT/EN ou null
      */
-    private PokemonDescricao extrairDescricao(JsonNode species, Pokemon pokemon) {
+    private static PokemonDescricao extrairDescricao(JsonNode species, Pokemon pokemon) {
         if (species == null || species.isMissingNode()) return null;
         String pt = null, en = null;
         JsonNode entries = species.path("flavor_text_entries");
@@ -367,7 +398,7 @@ public class DataInicializacao {
      * @param raw texto bruto
      * @return texto limpo
      */
-    private String limparDescricao(String raw) {
+    private static String limparDescricao(String raw) {
         if (raw == null) return null;
         return raw.replace('\n', ' ').replace('\f', ' ').trim();
     }
@@ -379,23 +410,11 @@ public class DataInicializacao {
      * @return nó JSON ou null
      */
     private JsonNode getPokemonNode(String nomeOuId) {
-        try {
-            String url = API_BASE + "/pokemon/" + nomeOuId.toLowerCase();
-            String body = http.getForObject(url, String.class);
-            return mapper.readTree(body);
-        } catch (Exception e) {
-            return null;
-        }
+        return pokeApi.buscar("/pokemon/" + segmento(nomeOuId));
     }
 
     private JsonNode getTypeNode(String type) {
-        try {
-            String url = API_BASE + "/type/" + type.toLowerCase();
-            String body = http.getForObject(url, String.class);
-            return mapper.readTree(body);
-        } catch (Exception e) {
-            return null;
-        }
+        return pokeApi.buscar("/type/" + segmento(type));
     }
 
     /**
@@ -405,12 +424,10 @@ public class DataInicializacao {
      * @return nó JSON ou null
      */
     private JsonNode getSpeciesNode(String id) {
-        try {
-            String url = API_BASE + "/pokemon-species/" + id;
-            String body = http.getForObject(url, String.class);
-            return mapper.readTree(body);
-        } catch (Exception e) {
-            return null;
-        }
+        return pokeApi.buscar("/pokemon-species/" + segmento(id));
+    }
+
+    private static String segmento(String valor) {
+        return UriUtils.encodePathSegment(valor.toLowerCase(), StandardCharsets.UTF_8);
     }
 }
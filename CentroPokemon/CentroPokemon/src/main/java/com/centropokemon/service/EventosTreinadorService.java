@@ -0,0 +1,288 @@
+/*
+ * Centro Pokémon - Eventos do Treinador
+ * ---------------------------------------
+ * @file        EventosTreinadorService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Publica, por Server-Sent Events, as mudanças na coleção e
+ *              nas consultas de cada treinador para os painéis abertos.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.model.Consulta;
+import com.centropokemon.model.Pokemon;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * O painel do treinador deixava de consultar {@code /status} e a coleção em
+ * intervalos: ele abre um {@link SseEmitter} em
+ * {@code /api/treinadores/{id}/eventos} e os serviços
+ * ({@link CadastroPokemonService}, {@link CentroService},
+ * {@link ConsultaService}) chamam {@link #publicar} depois de gravar.
+ * <ul>
+ *   <li>Conexão ociosa não ocupa thread: o {@link SseEmitter} usa o modo
+ *       assíncrono do Servlet e só existe como objeto em memória.</li>
+ *   <li>Quem publica nunca escreve no socket: o evento entra na fila do
+ *       assinante, limitada a {@code centro.eventos.buffer}, e um pool pequeno
+ *       ({@code centro.eventos.threads}) esvazia as filas, uma por vez por
+ *       assinante, preservando a ordem.</li>
+ *   <li>Assinante lento (fila cheia) é desligado; o {@code EventSource} do
+ *       navegador reconecta e o painel recarrega o estado pelas rotas com ETag.</li>
+ *   <li>A cada {@code centro.eventos.heartbeat} todos recebem um comentário
+ *       SSE, o que mantém proxies abertos e revela conexões mortas.</li>
+ *   <li>Cada treinador tem no máximo {@code centro.eventos.max-por-treinador}
+ *       conexões; a mais antiga sai quando uma nova passa do limite.</li>
+ * </ul>
+ * Métricas: {@code centro.eventos.assinantes}, {@code centro.eventos.enviados}
+ * e {@code centro.eventos.desligados{motivo}}.
+ */
+@Service
+public class EventosTreinadorService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventosTreinadorService.class);
+
+    /** Pokémon entrou na coleção. */
+    public static final String POKEMON_ADICIONADO = "pokemon-adicionado";
+    /** Pokémon saiu da coleção. */
+    public static final String POKEMON_REMOVIDO = "pokemon-removido";
+    /** Um ou mais Pokémon foram curados. */
+    public static final String POKEMONS_CURADOS = "pokemons-curados";
+    /** Consulta agendada. */
+    public static final String CONSULTA_AGENDADA = "consulta-agendada";
+
+    /**
+     * Corpo dos eventos de Pokémon: só o que o painel atualiza sem recarregar.
+     * Montado na thread de quem publica, sem associações preguiçosas.
+     */
+    public record PokemonEvento(Integer id, Integer pokeApiId, String nomePt, Integer vidaAtual, Integer vidaMaxima) {
+        public static PokemonEvento of(Pokemon p) {
+            return new PokemonEvento(p.getId(), p.getPokeApiId(), p.getNomePt(), p.getVidaAtual(), p.getVidaMaxima());
+        }
+    }
+
+    /** Corpo dos eventos de consulta. */
+    public record ConsultaEvento(Integer id, Integer pokemonId, String tipo, LocalDateTime dataHora) {
+        public static ConsultaEvento of(Consulta c) {
+            return new ConsultaEvento(c.getId(), c.getPokemon() != null ? c.getPokemon().getId() : null,
+                    c.getTipo(), c.getDataHora());
+        }
+    }
+
+    private final ConcurrentMap<Integer, Set<Assinante>> assinantes;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ExecutorService envio;
+    private final ScheduledExecutorService pulsacao;
+    private final int buffer;
+    private final int maxPorTreinador;
+    private final long timeoutMs;
+    private final Counter enviados;
+    private final Counter desligadosLentos;
+    private final Counter desligadosExcesso;
+
+    @Autowired
+    public EventosTreinadorService(MeterRegistry metricas,
+                                   @Value("${centro.eventos.threads:2}") int threads,
+                                   @Value("${centro.eventos.buffer:32}") int buffer,
+                                   @Value("${centro.eventos.max-por-treinador:5}") int maxPorTreinador,
+                                   @Value("${centro.eventos.timeout:PT30M}") Duration timeout,
+                                   @Value("${centro.eventos.heartbeat:PT25S}") Duration heartbeat) {
+        this(metricas, poolEnvio(threads), buffer, maxPorTreinador, timeout, heartbeat);
+    }
+
+    /** Com o pool de envio fornecido (testes). */
+    EventosTreinadorService(MeterRegistry metricas, ExecutorService envio, int buffer, int maxPorTreinador,
+                            Duration timeout, Duration heartbeat) {
+        this(metricas, envio, buffer, maxPorTreinador, timeout, heartbeat, new ConcurrentHashMap<>());
+    }
+
+    /** Com o mapa de assinaturas fornecido (testes que intercalam assinatura e saída). */
+    EventosTreinadorService(MeterRegistry metricas, ExecutorService envio, int buffer, int maxPorTreinador,
+                            Duration timeout, Duration heartbeat, ConcurrentMap<Integer, Set<Assinante>> assinantes) {
+        this.assinantes = assinantes;
+        this.envio = envio;
+        this.pulsacao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eventos-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        this.buffer = Math.max(1, buffer);
+        this.maxPorTreinador = Math.max(1, maxPorTreinador);
+        this.timeoutMs = timeout.toMillis();
+        this.enviados = Counter.builder("centro.eventos.enviados").register(metricas);
+        this.desligadosLentos = Counter.builder("centro.eventos.desligados").tag("motivo", "lento").register(metricas);
+        this.desligadosExcesso = Counter.builder("centro.eventos.desligados").tag("motivo", "excesso").register(metricas);
+        Gauge.builder("centro.eventos.assinantes", total, AtomicInteger::get)
+                .description("Painéis conectados por SSE").register(metricas);
+        long periodo = heartbeat.toMillis();
+        pulsacao.scheduleAtFixedRate(this::pulsar, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre a assinatura de um treinador.
+     * @param treinadorId treinador autenticado
+     * @return emitter a devolver pelo controller
+     */
+    public SseEmitter assinar(Integer treinadorId) {
+        Assinante a = new Assinante(treinadorId, new SseEmitter(timeoutMs));
+        a.emitter.onCompletion(() -> remover(a));
+        a.emitter.onTimeout(() -> remover(a));
+        a.emitter.onError(e -> remover(a));
+        // A inclusão acontece dentro do compute: se o último painel sai entre
+        // achar o conjunto e incluir, remover() descarta o conjunto do mapa e
+        // a nova assinatura ficaria num conjunto órfão, sem eventos nem ping.
+        Set<Assinante> doTreinador = assinantes.compute(treinadorId, (k, s) -> {
+            Set<Assinante> conjunto = s == null ? ConcurrentHashMap.<Assinante>newKeySet() : s;
+            conjunto.add(a);
+            return conjunto;
+        });
+        total.incrementAndGet();
+        while (doTreinador.size() > maxPorTreinador) {
+            Assinante antigo = doTreinador.stream().min((x, y) -> Long.compare(x.desde, y.desde)).orElse(null);
+            if (antigo == null || antigo == a) break;
+            desligadosExcesso.increment();
+            desligar(antigo);
+        }
+        // primeiro evento: confirma a conexão e libera o cabeçalho da resposta
+        enfileirar(a, SseEmitter.event().name("conectado").reconnectTime(3000).data(Map.of("treinadorId", treinadorId)));
+        return a.emitter;
+    }
+
+    /**
+     * Envia um evento a todos os painéis abertos do treinador. Não bloqueia:
+     * só enfileira.
+     * @param treinadorId treinador afetado
+     * @param tipo nome do evento SSE (constantes desta classe)
+     * @param dados corpo do evento, serializado como JSON
+     */
+    public void publicar(Integer treinadorId, String tipo, Object dados) {
+        if (treinadorId == null) return;
+        Set<Assinante> doTreinador = assinantes.get(treinadorId);
+        if (doTreinador == null || doTreinador.isEmpty()) return;
+        String id = Long.toString(sequencia.incrementAndGet());
+        for (Assinante a : doTreinador) {
+            enfileirar(a, SseEmitter.event().id(id).name(tipo).data(dados, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /** @return painéis conectados */
+    public int getAssinantes() { return total.get(); }
+
+    @PreDestroy
+    public void encerrar() {
+        pulsacao.shutdownNow();
+        assinantes.values().forEach(s -> s.forEach(this::desligar));
+        envio.shutdownNow();
+    }
+
+    private static ExecutorService poolEnvio(int threads) {
+        // a escrita no socket bloqueia: threads virtuais, em número limitado
+        return Executors.newFixedThreadPool(Math.max(1, threads), Thread.ofVirtual().name("eventos-envio-", 1).factory());
+    }
+
+    private void pulsar() {
+        assinantes.values().forEach(s -> s.forEach(a -> enfileirar(a, SseEmitter.event().comment("ping"))));
+    }
+
+    private void enfileirar(Assinante a, SseEmitter.SseEventBuilder evento) {
+        if (a.desligado.get()) return;
+        if (a.pendentes.incrementAndGet() > buffer) {
+            desligadosLentos.increment();
+            log.debug("Eventos: treinador {} não acompanha ({} pendentes), desligando", a.treinadorId, buffer);
+            desligar(a);
+            return;
+        }
+        a.fila.add(evento);
+        if (a.agendado.compareAndSet(false, true)) {
+            try {
+                envio.execute(() -> drenar(a));
+            } catch (RuntimeException e) {
+                a.agendado.set(false);
+            }
+        }
+    }
+
+    /** Envia o que houver na fila do assinante; no máximo uma execução por assinante. */
+    private void drenar(Assinante a) {
+        try {
+            SseEmitter.SseEventBuilder evento;
+            while ((evento = a.fila.poll()) != null) {
+                a.pendentes.decrementAndGet();
+                if (a.desligado.get()) continue;
+                a.emitter.send(evento);
+                enviados.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            desligar(a);
+        } finally {
+            a.agendado.set(false);
+        }
+        // evento enfileirado entre o último poll e a liberação do agendamento
+        if (!a.fila.isEmpty() && !a.desligado.get() && a.agendado.compareAndSet(false, true)) {
+            envio.execute(() -> drenar(a));
+        }
+    }
+
+    private void desligar(Assinante a) {
+        if (!remover(a)) return;
+        a.fila.clear();
+        try {
+            a.emitter.complete();
+        } catch (RuntimeException e) {
+            // conexão já encerrada pelo cliente
+        }
+    }
+
+    private boolean remover(Assinante a) {
+        if (!a.desligado.compareAndSet(false, true)) return false;
+        total.decrementAndGet();
+        assinantes.computeIfPresent(a.treinadorId, (k, s) -> {
+            s.remove(a);
+            return s.isEmpty() ? null : s;
+        });
+        return true;
+    }
+
+    static final class Assinante {
+        final Integer treinadorId;
+        final SseEmitter emitter;
+        final long desde = System.nanoTime();
+        final Queue<SseEmitter.SseEventBuilder> fila = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendentes = new AtomicInteger();
+        final AtomicBoolean agendado = new AtomicBoolean();
+        final AtomicBoolean desligado = new AtomicBoolean();
+
+        Assinante(Integer treinadorId, SseEmitter emitter) {
+            this.treinadorId = treinadorId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Centro Pokémon - Filtro de Bloom
+ * ---------------------------------------
+ * @file        FiltroBloom.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Filtro de Bloom concorrente para chaves de texto. Responde
+ *              "certamente ausente" ou "talvez presente", sem falsos negativos.
+ */
+package com.centropokemon.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conjunto probabilístico em memória: {@link #talvezContem(String)} nunca
+ * retorna {@code false} para uma chave adicionada, mas pode retornar
+ * {@code true} para chaves nunca vistas (falso positivo).
+ * <p>
+ * Os bits ficam em um {@link AtomicLongArray}; inclusões e consultas podem
+ * ocorrer em paralelo sem bloqueio.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+
+    /**
+     * Dimensiona o filtro para a capacidade e a taxa de falsos positivos desejadas.
+     * @param capacidade número esperado de chaves
+     * @param taxaFalsoPositivo taxa alvo de falsos positivos (ex.: 0.01)
+     */
+    public FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        if (capacidade <= 0 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Parâmetros do filtro de Bloom inválidos");
+        }
+        long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(palavras);
+        this.totalBits = (long) palavras * 64;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * Math.log(2)));
+    }
+
+    /**
+     * Adiciona uma chave ao filtro.
+     * @param chave chave (já normalizada pelo chamador)
+     */
+    public void adicionar(String chave) {
+        long h = hash64(chave);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 1; i <= funcoesHash; i++) {
+            long bit = indice(h1 + i * h2);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            if ((bits.get(palavra) & mascara) == 0) {
+                bits.getAndUpdate(palavra, v -> v | mascara);
+            }
+        }
+    }
+
+    /**
+     * @param chave chave (já normalizada pelo chamador)
+     * @return {@code false} se a chave certamente não foi adicionada
+     */
+    public boolean talvezContem(String chave) {
+        long h = hash64(chave);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 1; i <= funcoesHash; i++) {
+            long bit = indice(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return quantidade de bits do filtro */
+    public long getTotalBits() { return totalBits; }
+
+    /** @return quantidade de funções de hash */
+    public int getFuncoesHash() { return funcoesHash; }
+
+    private long indice(int combinado) {
+        return (combinado & 0x7fffffffL) % totalBits;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre UTF-8 com finalização do MurmurHash3 para
+     * espalhar os bits entre as duas metades usadas no hash duplo.
+     */
+    private static long hash64(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Centro Pokémon - Hash de Senhas
+ * ---------------------------------------
+ * @file        HashSenhaService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Gera e verifica hashes BCrypt em um pool dedicado e limitado,
+ *              com fila, orçamento de latência, custo calibrado na subida e
+ *              métricas de latência e profundidade de fila.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * O BCrypt é intencionalmente caro em CPU. Para que uma rajada de logins não
+ * ocupe todas as threads de requisição, o trabalho roda em um pool próprio
+ * com fila limitada: com a fila cheia, ou se o resultado não sair dentro do
+ * orçamento, a operação falha com {@link ServicoSobrecarregadoException}
+ * (HTTP 503) em vez de acumular espera.
+ * <p>
+ * O custo do BCrypt é escolhido na subida: mede-se um hash de custo 10 e
+ * extrapola-se (cada ponto de custo dobra o tempo) até o maior custo que
+ * caiba em {@code centro.senhas.alvo-ms}. Hashes com custo menor, ou senhas
+ * ainda em texto claro, são refeitos no próximo login ({@link #precisaRehash}).
+ * <p>
+ * Métricas: {@code centro.senhas.duracao} (tempo de CPU por operação),
+ * {@code centro.senhas.espera} (tempo na fila), {@code centro.senhas.fila},
+ * {@code centro.senhas.ativas} e {@code centro.senhas.rejeitadas}.
+ */
+@Service
+public class HashSenhaService {
+
+    private static final Logger log = LoggerFactory.getLogger(HashSenhaService.class);
+    private static final Pattern FORMATO_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+    private static final int CUSTO_BASE = 10;
+    private static final int CUSTO_MAXIMO = 16;
+
+    private final ThreadPoolExecutor pool;
+    private final long orcamentoNanos;
+    private final int custo;
+    private final BCryptPasswordEncoder encoder;
+
+    private final Timer duracaoHash;
+    private final Timer duracaoVerificacao;
+    private final Timer espera;
+    private final Counter rejeitadasFila;
+    private final Counter rejeitadasOrcamento;
+
+    public HashSenhaService(MeterRegistry metricas,
+                            @Value("${centro.senhas.threads:0}") int threads,
+                            @Value("${centro.senhas.fila:64}") int fila,
+                            @Value("${centro.senhas.orcamento-ms:2000}") long orcamentoMs,
+                            @Value("${centro.senhas.alvo-ms:250}") long alvoMs,
+                            @Value("${centro.senhas.custo:0}") int custoFixo) {
+        int nThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fila)),
+                r -> {
+                    Thread t = new Thread(r, "senha-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.orcamentoNanos = TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+        this.custo = custoFixo > 0 ? custoFixo : calibrarCusto(alvoMs);
+        this.encoder = new BCryptPasswordEncoder(custo);
+
+        this.duracaoHash = Timer.builder("centro.senhas.duracao").tag("operacao", "hash")
+                .description("Tempo de execução do BCrypt").register(metricas);
+        this.duracaoVerificacao = Timer.builder("centro.senhas.duracao").tag("operacao", "verificar")
+                .description("Tempo de execução do BCrypt").register(metricas);
+        this.espera = Timer.builder("centro.senhas.espera")
+                .description("Tempo na fila do pool de hash").register(metricas);
+        this.rejeitadasFila = Counter.builder("centro.senhas.rejeitadas").tag("motivo", "fila").register(metricas);
+        this.rejeitadasOrcamento = Counter.builder("centro.senhas.rejeitadas").tag("motivo", "orcamento").register(metricas);
+        Gauge.builder("centro.senhas.fila", pool, p -> p.getQueue().size())
+                .description("Tarefas aguardando no pool de hash").register(metricas);
+        Gauge.builder("centro.senhas.ativas", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Threads calculando hash").register(metricas);
+
+        log.info("Hash de senhas: BCrypt custo {}, {} threads, fila {}, orçamento {} ms",
+                custo, nThreads, fila, orcamentoMs);
+    }
+
+    /**
+     * Gera o hash BCrypt da senha no pool dedicado.
+     * @param senha senha em texto claro
+     * @return hash no formato {@code $2a$custo$...}
+     * @throws ServicoSobrecarregadoException se a fila estiver cheia ou o orçamento esgotar
+     */
+    public String gerarHash(String senha) {
+        return executar(() -> encoder.encode(senha), duracaoHash);
+    }
+
+    /**
+     * Verifica a senha contra o valor armazenado. Valores que não são BCrypt
+     * (senhas legadas em texto claro) são comparados em tempo constante, sem
+     * passar pelo pool.
+     * @param senha senha informada
+     * @param armazenada valor da coluna senha
+     * @return true se a senha confere
+     * @throws ServicoSobrecarregadoException se a fila estiver cheia ou o orçamento esgotar
+     */
+    public boolean verificar(String senha, String armazenada) {
+        if (senha == null || armazenada == null) return false;
+        if (!ehBcrypt(armazenada)) {
+            return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8), armazenada.getBytes(StandardCharsets.UTF_8));
+        }
+        return executar(() -> encoder.matches(senha, armazenada), duracaoVerificacao);
+    }
+
+    /**
+     * @param armazenada valor da coluna senha
+     * @return true se o valor é texto claro ou BCrypt com custo abaixo do atual
+     */
+    public boolean precisaRehash(String armazenada) {
+        return armazenada == null || !ehBcrypt(armazenada) || encoder.upgradeEncoding(armazenada);
+    }
+
+    /** @return custo BCrypt em uso */
+    public int getCusto() { return custo; }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    private <T> T executar(Callable<T> operacao, Timer duracao) {
+        long inicio = System.nanoTime();
+        long limite = inicio + orcamentoNanos;
+        Future<T> futuro;
+        try {
+            futuro = pool.submit(() -> {
+                long comeco = System.nanoTime();
+                espera.record(comeco - inicio, TimeUnit.NANOSECONDS);
+                if (comeco - limite > 0) {
+                    throw new TimeoutException("orçamento esgotado na fila");
+                }
+                try {
+                    return operacao.call();
+                } finally {
+                    duracao.record(System.nanoTime() - comeco, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitadasFila.increment();
+            throw new ServicoSobrecarregadoException("Fila de hash de senhas cheia");
+        }
+        try {
+            return futuro.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(false);
+            rejeitadasOrcamento.increment();
+            throw new ServicoSobrecarregadoException("Hash de senha excedeu o orçamento de latência");
+        } catch (InterruptedException e) {
+            futuro.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServicoSobrecarregadoException("Hash de senha interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                rejeitadasOrcamento.increment();
+                throw new ServicoSobrecarregadoException("Hash de senha excedeu o orçamento de latência");
+            }
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean ehBcrypt(String valor) {
+        return FORMATO_BCRYPT.matcher(valor).matches();
+    }
+
+    /**
+     * Mede o custo base (melhor de três execuções, após aquecimento) e
+     * extrapola: cada ponto de custo dobra o tempo do BCrypt.
+     */
+    private static int calibrarCusto(long alvoMs) {
+        BCryptPasswordEncoder base = new BCryptPasswordEncoder(CUSTO_BASE);
+        base.encode("aquecimento");
+        long melhor = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long t0 = System.nanoTime();
+            base.encode("calibracao-" + i);
+            melhor = Math.min(melhor, System.nanoTime() - t0);
+        }
+        double baseMs = Math.max(0.001, melhor / 1_000_000.0);
+        int extra = (int) Math.floor(Math.log(alvoMs / baseMs) / Math.log(2));
+        int escolhido = Math.max(CUSTO_BASE, Math.min(CUSTO_MAXIMO, CUSTO_BASE + extra));
+        log.info("Calibração BCrypt: custo {} = {} ms; alvo {} ms -> custo {} (~{} ms)",
+                CUSTO_BASE, String.format("%.1f", baseMs), alvoMs, escolhido,
+                Math.round(baseMs * Math.pow(2, escolhido - CUSTO_BASE)));
+        return escolhido;
+    }
+}
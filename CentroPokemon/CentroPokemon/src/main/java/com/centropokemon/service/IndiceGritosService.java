@@ -0,0 +1,222 @@
+/*
+ * Centro Pokémon - Índice de Gritos
+ * ---------------------------------------
+ * @file        IndiceGritosService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Varre static/sons/cries uma vez na subida e monta o índice
+ *              ID/forma -> arquivo, além do manifesto JSON (e sua versão
+ *              gzip) servido inteiro em uma única resposta.
+ */
+package com.centropokemon.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Os arquivos de grito seguem vários padrões de nome, conforme a pasta de
+ * origem:
+ * <ul>
+ *   <li>{@code SE_PV025.wav} (gerações 1 a 5);</li>
+ *   <li>{@code 025.wav} ({@code cries (9)});</li>
+ *   <li>{@code 905T - Enamorus (Therian).wav}: ID, sufixo e forma entre
+ *       parênteses (a forma vira {@code therian});</li>
+ *   <li>{@code Play_PV_892_01_00.wav}: ID, índice de forma ({@code 00} é a
+ *       base, os demais viram a forma {@code "1"}, {@code "2"}...) e variação
+ *       (fica a de menor número).</li>
+ * </ul>
+ * Um ID sem grito base (só formas, como o Oricorio) usa a primeira forma
+ * em ordem alfabética de arquivo.
+ * <p>
+ * Quando o mesmo ID/forma aparece em mais de uma pasta vale a primeira na
+ * ordem {@code cries}, {@code cries (2)}, ..., {@code cries (13)}, a mesma
+ * ordem em que o cliente testava as URLs antes do índice existir.
+ * <p>
+ * Formas base ficam em um array indexado pelo ID e as demais em um mapa
+ * {@code "id-forma"}; ambos são imutáveis depois da subida, então a busca é
+ * O(1) e sem sincronização.
+ */
+@Service
+public class IndiceGritosService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceGritosService.class);
+    private static final String PASTA_GRITOS = "cries/";
+    private static final Pattern PASTA_NUMERADA = Pattern.compile("^cries/cries(?: \\((\\d+)\\))?/");
+    private static final Pattern SE_PV = Pattern.compile("^SE_PV(\\d{3,4})\\.wav$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SO_NUMERO = Pattern.compile("^(\\d{3,4})\\.wav$");
+    private static final Pattern NUMERO_NOME = Pattern.compile("^(\\d{3,4})([A-Z]*) - [^(]+?(?: \\((.+)\\))?\\.wav$");
+    private static final Pattern PLAY_PV = Pattern.compile("^Play_PV_(\\d{3,4})_(\\d{2})_(\\d{2})\\.wav$");
+
+    /** Entrada do índice: ID da PokeAPI, forma ({@code null} para a base) e caminho relativo a {@code static/sons}. */
+    public record Grito(int id, String forma, String caminho) {
+        /** @return chave usada no manifesto ({@code "25"} ou {@code "905-therian"}) */
+        public String chave() {
+            return forma == null ? Integer.toString(id) : id + "-" + forma;
+        }
+    }
+
+    private final String[] base;
+    private final Map<String, String> formas;
+    private final byte[] manifesto;
+    private final byte[] manifestoGzip;
+    private final String etag;
+
+    public IndiceGritosService(ObjectMapper json, AcervoSonsService acervo) {
+        List<Grito> gritos = varrer(acervo);
+        int maiorId = gritos.stream().mapToInt(Grito::id).max().orElse(0);
+        String[] porId = new String[maiorId + 1];
+        Map<String, String> porForma = new HashMap<>();
+        Map<String, String> entradas = new LinkedHashMap<>();
+        Map<Integer, String> primeiraForma = new HashMap<>();
+        for (Grito g : gritos) {
+            if (g.forma() == null) {
+                if (porId[g.id()] != null) continue;
+                porId[g.id()] = g.caminho();
+            } else if (porForma.putIfAbsent(g.chave(), g.caminho()) != null) {
+                continue;
+            } else {
+                primeiraForma.putIfAbsent(g.id(), g.caminho());
+            }
+            entradas.put(g.chave(), g.caminho());
+        }
+        // Pokémon que só têm gritos por forma (ex.: Oricorio) usam a primeira como base
+        primeiraForma.forEach((id, caminho) -> {
+            if (porId[id] == null) {
+                porId[id] = caminho;
+                entradas.put(Integer.toString(id), caminho);
+            }
+        });
+        this.base = porId;
+        this.formas = Map.copyOf(porForma);
+
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("base", "/api/cries/");
+        corpo.put("sons", "/api/sons/");
+        corpo.put("total", entradas.size());
+        corpo.put("gritos", entradas);
+        try {
+            this.manifesto = json.writeValueAsBytes(corpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao gerar o manifesto de gritos", e);
+        }
+        this.manifestoGzip = gzip(manifesto);
+        this.etag = "\"gritos-" + hash(manifesto) + "\"";
+        log.info("Índice de gritos: {} arquivos, {} IDs base, {} formas; manifesto {} bytes ({} gzip)",
+                gritos.size(), entradas.size() - formas.size(), formas.size(), manifesto.length, manifestoGzip.length);
+    }
+
+    /**
+     * @param id ID da PokeAPI
+     * @param forma forma (ex.: {@code therian}, {@code mega}) ou null para a base
+     * @return caminho relativo a {@code static/sons}, ou null se não houver grito
+     */
+    public String buscar(int id, String forma) {
+        if (!StringUtils.hasText(forma)) {
+            return id >= 0 && id < base.length ? base[id] : null;
+        }
+        return formas.get(id + "-" + slug(forma));
+    }
+
+    /** @return manifesto JSON completo */
+    public byte[] getManifesto() { return manifesto; }
+
+    /** @return manifesto comprimido com gzip */
+    public byte[] getManifestoGzip() { return manifestoGzip; }
+
+    /** @return ETag forte do manifesto */
+    public String getEtag() { return etag; }
+
+    /**
+     * Lista os gritos reconhecidos, já na ordem de precedência das pastas.
+     */
+    private static List<Grito> varrer(AcervoSonsService acervo) {
+        List<Grito> gritos = new ArrayList<>();
+        for (AcervoSonsService.Arquivo arquivo : acervo.listar(PASTA_GRITOS, ".wav")) {
+            Grito g = interpretar(arquivo.caminho());
+            if (g != null) gritos.add(g);
+        }
+        gritos.sort(Comparator.comparingInt((Grito g) -> ordemPasta(g.caminho())).thenComparing(Grito::caminho));
+        return gritos;
+    }
+
+    /**
+     * Interpreta o nome do arquivo.
+     * @param caminho caminho relativo a {@code static/sons}
+     * @return entrada do índice, ou null se o nome não identifica um Pokémon
+     */
+    static Grito interpretar(String caminho) {
+        String nome = caminho.substring(caminho.lastIndexOf('/') + 1);
+        Matcher m;
+        if ((m = SE_PV.matcher(nome)).matches() || (m = SO_NUMERO.matcher(nome)).matches()) {
+            return new Grito(Integer.parseInt(m.group(1)), null, caminho);
+        }
+        if ((m = NUMERO_NOME.matcher(nome)).matches()) {
+            String forma = m.group(3) != null ? slug(m.group(3)) : m.group(2).isEmpty() ? null : slug(m.group(2));
+            return new Grito(Integer.parseInt(m.group(1)), forma, caminho);
+        }
+        if ((m = PLAY_PV.matcher(nome)).matches()) {
+            int forma = Integer.parseInt(m.group(2));
+            return new Grito(Integer.parseInt(m.group(1)), forma == 0 ? null : Integer.toString(forma), caminho);
+        }
+        return null;
+    }
+
+    /**
+     * Normaliza o nome de uma forma: minúsculas, sem acentos, separado por
+     * hífens e sem o sufixo "form" ({@code "Dusk Form"} vira {@code dusk}).
+     */
+    static String slug(String forma) {
+        String s = Normalizer.normalize(forma, Normalizer.Form.NFD).replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        return s.endsWith("-form") ? s.substring(0, s.length() - 5) : s;
+    }
+
+    private static int ordemPasta(String caminho) {
+        Matcher m = PASTA_NUMERADA.matcher(caminho);
+        if (!m.find()) return Integer.MAX_VALUE;
+        return m.group(1) == null ? 1 : Integer.parseInt(m.group(1));
+    }
+
+    private static byte[] gzip(byte[] dados) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(dados.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(saida) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gz.write(dados);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private static String hash(byte[] dados) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(dados);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
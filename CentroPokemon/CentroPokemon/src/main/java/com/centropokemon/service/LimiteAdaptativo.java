@@ -0,0 +1,213 @@
+/*
+ * Centro Pokémon - Limite Adaptativo de Concorrência
+ * ---------------------------------------
+ * @file        LimiteAdaptativo.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Limite de chamadas simultâneas a um serviço externo que se
+ *              ajusta pela latência observada (gradiente) e recua
+ *              multiplicativamente em falhas de sobrecarga (AIMD).
+ */
+package com.centropokemon.service;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Descobre quantas chamadas simultâneas o serviço externo aguenta sem
+ * enfileirar, comparando a latência atual com a latência sem carga:
+ * <pre>
+ *   gradiente = clamp(rttSemCarga / rttAtual, 0.5, 1.0)
+ *   novo      = limite × gradiente + √limite
+ *   limite    = limite × (1 − suavização) + novo × suavização
+ * </pre>
+ * Enquanto a latência não sobe, o gradiente é 1 e o limite cresce √limite
+ * por amostra; quando o serviço começa a enfileirar, a latência sobe e o
+ * gradiente puxa o limite de volta. O equilíbrio fica em uma latência pouco
+ * acima da sem carga. {@code rttSemCarga} é o menor RTT de uma janela
+ * deslizante, para acompanhar mudanças reais no serviço.
+ * <p>
+ * Falha de sobrecarga (HTTP 429/5xx, prazo esgotado) é tratada como no
+ * TCP: o limite cai multiplicativamente ({@code × 0,8}). Amostras tiradas
+ * com menos da metade do limite em uso não fazem o limite crescer (quem
+ * limita é a demanda, não o serviço).
+ * <p>
+ * Chamadas acima do limite esperam até {@code espera}, com no máximo
+ * {@code fila} aguardando; o excedente é recusado na hora. Usa
+ * {@link ReentrantLock} (e não {@code synchronized}) para não fixar threads
+ * virtuais enquanto esperam vaga.
+ */
+public class LimiteAdaptativo {
+
+    /** Desfecho de uma chamada, para o ajuste do limite. */
+    public enum Desfecho {
+        /** Resposta útil: a latência conta para o gradiente. */
+        SUCESSO,
+        /** Sinal de sobrecarga do serviço: recuo multiplicativo. */
+        SOBRECARGA,
+        /** Falha sem relação com carga (ex.: 404, erro de parse): não ajusta. */
+        IGNORAR
+    }
+
+    private static final double SUAVIZACAO = 0.2;
+    private static final double RECUO = 0.8;
+    private static final double PESO_RTT = 0.1;
+    private static final int JANELA_RTT_MINIMO = 500;
+
+    private final int minimo;
+    private final int maximo;
+    private final int fila;
+    private final long esperaNanos;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition vaga = trava.newCondition();
+    private double limite;
+    private int emVoo;
+    private int aguardando;
+    private double rttAtual;
+    private long rttMinimoJanela = Long.MAX_VALUE;
+    private long rttMinimoAnterior = Long.MAX_VALUE;
+    private int amostrasJanela;
+
+    /**
+     * @param inicial limite inicial
+     * @param minimo limite mínimo (nunca recusa abaixo disso)
+     * @param maximo limite máximo
+     * @param fila chamadas que podem esperar vaga
+     * @param espera tempo máximo de espera por vaga
+     */
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, int fila, Duration espera) {
+        this.minimo = Math.max(1, minimo);
+        this.maximo = Math.max(this.minimo, maximo);
+        this.limite = Math.min(this.maximo, Math.max(this.minimo, inicial));
+        this.fila = Math.max(0, fila);
+        this.esperaNanos = espera.toNanos();
+    }
+
+    /**
+     * Ocupa uma vaga, esperando se preciso.
+     * @return true se conseguiu; false se a fila estava cheia ou a espera esgotou
+     */
+    public boolean adquirir() throws InterruptedException {
+        return adquirir(Long.MAX_VALUE);
+    }
+
+    /**
+     * Ocupa uma vaga, esperando no máximo o menor entre {@code espera} e
+     * {@code esperaMaximaNanos} (ex.: o que resta do prazo da requisição).
+     * @return true se conseguiu; false se a fila estava cheia ou a espera esgotou
+     */
+    public boolean adquirir(long esperaMaximaNanos) throws InterruptedException {
+        trava.lock();
+        try {
+            if (emVoo < (int) limite) {
+                emVoo++;
+                return true;
+            }
+            if (aguardando >= fila) return false;
+            aguardando++;
+            try {
+                long restante = Math.min(esperaNanos, esperaMaximaNanos);
+                while (emVoo >= (int) limite) {
+                    if (restante <= 0) return false;
+                    restante = vaga.awaitNanos(restante);
+                }
+                emVoo++;
+                return true;
+            } finally {
+                aguardando--;
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite.
+     * @param rttNanos duração da chamada
+     * @param desfecho como a chamada terminou
+     */
+    public void liberar(long rttNanos, Desfecho desfecho) {
+        trava.lock();
+        try {
+            int emUso = emVoo;
+            emVoo--;
+            double anterior = limite;
+            if (desfecho == Desfecho.SOBRECARGA) {
+                limite = Math.max(minimo, limite * RECUO);
+            } else if (desfecho == Desfecho.SUCESSO && rttNanos > 0) {
+                ajustar(rttNanos, emUso);
+            }
+            if (limite > anterior) {
+                vaga.signalAll();
+            } else {
+                vaga.signal();
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void ajustar(long rtt, int emUso) {
+        rttMinimoJanela = Math.min(rttMinimoJanela, rtt);
+        if (++amostrasJanela >= JANELA_RTT_MINIMO) {
+            rttMinimoAnterior = rttMinimoJanela;
+            rttMinimoJanela = Long.MAX_VALUE;
+            amostrasJanela = 0;
+        }
+        rttAtual = rttAtual == 0 ? rtt : rttAtual * (1 - PESO_RTT) + rtt * PESO_RTT;
+        double semCarga = Math.min(rttMinimoAnterior, rttMinimoJanela);
+        double gradiente = Math.max(0.5, Math.min(1.0, semCarga / rttAtual));
+        double novo = limite * gradiente + Math.sqrt(limite);
+        if (novo > limite && emUso < limite / 2) return;
+        limite = Math.max(minimo, Math.min(maximo, limite * (1 - SUAVIZACAO) + novo * SUAVIZACAO));
+    }
+
+    /** @return limite atual (arredondado para baixo é o número de vagas) */
+    public double getLimite() {
+        trava.lock();
+        try {
+            return limite;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** @return chamadas em andamento */
+    public int getEmVoo() {
+        trava.lock();
+        try {
+            return emVoo;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** @return chamadas esperando vaga */
+    public int getAguardando() {
+        trava.lock();
+        try {
+            return aguardando;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** @return latência suavizada atual, em milissegundos */
+    public double getRttMs() {
+        trava.lock();
+        try {
+            return rttAtual / 1e6;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("limite=%.1f emVoo=%d aguardando=%d rtt=%.1fms",
+                getLimite(), getEmVoo(), getAguardando(), getRttMs());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Centro Pokémon - Busca em Lote na Pokédex
+ * ---------------------------------------
+ * @file        LotePokedexService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Resolve em paralelo, com concorrência limitada, as entradas
+ *              da Pokédex que um lote não encontrou em cache.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.exception.PokemonNotFoundException;
+import com.centropokemon.exception.PrazoEsgotadoException;
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Cada falta de um lote ({@code GET /api/pokemons/batch}) vira uma chamada a
+ * {@link DataInicializacao#carregarPokemon} (PokeAPI + gravação). Em vez de
+ * rodar uma após a outra na thread da requisição, elas vão para um pool
+ * próprio:
+ * <ul>
+ *   <li>{@code centro.pokedex.lote.concorrencia} threads, compartilhadas por
+ *       todos os lotes: é o teto de chamadas simultâneas à PokeAPI vindas de
+ *       lotes, por maior que seja a rajada;</li>
+ *   <li>fila limitada a {@code centro.pokedex.lote.fila}; o que não couber
+ *       sai como {@link Situacao#SOBRECARGA} (o item, não o lote);</li>
+ *   <li>o lote inteiro espera no máximo {@code centro.pokedex.lote.espera-ms}
+ *       (ou o que resta do {@link Prazo} da requisição, que as cargas também
+ *       recebem); itens ainda pendentes são cancelados e saem como
+ *       {@link Situacao#TEMPO_ESGOTADO}.</li>
+ * </ul>
+ * Métricas: {@code centro.pokedex.lote.itens{resultado}},
+ * {@code centro.pokedex.lote.fila} e {@code centro.pokedex.lote.ativas}.
+ */
+@Service
+public class LotePokedexService {
+
+    private static final Logger log = LoggerFactory.getLogger(LotePokedexService.class);
+
+    /** Desfecho de um item do lote. */
+    public enum Situacao { OK, NAO_ENCONTRADO, SOBRECARGA, TEMPO_ESGOTADO, ERRO }
+
+    /**
+     * Resultado de um item.
+     * @param situacao desfecho
+     * @param valor valor carregado (só em {@link Situacao#OK})
+     */
+    public record Resultado<T>(Situacao situacao, T valor) {}
+
+    private final ThreadPoolExecutor pool;
+    private final long esperaNanos;
+    private final int maxItens;
+    private final Map<Situacao, Counter> itens = new EnumMap<>(Situacao.class);
+
+    public LotePokedexService(MeterRegistry metricas,
+                              @Value("${centro.pokedex.lote.concorrencia:8}") int concorrencia,
+                              @Value("${centro.pokedex.lote.fila:256}") int fila,
+                              @Value("${centro.pokedex.lote.espera-ms:10000}") long esperaMs,
+                              @Value("${centro.pokedex.lote.max-itens:50}") int maxItens) {
+        int nThreads = Math.max(1, concorrencia);
+        // só espera E/S (PokeAPI e banco): threads virtuais; o teto continua sendo o do pool
+        this.pool = new ThreadPoolExecutor(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fila)),
+                Thread.ofVirtual().name("pokedex-lote-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+        this.maxItens = maxItens;
+        for (Situacao s : Situacao.values()) {
+            itens.put(s, Counter.builder("centro.pokedex.lote.itens")
+                    .tag("resultado", s.name().toLowerCase(Locale.ROOT)).register(metricas));
+        }
+        Gauge.builder("centro.pokedex.lote.fila", pool, p -> p.getQueue().size())
+                .description("Faltas de lotes aguardando no pool").register(metricas);
+        Gauge.builder("centro.pokedex.lote.ativas", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Faltas de lotes sendo carregadas").register(metricas);
+    }
+
+    /** @return máximo de itens aceitos em um lote ({@code centro.pokedex.lote.max-itens}) */
+    public int getMaxItens() { return maxItens; }
+
+    /**
+     * Carrega as chaves em paralelo no pool e espera todas (ou o prazo).
+     * @param chaves chaves a carregar (sem repetição)
+     * @param carregar carga de uma chave; null ou {@link PokemonNotFoundException} = não encontrado
+     * @return resultado de cada chave, na ordem recebida
+     */
+    public <T> Map<String, Resultado<T>> resolver(Collection<String> chaves, Function<String, T> carregar) {
+        if (chaves.isEmpty()) return Map.of();
+        long limite = System.nanoTime() + Math.min(esperaNanos, Math.max(0, Prazo.restanteNanos()));
+        Map<String, Future<T>> futuros = new LinkedHashMap<>();
+        for (String chave : chaves) {
+            try {
+                futuros.put(chave, pool.submit(Prazo.propagar(() -> carregar.apply(chave))));
+            } catch (RejectedExecutionException e) {
+                futuros.put(chave, null);
+            }
+        }
+        Map<String, Resultado<T>> resultados = new LinkedHashMap<>();
+        futuros.forEach((chave, futuro) -> {
+            Resultado<T> r = futuro == null ? new Resultado<>(Situacao.SOBRECARGA, null) : aguardar(chave, futuro, limite);
+            itens.get(r.situacao()).increment();
+            resultados.put(chave, r);
+        });
+        return resultados;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    private <T> Resultado<T> aguardar(String chave, Future<T> futuro, long limite) {
+        try {
+            T valor = futuro.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new Resultado<>(valor != null ? Situacao.OK : Situacao.NAO_ENCONTRADO, valor);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            return new Resultado<>(Situacao.TEMPO_ESGOTADO, null);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            return new Resultado<>(Situacao.TEMPO_ESGOTADO, null);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof PokemonNotFoundException) return new Resultado<>(Situacao.NAO_ENCONTRADO, null);
+            if (causa instanceof ServicoSobrecarregadoException) return new Resultado<>(Situacao.SOBRECARGA, null);
+            if (causa instanceof PrazoEsgotadoException) return new Resultado<>(Situacao.TEMPO_ESGOTADO, null);
+            log.warn("Lote da Pokédex: falha ao carregar {}", chave, causa);
+            return new Resultado<>(Situacao.ERRO, null);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Centro Pokémon - Política de Hedge
+ * ---------------------------------------
+ * @file        PoliticaHedge.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Decide quando uma chamada lenta a um serviço externo ganha
+ *              uma cópia (hedge): depois de um percentil da latência recente
+ *              e dentro de um orçamento de carga extra.
+ */
+package com.centropokemon.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uma chamada que não respondeu até o percentil {@code percentil} da
+ * latência recente provavelmente caiu na cauda do serviço; uma cópia
+ * disparada nesse momento costuma responder antes. Só uma fração
+ * {@code 1 − percentil} das chamadas chega a esse ponto, então a carga
+ * extra já é pequena, mas o orçamento garante o teto mesmo quando o
+ * serviço inteiro fica lento (e o percentil ainda não acompanhou):
+ * <ul>
+ *   <li>cada chamada deposita {@code orcamento} fichas (até {@code MAX_FICHAS});</li>
+ *   <li>cada cópia gasta uma ficha; sem ficha, não há cópia.</li>
+ * </ul>
+ * Assim as cópias nunca passam de {@code orcamento} × chamadas, além de
+ * uma pequena rajada inicial.
+ * <p>
+ * O percentil vem de uma janela das últimas {@code JANELA} latências,
+ * recalculado a cada {@code RECALCULO} amostras. Antes de
+ * {@code amostrasMinimas} amostras não há hedge.
+ */
+public class PoliticaHedge {
+
+    private static final int JANELA = 1024;
+    private static final int RECALCULO = 64;
+    private static final long MILI_FICHA = 1_000;
+    private static final long MAX_FICHAS = 10 * MILI_FICHA;
+
+    private final double percentil;
+    private final long depositoPorChamada;
+    private final long atrasoMinimoNanos;
+    private final int amostrasMinimas;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final long[] latencias = new long[JANELA];
+    private long amostras;
+    private volatile long atrasoNanos = -1;
+    private final AtomicLong fichas = new AtomicLong(MAX_FICHAS);
+
+    /**
+     * @param percentil percentil da latência recente após o qual a cópia é disparada (ex.: 0.95)
+     * @param orcamento fração máxima de chamadas extras (ex.: 0.05)
+     * @param atrasoMinimo espera mínima antes da cópia, mesmo com latências muito baixas
+     * @param amostrasMinimas amostras necessárias antes do primeiro hedge
+     */
+    public PoliticaHedge(double percentil, double orcamento, Duration atrasoMinimo, int amostrasMinimas) {
+        if (percentil <= 0 || percentil >= 1) {
+            throw new IllegalArgumentException("percentil deve estar entre 0 e 1: " + percentil);
+        }
+        this.percentil = percentil;
+        this.depositoPorChamada = Math.round(Math.max(0, orcamento) * MILI_FICHA);
+        this.atrasoMinimoNanos = atrasoMinimo.toNanos();
+        this.amostrasMinimas = Math.max(1, Math.min(JANELA, amostrasMinimas));
+    }
+
+    /** Conta uma chamada no orçamento; chamar uma vez por chamada original. */
+    public void contarChamada() {
+        fichas.accumulateAndGet(depositoPorChamada, (atual, deposito) -> Math.min(MAX_FICHAS, atual + deposito));
+    }
+
+    /** @return true se há orçamento para uma cópia (e o consome) */
+    public boolean consumir() {
+        long atual;
+        do {
+            atual = fichas.get();
+            if (atual < MILI_FICHA) return false;
+        } while (!fichas.compareAndSet(atual, atual - MILI_FICHA));
+        return true;
+    }
+
+    /** @return quanto esperar antes da cópia, em nanos, ou -1 se ainda não há amostras suficientes */
+    public long atrasoNanos() {
+        return atrasoNanos;
+    }
+
+    /**
+     * Registra a latência de uma tentativa que respondeu.
+     * @param nanos duração da tentativa, desde o próprio envio
+     */
+    public void registrar(long nanos) {
+        trava.lock();
+        try {
+            latencias[(int) (amostras % JANELA)] = nanos;
+            amostras++;
+            if (amostras >= amostrasMinimas && (amostras == amostrasMinimas || amostras % RECALCULO == 0)) {
+                long[] copia = Arrays.copyOf(latencias, (int) Math.min(amostras, JANELA));
+                Arrays.sort(copia);
+                long p = copia[(int) Math.min(copia.length - 1, Math.ceil(percentil * copia.length) - 1)];
+                atrasoNanos = Math.max(atrasoMinimoNanos, p);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        long atraso = atrasoNanos;
+        return String.format("p%.0f=%s fichas=%.1f", percentil * 100,
+                atraso < 0 ? "?" : String.format("%.1fms", atraso / 1e6), fichas.get() / (double) MILI_FICHA);
+    }
+}
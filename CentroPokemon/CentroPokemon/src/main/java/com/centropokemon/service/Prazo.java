@@ -0,0 +1,116 @@
+/*
+ * Centro Pokémon - Prazo da Requisição
+ * ---------------------------------------
+ * @file        Prazo.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.0
+ * @date        19/10/2026
+ * @description Prazo da requisição em andamento, guardado na thread que a
+ *              atende, para que banco e PokeAPI usem só o tempo que resta.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.exception.PrazoEsgotadoException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * O {@link com.centropokemon.security.PrazoFilter} define o prazo na
+ * chegada da requisição; daí em diante:
+ * <ul>
+ *   <li>toda transação ganha o tempo restante como timeout (e o JDBC,
+ *       {@code setQueryTimeout}), ver {@link com.centropokemon.config.TransacoesConfig};</li>
+ *   <li>cada chamada à PokeAPI usa o menor entre o próprio timeout e o restante;</li>
+ *   <li>quem encontra o prazo esgotado lança {@link PrazoEsgotadoException}
+ *       (HTTP 504) em vez de começar o trabalho.</li>
+ * </ul>
+ * Sem prazo definido (tarefas de fundo, inicialização) nada muda. Tarefas
+ * entregues a outros pools levam o prazo com {@link #propagar(Callable)}.
+ */
+public final class Prazo {
+
+    private static final ThreadLocal<Long> LIMITE = new ThreadLocal<>();
+
+    private Prazo() {
+    }
+
+    /** Define o prazo da thread atual a partir de agora. */
+    public static void definir(Duration duracao) {
+        LIMITE.set(System.nanoTime() + duracao.toNanos());
+    }
+
+    /** Remove o prazo da thread atual. */
+    public static void limpar() {
+        LIMITE.remove();
+    }
+
+    /** @return true se a thread atual tem prazo */
+    public static boolean definido() {
+        return LIMITE.get() != null;
+    }
+
+    /** @return nanos até o prazo (negativo se esgotou), ou {@link Long#MAX_VALUE} sem prazo */
+    public static long restanteNanos() {
+        Long limite = LIMITE.get();
+        return limite == null ? Long.MAX_VALUE : limite - System.nanoTime();
+    }
+
+    /**
+     * Lança {@link PrazoEsgotadoException} se o prazo já passou.
+     * @param etapa o que ia ser feito, para a mensagem
+     */
+    public static void verificar(String etapa) {
+        if (restanteNanos() <= 0) {
+            throw new PrazoEsgotadoException("Prazo da requisição esgotado antes de " + etapa);
+        }
+    }
+
+    /**
+     * @param timeout timeout próprio da operação
+     * @param etapa o que ia ser feito, para a mensagem
+     * @return o menor entre {@code timeout} e o tempo restante
+     * @throws PrazoEsgotadoException se o prazo já passou
+     */
+    public static Duration limitar(Duration timeout, String etapa) {
+        verificar(etapa);
+        long restante = restanteNanos();
+        return restante < timeout.toNanos() ? Duration.ofNanos(restante) : timeout;
+    }
+
+    /**
+     * @return true se {@code erro} (ou uma causa) vem de prazo esgotado: o
+     *         nosso, o timeout da transação ou a consulta cancelada pelo banco
+     */
+    public static boolean esgotou(Throwable erro) {
+        for (Throwable t = erro; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof PrazoEsgotadoException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof TransactionTimedOutException
+                    || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return tarefa que roda com o prazo da thread atual (no momento desta chamada) */
+    public static <T> Callable<T> propagar(Callable<T> tarefa) {
+        Long limite = LIMITE.get();
+        if (limite == null) return tarefa;
+        return () -> {
+            Long anterior = LIMITE.get();
+            LIMITE.set(limite);
+            try {
+                return tarefa.call();
+            } finally {
+                if (anterior == null) LIMITE.remove();
+                else LIMITE.set(anterior);
+            }
+        };
+    }
+}
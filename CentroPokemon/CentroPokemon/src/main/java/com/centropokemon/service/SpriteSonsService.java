@@ -0,0 +1,397 @@
+/*
+ * Centro Pokémon - Sprite de Sons da Interface
+ * ---------------------------------------
+ * @file        SpriteSonsService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.2
+ * @date        19/10/2026
+ * @description Junta os MP3 curtos de "Pokémon Tick-Tock Walk" em um único
+ *              arquivo (sprite) com manifesto de início/duração de cada som,
+ *              regerado quando a pasta muda.
+ */
+package com.centropokemon.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Os sons da interface são ~36 MP3 de 1 a 25 KB; carregados um a um, cada
+ * página abria dezenas de requisições. Este serviço concatena os quadros MPEG
+ * de todos eles em um único MP3:
+ * <ol>
+ *   <li>cada arquivo é lido quadro a quadro (cabeçalho MPEG Layer III), sem
+ *       tags ID3 nem quadro Xing/Info, que descreveriam só o arquivo isolado;</li>
+ *   <li>só entram arquivos no formato da maioria (versão MPEG, taxa de
+ *       amostragem e mono/estéreo), para o sprite ser um fluxo MP3 uniforme;
+ *       os demais ficam em {@code avulsos} e o cliente os carrega à parte;</li>
+ *   <li>entre dois sons entram {@value #QUADROS_SILENCIO} quadros de silêncio,
+ *       para o fim de um som não vazar no começo do próximo;</li>
+ *   <li>o manifesto traz início e duração de cada som em segundos, calculados
+ *       pela contagem de quadros (576 ou 1152 amostras por quadro).</li>
+ * </ol>
+ * O nome do sprite leva o hash do conteúdo e pode ficar em cache para sempre;
+ * o manifesto é pequeno e revalidado por ETag.
+ * <p>
+ * Quando a pasta está no sistema de arquivos ({@code centro.audio.diretorio}
+ * ou classpath explodido, como no desenvolvimento), um {@link WatchService}
+ * regera o sprite depois de {@code centro.audio.sprite.espera-ms} sem novas
+ * alterações; no acervo endereçado por conteúdo (que muda só por nova
+ * importação) o sprite é montado uma vez, na subida.
+ * <p>
+ * O sprite é só um atalho da interface: se a pasta não puder ser lida na
+ * subida, o serviço começa com um sprite vazio (o cliente carrega cada som
+ * à parte) em vez de impedir a aplicação de subir.
+ */
+@Service
+public class SpriteSonsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteSonsService.class);
+    /** Pasta dos sons da interface, relativa a {@code static/sons}. */
+    public static final String PASTA = "Pokémon Tick-Tock Walk";
+    static final int QUADROS_SILENCIO = 2;
+
+    private static final int[][] BITRATES_L3 = {
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}};
+    private static final int[] TAXAS_MPEG1 = {44100, 48000, 32000};
+
+    /**
+     * Trecho de um som dentro do sprite.
+     * @param inicio início em segundos
+     * @param duracao duração em segundos
+     */
+    public record Trecho(double inicio, double duracao) {}
+
+    /**
+     * Sprite montado.
+     * @param audio MP3 concatenado
+     * @param hash hash do conteúdo (vai no nome do arquivo)
+     * @param trechos som (nome sem extensão) -> trecho, em ordem alfabética
+     * @param avulsos sons fora do sprite (nome -> arquivo)
+     * @param manifesto manifesto JSON já serializado
+     * @param etag ETag forte do manifesto
+     */
+    public record Sprite(byte[] audio, String hash, Map<String, Trecho> trechos, Map<String, String> avulsos,
+                         byte[] manifesto, String etag) {
+        /** @return nome do arquivo do sprite ({@code sprite-<hash>.mp3}) */
+        public String arquivo() {
+            return "sprite-" + hash + ".mp3";
+        }
+    }
+
+    /** Formato de um quadro MPEG: só arquivos com o mesmo formato podem ser concatenados. */
+    record Formato(int versao, int taxa, boolean mono) {
+        int amostrasPorQuadro() {
+            return versao == 1 ? 1152 : 576;
+        }
+    }
+
+    /** Quadros de áudio de um arquivo, já sem tags. */
+    record Quadros(Formato formato, byte[] dados, int quantidade, byte[] primeiroCabecalho) {}
+
+    private final ObjectMapper json;
+    private final AcervoSonsService acervo;
+    private final Path pasta;
+    private final long esperaMs;
+    private final WatchService observador;
+    private volatile Sprite atual;
+
+    public SpriteSonsService(ObjectMapper json,
+                             AcervoSonsService acervo,
+                             @Value("${centro.audio.sprite.observar:true}") boolean observar,
+                             @Value("${centro.audio.sprite.espera-ms:500}") long esperaMs) {
+        this.json = json;
+        this.acervo = acervo;
+        this.esperaMs = esperaMs;
+        this.pasta = acervo.pastaLocal(PASTA);
+        this.atual = montarNaSubida();
+        this.observador = observar && pasta != null ? observar() : null;
+    }
+
+    /** @return sprite atual (troca inteiro quando a pasta muda) */
+    public Sprite getSprite() {
+        return atual;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (observador == null) return;
+        try {
+            observador.close();
+        } catch (IOException e) {
+            log.debug("Falha ao fechar o observador de sons", e);
+        }
+    }
+
+    /**
+     * Junta os arquivos em um sprite.
+     * @param arquivos nome do arquivo -> conteúdo MP3
+     * @param json serializador do manifesto
+     * @return sprite com manifesto
+     */
+    static Sprite montar(Map<String, byte[]> arquivos, ObjectMapper json) {
+        Map<String, Quadros> lidos = new TreeMap<>();
+        Map<String, String> avulsos = new TreeMap<>();
+        arquivos.forEach((arquivo, dados) -> {
+            Quadros q = quadros(dados);
+            if (q == null) avulsos.put(semExtensao(arquivo), arquivo);
+            else lidos.put(arquivo, q);
+        });
+        Map<Formato, Integer> contagem = new HashMap<>();
+        lidos.values().forEach(q -> contagem.merge(q.formato(), 1, Integer::sum));
+        Formato principal = contagem.entrySet().stream()
+                .max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        Map<String, Trecho> trechos = new LinkedHashMap<>();
+        long quadrosAntes = 0;
+        byte[] silencio = null;
+        for (Map.Entry<String, Quadros> e : lidos.entrySet()) {
+            Quadros q = e.getValue();
+            if (!q.formato().equals(principal)) {
+                avulsos.put(semExtensao(e.getKey()), e.getKey());
+                continue;
+            }
+            if (silencio == null) silencio = quadroSilencio(q.primeiroCabecalho());
+            else {
+                for (int i = 0; i < QUADROS_SILENCIO; i++) audio.writeBytes(silencio);
+                quadrosAntes += QUADROS_SILENCIO;
+            }
+            double porQuadro = (double) principal.amostrasPorQuadro() / principal.taxa();
+            trechos.put(semExtensao(e.getKey()),
+                    new Trecho(arredondar(quadrosAntes * porQuadro), arredondar(q.quantidade() * porQuadro)));
+            audio.writeBytes(q.dados());
+            quadrosAntes += q.quantidade();
+        }
+        byte[] bytes = audio.toByteArray();
+        String hash = sha256(bytes).substring(0, 16);
+        Sprite parcial = new Sprite(bytes, hash, trechos, avulsos, null, null);
+
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("sprite", "/api/sons/ui/" + parcial.arquivo());
+        corpo.put("base", "/api/sons/" + PASTA + "/");
+        corpo.put("sons", trechos);
+        corpo.put("avulsos", avulsos);
+        byte[] manifesto;
+        try {
+            manifesto = json.writeValueAsBytes(corpo);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao gerar o manifesto do sprite", ex);
+        }
+        return new Sprite(bytes, hash, Collections.unmodifiableMap(trechos), Collections.unmodifiableMap(avulsos), manifesto,
+                "\"sprite-" + sha256(manifesto).substring(0, 16) + "\"");
+    }
+
+    /**
+     * Lê os quadros MPEG Layer III de um arquivo, descartando ID3v2, ID3v1 e o
+     * quadro Xing/Info.
+     * @param mp3 conteúdo do arquivo
+     * @return quadros, ou null se não for um MP3 Layer III com formato único
+     */
+    static Quadros quadros(byte[] mp3) {
+        int pos = 0;
+        if (mp3.length >= 10 && mp3[0] == 'I' && mp3[1] == 'D' && mp3[2] == '3') {
+            pos = 10 + ((mp3[6] & 0x7f) << 21 | (mp3[7] & 0x7f) << 14 | (mp3[8] & 0x7f) << 7 | (mp3[9] & 0x7f));
+        }
+        int fim = mp3.length;
+        if (fim - pos >= 128 && mp3[fim - 128] == 'T' && mp3[fim - 127] == 'A' && mp3[fim - 126] == 'G') {
+            fim -= 128;
+        }
+        ByteArrayOutputStream dados = new ByteArrayOutputStream(fim - pos);
+        Formato formato = null;
+        byte[] primeiro = null;
+        int quantidade = 0;
+        while (pos + 4 <= fim) {
+            int cabecalho = (mp3[pos] & 0xff) << 24 | (mp3[pos + 1] & 0xff) << 16
+                    | (mp3[pos + 2] & 0xff) << 8 | (mp3[pos + 3] & 0xff);
+            int tamanho = tamanhoQuadro(cabecalho);
+            if (tamanho <= 0 || pos + tamanho > fim) break;
+            Formato f = formato(cabecalho);
+            if (formato == null) formato = f;
+            else if (!formato.equals(f)) return null;
+            if (quantidade == 0 && primeiro == null && ehXing(mp3, pos, tamanho)) {
+                pos += tamanho;
+                continue;
+            }
+            if (primeiro == null) primeiro = Arrays.copyOfRange(mp3, pos, pos + 4);
+            dados.write(mp3, pos, tamanho);
+            quantidade++;
+            pos += tamanho;
+        }
+        return quantidade == 0 ? null : new Quadros(formato, dados.toByteArray(), quantidade, primeiro);
+    }
+
+    /**
+     * @param cabecalho 32 bits do cabeçalho
+     * @return tamanho do quadro em bytes, ou -1 se não for um cabeçalho Layer III válido
+     */
+    static int tamanhoQuadro(int cabecalho) {
+        if ((cabecalho >>> 21) != 0x7ff) return -1;
+        int versaoBits = (cabecalho >>> 19) & 0x3;
+        int camada = (cabecalho >>> 17) & 0x3;
+        int indiceBitrate = (cabecalho >>> 12) & 0xf;
+        int indiceTaxa = (cabecalho >>> 10) & 0x3;
+        if (versaoBits == 1 || camada != 1 || indiceBitrate == 0 || indiceBitrate == 15 || indiceTaxa == 3) return -1;
+        boolean mpeg1 = versaoBits == 3;
+        int bitrate = BITRATES_L3[mpeg1 ? 0 : 1][indiceBitrate] * 1000;
+        int taxa = taxa(versaoBits, indiceTaxa);
+        int padding = (cabecalho >>> 9) & 0x1;
+        return (mpeg1 ? 144 : 72) * bitrate / taxa + padding;
+    }
+
+    private static Formato formato(int cabecalho) {
+        int versaoBits = (cabecalho >>> 19) & 0x3;
+        int versao = versaoBits == 3 ? 1 : versaoBits == 2 ? 2 : 25;
+        return new Formato(versao, taxa(versaoBits, (cabecalho >>> 10) & 0x3), ((cabecalho >>> 6) & 0x3) == 3);
+    }
+
+    private static int taxa(int versaoBits, int indiceTaxa) {
+        int base = TAXAS_MPEG1[indiceTaxa];
+        return versaoBits == 3 ? base : versaoBits == 2 ? base / 2 : base / 4;
+    }
+
+    /** O quadro Xing/Info traz a marca logo depois das informações laterais (até 36 bytes do início). */
+    private static boolean ehXing(byte[] mp3, int pos, int tamanho) {
+        for (int i = pos + 4; i + 4 <= pos + Math.min(tamanho, 40); i++) {
+            if ((mp3[i] == 'X' && mp3[i + 1] == 'i' && mp3[i + 2] == 'n' && mp3[i + 3] == 'g')
+                    || (mp3[i] == 'I' && mp3[i + 1] == 'n' && mp3[i + 2] == 'f' && mp3[i + 3] == 'o')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quadro com o mesmo cabeçalho (sem CRC nem padding) e informações
+     * laterais zeradas: o decodificador o lê como silêncio.
+     */
+    static byte[] quadroSilencio(byte[] cabecalho) {
+        int h = (cabecalho[0] & 0xff) << 24 | (cabecalho[1] & 0xff) << 16 | (cabecalho[2] & 0xff) << 8 | (cabecalho[3] & 0xff);
+        h |= 1 << 16;
+        h &= ~(1 << 9);
+        byte[] quadro = new byte[tamanhoQuadro(h)];
+        quadro[0] = (byte) (h >>> 24);
+        quadro[1] = (byte) (h >>> 16);
+        quadro[2] = (byte) (h >>> 8);
+        quadro[3] = (byte) h;
+        return quadro;
+    }
+
+    private Sprite montar() {
+        long inicio = System.nanoTime();
+        Sprite sprite = montar(lerArquivos(), json);
+        log.info("Sprite de sons: {} sons em {} ({} bytes), {} avulsos, em {} ms",
+                sprite.trechos().size(), sprite.arquivo(), sprite.audio().length, sprite.avulsos().size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return sprite;
+    }
+
+    /** @return sprite da pasta, ou vazio se ela não pôde ser lida */
+    private Sprite montarNaSubida() {
+        try {
+            return montar();
+        } catch (RuntimeException e) {
+            log.warn("Sprite de sons: falha ao ler {} ({}); começando vazio, sons servidos avulsos",
+                    PASTA, e.getMessage());
+            return montar(Map.of(), json);
+        }
+    }
+
+    private Map<String, byte[]> lerArquivos() {
+        Map<String, byte[]> arquivos = new TreeMap<>();
+        for (AcervoSonsService.Arquivo a : acervo.listar(PASTA + "/", ".mp3")) {
+            try (InputStream in = a.recurso().getInputStream()) {
+                arquivos.put(a.caminho().substring(a.caminho().lastIndexOf('/') + 1), in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler o som " + a.caminho(), e);
+            }
+        }
+        return arquivos;
+    }
+
+    private WatchService observar() {
+        try {
+            WatchService ws = pasta.getFileSystem().newWatchService();
+            pasta.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            Thread t = new Thread(() -> vigiar(ws), "sprite-sons-observador");
+            t.setDaemon(true);
+            t.start();
+            return ws;
+        } catch (IOException e) {
+            log.warn("Sprite de sons: não foi possível observar {} ({}); alterações exigem reinício",
+                    pasta, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Espera alterações e, depois de {@code esperaMs} sem novas, regera o sprite. */
+    private void vigiar(WatchService ws) {
+        try {
+            while (true) {
+                WatchKey chave = ws.take();
+                List<WatchKey> chaves = new ArrayList<>(List.of(chave));
+                chave.pollEvents();
+                WatchKey outra;
+                while ((outra = ws.poll(esperaMs, TimeUnit.MILLISECONDS)) != null) {
+                    outra.pollEvents();
+                    chaves.add(outra);
+                }
+                try {
+                    atual = montar();
+                } catch (RuntimeException e) {
+                    log.warn("Sprite de sons: falha ao regerar, mantendo o anterior", e);
+                }
+                chaves.forEach(WatchKey::reset);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // encerramento da aplicação
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String semExtensao(String arquivo) {
+        int ponto = arquivo.lastIndexOf('.');
+        return ponto > 0 ? arquivo.substring(0, ponto) : arquivo;
+    }
+
+    private static double arredondar(double segundos) {
+        return Math.round(segundos * 10_000) / 10_000.0;
+    }
+
+    private static String sha256(byte[] dados) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
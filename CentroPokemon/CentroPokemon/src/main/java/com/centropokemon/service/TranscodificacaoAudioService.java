@@ -0,0 +1,388 @@
+/*
+ * Centro Pokémon - Transcodificação de Áudio
+ * ---------------------------------------
+ * @file        TranscodificacaoAudioService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.3
+ * @date        19/10/2026
+ * @description Converte sob demanda os sons WAV para Opus/OGG com ffmpeg e
+ *              guarda os derivados em cache em disco; sem ffmpeg, ou se a
+ *              conversão não sair a tempo, serve o WAV original.
+ */
+package com.centropokemon.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Os gritos em {@code static/sons} são WAV PCM (~500 kb/s); em Opus a 32 kb/s
+ * o mesmo som fica cerca de 15 a 20 vezes menor. A conversão é preguiçosa:
+ * <ol>
+ *   <li>o primeiro pedido em Opus de um arquivo dispara o ffmpeg em um pool
+ *       limitado (pedidos simultâneos do mesmo arquivo compartilham a mesma
+ *       conversão);</li>
+ *   <li>o resultado vai para {@code centro.audio.cache-dir}, com nome derivado
+ *       do caminho, do tamanho e do bitrate, e é gravado via arquivo
+ *       temporário + move atômico;</li>
+ *   <li>se a conversão não terminar em {@code centro.audio.espera-ms}, se a
+ *       fila estiver cheia ou se o ffmpeg não existir, a requisição recebe o
+ *       WAV original, e a conversão em andamento segue para os próximos.</li>
+ * </ol>
+ * Os originais vêm do {@link AcervoSonsService}. No acervo endereçado por
+ * conteúdo a chave de cache é o próprio hash do arquivo, então conteúdos
+ * repetidos em pastas diferentes compartilham a mesma conversão.
+ * <p>
+ * Métricas: {@code centro.audio.bytes} (enviados, por formato),
+ * {@code centro.audio.bytes.economizados} (WAV − Opus em cada envio Opus),
+ * {@code centro.audio.transcodificacao} e {@code centro.audio.fallback}.
+ */
+@Service
+public class TranscodificacaoAudioService {
+
+    private static final Logger log = LoggerFactory.getLogger(TranscodificacaoAudioService.class);
+    private static final MediaType AUDIO_OGG = MediaType.parseMediaType("audio/ogg");
+    private static final long LIMITE_PROCESSO_MS = 30_000;
+
+    /** Formato entregue ao cliente. */
+    public enum Formato {
+        /** Arquivo como está em {@code static/sons}. */
+        ORIGINAL,
+        /** Derivado Opus em contêiner OGG (apenas para WAV). */
+        OPUS
+    }
+
+    /**
+     * Arquivo de som localizado (classpath ou centro.audio.diretorio).
+     * @param caminho caminho relativo a {@code static/sons}
+     * @param recurso recurso original
+     * @param tamanho tamanho do original em bytes
+     * @param chave identificador estável do conteúdo (hash do acervo, ou caminho + tamanho)
+     */
+    public record Origem(String caminho, Resource recurso, long tamanho, String chave) {
+        boolean ehWav() {
+            return caminho.toLowerCase(Locale.ROOT).endsWith(".wav");
+        }
+    }
+
+    /**
+     * Som pronto para envio.
+     * @param recurso arquivo a enviar
+     * @param tipo Content-Type
+     * @param formato formato efetivamente entregue
+     * @param tamanho tamanho em bytes
+     * @param etag ETag forte
+     */
+    public record Som(Resource recurso, MediaType tipo, Formato formato, long tamanho, String etag) {}
+
+    private final String ffmpeg;
+    private final Path cache;
+    private final AcervoSonsService acervo;
+    private final String bitrate;
+    private final long esperaMs;
+    private final boolean disponivel;
+    private final ThreadPoolExecutor pool;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> emAndamento = new ConcurrentHashMap<>();
+
+    private final Counter bytesOriginal;
+    private final Counter bytesOpus;
+    private final Counter bytesEconomizados;
+    private final Timer duracao;
+    private final MeterRegistry metricas;
+
+    public TranscodificacaoAudioService(MeterRegistry metricas,
+                                        @Value("${centro.audio.ffmpeg:ffmpeg}") String ffmpeg,
+                                        @Value("${centro.audio.cache-dir:${java.io.tmpdir}/centro-audio}") Path cache,
+                                        AcervoSonsService acervo,
+                                        @Value("${centro.audio.bitrate:32k}") String bitrate,
+                                        @Value("${centro.audio.threads:0}") int threads,
+                                        @Value("${centro.audio.fila:32}") int fila,
+                                        @Value("${centro.audio.espera-ms:1500}") long esperaMs) {
+        this.ffmpeg = ffmpeg;
+        this.cache = cache;
+        this.acervo = acervo;
+        this.bitrate = bitrate;
+        this.esperaMs = esperaMs;
+        this.metricas = metricas;
+        int nThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fila)),
+                r -> {
+                    Thread t = new Thread(r, "audio-opus-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.disponivel = detectarFfmpeg(ffmpeg);
+
+        this.bytesOriginal = Counter.builder("centro.audio.bytes").tag("formato", "original")
+                .baseUnit("bytes").description("Bytes de áudio enviados").register(metricas);
+        this.bytesOpus = Counter.builder("centro.audio.bytes").tag("formato", "opus")
+                .baseUnit("bytes").description("Bytes de áudio enviados").register(metricas);
+        this.bytesEconomizados = Counter.builder("centro.audio.bytes.economizados")
+                .baseUnit("bytes").description("WAV não enviado por causa do Opus").register(metricas);
+        this.duracao = Timer.builder("centro.audio.transcodificacao")
+                .description("Tempo de conversão WAV -> Opus").register(metricas);
+
+        if (disponivel) {
+            log.info("Áudio: Opus {} via {}, cache em {}, {} threads", bitrate, ffmpeg, cache, nThreads);
+        } else {
+            log.warn("Áudio: ffmpeg com libopus não encontrado ({}); os sons serão servidos em WAV", ffmpeg);
+        }
+    }
+
+    /**
+     * Escolhe o formato a partir de {@code ?formato=} (prioritário) ou do
+     * cabeçalho {@code Accept}: Opus se o cliente aceitar {@code audio/ogg}
+     * ou {@code audio/opus} explicitamente (curingas não contam, porque
+     * navegadores mandam {@code *}{@code /*} mesmo sem suportar Opus).
+     * @param formato valor do parâmetro (opus, ogg, wav, original) ou null
+     * @param accept cabeçalho Accept ou null
+     * @return formato preferido
+     */
+    public static Formato negociar(String formato, String accept) {
+        if (StringUtils.hasText(formato)) {
+            String f = formato.trim().toLowerCase(Locale.ROOT);
+            return f.equals("opus") || f.equals("ogg") ? Formato.OPUS : Formato.ORIGINAL;
+        }
+        if (!StringUtils.hasText(accept)) return Formato.ORIGINAL;
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            for (MediaType t : tipos) {
+                if (t.getQualityValue() > 0 && "audio".equals(t.getType())
+                        && ("ogg".equals(t.getSubtype()) || "opus".equals(t.getSubtype()))) {
+                    return Formato.OPUS;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Accept malformado: trata como sem preferência
+        }
+        return Formato.ORIGINAL;
+    }
+
+    /**
+     * Localiza um som dentro de {@code static/sons}.
+     * @param caminho caminho relativo (ex.: {@code cries/cries/Generation 1/SE_PV025.wav})
+     * @return origem com chave de conteúdo
+     * @throws IllegalArgumentException se o caminho for inválido ou o arquivo não existir
+     */
+    public Origem localizar(String caminho) {
+        String limpo = caminho == null ? "" : StringUtils.cleanPath(caminho.replace('\\', '/'));
+        while (limpo.startsWith("/")) limpo = limpo.substring(1);
+        String minusculo = limpo.toLowerCase(Locale.ROOT);
+        if (limpo.isEmpty() || limpo.startsWith("..") || limpo.contains("/../")
+                || !(minusculo.endsWith(".wav") || minusculo.endsWith(".mp3"))) {
+            throw new IllegalArgumentException("Som inválido: " + caminho);
+        }
+        AcervoSonsService.Arquivo arquivo;
+        try {
+            arquivo = acervo.localizar(limpo);
+        } catch (UncheckedIOException e) {
+            throw new IllegalArgumentException("Som ilegível: " + limpo, e);
+        }
+        if (arquivo == null) throw new IllegalArgumentException("Som não encontrado: " + limpo);
+        String chave = arquivo.sha256() != null
+                ? arquivo.sha256()
+                : sha256(limpo + '\u001f' + arquivo.tamanho());
+        return new Origem(limpo, arquivo.recurso(), arquivo.tamanho(), chave.substring(0, 20));
+    }
+
+    /**
+     * ETag do som no formato pedido, sem converter nada (para responder 304).
+     * @param origem som localizado
+     * @param formato formato pedido
+     * @return ETag forte
+     */
+    public String etag(Origem origem, Formato formato) {
+        boolean opus = formato == Formato.OPUS && origem.ehWav();
+        return "\"som-" + origem.chave() + (opus ? "-opus-" + bitrate : "") + "\"";
+    }
+
+    /**
+     * Entrega o som no formato pedido quando possível, senão o original.
+     * @param origem som localizado
+     * @param formato formato preferido
+     * @return som a enviar
+     */
+    public Som servir(Origem origem, Formato formato) {
+        if (formato == Formato.OPUS && origem.ehWav()) {
+            Path derivado = derivado(origem);
+            if (derivado != null) {
+                try {
+                    return new Som(new FileSystemResource(derivado), AUDIO_OGG, Formato.OPUS,
+                            Files.size(derivado), etag(origem, Formato.OPUS));
+                } catch (IOException e) {
+                    fallback("falha");
+                }
+            }
+        }
+        MediaType tipo = MediaTypeFactory.getMediaType(origem.caminho()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return new Som(origem.recurso(), tipo, Formato.ORIGINAL, origem.tamanho(), etag(origem, Formato.ORIGINAL));
+    }
+
+    /**
+     * Contabiliza um envio completo (não chamar para 304).
+     * @param origem som localizado
+     * @param som som enviado
+     */
+    public void registrarEnvio(Origem origem, Som som) {
+        if (som.formato() == Formato.OPUS) {
+            bytesOpus.increment(som.tamanho());
+            bytesEconomizados.increment(Math.max(0, origem.tamanho() - som.tamanho()));
+        } else {
+            bytesOriginal.increment(som.tamanho());
+        }
+    }
+
+    /** @return true se o ffmpeg com libopus foi encontrado na subida */
+    public boolean isDisponivel() { return disponivel; }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Caminho do derivado Opus em cache, convertendo se preciso.
+     * @return arquivo pronto, ou null para servir o original
+     */
+    private Path derivado(Origem origem) {
+        Path destino = cache.resolve(origem.chave().substring(0, 2))
+                .resolve(origem.chave() + "-" + bitrate + ".ogg");
+        if (Files.isRegularFile(destino)) return destino;
+        if (!disponivel) {
+            fallback("indisponivel");
+            return null;
+        }
+        String chave = destino.toString();
+        CompletableFuture<Path> futuro;
+        try {
+            futuro = emAndamento.computeIfAbsent(chave,
+                    k -> CompletableFuture.supplyAsync(() -> transcodificar(origem, destino), pool));
+        } catch (RejectedExecutionException e) {
+            fallback("fila");
+            return null;
+        }
+        // Fora do computeIfAbsent: se a conversão já terminou, o callback roda
+        // aqui mesmo e não pode mexer no mapa de dentro da própria atualização.
+        futuro.whenComplete((p, e) -> emAndamento.remove(chave, futuro));
+        try {
+            return futuro.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            fallback("espera");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            fallback("falha");
+        }
+        return null;
+    }
+
+    private Path transcodificar(Origem origem, Path destino) {
+        long inicio = System.nanoTime();
+        Path temporario = null;
+        try {
+            Files.createDirectories(destino.getParent());
+            temporario = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+            Process processo = new ProcessBuilder(ffmpeg, "-hide_banner", "-loglevel", "error", "-y",
+                    "-i", "pipe:0", "-vn", "-map_metadata", "-1",
+                    "-c:a", "libopus", "-b:a", bitrate, "-application", "audio",
+                    "-f", "ogg", temporario.toString())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectErrorStream(true)
+                    .start();
+            try (InputStream in = origem.recurso().getInputStream(); OutputStream out = processo.getOutputStream()) {
+                in.transferTo(out);
+            } catch (IOException e) {
+                // ffmpeg encerrou antes de ler tudo; o código de saída diz se falhou
+            }
+            if (!processo.waitFor(LIMITE_PROCESSO_MS, TimeUnit.MILLISECONDS)) {
+                processo.destroyForcibly();
+                throw new IllegalStateException("ffmpeg excedeu " + LIMITE_PROCESSO_MS + " ms");
+            }
+            if (processo.exitValue() != 0 || Files.size(temporario) == 0) {
+                throw new IllegalStateException("ffmpeg terminou com código " + processo.exitValue());
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return destino;
+        } catch (IOException e) {
+            log.warn("Falha ao converter {} para Opus: {}", origem.caminho(), e.getMessage());
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (IllegalStateException e) {
+            log.warn("Falha ao converter {} para Opus: {}", origem.caminho(), e.getMessage());
+            throw e;
+        } finally {
+            if (temporario != null) {
+                try {
+                    Files.deleteIfExists(temporario);
+                } catch (IOException ignorada) {
+                    // arquivo temporário órfão não afeta o cache
+                }
+            }
+        }
+    }
+
+    private void fallback(String motivo) {
+        metricas.counter("centro.audio.fallback", "motivo", motivo).increment();
+    }
+
+    private static boolean detectarFfmpeg(String ffmpeg) {
+        try {
+            Process p = new ProcessBuilder(ffmpeg, "-hide_banner", "-encoders").redirectErrorStream(true).start();
+            String saida = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            return p.waitFor(5, TimeUnit.SECONDS) && p.exitValue() == 0 && saida.contains("libopus");
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String sha256(String valor) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(valor.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Centro Pokémon - Transmissão de Áudio
+ * ---------------------------------------
+ * @file        TransmissaoAudioService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Envia arquivos de som com suporte a Range/If-Range usando
+ *              sendfile do Tomcat (FileChannel.transferTo para o socket),
+ *              com limite de transmissões bloqueantes simultâneas.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Três modos de envio, do mais barato ao mais caro:
+ * <ol>
+ *   <li><b>sendfile</b>: arquivo no disco com pelo menos
+ *       {@code centro.audio.sendfile-minimo} bytes e conector que suporta
+ *       (NIO do Tomcat). O método só grava os atributos
+ *       {@code org.apache.tomcat.sendfile.*} e retorna; o poller do Tomcat
+ *       faz {@code FileChannel.transferTo} direto para o socket, sem cópia
+ *       para o heap e sem ocupar a thread da requisição;</li>
+ *   <li><b>canal</b>: arquivo no disco, mas pequeno ou sem suporte a sendfile:
+ *       {@code FileChannel.transferTo} para o stream da resposta, sem
+ *       carregar o arquivo inteiro em memória;</li>
+ *   <li><b>cópia</b>: recurso dentro do jar, lido por stream.</li>
+ * </ol>
+ * Os modos 2 e 3 prendem a thread da requisição durante a escrita, por isso
+ * passam por um semáforo de {@code centro.audio.transmissoes-simultaneas}
+ * vagas; sem vaga a requisição falha com {@link ServicoSobrecarregadoException}
+ * (HTTP 503) em vez de esperar.
+ */
+@Service
+public class TransmissaoAudioService {
+
+    static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Trecho a enviar, com {@code fim} exclusivo.
+     * @param inicio primeiro byte
+     * @param fim byte seguinte ao último
+     * @param parcial true se a resposta é 206
+     */
+    public record Intervalo(long inicio, long fim, boolean parcial) {
+        public long tamanho() { return fim - inicio; }
+    }
+
+    private final Semaphore transmissoes;
+    private final long sendfileMinimo;
+    private final Counter modoSendfile;
+    private final Counter modoCanal;
+    private final Counter modoCopia;
+    private final Counter rejeitadas;
+
+    public TransmissaoAudioService(MeterRegistry metricas,
+                                   @Value("${centro.audio.transmissoes-simultaneas:64}") int simultaneas,
+                                   @Value("${centro.audio.sendfile-minimo:49152}") long sendfileMinimo) {
+        this.transmissoes = new Semaphore(Math.max(1, simultaneas));
+        this.sendfileMinimo = sendfileMinimo;
+        this.modoSendfile = Counter.builder("centro.audio.transmissoes").tag("modo", "sendfile").register(metricas);
+        this.modoCanal = Counter.builder("centro.audio.transmissoes").tag("modo", "canal").register(metricas);
+        this.modoCopia = Counter.builder("centro.audio.transmissoes").tag("modo", "copia").register(metricas);
+        this.rejeitadas = Counter.builder("centro.audio.transmissoes.rejeitadas").register(metricas);
+        Gauge.builder("centro.audio.transmissoes.ativas", transmissoes, s -> simultaneas - s.availablePermits())
+                .description("Transmissões ocupando threads de requisição").register(metricas);
+    }
+
+    /**
+     * Decide o trecho a enviar a partir de {@code Range} e {@code If-Range}.
+     * Range malformado ou com vários trechos é ignorado (resposta completa,
+     * como a RFC 9110 permite); {@code If-Range} só vale com ETag forte igual
+     * à atual, já que a resposta não leva Last-Modified.
+     * @param range cabeçalho Range ou null
+     * @param ifRange cabeçalho If-Range ou null
+     * @param etag ETag forte atual
+     * @param tamanho tamanho do arquivo
+     * @return trecho a enviar, ou null se o Range não é satisfazível (416)
+     */
+    public static Intervalo intervalo(String range, String ifRange, String etag, long tamanho) {
+        Intervalo completo = new Intervalo(0, tamanho, false);
+        if (range == null || range.isBlank()) return completo;
+        if (ifRange != null && (ifRange.startsWith("W/") || !ifRange.trim().equals(etag))) return completo;
+        List<HttpRange> trechos;
+        try {
+            trechos = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return completo;
+        }
+        if (trechos.size() != 1) return completo;
+        try {
+            HttpRange r = trechos.get(0);
+            long inicio = r.getRangeStart(tamanho);
+            long fim = r.getRangeEnd(tamanho) + 1;
+            return inicio < fim ? new Intervalo(inicio, fim, true) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Grava status, cabeçalhos e corpo do trecho pedido.
+     * @param request requisição atual
+     * @param response resposta ainda não confirmada
+     * @param recurso arquivo de origem
+     * @param tamanho tamanho total do arquivo
+     * @param intervalo trecho a enviar
+     * @param cabecalhos cabeçalhos de cache/negociação a repassar
+     * @throws ServicoSobrecarregadoException se o envio bloqueante não tiver vaga
+     *         (nada foi gravado na resposta nesse caso)
+     */
+    public void transmitir(HttpServletRequest request, HttpServletResponse response, Resource recurso,
+                           long tamanho, Intervalo intervalo, HttpHeaders cabecalhos) throws IOException {
+        boolean corpo = !"HEAD".equals(request.getMethod()) && intervalo.tamanho() > 0;
+        Path arquivo = arquivo(recurso);
+        boolean sendfile = corpo && arquivo != null && intervalo.tamanho() >= sendfileMinimo
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO));
+        boolean bloqueante = corpo && !sendfile;
+        if (bloqueante && !transmissoes.tryAcquire()) {
+            rejeitadas.increment();
+            throw new ServicoSobrecarregadoException("Limite de transmissões de áudio atingido");
+        }
+        try {
+            cabecalhos.forEach((nome, valores) -> valores.forEach(v -> response.addHeader(nome, v)));
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (intervalo.parcial()) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + intervalo.inicio() + "-" + (intervalo.fim() - 1) + "/" + tamanho);
+            }
+            response.setContentLengthLong(intervalo.tamanho());
+            if (!corpo) return;
+            if (sendfile) {
+                request.setAttribute(SENDFILE_ARQUIVO, arquivo.toRealPath().toString());
+                request.setAttribute(SENDFILE_INICIO, intervalo.inicio());
+                request.setAttribute(SENDFILE_FIM, intervalo.fim());
+                modoSendfile.increment();
+            } else if (arquivo != null) {
+                modoCanal.increment();
+                try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                    WritableByteChannel saida = Channels.newChannel(response.getOutputStream());
+                    long posicao = intervalo.inicio();
+                    while (posicao < intervalo.fim()) {
+                        long enviados = canal.transferTo(posicao, intervalo.fim() - posicao, saida);
+                        // transferTo devolve 0 para sempre se o arquivo encolheu depois do stat
+                        if (enviados == 0 && posicao >= canal.size()) {
+                            throw new IOException("Arquivo terminou antes do esperado");
+                        }
+                        posicao += enviados;
+                    }
+                }
+            } else {
+                modoCopia.increment();
+                try (InputStream in = recurso.getInputStream()) {
+                    in.skipNBytes(intervalo.inicio());
+                    copiar(in, response.getOutputStream(), intervalo.tamanho());
+                }
+            }
+        } finally {
+            if (bloqueante) transmissoes.release();
+        }
+    }
+
+    private static Path arquivo(Resource recurso) {
+        try {
+            return recurso.isFile() ? recurso.getFile().toPath() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void copiar(InputStream in, OutputStream out, long restante) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (restante > 0) {
+            int lidos = in.read(buffer, 0, (int) Math.min(buffer.length, restante));
+            if (lidos < 0) throw new IOException("Arquivo terminou antes do esperado");
+            out.write(buffer, 0, lidos);
+            restante -= lidos;
+        }
+    }
+}
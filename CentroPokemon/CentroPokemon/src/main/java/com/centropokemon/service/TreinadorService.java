@@ -3,39 +3,90 @@
  * ---------------------------------------
  * @file        TreinadorService.java
  * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
- * @version     1.1
- * @date        23/11/2025
+ * @version     1.3
+ * @date        19/10/2026
  * @description Serviço de domínio para cadastro e autenticação de Treinadores.
- *              Fornece validações e consultas utilitárias.
+ *              Fornece validações e consultas utilitárias. Login em uma
+ *              única consulta e filtro de Bloom para evitar as verificações
+ *              de unicidade no cadastro de usuários/e-mails novos.
+ *              Senhas guardadas como BCrypt via {@link HashSenhaService}.
  */
 
 package com.centropokemon.service;
 
+import com.centropokemon.exception.ServicoSobrecarregadoException;
 import com.centropokemon.model.Treinador;
 import com.centropokemon.repository.TreinadorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Serviço responsável pelo ciclo de vida do {@link Treinador}:
  * cadastro, autenticação e consultas utilitárias.
+ * <p>
+ * Usuários e e-mails conhecidos ficam em um {@link FiltroBloom}. Quando o
+ * filtro garante que ambos são novos, o cadastro vai direto para o INSERT e a
+ * restrição única do banco decide conflitos (ex.: cadastros simultâneos em
+ * outra instância), resultando em {@code DataIntegrityViolationException}.
  */
 @Service
 public class TreinadorService {
 
+    private static final Logger log = LoggerFactory.getLogger(TreinadorService.class);
+
     private final TreinadorRepository treinadores;
+    private final HashSenhaService senhas;
+    private final FiltroBloom conhecidos;
+    private volatile boolean filtroCarregado;
 
     /**
      * Construtor com injeção do repositório de treinadores.
      * @param treinadores repositório JPA
+     * @param senhas hash e verificação de senhas
+     * @param capacidade número esperado de usuários + e-mails no filtro de Bloom
+     * @param taxaFalsoPositivo taxa alvo de falsos positivos do filtro
      */
-    public TreinadorService(TreinadorRepository treinadores) {
+    public TreinadorService(TreinadorRepository treinadores,
+                            HashSenhaService senhas,
+                            @Value("${centro.treinadores.bloom.capacidade:1000000}") long capacidade,
+                            @Value("${centro.treinadores.bloom.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
         this.treinadores = treinadores;
+        this.senhas = senhas;
+        this.conhecidos = new FiltroBloom(capacidade, taxaFalsoPositivo);
+    }
+
+    /**
+     * Pré-carrega o filtro de Bloom com os usuários e e-mails existentes.
+     * Até terminar, o cadastro sempre consulta o banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarFiltro() {
+        long total = 0;
+        try (Stream<Object[]> linhas = treinadores.streamUsuariosEEmails()) {
+            for (Object[] linha : (Iterable<Object[]>) linhas::iterator) {
+                if (linha[0] != null) conhecidos.adicionar(normalizar((String) linha[0]));
+                if (linha[1] != null) conhecidos.adicionar(normalizar((String) linha[1]));
+                total++;
+            }
+        }
+        filtroCarregado = true;
+        log.info("Filtro de Bloom de treinadores carregado: {} treinadores, {} bits, {} hashes",
+                total, conhecidos.getTotalBits(), conhecidos.getFuncoesHash());
     }
 
     /**
-     * Cadastra um novo treinador com validações e senha simples.
+     * Cadastra um novo treinador com validações e senha em BCrypt.
      * @param nome nome completo
      * @param usuario nome de usuário (único)
      * @param email e-mail (único)
@@ -43,6 +94,7 @@ public class TreinadorService {
      * @param telefone telefone (opcional)
      * @return treinador persistido
      * @throws IllegalArgumentException quando já existe usuário/e-mail cadastrados
+     * @throws ServicoSobrecarregadoException quando o pool de hash está saturado
      */
     public Treinador cadastrar(String nome, String usuario, String email, String senhaEmClaro, String telefone) {
         String n = nome != null ? nome.trim() : null;
@@ -52,10 +104,14 @@ public class TreinadorService {
         if (u == null || u.isBlank() || e == null || e.isBlank() || n == null || n.isBlank() || s == null || s.isBlank()) {
             throw new IllegalArgumentException("Campos obrigatórios inválidos");
         }
-        if (treinadores.existePorUsuario(u)) {
+        String chaveUsuario = normalizar(u);
+        String chaveEmail = normalizar(e);
+        boolean usuarioTalvezExista = !filtroCarregado || conhecidos.talvezContem(chaveUsuario);
+        boolean emailTalvezExista = !filtroCarregado || conhecidos.talvezContem(chaveEmail);
+        if (usuarioTalvezExista && treinadores.existePorUsuario(u)) {
             throw new IllegalArgumentException("Usuário já cadastrado: " + usuario);
         }
-        if (treinadores.existePorEmail(e)) {
+        if (emailTalvezExista && treinadores.existePorEmail(e)) {
             throw new IllegalArgumentException("E-mail já cadastrado: " + email);
         }
 
@@ -63,24 +119,50 @@ public class TreinadorService {
         t.setNome(n);
         t.setUsuario(u);
         t.setEmail(e);
-        t.setSenha(s);
+        t.setSenha(senhas.gerarHash(s));
         t.setTelefone(telefone != null ? telefone.trim() : null);
         t.setAtivo(true);
-        return treinadores.save(t);
+        Treinador salvo = treinadores.save(t);
+        conhecidos.adicionar(chaveUsuario);
+        conhecidos.adicionar(chaveEmail);
+        return salvo;
     }
 
     /**
-     * Autentica um treinador por usuário OU e-mail e senha.
+     * Autentica um treinador por usuário OU e-mail e senha, com uma única
+     * consulta. Se o valor for usuário de um treinador e e-mail de outro,
+     * prevalece o usuário.
+     * <p>
+     * Senhas legadas (texto claro ou BCrypt de custo menor) são refeitas com o
+     * custo atual após um login bem-sucedido. Se o pool estiver saturado
+     * nesse momento, o rehash fica para o próximo login.
      * @param usuarioOuEmail usuário ou e-mail
      * @param senhaEmClaro senha em texto claro
      * @return Optional com o treinador autenticado, se credenciais válidas
+     * @throws ServicoSobrecarregadoException quando o pool de hash está saturado
      */
     public Optional<Treinador> autenticar(String usuarioOuEmail, String senhaEmClaro) {
         String senha = senhaEmClaro != null ? senhaEmClaro.trim() : null;
-        Optional<Treinador> byUsuario = treinadores.buscarPorUsuario(usuarioOuEmail);
-        Optional<Treinador> byEmail = byUsuario.isPresent() ? Optional.empty() : treinadores.buscarPorEmail(usuarioOuEmail);
-        Optional<Treinador> candidato = byUsuario.isPresent() ? byUsuario : byEmail;
-        return candidato.filter(t -> senha != null && senha.equals(t.getSenha()) && Boolean.TRUE.equals(t.getAtivo()));
+        if (usuarioOuEmail == null || usuarioOuEmail.isBlank()) return Optional.empty();
+        List<Treinador> encontrados = treinadores.findByUsuarioOuEmail(usuarioOuEmail);
+        Optional<Treinador> candidato = encontrados.stream()
+                .filter(t -> usuarioOuEmail.equalsIgnoreCase(t.getUsuario()))
+                .findFirst()
+                .or(() -> encontrados.stream().findFirst());
+        Optional<Treinador> autenticado = candidato
+                .filter(t -> Boolean.TRUE.equals(t.getAtivo()))
+                .filter(t -> senhas.verificar(senha, t.getSenha()));
+        autenticado.filter(t -> senhas.precisaRehash(t.getSenha())).ifPresent(t -> rehash(t, senha));
+        return autenticado;
+    }
+
+    private void rehash(Treinador t, String senha) {
+        try {
+            t.setSenha(senhas.gerarHash(senha));
+            treinadores.save(t);
+        } catch (ServicoSobrecarregadoException e) {
+            log.debug("Rehash da senha do treinador {} adiado: {}", t.getId(), e.getMessage());
+        }
     }
 
     /**
@@ -101,5 +183,7 @@ public class TreinadorService {
         return treinadores.buscarPorUsuario(usuario);
     }
 
-    
+    private static String normalizar(String valor) {
+        return valor.toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
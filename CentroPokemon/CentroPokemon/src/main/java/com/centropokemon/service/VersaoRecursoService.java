@@ -0,0 +1,181 @@
+/*
+ * Centro Pokémon - Versões de Recursos (ETag)
+ * ---------------------------------------
+ * @file        VersaoRecursoService.java
+ * @author      Gustavo Pigatto, Matheus Schvann, Alexandre Lampert, Mateus Stock, Felipe Winter
+ * @version     1.1
+ * @date        19/10/2026
+ * @description Calcula ETags fortes sem serializar a resposta: por versão
+ *              para as listas do treinador e por hash de conteúdo para a
+ *              Pokédex, com um registro em memória para responder 304 sem
+ *              consultar banco nem PokeAPI.
+ */
+package com.centropokemon.service;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.PokemonDescricao;
+import com.centropokemon.model.PokemonStats;
+import com.centropokemon.model.Tipo;
+import com.centropokemon.repository.TreinadorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fonte das ETags das rotas de leitura.
+ * <ul>
+ *   <li>Coleção e consultas do treinador: versão lida de {@code treinadores}
+ *       por chave primária (sem carregar entidades) e incrementada pelos
+ *       serviços após cada escrita. Vale entre instâncias.</li>
+ *   <li>Pokédex: hash SHA-256 dos campos da entidade, guardado por
+ *       {@code centro.etag.pokedex-ttl} para que uma revalidação que confere
+ *       vire 304 sem banco, PokeAPI ou Jackson. O hash depende só do conteúdo,
+ *       então instâncias diferentes produzem a mesma ETag. Quem grava o
+ *       Pokémon derruba as ETags de todas as rotas dele com
+ *       {@link #invalidarPokedex} (via {@link CachePokedexService#invalidar}).</li>
+ * </ul>
+ */
+@Service
+public class VersaoRecursoService {
+
+    private record Entrada(String etag, long expiraEm) {}
+
+    private final TreinadorRepository treinadores;
+    private final ConcurrentHashMap<String, Entrada> pokedex = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<String>> chavesPorId = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntradas;
+
+    public VersaoRecursoService(TreinadorRepository treinadores,
+                                @Value("${centro.etag.pokedex-ttl:PT1H}") Duration ttlPokedex,
+                                @Value("${centro.etag.pokedex-max-entradas:10000}") int maxEntradas) {
+        this.treinadores = treinadores;
+        this.ttlNanos = ttlPokedex.toNanos();
+        this.maxEntradas = maxEntradas;
+    }
+
+    /**
+     * @param treinadorId ID do treinador
+     * @return ETag da coleção de Pokémon, ou vazio se o treinador não existe
+     */
+    public Optional<String> etagPokemons(Integer treinadorId) {
+        return treinadores.buscarVersaoPokemons(treinadorId)
+                .map(v -> "\"tp-" + treinadorId + "-" + v + "\"");
+    }
+
+    /**
+     * @param treinadorId ID do treinador
+     * @param janela identificador da janela listada (ex.: mês inicial ou "h" para histórico)
+     * @return ETag das consultas, ou vazio se o treinador não existe
+     */
+    public Optional<String> etagConsultas(Integer treinadorId, String janela) {
+        return treinadores.buscarVersaoConsultas(treinadorId)
+                .map(v -> "\"tc-" + treinadorId + "-" + v + "-" + janela + "\"");
+    }
+
+    /**
+     * ETag registrada para uma chave da Pokédex, se ainda válida.
+     * @param chave chave da rota (ex.: "nome:pikachu", "id:25")
+     * @return ETag ou null
+     */
+    public String etagPokedex(String chave) {
+        Entrada e = pokedex.get(chave);
+        if (e == null) return null;
+        if (e.expiraEm() - System.nanoTime() < 0) {
+            pokedex.remove(chave, e);
+            return null;
+        }
+        return e.etag();
+    }
+
+    /**
+     * Calcula a ETag de conteúdo do Pokémon e a registra para as rotas que o
+     * servem por nome e por ID.
+     * @param pokemon entidade servida
+     * @param chaveRota chave pela qual foi pedido
+     * @return ETag forte
+     */
+    public String registrarPokedex(Pokemon pokemon, String chaveRota) {
+        String etag = etagConteudo(pokemon);
+        if (pokedex.size() >= maxEntradas) {
+            long agora = System.nanoTime();
+            pokedex.values().removeIf(e -> e.expiraEm() - agora < 0);
+            if (pokedex.size() >= maxEntradas) {
+                pokedex.clear();
+                chavesPorId.clear();
+            }
+        }
+        Entrada entrada = new Entrada(etag, System.nanoTime() + ttlNanos);
+        Integer id = pokemon.getPokeApiId();
+        registrar(chaveRota, id, entrada);
+        if (id != null) registrar(chaveId(id), id, entrada);
+        if (pokemon.getNomeEn() != null) registrar(chaveNome(pokemon.getNomeEn()), id, entrada);
+        return etag;
+    }
+
+    /**
+     * Descarta as ETags de todas as rotas (nome, ID e a rota pedida) de um
+     * Pokémon da Pokédex, para que a próxima revalidação carregue de novo.
+     * @param pokeApiId ID da PokeAPI (null é ignorado)
+     */
+    public void invalidarPokedex(Integer pokeApiId) {
+        if (pokeApiId == null) return;
+        Set<String> chaves = chavesPorId.remove(pokeApiId);
+        if (chaves != null) chaves.forEach(pokedex::remove);
+    }
+
+    private void registrar(String chave, Integer pokeApiId, Entrada entrada) {
+        pokedex.put(chave, entrada);
+        if (pokeApiId != null) chavesPorId.computeIfAbsent(pokeApiId, k -> ConcurrentHashMap.newKeySet()).add(chave);
+    }
+
+    /** @return chave da Pokédex por nome */
+    public static String chaveNome(String nome) {
+        return "nome:" + nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** @return chave da Pokédex por ID da PokeAPI */
+    public static String chaveId(Integer id) {
+        return "id:" + id;
+    }
+
+    /**
+     * Hash dos campos visíveis na resposta, em ordem fixa, sem passar pelo Jackson.
+     */
+    static String etagConteudo(Pokemon p) {
+        StringBuilder sb = new StringBuilder(256);
+        campo(sb, p.getId()); campo(sb, p.getPokeApiId()); campo(sb, p.getNomePt()); campo(sb, p.getNomeEn());
+        campo(sb, p.getSpriteUrl()); campo(sb, p.getVidaAtual()); campo(sb, p.getVidaMaxima()); campo(sb, p.getNivel());
+        campo(sb, p.getAltura()); campo(sb, p.getPeso()); campo(sb, p.getHabilidades());
+        if (p.getTipos() != null) {
+            for (Tipo t : p.getTipos()) { campo(sb, t.getId()); campo(sb, t.getNomePt()); campo(sb, t.getNomeEn()); }
+        }
+        PokemonStats s = p.getStats();
+        if (s != null) {
+            campo(sb, s.getHp()); campo(sb, s.getAtaque()); campo(sb, s.getDefesa());
+            campo(sb, s.getVelocidade()); campo(sb, s.getAtaqueEspecial()); campo(sb, s.getDefesaEspecial());
+        }
+        if (p.getDescricoes() != null) {
+            for (PokemonDescricao d : p.getDescricoes()) { campo(sb, d.getDescricaoPt()); campo(sb, d.getDescricaoEn()); }
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"pk-" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static void campo(StringBuilder sb, Object valor) {
+        sb.append(valor).append('\u001f');
+    }
+}
@@ -4,104 +4,122 @@ class AudioManager {
         this.sounds = {};
         this.volume = 0.3;
         this.muted = false;
-        this.basePath = '/sons/Pokémon Tick-Tock Walk/';
+        this.basePath = '/api/sons/Pokémon Tick-Tock Walk/';
+        // Gritos vêm de /api/cries/{id}; em Opus quando o navegador suporta (~15x menor que o WAV)
+        this.cryManifest = null;
+        this.criesQuery = new Audio().canPlayType('audio/ogg; codecs=opus') ? '?formato=opus' : '';
         this.initSounds();
     }
 
     initSounds() {
-        // Sons de interface
+        // Sons de interface: nome -> arquivo (sem .mp3) em "Pokémon Tick-Tock Walk".
+        // Todos vêm de um único sprite (/api/sons/ui/manifest); o que não estiver
+        // nele é carregado à parte só quando tocar pela primeira vez.
         this.sounds = {
             // Básicos (já funcionam)
-            btnClick: new Audio(this.basePath + 'btnClick01.mp3'),
-            btnClick2: new Audio(this.basePath + 'btnClick02.mp3'),
-            hover: new Audio(this.basePath + 'rollOver03.mp3'),
-            open: new Audio(this.basePath + 'open.mp3'),
-            itemGet: new Audio(this.basePath + 'itemGet.mp3'),
-            clear: new Audio(this.basePath + 'clear.mp3'),
-            perfect: new Audio(this.basePath + 'perfect.mp3'),
-            start: new Audio(this.basePath + 'start.mp3'),
-            pointGet: new Audio(this.basePath + 'pointGet.mp3'),
-            
+            btnClick: 'btnClick01',
+            btnClick2: 'btnClick02',
+            hover: 'rollOver03',
+            open: 'open',
+            itemGet: 'itemGet',
+            clear: 'clear',
+            perfect: 'perfect',
+            start: 'start',
+            pointGet: 'pointGet',
+
             // Tipos principais
-            fire: new Audio(this.basePath + 'fire.mp3'),
-            water: new Audio(this.basePath + 'water.mp3'),
-            grass: new Audio(this.basePath + 'grass.mp3'),
-            
+            fire: 'fire',
+            water: 'water',
+            grass: 'grass',
+
             // Sons para outros tipos
-            jump: new Audio(this.basePath + 'jump.mp3'),
-            warp: new Audio(this.basePath + 'warp.mp3'),
-            timeUp: new Audio(this.basePath + 'timeUp.mp3'),
-            timeDown: new Audio(this.basePath + 'timeDown.mp3'),
-            highscore: new Audio(this.basePath + 'highscore.mp3'),
-            hurry: new Audio(this.basePath + 'hurry.mp3'),
-            hintOpen: new Audio(this.basePath + 'hintOpen.mp3'),
-            hintOver: new Audio(this.basePath + 'hintOver.mp3'),
-            rollOver04: new Audio(this.basePath + 'rollOver04.mp3'),
-            blockCatch: new Audio(this.basePath + 'blockCatch.mp3'),
-            key: new Audio(this.basePath + 'key.mp3')
+            jump: 'jump',
+            warp: 'warp',
+            timeUp: 'timeUp',
+            timeDown: 'timeDown',
+            highscore: 'highscore',
+            hurry: 'hurry',
+            hintOpen: 'hintOpen',
+            hintOver: 'hintOver',
+            rollOver04: 'rollOver04',
+            blockCatch: 'blockCatch',
+            key: 'key'
         };
+        // Volume relativo por som (abertura mais baixa: 50% do volume padrão)
+        this.soundGain = { open: 0.5 };
+        this.fallbackAudio = {};
+        this.sprite = null;
 
-        // Configurar volume inicial
-        Object.values(this.sounds).forEach(sound => {
-            sound.volume = this.volume;
-        });
-        
-        // Ajustar volume específico do som de abertura (mais baixo)
-        if (this.sounds.open) {
-            this.sounds.open.volume = this.volume * 0.5; // 50% do volume padrão
+        const Contexto = window.AudioContext || window.webkitAudioContext;
+        this.context = Contexto ? new Contexto() : null;
+        this.spriteManifest = fetch('/api/sons/ui/manifest')
+            .then(r => r.ok ? r.json() : null)
+            .catch(() => null);
+        if (this.context) {
+            this.spriteManifest
+                .then(manifest => manifest ? fetch(manifest.sprite) : null)
+                .then(r => r && r.ok ? r.arrayBuffer() : null)
+                .then(dados => dados ? this.context.decodeAudioData(dados) : null)
+                .then(buffer => { this.sprite = buffer; })
+                .catch(e => console.log('Sprite de sons indisponível, usando arquivos avulsos:', e));
         }
     }
 
     play(soundName) {
         if (this.muted || !this.sounds[soundName]) return;
-        
-        const sound = this.sounds[soundName];
-        sound.currentTime = 0;
-        sound.play().catch(e => console.log('Erro ao tocar som:', e));
+
+        const arquivo = this.sounds[soundName];
+        const volume = this.volume * (this.soundGain[soundName] || 1);
+        this.spriteManifest.then(manifest => {
+            const trecho = manifest && manifest.sons[arquivo];
+            if (this.sprite && trecho) {
+                if (this.context.state === 'suspended') this.context.resume();
+                const fonte = this.context.createBufferSource();
+                const ganho = this.context.createGain();
+                fonte.buffer = this.sprite;
+                ganho.gain.value = volume;
+                fonte.connect(ganho).connect(this.context.destination);
+                fonte.start(0, trecho.inicio, trecho.duracao);
+                return;
+            }
+            // Sem Web Audio, sprite ainda carregando ou som fora do sprite
+            let sound = this.fallbackAudio[soundName];
+            if (!sound) {
+                sound = this.fallbackAudio[soundName] = new Audio(this.basePath + arquivo + '.mp3');
+            }
+            sound.volume = volume;
+            sound.currentTime = 0;
+            sound.play().catch(e => console.log('Erro ao tocar som:', e));
+        });
     }
 
-    playPokemonCry(pokemonId) {
+    /**
+     * Carrega (uma vez) o índice de gritos do servidor: evita tentar URLs
+     * às cegas e pedir gritos que não existem.
+     */
+    loadCryManifest() {
+        if (!this.cryManifest) {
+            this.cryManifest = fetch('/api/cries/manifest')
+                .then(r => r.ok ? r.json() : null)
+                .catch(() => null);
+        }
+        return this.cryManifest;
+    }
+
+    playPokemonCry(pokemonId, forma) {
         if (this.muted) return;
-        
-        // Formata o ID com zeros à esquerda (ex: 25 -> 025)
-        const idFormatted = String(pokemonId).padStart(3, '0');
-        
-        // Tenta diferentes fontes de cries (cada pasta tem sua geração correspondente)
-        const sources = [
-            `/sons/cries/cries/Generation 1/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (2)/Generation 2/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (3)/Generation 3/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (4)/Generation 4/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (5)/Generation 5/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (6)/Generation 6/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (7)/Generation 7/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (8)/Generation 8/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (9)/Generation 9/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (10)/Generation 10/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (11)/Generation 11/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (12)/Generation 12/SE_PV${idFormatted}.wav`,
-            `/sons/cries/cries (13)/Generation 13/SE_PV${idFormatted}.wav`
-        ];
-        
-        const tryNextSource = (index) => {
-            if (index >= sources.length) {
-                console.log(`Cry do Pokémon ${pokemonId} não encontrado`);
+
+        const chave = forma ? `${Number(pokemonId)}-${forma}` : String(Number(pokemonId));
+        this.loadCryManifest().then(manifest => {
+            if (manifest && !manifest.gritos[chave]) {
+                console.log(`Cry do Pokémon ${chave} não encontrado`);
                 return;
             }
-            
-            const cry = new Audio(sources[index]);
+            const caminho = forma ? `${Number(pokemonId)}/${encodeURIComponent(forma)}` : String(Number(pokemonId));
+            const cry = new Audio('/api/cries/' + caminho + this.criesQuery);
             cry.volume = this.volume;
-            
-            cry.addEventListener('error', () => {
-                tryNextSource(index + 1);
-            });
-            
-            cry.play().catch(() => {
-                tryNextSource(index + 1);
-            });
-        };
-        
-        tryNextSource(0);
+            cry.play().catch(e => console.log('Erro ao tocar cry:', e));
+        });
     }
 
     playTypeSound(type) {
@@ -153,9 +171,10 @@ class AudioManager {
     }
 
     setVolume(value) {
+        // Os sons do sprite leem o volume a cada play()
         this.volume = Math.max(0, Math.min(1, value));
-        Object.values(this.sounds).forEach(sound => {
-            sound.volume = this.volume;
+        Object.entries(this.fallbackAudio).forEach(([nome, sound]) => {
+            sound.volume = this.volume * (this.soundGain[nome] || 1);
         });
     }
 
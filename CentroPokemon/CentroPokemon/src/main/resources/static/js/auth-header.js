@@ -4,12 +4,14 @@
  */
 (function() {
     const TRAINER_ID_KEY = 'treinador_id';
+    const SESSION_TOKEN_KEY = 'sessao_token';
     const trainerId = localStorage.getItem(TRAINER_ID_KEY);
     
     // Função de logout
     window.logout = function() {
         if (confirm('Deseja realmente sair?')) {
             localStorage.removeItem(TRAINER_ID_KEY);
+            localStorage.removeItem(SESSION_TOKEN_KEY);
             alert('Você saiu com sucesso!');
             window.location.href = '/Pokemon.html';
         }
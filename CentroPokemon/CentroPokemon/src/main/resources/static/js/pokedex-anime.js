@@ -21,7 +21,8 @@ const PokedexAnime = (() => {
         searchCountsKey: 'pokedex_anime_search_counts',
         recentKey: 'pokedex_anime_recent',
         trainerApiBaseUrl: '/api/treinadores',
-        trainerIdKey: 'treinador_id'
+        trainerIdKey: 'treinador_id',
+        sessionTokenKey: 'sessao_token'
     };
 
     let state = {
@@ -189,7 +190,7 @@ const PokedexAnime = (() => {
         const trainerId = localStorage.getItem(config.trainerIdKey);
         if (trainerId) {
             try {
-                const res = await fetch(`${config.trainerApiBaseUrl}/${trainerId}/pokemons`);
+                const res = await fetch(`${config.trainerApiBaseUrl}/${trainerId}/pokemons`, { headers: authHeaders() });
                 if (res.ok) {
                     const lista = await res.json();
                     const items = lista.slice(-12).reverse();
@@ -261,6 +262,16 @@ const PokedexAnime = (() => {
         return res.json();
     };
 
+    const authHeaders = () => {
+        const token = localStorage.getItem(config.sessionTokenKey);
+        return token ? { 'Authorization': `Bearer ${token}` } : {};
+    };
+
+    const saveSession = (t) => {
+        localStorage.setItem(config.trainerIdKey, String(t.id));
+        if (t.token) localStorage.setItem(config.sessionTokenKey, t.token);
+    };
+
     const loginTrainer = async (usuarioOuEmail, senha) => {
         const data = await postJson(`${config.trainerApiBaseUrl}/login`, { usuarioOuEmail, senha });
         return data;
@@ -273,14 +284,14 @@ const PokedexAnime = (() => {
 
     const ensureTrainerId = async () => {
         const cached = localStorage.getItem(config.trainerIdKey);
-        if (cached) return parseInt(cached, 10);
+        if (cached && localStorage.getItem(config.sessionTokenKey)) return parseInt(cached, 10);
         let usuarioOuEmail = window.prompt('Digite usuário ou e-mail do treinador:');
         let senha = window.prompt('Digite a senha:');
         if (!usuarioOuEmail || !senha) return null;
         try {
             const t = await loginTrainer(usuarioOuEmail, senha);
             if (t && t.id) {
-                localStorage.setItem(config.trainerIdKey, String(t.id));
+                saveSession(t);
                 showNotification('Login realizado');
                 return t.id;
             }
@@ -292,7 +303,7 @@ const PokedexAnime = (() => {
         try {
             const t = await registerTrainer(nome, usuario, email, senha, null);
             if (t && t.id) {
-                localStorage.setItem(config.trainerIdKey, String(t.id));
+                saveSession(t);
                 showNotification('Cadastro realizado');
                 return t.id;
             }
@@ -563,11 +574,17 @@ const PokedexAnime = (() => {
             // Cadastra direto no backend
             const response = await fetch(`${config.trainerApiBaseUrl}/${trainerId}/pokemons`, {
                 method: 'POST',
-                headers: { 'Content-Type': 'application/json' },
+                headers: Object.assign({ 'Content-Type': 'application/json' }, authHeaders()),
                 body: JSON.stringify(body)
             });
             
             if (!response.ok) {
+                if (response.status === 401) {
+                    localStorage.removeItem(config.sessionTokenKey);
+                    showNotification('Sessão expirada. Faça login novamente!');
+                    setTimeout(() => { window.location.href = '/login.html'; }, 1500);
+                    return;
+                }
                 if (response.status === 409) {
                     showNotification('Você já possui este Pokémon!');
                     return;
@@ -0,0 +1,63 @@
+package com.centropokemon.build;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.Tipo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DumpPokedexTest {
+
+    /** Recorte de {@code pokemon/25} e {@code pokemon-species/25} como a PokeAPI devolve (campos extras incluídos). */
+    private static final String LINHA_POKEAPI = """
+            {"pokemon":{"id":25,"name":"pikachu","height":4,"weight":60,"base_experience":112,
+              "sprites":{"front_default":"https://img/25.png",
+                         "other":{"official-artwork":{"front_default":"https://img/oficial/25.png"}}},
+              "abilities":[{"ability":{"name":"static"},"slot":1},{"ability":{"name":"lightning-rod"},"slot":3}],
+              "types":[{"slot":1,"type":{"name":"electric"}}],
+              "moves":[{"move":{"name":"thunder-shock"}}],
+              "stats":[{"base_stat":35,"stat":{"name":"hp"}},{"base_stat":55,"stat":{"name":"attack"}},
+                       {"base_stat":40,"stat":{"name":"defense"}},{"base_stat":50,"stat":{"name":"special-attack"}},
+                       {"base_stat":50,"stat":{"name":"special-defense"}},{"base_stat":90,"stat":{"name":"speed"}}]},
+             "species":{"names":[{"name":"ピカチュウ","language":{"name":"ja"}},{"name":"Pikachu","language":{"name":"en"}}],
+              "flavor_text_entries":[{"flavor_text":"When several of\\nthese POKéMON gather,\\ftheir electricity","language":{"name":"en"}}]}}
+            """.replace("\n", "");
+
+    @Test
+    @DisplayName("Exportar e importar de novo preserva o que a Pokédex guarda")
+    void idaEVolta() {
+        Pokemon original = DumpPokedex.montar(LINHA_POKEAPI);
+        assertNotNull(original);
+        assertEquals("https://img/oficial/25.png", original.getSpriteUrl());
+        assertEquals("Pikachu", original.getNomePt());
+
+        Pokemon volta = DumpPokedex.montar(DumpPokedex.documento(original).toString());
+        assertNotNull(volta);
+        assertEquals(original.getPokeApiId(), volta.getPokeApiId());
+        assertEquals(original.getNomeEn(), volta.getNomeEn());
+        assertEquals(original.getNomePt(), volta.getNomePt());
+        assertEquals(original.getSpriteUrl(), volta.getSpriteUrl());
+        assertEquals(original.getVidaMaxima(), volta.getVidaMaxima());
+        assertEquals(original.getHabilidades(), volta.getHabilidades());
+        assertEquals(original.getTipos().stream().map(Tipo::getNomePt).toList(),
+                volta.getTipos().stream().map(Tipo::getNomePt).toList());
+        assertEquals(90, volta.getStats().getVelocidade());
+        assertEquals(50, volta.getStats().getAtaqueEspecial());
+        assertNull(volta.getDescricoes().get(0).getDescricaoPt());
+        assertEquals("When several of these POKéMON gather, their electricity",
+                volta.getDescricoes().get(0).getDescricaoEn());
+    }
+
+    @Test
+    @DisplayName("Linhas sem ID, sem sprite ou malformadas são recusadas; COPY recebe texto escapado")
+    void linhasInvalidasEEscape() {
+        assertNull(DumpPokedex.montar("{\"pokemon\":{\"name\":\"missingno\"}}"));
+        assertNull(DumpPokedex.montar("{\"pokemon\":{\"id\":1,\"name\":\"bulbasaur\",\"sprites\":{}}}"));
+        assertNull(DumpPokedex.montar("{\"pokemon\":"));
+
+        StringBuilder copy = new StringBuilder();
+        DumpPokedex.linha(copy, 7, null, "a\tb\\c\nd");
+        assertEquals("7\t\\N\ta\\tb\\\\c\\nd\n", copy.toString());
+    }
+}
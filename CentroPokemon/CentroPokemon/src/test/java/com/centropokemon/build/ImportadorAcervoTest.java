@@ -0,0 +1,56 @@
+package com.centropokemon.build;
+
+import com.centropokemon.service.AcervoSonsService;
+import com.centropokemon.service.AcervoSonsService.Arquivo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportadorAcervoTest {
+
+    @TempDir Path origem;
+    @TempDir Path acervo;
+
+    private void criar(String caminho, String conteudo) throws IOException {
+        Path p = origem.resolve(caminho);
+        Files.createDirectories(p.getParent());
+        Files.writeString(p, conteudo);
+    }
+
+    @Test
+    @DisplayName("Conteúdo repetido vira um único objeto e o acervo resolve os caminhos lógicos")
+    void importarELer() throws IOException {
+        criar("cries/cries (10)/025.wav", "pika");
+        criar("cries/cries (11)/025.wav", "pika");
+        criar("cries/cries (11)/026.wav", "raichu");
+        criar("Pokémon Tick-Tock Walk/key.mp3", "chave");
+
+        ImportadorAcervo.Resultado r = ImportadorAcervo.importar(origem, acervo);
+        assertEquals(4, r.arquivos());
+        assertEquals(3, r.objetosDistintos());
+        assertEquals(3, r.objetosNovos());
+        assertEquals(0, ImportadorAcervo.importar(origem, acervo).objetosNovos());
+
+        AcervoSonsService sons = new AcervoSonsService(new ObjectMapper(), acervo.toString(), "");
+        assertEquals(AcervoSonsService.Modo.ACERVO, sons.getModo());
+        Arquivo a = sons.localizar("cries/cries (10)/025.wav");
+        Arquivo b = sons.localizar("cries/cries (11)/025.wav");
+        assertEquals(a.sha256(), b.sha256());
+        assertEquals("pika", a.recurso().getContentAsString(StandardCharsets.UTF_8));
+        assertNull(sons.localizar("cries/cries (10)/026.wav"));
+        assertNull(sons.pastaLocal("Pokémon Tick-Tock Walk"));
+
+        List<String> gritos = sons.listar("cries/", ".WAV").stream().map(Arquivo::caminho).toList();
+        assertEquals(List.of("cries/cries (10)/025.wav", "cries/cries (11)/025.wav", "cries/cries (11)/026.wav"), gritos);
+        assertEquals(1, sons.listar("Pokémon Tick-Tock Walk/", ".mp3").size());
+    }
+}
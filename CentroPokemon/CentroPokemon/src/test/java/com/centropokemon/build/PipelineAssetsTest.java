@@ -0,0 +1,53 @@
+package com.centropokemon.build;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineAssetsTest {
+
+    @TempDir Path origem;
+    @TempDir Path destino;
+
+    @Test
+    @DisplayName("CSS e HTML passam a apontar para as cópias com hash e ganham variante gzip")
+    void reescreveReferencias() throws Exception {
+        Files.createDirectories(origem.resolve("css"));
+        Files.createDirectories(origem.resolve("fontes"));
+        Files.writeString(origem.resolve("fontes/Fonte Solida.ttf"), "fonte".repeat(200));
+        Files.writeString(origem.resolve("css/estilo.css"),
+                "@font-face { src: url('../fontes/Fonte Solida.ttf'); }\n.a { background: url(data:image/png;base64,AA); }\n"
+                        + ".b { color: red; }\n".repeat(50));
+        Files.writeString(origem.resolve("index.html"),
+                "<link href=\"/css/estilo.css\"><a href=\"/login.html#topo\">x</a>");
+
+        Map<String, String> manifesto = new PipelineAssets(origem, destino, false).executar();
+
+        String fonte = manifesto.get("/fontes/Fonte Solida.ttf");
+        String css = manifesto.get("/css/estilo.css");
+        assertTrue(fonte.matches("/assets/fontes/Fonte Solida\\.[0-9a-f]{10}\\.ttf"));
+        String cssGerado = Files.readString(destino.resolve(css.substring(1)));
+        assertTrue(cssGerado.contains("url('" + fonte + "')"));
+        assertTrue(cssGerado.contains("url(data:image/png;base64,AA)"));
+        assertTrue(Files.exists(destino.resolve(css.substring(1) + ".gz")));
+
+        String html = Files.readString(destino.resolve("index.html"));
+        assertEquals("<link href=\"" + css + "\"><a href=\"/login.html#topo\">x</a>", html);
+        assertTrue(Files.exists(destino.resolve("asset-manifest.json")));
+    }
+
+    @Test
+    @DisplayName("Caminhos relativos são resolvidos a partir do arquivo que os referencia")
+    void resolveRelativos() {
+        assertEquals("/fontes/a.ttf", PipelineAssets.resolver("/css/estilo.css", "../fontes/a.ttf"));
+        assertEquals("/css/img/b.png", PipelineAssets.resolver("/css/estilo.css", "./img/b.png"));
+        assertEquals("/x.png", PipelineAssets.resolver("/css/estilo.css", "/x.png"));
+        assertNull(PipelineAssets.resolver("/estilo.css", "../../x.png"));
+    }
+}
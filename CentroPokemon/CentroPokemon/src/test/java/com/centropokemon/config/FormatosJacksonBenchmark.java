@@ -0,0 +1,86 @@
+package com.centropokemon.config;
+
+import com.centropokemon.config.FormatosJackson.Formato;
+import com.centropokemon.controller.PokemonDoTreinadorController.PokemonResponse;
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.Tipo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tamanho e tempo de (de)serialização da coleção completa de um treinador
+ * ({@code GET /api/treinadores/{id}/pokemons}, os 151 de Kanto) em JSON,
+ * CBOR e Smile, com e sem gzip. Não roda no {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=FormatosJacksonBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class FormatosJacksonBenchmark {
+
+    private static final int POKEMONS = 151;
+    private static final int OPERACOES = 20_000;
+    private static final TypeReference<List<PokemonResponse>> COLECAO = new TypeReference<>() {};
+
+    @Test
+    void medir() throws Exception {
+        FormatosJackson formatos = new FormatosJackson(
+                Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.json());
+        String[][] tipos = {{"Grama", "grass"}, {"Fogo", "fire"}, {"Água", "water"}, {"Voador", "flying"},
+                {"Veneno", "poison"}, {"Elétrico", "electric"}, {"Psíquico", "psychic"}};
+        List<PokemonResponse> colecao = new ArrayList<>();
+        for (int i = 1; i <= POKEMONS; i++) {
+            Pokemon p = new Pokemon();
+            p.setId(1000 + i);
+            p.setPokeApiId(i);
+            p.setNomeEn("pokemon-" + i);
+            p.setNomePt("Pokémon " + i);
+            p.setSpriteUrl("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/" + i + ".png");
+            p.setNivel(5 + i % 95);
+            p.setVidaMaxima(40 + i % 120);
+            p.setVidaAtual(20 + i % 100);
+            p.setHabilidades(List.of("habilidade-" + i % 40, "oculta-" + i % 25));
+            List<Tipo> doPokemon = new ArrayList<>();
+            for (int t = 0; t < 1 + i % 2; t++) {
+                Tipo tipo = new Tipo();
+                tipo.setNomePt(tipos[(i + t * 3) % tipos.length][0]);
+                tipo.setNomeEn(tipos[(i + t * 3) % tipos.length][1]);
+                doPokemon.add(tipo);
+            }
+            p.setTipos(doPokemon);
+            colecao.add(PokemonResponse.of(p));
+        }
+
+        System.out.printf("%nColeção com %d Pokémon%n%-6s %9s %9s %14s %14s%n",
+                POKEMONS, "formato", "bytes", "gzip", "serializar ns", "ler ns");
+        for (int rodada = 0; rodada < 2; rodada++) {
+            for (Formato f : Formato.values()) {
+                ObjectMapper mapper = formatos.mapper(f);
+                byte[] corpo = mapper.writeValueAsBytes(colecao);
+                long soma = 0;
+                for (int i = 0; i < OPERACOES; i++) soma += mapper.writeValueAsBytes(colecao).length;
+                long inicio = System.nanoTime();
+                for (int i = 0; i < OPERACOES; i++) soma += mapper.writeValueAsBytes(colecao).length;
+                long escrita = System.nanoTime() - inicio;
+                for (int i = 0; i < OPERACOES; i++) soma += mapper.readValue(corpo, COLECAO).size();
+                inicio = System.nanoTime();
+                for (int i = 0; i < OPERACOES; i++) soma += mapper.readValue(corpo, COLECAO).size();
+                long leitura = System.nanoTime() - inicio;
+                System.out.printf("%-6s %9d %9d %14.0f %14.0f   (%d)%n", f.representacao(), corpo.length,
+                        gzip(corpo), (double) escrita / OPERACOES, (double) leitura / OPERACOES, soma % 10);
+            }
+        }
+    }
+
+    private static int gzip(byte[] dados) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(saida)) {
+            gz.write(dados);
+        }
+        return saida.size();
+    }
+}
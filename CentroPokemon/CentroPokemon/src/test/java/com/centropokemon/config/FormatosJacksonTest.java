@@ -0,0 +1,92 @@
+package com.centropokemon.config;
+
+import com.centropokemon.config.FormatosJackson.Formato;
+import com.centropokemon.controller.PokemonDoTreinadorController.CadastroPokemonRequest;
+import com.centropokemon.controller.PokemonDoTreinadorController.PokemonResponse;
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.PokemonDescricao;
+import com.centropokemon.model.PokemonStats;
+import com.centropokemon.model.Tipo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatosJacksonTest {
+
+    private final FormatosJackson formatos = new FormatosJackson(
+            Jackson2ObjectMapperBuilder.json().build(), Jackson2ObjectMapperBuilder.json());
+
+    @Test
+    @DisplayName("Accept escolhe o formato pelo q; curingas, JSON e cabeçalhos inválidos dão JSON")
+    void negociar() {
+        assertEquals(Formato.JSON, FormatosJackson.negociar(null));
+        assertEquals(Formato.JSON, FormatosJackson.negociar("*/*"));
+        assertEquals(Formato.JSON, FormatosJackson.negociar("text/html,application/xhtml+xml,*/*;q=0.8"));
+        assertEquals(Formato.CBOR, FormatosJackson.negociar("application/cbor"));
+        assertEquals(Formato.SMILE, FormatosJackson.negociar("application/x-jackson-smile, application/json;q=0.5"));
+        assertEquals(Formato.JSON, FormatosJackson.negociar("application/cbor;q=0.4, application/json"));
+        assertEquals(Formato.JSON, FormatosJackson.negociar("application/cbor;q=0"));
+        assertEquals(Formato.JSON, FormatosJackson.negociar("não é um tipo"));
+    }
+
+    @Test
+    @DisplayName("Cada formato tem sua variante de ETag; JSON mantém a original")
+    void etag() {
+        assertEquals("\"abc\"", Formato.JSON.etag("\"abc\""));
+        assertEquals("\"abc-cbor\"", Formato.CBOR.etag("\"abc\""));
+        assertEquals("W/\"abc-smile\"", Formato.SMILE.etag("W/\"abc\""));
+        assertNull(Formato.CBOR.etag(null));
+    }
+
+    @Test
+    @DisplayName("CBOR e Smile carregam os mesmos campos do JSON, na entidade, na coleção e no corpo de requisição")
+    void mesmosCampos() throws Exception {
+        Pokemon p = charizard();
+        ObjectMapper json = formatos.mapper(Formato.JSON);
+        CadastroPokemonRequest req = new CadastroPokemonRequest();
+        req.pokeApiId = 6;
+        req.nomePt = "Charizard";
+        req.tipos = List.of("Fogo", "Voador");
+        for (Formato f : List.of(Formato.CBOR, Formato.SMILE)) {
+            ObjectMapper binario = formatos.mapper(f);
+
+            assertEquals(json.readTree(json.writeValueAsBytes(p)), binario.readTree(binario.writeValueAsBytes(p)), f.name());
+
+            List<PokemonResponse> colecao = List.of(PokemonResponse.of(p));
+            assertEquals(json.valueToTree(colecao), binario.readTree(binario.writeValueAsBytes(colecao)), f.name());
+
+            CadastroPokemonRequest lido = binario.readValue(binario.writeValueAsBytes(req), CadastroPokemonRequest.class);
+            assertEquals(json.writeValueAsString(req), json.writeValueAsString(lido), f.name());
+        }
+    }
+
+    static Pokemon charizard() {
+        Pokemon p = new Pokemon();
+        p.setId(1);
+        p.setPokeApiId(6);
+        p.setNomeEn("charizard");
+        p.setNomePt("Charizard");
+        p.setSpriteUrl("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/6.png");
+        p.setAltura(1.7);
+        p.setPeso(90.5);
+        p.setNivel(36);
+        p.setVidaAtual(78);
+        p.setVidaMaxima(78);
+        p.setHabilidades(List.of("blaze", "solar-power"));
+        Tipo fogo = new Tipo();
+        fogo.setId(1); fogo.setNome("Fogo"); fogo.setNomePt("Fogo"); fogo.setNomeEn("fire");
+        Tipo voador = new Tipo();
+        voador.setId(2); voador.setNome("Voador"); voador.setNomePt("Voador"); voador.setNomeEn("flying");
+        p.setTipos(List.of(fogo, voador));
+        p.setStats(new PokemonStats(p, 78, 84, 78, 100, 109, 85));
+        p.setDescricoes(List.of(new PokemonDescricao(p,
+                "Cospe fogo quente o suficiente para derreter pedregulhos. Pode causar incêndios florestais.",
+                "Spits fire that is hot enough to melt boulders. Known to cause forest fires unintentionally.")));
+        return p;
+    }
+}
@@ -0,0 +1,70 @@
+package com.centropokemon.config;
+
+import com.centropokemon.exception.PrazoEsgotadoException;
+import com.centropokemon.repository.PokemonRepository;
+import com.centropokemon.service.Prazo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O prazo da requisição chega ao JDBC: a consulta longa é cancelada pelo
+ * banco (H2) quando o prazo acaba, e com o prazo já esgotado nem a
+ * transação começa.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(TransacoesConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransacoesConfigTest {
+
+    /** Alguns segundos de CPU no H2, que confere o cancelamento a cada linha. */
+    private static final String CONSULTA_LONGA = """
+            WITH RECURSIVE t(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM t WHERE n < 500000000)
+            SELECT COUNT(*) FROM t""";
+
+    @Autowired private PlatformTransactionManager transacoes;
+    @Autowired private EntityManager em;
+    @Autowired private PokemonRepository pokemons;
+
+    @AfterEach
+    void limparPrazo() {
+        Prazo.limpar();
+    }
+
+    @Test
+    @DisplayName("Consulta que passa do prazo é cancelada no banco")
+    void consultaCanceladaNoPrazo() {
+        Prazo.definir(Duration.ofMillis(800));
+        long inicio = System.nanoTime();
+        RuntimeException erro = assertThrows(RuntimeException.class, () ->
+                new TransactionTemplate(transacoes).execute(s -> em.createNativeQuery(CONSULTA_LONGA).getSingleResult()));
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        assertTrue(ms < 3_000, "cancelada em " + ms + " ms (" + erro + ")");
+        assertTrue(Prazo.esgotou(erro), erro.toString());
+    }
+
+    @Test
+    @DisplayName("Com o prazo esgotado o repositório nem abre transação")
+    void prazoEsgotadoNaoConsulta() {
+        Prazo.definir(Duration.ZERO);
+        assertThrows(PrazoEsgotadoException.class, () -> pokemons.count());
+
+        Prazo.limpar();
+        assertEquals(0, pokemons.count());
+    }
+}
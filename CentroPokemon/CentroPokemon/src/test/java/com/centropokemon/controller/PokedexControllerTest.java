@@ -0,0 +1,63 @@
+package com.centropokemon.controller;
+
+import com.centropokemon.config.FormatosJackson;
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.service.CachePokedexService;
+import com.centropokemon.service.PokedexService;
+import com.centropokemon.service.VersaoRecursoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PokedexControllerTest {
+
+    @Test
+    @DisplayName("Depois de gravar o Pokémon, a revalidação com a ETag antiga recebe 200 em todas as rotas")
+    void gravacaoDerrubaEtag() {
+        PokedexService service = mock(PokedexService.class);
+        VersaoRecursoService versoes = new VersaoRecursoService(null, Duration.ofHours(1), 100);
+        CachePokedexService cache = new CachePokedexService(new SimpleMeterRegistry(), versoes, Duration.ofHours(1), 100);
+        PokedexController controller = new PokedexController(service, versoes, cache,
+                new FormatosJackson(new ObjectMapper(), new Jackson2ObjectMapperBuilder()), null);
+        when(service.buscarPokemonPorId(25)).thenReturn(pikachu("Pikachu"));
+
+        String antiga = controller.buscarPorId(25, null, get(null)).getHeaders().getETag();
+        assertEquals(304, controller.buscarPorId(25, null, get(antiga)).getStatusCode().value());
+        assertEquals(304, controller.buscarPokemon("pikachu", null, get(antiga)).getStatusCode().value());
+
+        Pokemon atualizado = pikachu("Pikachu (atualizado)");
+        when(service.buscarPokemonPorId(25)).thenReturn(atualizado);
+        when(service.buscarPokemonPorNome("pikachu")).thenReturn(atualizado);
+        cache.invalidar(25);
+
+        ResponseEntity<byte[]> porId = controller.buscarPorId(25, null, get(antiga));
+        assertEquals(200, porId.getStatusCode().value());
+        assertNotEquals(antiga, porId.getHeaders().getETag());
+        assertEquals(200, controller.buscarPokemon("pikachu", null, get(antiga)).getStatusCode().value());
+    }
+
+    private static WebRequest get(String ifNoneMatch) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/pokemons/id/25");
+        if (ifNoneMatch != null) req.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(req);
+    }
+
+    private static Pokemon pikachu(String nomePt) {
+        Pokemon p = new Pokemon(null, nomePt, "pikachu", "https://img/25.png");
+        p.setPokeApiId(25);
+        return p;
+    }
+}
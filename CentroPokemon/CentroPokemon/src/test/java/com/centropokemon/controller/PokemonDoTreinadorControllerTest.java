@@ -0,0 +1,143 @@
+package com.centropokemon.controller;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.PokemonDescricao;
+import com.centropokemon.model.PokemonStats;
+import com.centropokemon.model.Tipo;
+import com.centropokemon.model.Treinador;
+import com.centropokemon.repository.PokemonRepository;
+import com.centropokemon.repository.TipoRepository;
+import com.centropokemon.repository.TreinadorRepository;
+import com.centropokemon.service.CadastroPokemonService;
+import com.centropokemon.service.EventosTreinadorService;
+import com.centropokemon.service.VersaoRecursoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@code ?fields=} na coleção do treinador, contra o banco H2 com as
+ * estatísticas do Hibernate: a seleção de campos precisa emitir menos SQL
+ * e produzir menos bytes que a resposta completa.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class PokemonDoTreinadorControllerTest {
+
+    private static final int POKEMONS = 6;
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private PokemonRepository pokemons;
+    @Autowired private TreinadorRepository treinadores;
+    @Autowired private TipoRepository tipos;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private PokemonDoTreinadorController controller;
+    private Integer treinadorId;
+
+    @BeforeEach
+    void preparar() {
+        controller = new PokemonDoTreinadorController(new CadastroPokemonService(pokemons, treinadores, tipos,
+                        new EventosTreinadorService(new SimpleMeterRegistry(), 1, 32, 5, Duration.ofMinutes(30), Duration.ofSeconds(25))),
+                new VersaoRecursoService(treinadores, Duration.ofHours(1), 100), json);
+        Treinador t = new Treinador();
+        t.setNome("Ash");
+        t.setUsuario("ash");
+        t.setEmail("ash@kanto.com");
+        t.setSenha("x");
+        em.persist(t);
+        Tipo fogo = em.persist(new Tipo("Fogo", "fire"));
+        Tipo voador = em.persist(new Tipo("Voador", "flying"));
+        for (int i = 1; i <= POKEMONS; i++) {
+            Pokemon p = new Pokemon(null, "Pokémon " + i, "pokemon-" + i, "https://img/" + i + ".png");
+            p.setPokeApiId(i);
+            p.setTreinador(t);
+            p.setTipos(List.of(fogo, voador));
+            p.setHabilidades(List.of("blaze", "solar-power"));
+            p.setStats(new PokemonStats(p, 78, 84, 78, 100, 109, 85));
+            p.setDescricoes(List.of(new PokemonDescricao(p, "Cospe fogo.", "Spits fire.")));
+            em.persist(p);
+        }
+        em.flush();
+        em.clear();
+        treinadorId = t.getId();
+    }
+
+    @Test
+    @DisplayName("fields=nomePt,spriteUrl lê só as colunas pedidas: menos SQL e menos bytes")
+    void camposEsparsos() throws Exception {
+        Medida completa = medir(null);
+        Medida parcial = medir("nomePt,spriteUrl");
+
+        assertEquals(POKEMONS, completa.corpo().size());
+        assertEquals(POKEMONS, parcial.corpo().size());
+        JsonNode primeiro = parcial.corpo().get(0);
+        List<String> nomes = new ArrayList<>();
+        primeiro.fieldNames().forEachRemaining(nomes::add);
+        assertEquals(List.of("nomePt", "spriteUrl"), nomes);
+        assertEquals(completa.corpo().get(0).get("nomePt"), primeiro.get("nomePt"));
+
+        assertEquals(2, parcial.comandos(), "versão da coleção (ETag) + colunas");
+        assertTrue(parcial.comandos() < completa.comandos(),
+                parcial.comandos() + " comandos com fields contra " + completa.comandos() + " sem");
+        assertTrue(parcial.bytes() * 3 < completa.bytes(), parcial.bytes() + " bytes contra " + completa.bytes());
+    }
+
+    @Test
+    @DisplayName("tipos e habilidades custam uma consulta cada e vêm iguais aos da resposta completa")
+    void associacoesPedidas() throws Exception {
+        Medida completa = medir(null);
+        Medida parcial = medir("habilidades,tipos");
+
+        assertEquals(4, parcial.comandos(), "versão + colunas + tipos + habilidades");
+        for (int i = 0; i < POKEMONS; i++) {
+            assertEquals(completa.corpo().get(i).get("tipos"), parcial.corpo().get(i).get("tipos"));
+            assertEquals(completa.corpo().get(i).get("habilidades"), parcial.corpo().get(i).get("habilidades"));
+        }
+    }
+
+    @Test
+    @DisplayName("Campo desconhecido é 400")
+    void campoDesconhecido() {
+        ResponseEntity<?> r = controller.listar(treinadorId, "nomePt,senha",
+                new ServletWebRequest(new MockHttpServletRequest()));
+        assertEquals(HttpStatus.BAD_REQUEST, r.getStatusCode());
+    }
+
+    private record Medida(long comandos, int bytes, JsonNode corpo) {}
+
+    private Medida medir(String fields) throws Exception {
+        em.clear();
+        Statistics estatisticas = emf.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        ResponseEntity<?> r = controller.listar(treinadorId, fields, new ServletWebRequest(new MockHttpServletRequest()));
+        long comandos = estatisticas.getPrepareStatementCount();
+        assertEquals(HttpStatus.OK, r.getStatusCode());
+        byte[] bytes = json.writeValueAsBytes(r.getBody());
+        return new Medida(comandos, bytes.length, json.readTree(bytes));
+    }
+}
@@ -0,0 +1,97 @@
+package com.centropokemon.controller;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vazão por núcleo do {@code /api/sons} (Range + sendfile) contra o handler
+ * estático padrão ({@code /sons/**}), com clientes HTTP no mesmo processo. O
+ * CPU do servidor é o CPU do processo menos o CPU das threads cliente.
+ * Precisa do banco (sobe a aplicação inteira) e não roda no {@code mvn test};
+ * execute com:
+ * {@code mvn test -Dtest=SomControllerBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"centro.limite.habilitado=false", "centro.audio.ffmpeg=ffmpeg-inexistente"})
+class SomControllerBenchmark {
+
+    private static final int CLIENTES = Integer.getInteger("clientes", 8);
+    private static final long DURACAO_MS = Long.getLong("duracaoMs", 5_000);
+    private static final String GRITO = "cries/cries/Generation 1/SE_PV025.wav";
+    private static final String GRANDE = "cries/moves/Pokémon Moves/vfx-knockout.wav";
+
+    @LocalServerPort int porta;
+
+    @Test
+    void medir() throws Exception {
+        System.out.printf("%n%-34s %9s %10s %12s %16s%n", "cenário", "req/s", "MB/s", "CPU serv. s", "MB/s por núcleo");
+        for (String arquivo : List.of(GRITO, GRANDE)) {
+            String nome = arquivo.substring(arquivo.lastIndexOf('/') + 1);
+            rodar("estático " + nome, "/sons/" + arquivo, null);
+            rodar("api      " + nome, "/api/sons/" + arquivo, null);
+            rodar("estático " + nome + " 64K", "/sons/" + arquivo, "bytes=0-65535");
+            rodar("api      " + nome + " 64K", "/api/sons/" + arquivo, "bytes=0-65535");
+        }
+    }
+
+    private void rodar(String cenario, String caminho, String range) throws Exception {
+        String url = new URI("http", null, "localhost", porta, caminho, null, null).toASCIIString();
+        carga(url, range, 1_000);
+
+        OperatingSystemMXBean so = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuAntes = so.getProcessCpuTime();
+        long inicio = System.nanoTime();
+        long[] resultado = carga(url, range, DURACAO_MS);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        double cpuServidor = Math.max(1e-9, (so.getProcessCpuTime() - cpuAntes - resultado[2]) / 1e9);
+
+        double mb = resultado[1] / 1e6;
+        System.out.printf("%-34s %9.0f %10.1f %12.2f %16.1f%n",
+                cenario, resultado[0] / segundos, mb / segundos, cpuServidor, mb / cpuServidor);
+    }
+
+    /** @return {requisições, bytes, nanos de CPU das threads cliente} */
+    private static long[] carga(String url, String range, long duracaoMs) throws Exception {
+        LongAdder requisicoes = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        LongAdder cpuClientes = new LongAdder();
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        long fim = System.nanoTime() + duracaoMs * 1_000_000;
+        CountDownLatch pronto = new CountDownLatch(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            new Thread(() -> {
+                long cpu0 = mx.getCurrentThreadCpuTime();
+                byte[] buffer = new byte[64 * 1024];
+                try {
+                    while (System.nanoTime() < fim) {
+                        HttpURLConnection c = (HttpURLConnection) URI.create(url).toURL().openConnection();
+                        if (range != null) c.setRequestProperty("Range", range);
+                        try (InputStream in = c.getInputStream()) {
+                            int n;
+                            while ((n = in.read(buffer)) > 0) bytes.add(n);
+                        }
+                        requisicoes.increment();
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    cpuClientes.add(mx.getCurrentThreadCpuTime() - cpu0);
+                    pronto.countDown();
+                }
+            }).start();
+        }
+        pronto.await();
+        return new long[]{requisicoes.sum(), bytes.sum(), cpuClientes.sum()};
+    }
+}
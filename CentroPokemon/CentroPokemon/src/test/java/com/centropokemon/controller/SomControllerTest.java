@@ -0,0 +1,27 @@
+package com.centropokemon.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SomControllerTest {
+
+    @Test
+    @DisplayName("Accept-Encoding: gzip só vale com q maior que zero; x-gzip sozinho não conta")
+    void aceitaGzip() {
+        assertTrue(SomController.aceitaGzip("gzip"));
+        assertTrue(SomController.aceitaGzip("br, GZIP;q=0.5"));
+        assertTrue(SomController.aceitaGzip("deflate, *"));
+        assertTrue(SomController.aceitaGzip("gzip;q=0, gzip"));
+
+        assertFalse(SomController.aceitaGzip(null));
+        assertFalse(SomController.aceitaGzip("identity"));
+        assertFalse(SomController.aceitaGzip("gzip;q=0"));
+        assertFalse(SomController.aceitaGzip("gzip; q=0.000"));
+        assertFalse(SomController.aceitaGzip("x-gzip"));
+        assertFalse(SomController.aceitaGzip("*;q=0"));
+        assertFalse(SomController.aceitaGzip("gzip;q=0, *"));
+        assertFalse(SomController.aceitaGzip("gzip;q=abc"));
+    }
+}
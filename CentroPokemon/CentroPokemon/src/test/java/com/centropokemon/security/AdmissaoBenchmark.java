@@ -0,0 +1,121 @@
+package com.centropokemon.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carga aberta de 2× a capacidade contra um servidor simulado
+ * ({@code TRABALHADORES} requisições em paralelo, {@code SERVICO_MS} cada),
+ * com e sem o {@link AdmissaoFilter}. Resposta depois de {@code PRAZO_MS}
+ * conta como perdida (o cliente já desistiu). Imprime o goodput e o
+ * resultado por rota. Não roda no {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=AdmissaoBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class AdmissaoBenchmark {
+
+    private static final int TRABALHADORES = 8;
+    private static final long SERVICO_MS = 20;
+    private static final double SOBRECARGA = 2.0;
+    private static final long PRAZO_MS = 1_000;
+    private static final int SEGUNDOS = 6;
+    /** Mistura: 60% Pokédex, 25% coleção, 15% cura. */
+    private static final String[] ROTAS = {"/api/pokemons/25", "/api/treinadores/1/pokemons",
+            "/api/centro/treinadores/1/pokemons/curar-todos"};
+    private static final double[] MISTURA = {0.60, 0.25, 0.15};
+
+    @Test
+    void comparar() throws Exception {
+        double capacidade = TRABALHADORES * 1000.0 / SERVICO_MS;
+        System.out.printf("%nCapacidade %.0f req/s, oferta %.0f req/s por %d s, prazo do cliente %d ms%n",
+                capacidade, capacidade * SOBRECARGA, SEGUNDOS, PRAZO_MS);
+        rodar("sem admissão", null);
+        rodar("CoDel", new AdmissaoFilter(new SimpleMeterRegistry(), true, TRABALHADORES, 4096, 10, 100, PRAZO_MS));
+    }
+
+    private static void rodar(String nome, AdmissaoFilter filtro) throws Exception {
+        Semaphore trabalhadores = new Semaphore(TRABALHADORES, true);
+        FilterChain servidor = (req, res) -> {
+            trabalhadores.acquireUninterruptibly();
+            try {
+                Thread.sleep(SERVICO_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                trabalhadores.release();
+            }
+            ((MockHttpServletResponse) res).setStatus(200);
+        };
+        int total = (int) (TRABALHADORES * 1000.0 / SERVICO_MS * SOBRECARGA * SEGUNDOS);
+        long intervalo = (long) (SEGUNDOS * 1e9 / total);
+        // por rota: [0] oferecidas, [1] ok no prazo, [2] 503, [3] atrasadas
+        AtomicLongArray[] contagem = new AtomicLongArray[ROTAS.length];
+        for (int r = 0; r < ROTAS.length; r++) contagem[r] = new AtomicLongArray(4);
+        long[] latenciasOk = new long[total];
+        List<Integer> rotas = sortear(total);
+
+        long inicio = System.nanoTime();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                long chegada = inicio + i * intervalo;
+                LockSupport.parkNanos(chegada - System.nanoTime());
+                int rota = rotas.get(i);
+                int indice = i;
+                clientes.execute(() -> {
+                    MockHttpServletRequest req = new MockHttpServletRequest(rota == 2 ? "POST" : "GET", ROTAS[rota]);
+                    MockHttpServletResponse res = new MockHttpServletResponse();
+                    try {
+                        if (filtro == null) servidor.doFilter(req, res);
+                        else filtro.doFilter(req, res, servidor);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    long ms = (System.nanoTime() - chegada) / 1_000_000;
+                    contagem[rota].incrementAndGet(0);
+                    if (res.getStatus() == 503) {
+                        contagem[rota].incrementAndGet(2);
+                    } else if (ms > PRAZO_MS) {
+                        contagem[rota].incrementAndGet(3);
+                    } else {
+                        contagem[rota].incrementAndGet(1);
+                        latenciasOk[indice] = ms;
+                    }
+                });
+            }
+        }
+        long ok = 0;
+        for (AtomicLongArray c : contagem) ok += c.get(1);
+        long[] latencias = Arrays.stream(latenciasOk).filter(l -> l > 0).sorted().toArray();
+        System.out.printf("%-14s goodput %5.0f req/s, p50 %4d ms, p99 %4d ms%n", nome, ok / (double) SEGUNDOS,
+                latencias.length == 0 ? 0 : latencias[latencias.length / 2],
+                latencias.length == 0 ? 0 : latencias[(int) (latencias.length * 0.99)]);
+        for (int r = 0; r < ROTAS.length; r++) {
+            System.out.printf("    %-48s %5d oferecidas, %5d ok, %5d 503, %5d atrasadas%n", ROTAS[r],
+                    contagem[r].get(0), contagem[r].get(1), contagem[r].get(2), contagem[r].get(3));
+        }
+    }
+
+    private static List<Integer> sortear(int total) {
+        Random sorteio = new Random(1);
+        List<Integer> rotas = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            double x = sorteio.nextDouble();
+            int r = 0;
+            while (r < MISTURA.length - 1 && x >= MISTURA[r]) x -= MISTURA[r++];
+            rotas.add(r);
+        }
+        return rotas;
+    }
+}
@@ -0,0 +1,115 @@
+package com.centropokemon.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissaoFilterTest {
+
+    private static final String CURA = "/api/centro/treinadores/1/pokemons/curar-todos";
+    private static final String COLECAO = "/api/treinadores/1/pokemons";
+
+    @Test
+    @DisplayName("Vaga liberada vai para a cura antes da Pokédex que chegou primeiro")
+    void filaPorPrioridade() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        AdmissaoFilter filtro = new AdmissaoFilter(metricas, true, 1, 16, 10, 60_000, 5_000);
+        CountDownLatch soltar = new CountDownLatch(1);
+        List<String> ordem = new CopyOnWriteArrayList<>();
+        FilterChain controllers = segurandoPrimeira(soltar, ordem);
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> ocupando = clientes.submit(() -> executar(filtro, controllers, "/api/pokemons/1"));
+            esperar(() -> filtro.getAdmissao().getEmUso() == 1);
+            Future<MockHttpServletResponse> pokedex = clientes.submit(() -> executar(filtro, controllers, "/api/pokemons/2"));
+            esperar(() -> filtro.getAdmissao().getAguardando() == 1);
+            Future<MockHttpServletResponse> cura = clientes.submit(() -> executar(filtro, controllers, CURA));
+            esperar(() -> filtro.getAdmissao().getAguardando() == 2);
+
+            soltar.countDown();
+            assertEquals(200, ocupando.get().getStatus());
+            assertEquals(200, cura.get().getStatus());
+            assertEquals(200, pokedex.get().getStatus());
+            assertEquals(List.of("/api/pokemons/1", CURA, "/api/pokemons/2"), ordem);
+        }
+    }
+
+    @Test
+    @DisplayName("Com fila permanente, Pokédex e coleção saem com 503 e a cura espera a vaga")
+    void sobrecargaDescartaBaixaPrioridade() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        AdmissaoFilter filtro = new AdmissaoFilter(metricas, true, 1, 16, 5, 50, 5_000);
+        CountDownLatch soltar = new CountDownLatch(1);
+        FilterChain controllers = segurandoPrimeira(soltar, new CopyOnWriteArrayList<>());
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> ocupando = clientes.submit(() -> executar(filtro, controllers, COLECAO));
+            esperar(() -> filtro.getAdmissao().getEmUso() == 1);
+            Future<MockHttpServletResponse> cura = clientes.submit(() -> executar(filtro, controllers, CURA));
+            esperar(() -> metricas.get("centro.admissao.sobrecarga").gauge().value() == 1);
+
+            long inicio = System.nanoTime();
+            MockHttpServletResponse pokedex = executar(filtro, controllers, "/api/pokemons/25");
+            assertEquals(503, pokedex.getStatus());
+            assertEquals("1", pokedex.getHeader(HttpHeaders.RETRY_AFTER));
+            assertEquals(503, executar(filtro, controllers, COLECAO).getStatus());
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            assertTrue(ms < 500, "descarte em " + ms + " ms");
+            assertEquals(1.0, metricas.get("centro.admissao.rejeitadas")
+                    .tags("prioridade", "baixa", "motivo", "descartada").counter().count());
+            assertEquals(1.0, metricas.get("centro.admissao.rejeitadas")
+                    .tags("prioridade", "media", "motivo", "descartada").counter().count());
+            assertFalse(cura.isDone());
+
+            soltar.countDown();
+            assertEquals(200, ocupando.get().getStatus());
+            assertEquals(200, cura.get().getStatus());
+        }
+    }
+
+    /** Cadeia que registra a ordem de execução e segura a primeira requisição até {@code soltar}. */
+    private static FilterChain segurandoPrimeira(CountDownLatch soltar, List<String> ordem) {
+        return (req, res) -> {
+            ordem.add(((MockHttpServletRequest) req).getRequestURI());
+            if (ordem.size() == 1) {
+                try {
+                    soltar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            ((MockHttpServletResponse) res).setStatus(200);
+        };
+    }
+
+    private static MockHttpServletResponse executar(AdmissaoFilter filtro, FilterChain chain, String uri)
+            throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest(uri.endsWith("curar-todos") ? "POST" : "GET", uri);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filtro.doFilter(req, res, chain);
+        return res;
+    }
+
+    private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida em 10 s");
+            Thread.sleep(5);
+        }
+    }
+}
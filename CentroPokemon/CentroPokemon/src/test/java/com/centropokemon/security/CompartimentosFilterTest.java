@@ -0,0 +1,147 @@
+package com.centropokemon.security;
+
+import com.centropokemon.repository.PokemonRepository;
+import com.centropokemon.repository.TipoRepository;
+import com.centropokemon.service.CachePokedexService;
+import com.centropokemon.service.DataInicializacao;
+import com.centropokemon.service.PokeApiFalsa;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Com a PokeAPI travada, a Pokédex esgota só o próprio compartimento:
+ * o excedente recebe 503 na hora e as rotas locais seguem atendidas.
+ */
+class CompartimentosFilterTest {
+
+    @Test
+    @DisplayName("PokeAPI travada ocupa só o compartimento pokedex; cura e login continuam")
+    void pokeApiTravadaNaoAfetaRotasLocais() throws Exception {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("centro.compartimento.pokedex.permissoes", "2")
+                .withProperty("centro.compartimento.pokedex.fila", "2")
+                .withProperty("centro.compartimento.pokedex.espera-ms", "30000")
+                .withProperty("centro.compartimento.local.permissoes", "4")
+                .withProperty("centro.compartimento.autenticacao.permissoes", "2");
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        CompartimentosFilter filtro = new CompartimentosFilter(env, metricas, true);
+
+        // a PokeAPI fecha primeiro e solta as requisições presas antes de esperar os clientes
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+             PokeApiFalsa api = new PokeApiFalsa(60_000)) {
+            DataInicializacao pokeApi = new DataInicializacao(mock(PokemonRepository.class), mock(TipoRepository.class),
+                    mock(CachePokedexService.class), api.cliente(Duration.ofSeconds(60)));
+            FilterChain controllers = (req, res) -> {
+                if (((MockHttpServletRequest) req).getRequestURI().startsWith("/api/pokemons")) {
+                    pokeApi.carregarPokemon("25");
+                }
+                ((MockHttpServletResponse) res).setStatus(200);
+            };
+
+            // 2 presas na PokeAPI + 2 na fila do compartimento
+            List<Future<MockHttpServletResponse>> travadas = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                travadas.add(clientes.submit(() -> executar(filtro, controllers, "GET", "/api/pokemons/pikachu")));
+            }
+            esperar(() -> metricas.get("centro.compartimento.ativas").tag("grupo", "pokedex").gauge().value() == 2
+                    && metricas.get("centro.compartimento.fila").tag("grupo", "pokedex").gauge().value() == 2
+                    && api.chamadas() == 2);
+            assertTrue(travadas.stream().noneMatch(Future::isDone));
+
+            long inicio = System.nanoTime();
+            MockHttpServletResponse excedente = executar(filtro, controllers, "GET", "/api/pokemons/id/1");
+            assertEquals(503, excedente.getStatus());
+            assertEquals("1", excedente.getHeader(HttpHeaders.RETRY_AFTER));
+
+            List<Future<MockHttpServletResponse>> locais = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                locais.add(clientes.submit(() ->
+                        executar(filtro, controllers, "POST", "/api/centro/treinadores/1/pokemons/curar-todos")));
+                locais.add(clientes.submit(() -> executar(filtro, controllers, "POST", "/api/treinadores/login")));
+                locais.add(clientes.submit(() -> executar(filtro, controllers, "GET", "/api/treinadores/1/pokemons")));
+            }
+            for (Future<MockHttpServletResponse> f : locais) {
+                assertEquals(200, f.get().getStatus());
+            }
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            assertTrue(ms < 2_000, "rotas locais atendidas em " + ms + " ms com a PokeAPI travada");
+            assertEquals(1.0, metricas.get("centro.compartimento.rejeitadas")
+                    .tags("grupo", "pokedex", "motivo", "fila").counter().count());
+            assertEquals(0.0, metricas.get("centro.compartimento.rejeitadas").tag("grupo", "local")
+                    .counters().stream().mapToDouble(c -> c.count()).sum());
+            assertEquals(2, api.chamadas(), "só as requisições com permissão chegam à PokeAPI");
+            assertTrue(travadas.stream().noneMatch(Future::isDone));
+        }
+    }
+
+    @Test
+    @DisplayName("Sem vaga dentro da espera, a requisição sai com 503 e libera a fila")
+    void esperaEsgotada() throws Exception {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("centro.compartimento.local.permissoes", "1")
+                .withProperty("centro.compartimento.local.espera-ms", "50");
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        CompartimentosFilter filtro = new CompartimentosFilter(env, metricas, true);
+        FilterChain lento = (req, res) -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> ocupando = clientes.submit(() ->
+                    executar(filtro, lento, "GET", "/api/treinadores/1/consultas"));
+            esperar(() -> metricas.get("centro.compartimento.ativas").tag("grupo", "local").gauge().value() == 1);
+            assertEquals(503, executar(filtro, lento, "GET", "/api/treinadores/1/consultas").getStatus());
+            assertEquals(0, metricas.get("centro.compartimento.fila").tag("grupo", "local").gauge().value());
+            assertEquals(1.0, metricas.get("centro.compartimento.rejeitadas")
+                    .tags("grupo", "local", "motivo", "espera").counter().count());
+            assertEquals(200, ocupando.get().getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Caminho codificado ou com parâmetros de matriz fica no grupo da rota que atende")
+    void classificaCaminhoRoteado() {
+        assertEquals(CompartimentosFilter.Grupo.POKEDEX,
+                CompartimentosFilter.classificar(new MockHttpServletRequest("GET", "/api/%70okemons/25")));
+        assertEquals(CompartimentosFilter.Grupo.AUDIO,
+                CompartimentosFilter.classificar(new MockHttpServletRequest("GET", "/api;x/sons/gritos/25.ogg")));
+        assertEquals(CompartimentosFilter.Grupo.AUTENTICACAO,
+                CompartimentosFilter.classificar(new MockHttpServletRequest("POST", "/api/treinadores/%6Cogin")));
+    }
+
+    private static MockHttpServletResponse executar(CompartimentosFilter filtro, FilterChain chain,
+                                                    String metodo, String uri) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest(metodo, uri);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filtro.doFilter(req, res, chain);
+        return res;
+    }
+
+    private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida em 10 s");
+            Thread.sleep(10);
+        }
+    }
+}
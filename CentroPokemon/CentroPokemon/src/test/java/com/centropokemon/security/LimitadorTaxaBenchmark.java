@@ -0,0 +1,59 @@
+package com.centropokemon.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mede o custo de {@link LimitadorTaxa#consumir(Object)} com várias threads
+ * disputando poucos baldes (pior caso de CAS) e muitos clientes distintos.
+ * Não roda no {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=LimitadorTaxaBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class LimitadorTaxaBenchmark {
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int OPERACOES = 2_000_000;
+
+    @Test
+    void medir() throws Exception {
+        String[] ips = new String[10_000];
+        for (int i = 0; i < ips.length; i++) ips[i] = "10.0." + (i / 256) + "." + (i % 256);
+
+        rodar("mesmo cliente  ", new LimitadorTaxa("bench", 1e9, 1_000_000), new String[]{"1.1.1.1"});
+        rodar("16 clientes    ", new LimitadorTaxa("bench", 1e9, 1_000_000), java.util.Arrays.copyOf(ips, 16));
+        rodar("10.000 clientes", new LimitadorTaxa("bench", 1e9, 1_000_000), ips);
+    }
+
+    private static void rodar(String nome, LimitadorTaxa limitador, String[] clientes) throws Exception {
+        for (int i = 0; i < OPERACOES; i++) limitador.consumir(clientes[i % clientes.length]);
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        LongAdder nanos = new LongAdder();
+        for (int t = 0; t < THREADS; t++) {
+            int desloc = t * 7919;
+            Thread th = new Thread(() -> {
+                try {
+                    inicio.await();
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < OPERACOES; i++) {
+                        limitador.consumir(clientes[(i + desloc) % clientes.length]);
+                    }
+                    nanos.add(System.nanoTime() - t0);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            });
+            th.start();
+        }
+        inicio.countDown();
+        fim.await(2, TimeUnit.MINUTES);
+        System.out.printf("%s: %d threads, %.1f ns/op por thread%n",
+                nome, THREADS, nanos.sum() / (double) THREADS / OPERACOES);
+    }
+}
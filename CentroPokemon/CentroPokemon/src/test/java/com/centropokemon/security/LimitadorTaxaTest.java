@@ -0,0 +1,48 @@
+package com.centropokemon.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorTaxaTest {
+
+    private final AtomicLong agora = new AtomicLong(123_456_789L);
+    private final LimitadorTaxa limitador = new LimitadorTaxa("teste", 2, 3, agora::get);
+
+    @Test
+    @DisplayName("Permite a rajada e rejeita a seguinte informando a espera")
+    void rajadaEEspera() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumir("1.2.3.4"));
+        }
+        long espera = limitador.consumir("1.2.3.4");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), espera);
+
+        agora.addAndGet(espera);
+        assertEquals(0, limitador.consumir("1.2.3.4"));
+    }
+
+    @Test
+    @DisplayName("Clientes têm baldes independentes")
+    void clientesIndependentes() {
+        for (int i = 0; i < 3; i++) limitador.consumir(7);
+        assertTrue(limitador.consumir(7) > 0);
+        assertEquals(0, limitador.consumir(8));
+    }
+
+    @Test
+    @DisplayName("Remove apenas baldes que já reabasteceram")
+    void removerOciosos() {
+        limitador.consumir("a");
+        limitador.consumir("b");
+        limitador.consumir("b");
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+
+        assertEquals(1, limitador.removerOciosos());
+        assertEquals(1, limitador.getTamanho());
+    }
+}
@@ -0,0 +1,89 @@
+package com.centropokemon.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenSessaoFilterTest {
+
+    private final TokenSessaoService tokens = new TokenSessaoService(
+            "k1:" + Base64.getEncoder().encodeToString(new byte[32]), Duration.ofHours(1), Clock.systemUTC());
+    private final TokenSessaoFilter filtro = new TokenSessaoFilter(tokens);
+
+    @Test
+    @DisplayName("Caminho codificado ou com parâmetros de matriz é conferido como o Spring o roteia")
+    void caminhoCodificadoNaoEscapa() throws Exception {
+        String doSete = tokens.emitir(7).token();
+        String doSeis = tokens.emitir(6).token();
+
+        assertEquals(403, status("/api/treinadores/%36/pokemons", doSete));
+        assertEquals(401, status("/api/treinadores/%36/pokemons", null));
+        assertEquals(401, status("/api/treinadores;x/6/pokemons", null));
+        assertEquals(403, status("/api/centro/treinadores;x=1/6;y/status", doSete));
+        assertEquals(401, status("/api//treinadores/6/pokemons", null));
+        assertEquals(200, status("/api/treinadores/%36;jsessionid=1/pokemons", doSeis));
+    }
+
+    @Test
+    @DisplayName("Caminho de treinador que não dá para interpretar responde 400; login segue sem token")
+    void caminhoInvalido() throws Exception {
+        String doOito = tokens.emitir(8).token();
+
+        assertEquals(400, status("/api/treinadores/010/pokemons", doOito));
+        assertEquals(400, status("/api/treinadores/0x8/pokemons", doOito));
+        assertEquals(400, status("/api/treinadores/%2538/pokemons", doOito));
+        assertEquals(400, status("/api/treinadores/8/../9/pokemons", doOito));
+        assertEquals(400, status("/api/treinadores/99999999999/pokemons", doOito));
+        assertEquals(200, status("/api/treinadores/login", null));
+        assertEquals(200, status("/api/treinadores;x/login", null));
+        assertEquals(200, status("/api/pokemons/pikachu", null));
+    }
+
+    @Test
+    @DisplayName("Fluxo de eventos aceita bilhete na URL, mas não o token de sessão")
+    void bilheteEventos() throws Exception {
+        String token = tokens.emitir(5).token();
+        String bilhete = tokens.emitirBilheteEventos(5).token();
+
+        assertEquals(200, status("GET", "/api/treinadores/5/eventos?bilhete=" + bilhete, null));
+        assertEquals(401, status("GET", "/api/treinadores/5/eventos?token=" + token, null));
+        assertEquals(401, status("GET", "/api/treinadores/5/eventos?bilhete=" + token, null));
+        assertEquals(401, status("GET", "/api/treinadores/5/pokemons?bilhete=" + bilhete, null));
+        assertEquals(401, status("GET", "/api/treinadores/5/eventos", bilhete));
+        assertEquals(403, status("GET", "/api/treinadores/6/eventos?bilhete=" + bilhete, null));
+        assertEquals(200, status("POST", "/api/treinadores/5/eventos/bilhete", token));
+    }
+
+    private int status(String uri, String token) throws Exception {
+        return status("GET", uri, token);
+    }
+
+    /** @return status da resposta; 200 se a requisição chegou ao controller */
+    private int status(String metodo, String uri, String token) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest(metodo, uri);
+        int consulta = uri.indexOf('?');
+        if (consulta >= 0) {
+            req.setRequestURI(uri.substring(0, consulta));
+            req.setQueryString(uri.substring(consulta + 1));
+            for (String par : uri.substring(consulta + 1).split("&")) {
+                String[] kv = par.split("=", 2);
+                req.addParameter(kv[0], kv[1]);
+            }
+        }
+        if (token != null) req.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        AtomicBoolean chegou = new AtomicBoolean();
+        FilterChain controller = (q, s) -> chegou.set(true);
+        filtro.doFilter(req, res, controller);
+        return chegou.get() ? 200 : res.getStatus();
+    }
+}
@@ -0,0 +1,79 @@
+package com.centropokemon.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenSessaoServiceTest {
+
+    private static final String K1 = "k1:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String K2 = "k2:" + Base64.getEncoder().encodeToString("segredo-da-chave-nova-com-32-bytes!".getBytes());
+    private static final Instant AGORA = Instant.parse("2026-10-19T12:00:00Z");
+
+    private static TokenSessaoService servico(String chaves, Instant agora) {
+        return new TokenSessaoService(chaves, Duration.ofHours(1), Clock.fixed(agora, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Token emitido é verificado com o mesmo treinador")
+    void emitirEVerificar() {
+        TokenSessaoService s = servico(K1, AGORA);
+        TokenSessaoService.TokenEmitido t = s.emitir(42);
+
+        TokenSessaoService.Sessao sessao = s.verificar(t.token()).orElseThrow();
+        assertEquals(42, sessao.treinadorId());
+        assertEquals(AGORA.plus(Duration.ofHours(1)), sessao.expiraEm());
+    }
+
+    @Test
+    @DisplayName("Rejeita token adulterado")
+    void rejeitaAdulterado() {
+        TokenSessaoService s = servico(K1, AGORA);
+        String token = s.emitir(42).token();
+        String adulterado = token.replaceFirst("\\.42\\.", ".43.");
+
+        assertTrue(s.verificar(adulterado).isEmpty());
+        assertTrue(s.verificar("lixo").isEmpty());
+        assertTrue(s.verificar(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Rejeita token expirado")
+    void rejeitaExpirado() {
+        String token = servico(K1, AGORA).emitir(42).token();
+
+        assertTrue(servico(K1, AGORA.plus(Duration.ofHours(2))).verificar(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Após rotação, tokens da chave antiga continuam válidos e os novos usam a chave ativa")
+    void rotacaoDeChave() {
+        String antigo = servico(K1, AGORA).emitir(7).token();
+        TokenSessaoService rotacionado = servico(K2 + "," + K1, AGORA);
+
+        assertTrue(rotacionado.verificar(antigo).isPresent());
+        assertTrue(rotacionado.emitir(7).token().startsWith("k2."));
+        assertTrue(servico(K2, AGORA).verificar(antigo).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Bilhete de eventos dura pouco e não se confunde com token de sessão")
+    void bilheteEventos() {
+        TokenSessaoService s = servico(K1, AGORA);
+        TokenSessaoService.TokenEmitido bilhete = s.emitirBilheteEventos(42);
+        String token = s.emitir(42).token();
+
+        assertEquals(AGORA.plus(Duration.ofMinutes(1)), bilhete.expiraEm());
+        assertEquals(42, s.verificarBilheteEventos(bilhete.token()).orElseThrow().treinadorId());
+        assertTrue(s.verificar(bilhete.token()).isEmpty());
+        assertTrue(s.verificarBilheteEventos(token).isEmpty());
+        assertTrue(servico(K1, AGORA.plus(Duration.ofMinutes(2))).verificarBilheteEventos(bilhete.token()).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package com.centropokemon.service;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpHeaders;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDiscoPokeApiTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    @DisplayName("Cache sobrevive ao reinício e revalida com 304 quando vence")
+    void sobreviveAoReinicioERevalida() throws Exception {
+        try (PokeApiFalsa api = new PokeApiFalsa(0)) {
+            api.validadores(3600);
+            String primeira = cliente(api).buscar("/pokemon/25").toString();
+            assertEquals(1, api.chamadas());
+
+            ClientePokeApi reiniciado = cliente(api);
+            assertEquals(primeira, reiniciado.buscar("/pokemon/25").toString());
+            assertEquals(1, api.chamadas(), "entrada fresca não sai para a PokeAPI");
+
+            api.validadores(0);
+            reiniciado.buscar("/pokemon/26");
+            assertEquals(primeira, reiniciado.buscar("/pokemon/25").toString(), "max-age=3600 ainda vale");
+            assertEquals(2, api.chamadas());
+
+            cliente(api).buscar("/pokemon/26");
+            assertEquals(3, api.chamadas(), "max-age=0: vencida, revalida");
+            assertEquals(1, api.naoModificadas(), "mesma ETag responde 304");
+        }
+    }
+
+    @Test
+    @DisplayName("Sem vaga no limite serve a entrada vencida; sem entrada, 503")
+    void semVagaServeVencida() throws Exception {
+        try (PokeApiFalsa api = new PokeApiFalsa(0)) {
+            api.validadores(0);
+            LimiteAdaptativo limite = new LimiteAdaptativo(1, 1, 1, 0, Duration.ZERO);
+            ClientePokeApi cliente = new ClientePokeApi(new SimpleMeterRegistry(), api.url(), List.of(),
+                    Duration.ofSeconds(5), limite, null, new CacheDiscoPokeApi(diretorio, 1024 * 1024, Duration.ofHours(1)));
+            String primeira = cliente.buscar("/pokemon/25").toString();
+
+            assertTrue(limite.adquirir());
+            try {
+                assertEquals(primeira, cliente.buscar("/pokemon/25").toString());
+                assertThrows(ServicoSobrecarregadoException.class, () -> cliente.buscar("/pokemon/26"));
+            } finally {
+                limite.liberar(0, LimiteAdaptativo.Desfecho.IGNORAR);
+            }
+            assertEquals(1, api.chamadas());
+        }
+    }
+
+    @Test
+    @DisplayName("Acima do limite de bytes sai a entrada menos usada")
+    void despejaMenosUsada() {
+        CacheDiscoPokeApi cache = new CacheDiscoPokeApi(diretorio, 5_000, Duration.ofHours(1));
+        for (int i = 1; i <= 4; i++) cache.gravar("/pokemon/" + i, entrada(i));
+        assertEquals(4, cache.getEntradas());
+        assertNotNull(cache.ler("/pokemon/1"));
+
+        cache.gravar("/pokemon/5", entrada(5));
+        assertTrue(cache.getBytes() <= 5_000, cache.getBytes() + " bytes");
+        assertNotNull(cache.ler("/pokemon/1"), "lida há pouco, fica");
+        assertNull(cache.ler("/pokemon/2"), "a menos usada sai");
+
+        CacheDiscoPokeApi reaberto = new CacheDiscoPokeApi(diretorio, 5_000, Duration.ofHours(1));
+        assertEquals(cache.getEntradas(), reaberto.getEntradas());
+        assertArrayEquals(entrada(5).corpo(), reaberto.ler("/pokemon/5").corpo());
+    }
+
+    @Test
+    @DisplayName("Cache-Control define a validade; no-store não é guardado")
+    void cacheControl() {
+        CacheDiscoPokeApi cache = new CacheDiscoPokeApi(diretorio, 5_000, Duration.ofHours(1));
+        long agora = System.currentTimeMillis();
+
+        CacheDiscoPokeApi.Entrada maxAge = cache.entrada(new byte[0],
+                cabecalhos(Map.of("Cache-Control", "public, max-age=60", "Age", "20", "ETag", "\"a\"")), null);
+        assertEquals(agora + 40_000, maxAge.expiraEm(), 1_000);
+        assertEquals("\"a\"", maxAge.etag());
+
+        CacheDiscoPokeApi.Entrada semDiretiva = cache.entrada(new byte[0], cabecalhos(Map.of()), maxAge);
+        assertEquals(agora + 3_600_000, semDiretiva.expiraEm(), 1_000);
+        assertEquals("\"a\"", semDiretiva.etag(), "304 sem ETag mantém a anterior");
+
+        assertFalse(cache.entrada(new byte[0], cabecalhos(Map.of("Cache-Control", "no-cache")), null)
+                .fresca(System.currentTimeMillis()));
+        assertNull(cache.entrada(new byte[0], cabecalhos(Map.of("Cache-Control", "no-store")), null));
+    }
+
+    private ClientePokeApi cliente(PokeApiFalsa api) {
+        return new ClientePokeApi(new SimpleMeterRegistry(), api.url(), List.of(), Duration.ofSeconds(5),
+                new LimiteAdaptativo(8, 8, 8, 0, Duration.ZERO), null,
+                new CacheDiscoPokeApi(diretorio, 1024 * 1024, Duration.ofHours(1)));
+    }
+
+    /** Corpo aleatório de 1 000 bytes: o gzip não o encolhe, então cada entrada ocupa ~1 KB. */
+    private static CacheDiscoPokeApi.Entrada entrada(int semente) {
+        byte[] corpo = new byte[1_000];
+        new Random(semente).nextBytes(corpo);
+        return new CacheDiscoPokeApi.Entrada(corpo, null, null, Long.MAX_VALUE);
+    }
+
+    private static HttpHeaders cabecalhos(Map<String, String> valores) {
+        Map<String, List<String>> listas = new HashMap<>();
+        valores.forEach((k, v) -> listas.put(k, List.of(v)));
+        return HttpHeaders.of(listas, (k, v) -> true);
+    }
+}
@@ -0,0 +1,75 @@
+package com.centropokemon.service;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.model.PokemonDescricao;
+import com.centropokemon.model.PokemonStats;
+import com.centropokemon.model.Tipo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Custo por requisição de serializar a entidade completa com Jackson contra
+ * buscar o corpo pronto no {@link CachePokedexService} (tempo e bytes
+ * alocados por operação, numa thread). Não roda no {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=CachePokedexBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class CachePokedexBenchmark {
+
+    private static final int OPERACOES = 200_000;
+
+    @Test
+    void medir() throws Exception {
+        Pokemon p = new Pokemon();
+        p.setId(1);
+        p.setPokeApiId(6);
+        p.setNomeEn("charizard");
+        p.setNomePt("Charizard");
+        p.setSpriteUrl("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/6.png");
+        p.setAltura(1.7);
+        p.setPeso(90.5);
+        p.setVidaAtual(78);
+        p.setVidaMaxima(78);
+        p.setHabilidades(List.of("blaze", "solar-power"));
+        Tipo fogo = new Tipo();
+        fogo.setId(1); fogo.setNome("Fogo"); fogo.setNomePt("Fogo"); fogo.setNomeEn("fire");
+        Tipo voador = new Tipo();
+        voador.setId(2); voador.setNome("Voador"); voador.setNomePt("Voador"); voador.setNomeEn("flying");
+        p.setTipos(List.of(fogo, voador));
+        PokemonStats stats = new PokemonStats(p, 78, 84, 78, 100, 109, 85);
+        p.setStats(stats);
+        p.setDescricoes(List.of(new PokemonDescricao(p,
+                "Cospe fogo quente o suficiente para derreter pedregulhos. Pode causar incêndios florestais.",
+                "Spits fire that is hot enough to melt boulders. Known to cause forest fires unintentionally.")));
+
+        ObjectMapper json = new ObjectMapper();
+        CachePokedexService cache = new CachePokedexService(new SimpleMeterRegistry(), new VersaoRecursoService(null, Duration.ofHours(1), 100), Duration.ofHours(1), 100);
+        String chave = VersaoRecursoService.chaveId(6);
+        byte[] corpo = json.writeValueAsBytes(p);
+        cache.guardar(p, chave, "json", corpo, VersaoRecursoService.etagConteudo(p));
+
+        System.out.printf("%nCorpo JSON: %d bytes%n%-22s %10s %14s%n", corpo.length, "cenário", "ns/op", "bytes aloc./op");
+        for (int rodada = 0; rodada < 2; rodada++) {
+            medir("Jackson (entidade)", () -> json.writeValueAsBytes(p));
+            medir("cache (byte[])", () -> cache.buscar(chave, "json").corpo());
+        }
+    }
+
+    private interface Operacao { byte[] executar() throws Exception; }
+
+    private static void medir(String nome, Operacao op) throws Exception {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long soma = 0;
+        for (int i = 0; i < OPERACOES; i++) soma += op.executar().length;
+        long alocAntes = mx.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < OPERACOES; i++) soma += op.executar().length;
+        long nanos = System.nanoTime() - inicio;
+        long alocados = mx.getCurrentThreadAllocatedBytes() - alocAntes;
+        System.out.printf("%-22s %10.0f %14d   (%d)%n", nome, (double) nanos / OPERACOES, alocados / OPERACOES, soma % 10);
+    }
+}
@@ -0,0 +1,53 @@
+package com.centropokemon.service;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.service.CachePokedexService.Corpo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePokedexServiceTest {
+
+    private static Pokemon pikachu() {
+        Pokemon p = new Pokemon();
+        p.setPokeApiId(25);
+        p.setNomeEn("pikachu");
+        p.setNomePt("Pikachu");
+        return p;
+    }
+
+    @Test
+    @DisplayName("Corpo guardado por uma rota vale para nome e ID e cai inteiro na invalidação")
+    void guardarEInvalidar() {
+        CachePokedexService cache = new CachePokedexService(new SimpleMeterRegistry(), new VersaoRecursoService(null, Duration.ofHours(1), 100), Duration.ofHours(1), 100);
+        byte[] json = "{\"pokeApiId\":25}".getBytes(StandardCharsets.UTF_8);
+        cache.guardar(pikachu(), VersaoRecursoService.chaveNome("25"), "json", json, "\"pk-1\"");
+
+        Corpo porId = cache.buscar(VersaoRecursoService.chaveId(25), "json");
+        assertSame(json, porId.corpo());
+        assertEquals("\"pk-1\"", porId.etag());
+        assertSame(porId, cache.buscar(VersaoRecursoService.chaveNome("Pikachu"), "json"));
+        assertSame(porId, cache.buscar(VersaoRecursoService.chaveNome("25"), "json"));
+        assertNull(cache.buscar(VersaoRecursoService.chaveId(25), "cbor"));
+
+        cache.invalidar(26);
+        assertNotNull(cache.buscar(VersaoRecursoService.chaveId(25), "json"));
+        cache.invalidar(25);
+        assertNull(cache.buscar(VersaoRecursoService.chaveId(25), "json"));
+        assertNull(cache.buscar(VersaoRecursoService.chaveNome("25"), "json"));
+    }
+
+    @Test
+    @DisplayName("Corpo expira junto com a ETag")
+    void expira() {
+        CachePokedexService cache = new CachePokedexService(new SimpleMeterRegistry(), new VersaoRecursoService(null, Duration.ofHours(1), 100), Duration.ZERO, 100);
+        cache.guardar(pikachu(), VersaoRecursoService.chaveId(25), "json", new byte[]{'{', '}'}, "\"pk-1\"");
+
+        assertNull(cache.buscar(VersaoRecursoService.chaveId(25), "json"));
+    }
+}
@@ -26,12 +26,13 @@ class CadastroPokemonServiceTest {
     @Mock private PokemonRepository pokemons;
     @Mock private TreinadorRepository treinadores;
     @Mock private TipoRepository tiposRepo;
+    @Mock private EventosTreinadorService eventos;
 
     private CadastroPokemonService service;
 
     @BeforeEach
     void setup() {
-        service = new CadastroPokemonService(pokemons, treinadores, tiposRepo);
+        service = new CadastroPokemonService(pokemons, treinadores, tiposRepo, eventos);
     }
 
     @Test
@@ -0,0 +1,131 @@
+package com.centropokemon.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventosTreinadorServiceTest {
+
+    @Test
+    @DisplayName("Painel que não acompanha é desligado quando a fila passa do buffer; quem publica não espera")
+    void assinanteLentoDesligado() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        ExecutorService envio = Executors.newSingleThreadExecutor();
+        CountDownLatch travado = new CountDownLatch(1);
+        envio.execute(() -> {
+            try {
+                travado.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        EventosTreinadorService eventos = new EventosTreinadorService(metricas, envio, 4, 5,
+                Duration.ofMinutes(1), Duration.ofHours(1));
+        eventos.assinar(7);
+        eventos.assinar(8);
+        assertEquals(2, eventos.getAssinantes());
+
+        // "conectado" + 3 eventos cabem no buffer de 4
+        for (int i = 0; i < 3; i++) eventos.publicar(7, EventosTreinadorService.POKEMON_ADICIONADO, Map.of("i", i));
+        assertEquals(2, eventos.getAssinantes());
+
+        long inicio = System.nanoTime();
+        eventos.publicar(7, EventosTreinadorService.POKEMON_ADICIONADO, Map.of("i", 3));
+        assertTrue(System.nanoTime() - inicio < 50_000_000L, "publicar não bloqueia no envio");
+        assertEquals(1, eventos.getAssinantes(), "só o painel do treinador 7 sai");
+        assertEquals(1.0, metricas.get("centro.eventos.desligados").tag("motivo", "lento").counter().count());
+
+        // eventos para o painel desligado são descartados sem erro
+        eventos.publicar(7, EventosTreinadorService.POKEMON_REMOVIDO, Map.of());
+        travado.countDown();
+        eventos.encerrar();
+        assertEquals(0, eventos.getAssinantes());
+    }
+
+    @Test
+    @DisplayName("Acima do limite por treinador a conexão mais antiga é encerrada")
+    void limitePorTreinador() {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        EventosTreinadorService eventos = new EventosTreinadorService(metricas, 1, 8, 2,
+                Duration.ofMinutes(1), Duration.ofHours(1));
+        SseEmitter primeira = eventos.assinar(3);
+        SseEmitter segunda = eventos.assinar(3);
+        SseEmitter terceira = eventos.assinar(3);
+
+        assertNotSame(primeira, terceira);
+        assertNotSame(segunda, terceira);
+        assertEquals(2, eventos.getAssinantes());
+        assertEquals(1.0, metricas.get("centro.eventos.desligados").tag("motivo", "excesso").counter().count());
+        eventos.encerrar();
+    }
+
+    @Test
+    @DisplayName("Assinatura que cruza com a saída do último painel continua recebendo eventos")
+    void assinarCruzandoComSaida() {
+        ExecutorService envio = Executors.newSingleThreadExecutor();
+        CountDownLatch travado = new CountDownLatch(1);
+        envio.execute(() -> {
+            try {
+                travado.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // Roda a saída logo depois de o assinar localizar o conjunto do treinador,
+        // o ponto em que outra thread pode tirar o último painel
+        AtomicReference<Runnable> depoisDeLocalizar = new AtomicReference<>();
+        ConcurrentMap<Integer, Set<EventosTreinadorService.Assinante>> mapa = new ConcurrentHashMap<>() {
+            @Override
+            public Set<EventosTreinadorService.Assinante> computeIfAbsent(Integer k,
+                    Function<? super Integer, ? extends Set<EventosTreinadorService.Assinante>> f) {
+                Set<EventosTreinadorService.Assinante> s = super.computeIfAbsent(k, f);
+                intercalar();
+                return s;
+            }
+
+            @Override
+            public Set<EventosTreinadorService.Assinante> compute(Integer k,
+                    BiFunction<? super Integer, ? super Set<EventosTreinadorService.Assinante>,
+                            ? extends Set<EventosTreinadorService.Assinante>> f) {
+                Set<EventosTreinadorService.Assinante> s = super.compute(k, f);
+                intercalar();
+                return s;
+            }
+
+            private void intercalar() {
+                Runnable r = depoisDeLocalizar.getAndSet(null);
+                if (r != null) r.run();
+            }
+        };
+        // buffer 2 com o envio travado: o painel antigo ("conectado" + 1 evento) sai na próxima publicação
+        EventosTreinadorService eventos = new EventosTreinadorService(new SimpleMeterRegistry(), envio, 2, 5,
+                Duration.ofMinutes(1), Duration.ofHours(1), mapa);
+        eventos.assinar(7);
+        eventos.publicar(7, EventosTreinadorService.POKEMON_ADICIONADO, Map.of());
+
+        depoisDeLocalizar.set(() -> eventos.publicar(7, EventosTreinadorService.POKEMON_REMOVIDO, Map.of()));
+        eventos.assinar(7);
+        assertEquals(1, eventos.getAssinantes(), "o antigo saiu, o novo entrou");
+
+        // o novo painel ("conectado" + 1 evento) só é alcançado se estiver no mapa
+        eventos.publicar(7, EventosTreinadorService.POKEMON_ADICIONADO, Map.of());
+        assertEquals(0, eventos.getAssinantes(), "nova assinatura ficou fora do alcance de publicar");
+        travado.countDown();
+        eventos.encerrar();
+    }
+}
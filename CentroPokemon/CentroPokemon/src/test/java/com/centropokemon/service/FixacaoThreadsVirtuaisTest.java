@@ -0,0 +1,94 @@
+package com.centropokemon.service;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.repository.PokemonRepository;
+import com.centropokemon.repository.TipoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Os caminhos que esperam E/S não podem fixar (pin) a thread virtual na
+ * portadora: o JFR registra {@code jdk.VirtualThreadPinned} sempre que uma
+ * thread virtual estaciona dentro de {@code synchronized} ou código nativo.
+ * O teste roda a carga em threads virtuais contra uma PokeAPI lenta e exige
+ * zero eventos.
+ */
+class FixacaoThreadsVirtuaisTest {
+
+    private static final int REQUISICOES = 64;
+
+    @Test
+    @DisplayName("PokeAPI, lote e eventos em threads virtuais não fixam a portadora")
+    void semFixacao() throws Exception {
+        PokemonRepository pokemons = mock(PokemonRepository.class);
+        when(pokemons.save(any())).thenAnswer(i -> i.getArgument(0));
+        TipoRepository tipos = mock(TipoRepository.class);
+        when(tipos.save(any())).thenAnswer(i -> i.getArgument(0));
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        LotePokedexService lotes = new LotePokedexService(metricas, 8, 256, 10_000, 50);
+        EventosTreinadorService eventos = new EventosTreinadorService(metricas, 2, 32, 5,
+                Duration.ofMinutes(1), Duration.ofHours(1));
+        eventos.assinar(1);
+
+        ConcurrentLinkedQueue<RecordedEvent> fixacoes = new ConcurrentLinkedQueue<>();
+        try (PokeApiFalsa api = new PokeApiFalsa(30);
+             RecordingStream jfr = new RecordingStream();
+             ExecutorService requisicoes = Executors.newVirtualThreadPerTaskExecutor()) {
+            DataInicializacao pokeApi = new DataInicializacao(pokemons, tipos, mock(CachePokedexService.class),
+                    api.cliente(Duration.ofSeconds(5)));
+            jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            jfr.onEvent("jdk.VirtualThreadPinned", fixacoes::add);
+            jfr.startAsync();
+
+            List<Future<Pokemon>> diretas = IntStream.rangeClosed(1, REQUISICOES)
+                    .mapToObj(i -> requisicoes.submit(() -> {
+                        Pokemon p = pokeApi.carregarPokemon(String.valueOf(i));
+                        eventos.publicar(1, EventosTreinadorService.POKEMON_ADICIONADO, Map.of("id", i));
+                        return p;
+                    }))
+                    .toList();
+            Future<Map<String, LotePokedexService.Resultado<Pokemon>>> lote = requisicoes.submit(() ->
+                    lotes.resolver(IntStream.rangeClosed(1, 16).mapToObj(String::valueOf).toList(),
+                            pokeApi::carregarPokemon));
+            for (Future<Pokemon> f : diretas) {
+                assertNotNull(f.get(), "PokeAPI falsa devolveu o Pokémon");
+            }
+            assertTrue(lote.get().values().stream()
+                    .allMatch(r -> r.situacao() == LotePokedexService.Situacao.OK));
+            assertEquals((REQUISICOES + 16) * 2, api.chamadas());
+            jfr.stop();
+        } finally {
+            lotes.encerrar();
+            eventos.encerrar();
+        }
+        assertTrue(fixacoes.isEmpty(), () -> fixacoes.size() + " fixações:\n" + fixacoes.stream()
+                .map(FixacaoThreadsVirtuaisTest::pilha).collect(Collectors.joining("\n---\n")));
+    }
+
+    private static String pilha(RecordedEvent e) {
+        if (e.getStackTrace() == null) return e.toString();
+        return e.getStackTrace().getFrames().stream().limit(12)
+                .map(RecordedFrame::getMethod)
+                .map(m -> m.getType().getName() + "." + m.getName())
+                .collect(Collectors.joining("\n  "));
+    }
+}
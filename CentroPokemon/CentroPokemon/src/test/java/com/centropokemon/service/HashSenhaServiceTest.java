@@ -0,0 +1,61 @@
+package com.centropokemon.service;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashSenhaServiceTest {
+
+    @Test
+    @DisplayName("Hash de custo menor que o atual precisa de rehash")
+    void precisaRehash() {
+        HashSenhaService s = new HashSenhaService(new SimpleMeterRegistry(), 1, 4, 5000, 0, 5);
+        try {
+            assertTrue(s.precisaRehash("texto-claro"));
+            assertTrue(s.precisaRehash(new BCryptPasswordEncoder(4).encode("x")));
+            assertFalse(s.precisaRehash(s.gerarHash("x")));
+        } finally {
+            s.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Rajada acima da fila é rejeitada com sobrecarga em vez de acumular")
+    void rajadaRejeitada() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        HashSenhaService s = new HashSenhaService(metricas, 1, 1, 5000, 0, 12);
+        ExecutorService clientes = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(clientes.submit(() -> s.gerarHash("senha")));
+            }
+            int rejeitadas = 0;
+            for (Future<String> f : resultados) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ServicoSobrecarregadoException.class, e.getCause());
+                    rejeitadas++;
+                }
+            }
+            assertTrue(rejeitadas > 0);
+            assertEquals(rejeitadas, metricas.get("centro.senhas.rejeitadas").counters().stream()
+                    .mapToDouble(c -> c.count()).sum());
+        } finally {
+            clientes.shutdownNow();
+            s.encerrar();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.centropokemon.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latência do {@link ClientePokeApi} com e sem hedge contra uma PokeAPI
+ * local de cauda longa: {@code ATRASO_MS} normalmente e, em
+ * {@code FRACAO_LENTA} das requisições, {@code LENTO_MS} a mais.
+ * {@code CLIENTES} threads virtuais fazem {@code CHAMADAS} chamadas no
+ * total; imprime p50/p99/p99,9/máximo e a carga extra. Não roda no
+ * {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=HedgeBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class HedgeBenchmark {
+
+    private static final long ATRASO_MS = 10;
+    private static final double FRACAO_LENTA = 0.02;
+    private static final long LENTO_MS = 500;
+    private static final int CLIENTES = 8;
+    private static final int CHAMADAS = 4_000;
+
+    @Test
+    void comparar() throws Exception {
+        System.out.printf("%nPokeAPI: %d ms, %.0f%% das requisições +%d ms; %d clientes, %d chamadas%n",
+                ATRASO_MS, FRACAO_LENTA * 100, LENTO_MS, CLIENTES, CHAMADAS);
+        System.out.printf("%-18s %8s %8s %8s %8s %8s %10s%n", "", "p50", "p99", "p99,9", "máx", "extra", "hedge");
+        rodar("sem hedge", null, false);
+        rodar("hedge p95", new PoliticaHedge(0.95, 0.05, Duration.ofMillis(1), 100), false);
+        rodar("hedge p95 espelho", new PoliticaHedge(0.95, 0.05, Duration.ofMillis(1), 100), true);
+    }
+
+    private static void rodar(String nome, PoliticaHedge politica, boolean comEspelho) throws Exception {
+        try (PokeApiFalsa api = new PokeApiFalsa(ATRASO_MS);
+             PokeApiFalsa espelho = new PokeApiFalsa(ATRASO_MS)) {
+            api.cauda(FRACAO_LENTA, LENTO_MS, 1);
+            espelho.cauda(FRACAO_LENTA, LENTO_MS, 2);
+            ClientePokeApi cliente = new ClientePokeApi(new SimpleMeterRegistry(), api.url(),
+                    comEspelho ? List.of(espelho.url()) : List.of(), Duration.ofSeconds(5),
+                    new LimiteAdaptativo(10_000, 10_000, 10_000, 0, Duration.ZERO), politica);
+            long[] latencias = new long[CHAMADAS];
+            AtomicInteger proxima = new AtomicInteger();
+            try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < CLIENTES; c++) {
+                    clientes.execute(() -> {
+                        for (int i; (i = proxima.getAndIncrement()) < CHAMADAS; ) {
+                            long inicio = System.nanoTime();
+                            cliente.buscar("/pokemon/" + (1 + i % 151));
+                            latencias[i] = System.nanoTime() - inicio;
+                        }
+                    });
+                }
+            }
+            Arrays.sort(latencias);
+            int enviadas = api.chamadas() + espelho.chamadas();
+            System.out.printf("%-18s %8.1f %8.1f %8.1f %8.1f %7.1f%% %10s%n", nome,
+                    ms(latencias, 0.50), ms(latencias, 0.99), ms(latencias, 0.999),
+                    latencias[CHAMADAS - 1] / 1e6, 100.0 * (enviadas - CHAMADAS) / CHAMADAS,
+                    politica == null ? "-" : politica.toString().split(" ")[0]);
+        }
+    }
+
+    private static double ms(long[] ordenadas, double percentil) {
+        return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,46 @@
+package com.centropokemon.service;
+
+import com.centropokemon.service.IndiceGritosService.Grito;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceGritosServiceTest {
+
+    @Test
+    @DisplayName("Os vários padrões de nome viram ID e forma")
+    void interpretar() {
+        assertEquals(new Grito(25, null, "a/SE_PV025.wav"), IndiceGritosService.interpretar("a/SE_PV025.wav"));
+        assertEquals(new Grito(86, null, "a/086.wav"), IndiceGritosService.interpretar("a/086.wav"));
+        assertEquals(new Grito(904, null, "a/904 - Overqwil.wav"), IndiceGritosService.interpretar("a/904 - Overqwil.wav"));
+        assertEquals("therian", IndiceGritosService.interpretar("a/905T - Enamorus (Therian).wav").forma());
+        assertEquals("pa-u", IndiceGritosService.interpretar("a/741C - Oricorio (Pa'u).wav").forma());
+        assertEquals("dusk", IndiceGritosService.interpretar("a/745U - Lycanroc (Dusk Form).wav").forma());
+        assertEquals(1008, IndiceGritosService.interpretar("a/1008LM - Miraidon (Low-Power Mode).wav").id());
+        assertNull(IndiceGritosService.interpretar("a/Play_PV_892_00_03.wav").forma());
+        assertEquals("1", IndiceGritosService.interpretar("a/Play_PV_892_01_00.wav").forma());
+        assertNull(IndiceGritosService.interpretar("a/SE_PV_KURONO_RASUTO.wav"));
+        assertNull(IndiceGritosService.interpretar("a/NULL.wav"));
+    }
+
+    @Test
+    @DisplayName("A varredura do classpath resolve por ID em O(1), respeita a ordem das pastas e gera o manifesto")
+    void indiceReal() throws Exception {
+        IndiceGritosService indice = new IndiceGritosService(new ObjectMapper(), new AcervoSonsService(new ObjectMapper(), "", ""));
+
+        assertEquals("cries/cries/Generation 1/SE_PV025.wav", indice.buscar(25, null));
+        assertEquals("cries/cries (11)/Pokémon Cries (Legends Arceus)/905T - Enamorus (Therian).wav",
+                indice.buscar(905, "Therian"));
+        assertEquals(indice.buscar(741, "baile"), indice.buscar(741, null));
+        assertNull(indice.buscar(99_999, null));
+        assertNull(indice.buscar(25, "inexistente"));
+
+        JsonNode manifesto = new ObjectMapper().readTree(indice.getManifesto());
+        assertEquals(indice.buscar(25, null), manifesto.get("gritos").get("25").asText());
+        assertTrue(manifesto.get("total").asInt() > 1000);
+        assertTrue(indice.getManifestoGzip().length < indice.getManifesto().length / 4);
+    }
+}
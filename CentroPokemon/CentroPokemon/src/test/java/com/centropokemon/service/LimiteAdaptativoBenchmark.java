@@ -0,0 +1,83 @@
+package com.centropokemon.service;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulação do {@link ClientePokeApi} contra uma PokeAPI local que atende
+ * bem até {@code CAPACIDADE} chamadas simultâneas, fica mais lenta acima
+ * disso ({@code MS_POR_EXCESSO} por chamada a mais) e responde 429 acima de
+ * {@code TETO}. {@code CLIENTES} threads virtuais chamam sem parar; compara
+ * o limite adaptativo com limites fixos baixo e alto e imprime a evolução
+ * do limite adaptativo. Não roda no {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=LimiteAdaptativoBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class LimiteAdaptativoBenchmark {
+
+    private static final int CAPACIDADE = 12;
+    private static final long ATRASO_MS = 20;
+    private static final long MS_POR_EXCESSO = 4;
+    private static final int TETO = 48;
+    private static final int CLIENTES = 128;
+    private static final Duration DURACAO = Duration.ofSeconds(8);
+
+    @Test
+    void simular() throws Exception {
+        try (PokeApiFalsa api = new PokeApiFalsa(ATRASO_MS)) {
+            api.carga(CAPACIDADE, MS_POR_EXCESSO, TETO);
+            System.out.printf("%nPokeAPI: %d ms até %d simultâneas, +%d ms por chamada a mais, 429 acima de %d; %d clientes%n",
+                    ATRASO_MS, CAPACIDADE, MS_POR_EXCESSO, TETO, CLIENTES);
+            System.out.printf("%-12s %8s %8s %8s %12s %8s%n", "limite", "ok/s", "429", "503", "latência ms", "final");
+            rodar(api, "fixo 4", new LimiteAdaptativo(4, 4, 4, CLIENTES, Duration.ofSeconds(2)), false);
+            rodar(api, "fixo 64", new LimiteAdaptativo(64, 64, 64, CLIENTES, Duration.ofSeconds(2)), false);
+            rodar(api, "adaptativo", new LimiteAdaptativo(4, 2, 64, CLIENTES, Duration.ofSeconds(2)), true);
+        }
+    }
+
+    private static void rodar(PokeApiFalsa api, String nome, LimiteAdaptativo limite, boolean evolucao)
+            throws Exception {
+        ClientePokeApi cliente = new ClientePokeApi(new SimpleMeterRegistry(), api.url(), Duration.ofSeconds(5), limite);
+        int recusadasAntes = api.recusadas();
+        LongAdder sucessos = new LongAdder();
+        LongAdder rttTotal = new LongAdder();
+        AtomicInteger sobrecarga = new AtomicInteger();
+        long inicio = System.nanoTime();
+        long fim = inicio + DURACAO.toNanos();
+        StringBuilder linhas = new StringBuilder();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTES; c++) {
+                int id = c;
+                clientes.execute(() -> {
+                    while (System.nanoTime() < fim) {
+                        long t0 = System.nanoTime();
+                        try {
+                            if (cliente.buscar("/pokemon/" + (1 + id % 151)) != null) {
+                                sucessos.increment();
+                                rttTotal.add(System.nanoTime() - t0);
+                            }
+                        } catch (ServicoSobrecarregadoException e) {
+                            sobrecarga.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            while (evolucao && System.nanoTime() < fim) {
+                Thread.sleep(500);
+                linhas.append(String.format("  t=%4.1fs %s%n", (System.nanoTime() - inicio) / 1e9, limite));
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long ok = sucessos.sum();
+        System.out.printf("%-12s %8.0f %8d %8d %12.1f %8.1f%n", nome, ok / segundos,
+                api.recusadas() - recusadasAntes, sobrecarga.get(),
+                ok == 0 ? 0 : rttTotal.sum() / 1e6 / ok, limite.getLimite());
+        System.out.print(linhas);
+    }
+}
@@ -0,0 +1,73 @@
+package com.centropokemon.service;
+
+import com.centropokemon.service.LimiteAdaptativo.Desfecho;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteAdaptativoTest {
+
+    @Test
+    @DisplayName("Converge para a capacidade de um serviço cuja latência sobe com a carga")
+    void convergeParaCapacidade() throws Exception {
+        // serviço simulado: 10 ms até 8 chamadas simultâneas, +5 ms por chamada além disso
+        int capacidade = 8;
+        AtomicInteger emCurso = new AtomicInteger();
+        AtomicInteger pico = new AtomicInteger();
+        LimiteAdaptativo limite = new LimiteAdaptativo(2, 1, 200, 1_000, Duration.ofSeconds(5));
+        long fim = System.nanoTime() + Duration.ofMillis(2_500).toNanos();
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < 64; c++) {
+                clientes.execute(() -> {
+                    while (System.nanoTime() < fim) {
+                        try {
+                            if (!limite.adquirir()) continue;
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        int atual = emCurso.incrementAndGet();
+                        pico.accumulateAndGet(atual, Math::max);
+                        long inicio = System.nanoTime();
+                        try {
+                            Thread.sleep(10 + 5L * Math.max(0, atual - capacidade));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            emCurso.decrementAndGet();
+                            limite.liberar(System.nanoTime() - inicio, Desfecho.SUCESSO);
+                        }
+                    }
+                });
+            }
+        }
+
+        double obtido = limite.getLimite();
+        assertTrue(obtido >= capacidade * 0.75 && obtido <= capacidade * 3, "limite final " + limite);
+        assertTrue(pico.get() < 64, "64 clientes, pico de " + pico.get() + " chamadas simultâneas");
+        assertEquals(0, limite.getEmVoo());
+    }
+
+    @Test
+    @DisplayName("Sobrecarga recua o limite; fila cheia recusa na hora")
+    void recuoEFila() throws Exception {
+        LimiteAdaptativo limite = new LimiteAdaptativo(10, 2, 64, 0, Duration.ofSeconds(5));
+        for (int i = 0; i < 10; i++) assertTrue(limite.adquirir());
+
+        long inicio = System.nanoTime();
+        assertFalse(limite.adquirir(), "sem vaga e sem fila");
+        assertTrue(System.nanoTime() - inicio < 50_000_000L, "recusa não espera");
+
+        limite.liberar(1_000_000, Desfecho.SOBRECARGA);
+        assertEquals(8.0, limite.getLimite(), 1e-9);
+        for (int i = 0; i < 9; i++) limite.liberar(1_000_000, Desfecho.SOBRECARGA);
+        assertEquals(2.0, limite.getLimite(), 1e-9, "não passa do mínimo");
+        assertEquals(0, limite.getEmVoo());
+    }
+}
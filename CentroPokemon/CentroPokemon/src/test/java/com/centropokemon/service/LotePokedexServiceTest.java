@@ -0,0 +1,76 @@
+package com.centropokemon.service;
+
+import com.centropokemon.service.LotePokedexService.Resultado;
+import com.centropokemon.service.LotePokedexService.Situacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LotePokedexServiceTest {
+
+    @Test
+    @DisplayName("Faltas rodam em paralelo, sem passar do teto de concorrência, e voltam na ordem pedida")
+    void paralelismoLimitado() {
+        LotePokedexService lotes = new LotePokedexService(new SimpleMeterRegistry(), 4, 64, 5_000, 50);
+        AtomicInteger emCurso = new AtomicInteger();
+        AtomicInteger pico = new AtomicInteger();
+        List<String> chaves = IntStream.rangeClosed(1, 12).mapToObj(i -> "id:" + i).toList();
+
+        long inicio = System.nanoTime();
+        Map<String, Resultado<String>> r = lotes.resolver(chaves, chave -> {
+            pico.accumulateAndGet(emCurso.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                emCurso.decrementAndGet();
+            }
+            return chave.toUpperCase();
+        });
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        lotes.encerrar();
+
+        assertEquals(chaves, List.copyOf(r.keySet()));
+        r.forEach((chave, res) -> assertEquals(new Resultado<>(Situacao.OK, chave.toUpperCase()), res));
+        assertEquals(4, pico.get());
+        assertTrue(ms < 12 * 100, "12 faltas de 100 ms em " + ms + " ms");
+    }
+
+    @Test
+    @DisplayName("Cada item tem seu desfecho: não encontrado, erro, fila cheia e prazo esgotado")
+    void desfechosPorItem() {
+        LotePokedexService lotes = new LotePokedexService(new SimpleMeterRegistry(), 1, 1, 300, 50);
+        Map<String, Resultado<String>> r = lotes.resolver(List.of("lento", "nulo", "erro"), chave -> {
+            if (chave.equals("nulo")) return null;
+            if (chave.equals("erro")) throw new IllegalStateException("PokeAPI fora");
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return chave;
+        });
+        // uma thread presa no "lento", fila de 1 ocupada pelo "nulo": o "erro" nem entra
+        assertEquals(Situacao.TEMPO_ESGOTADO, r.get("lento").situacao());
+        assertEquals(Situacao.TEMPO_ESGOTADO, r.get("nulo").situacao());
+        assertEquals(Situacao.SOBRECARGA, r.get("erro").situacao());
+        lotes.encerrar();
+
+        lotes = new LotePokedexService(new SimpleMeterRegistry(), 2, 4, 1_000, 50);
+        Map<String, Resultado<String>> r2 = lotes.resolver(List.of("nulo", "erro"), chave -> {
+            if (chave.equals("nulo")) return null;
+            throw new IllegalStateException("PokeAPI fora");
+        });
+        lotes.encerrar();
+        assertEquals(Situacao.NAO_ENCONTRADO, r2.get("nulo").situacao());
+        assertEquals(Situacao.ERRO, r2.get("erro").situacao());
+    }
+}
@@ -0,0 +1,181 @@
+package com.centropokemon.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PokeAPI local para testes e benchmarks: responde {@code /pokemon/{id}} e
+ * {@code /pokemon-species/{id}} com o mínimo que {@link DataInicializacao}
+ * lê, depois de {@code atrasoMs}. Cada requisição é atendida em uma thread
+ * de plataforma própria: o atraso não limita a concorrência e o servidor
+ * não disputa portadoras com as threads virtuais do código medido.
+ * <p>
+ * Com {@link #carga} a latência sobe com o número de requisições em
+ * andamento, como em um serviço que enfileira, e acima de um teto ele
+ * responde 429. Com {@link #cauda} uma fração sorteada das requisições
+ * demora bem mais, como a cauda longa de latência de um serviço real.
+ * Com {@link #validadores} as respostas levam ETag e {@code max-age}, e
+ * um {@code If-None-Match} que confere recebe 304 sem corpo.
+ */
+public final class PokeApiFalsa implements AutoCloseable {
+
+    static {
+        // cabeçalho e corpo saem em escritas separadas; sem TCP_NODELAY o ACK atrasado soma ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer servidor;
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private final AtomicInteger emCurso = new AtomicInteger();
+    private final AtomicInteger recusadas = new AtomicInteger();
+    private final AtomicInteger naoModificadas = new AtomicInteger();
+    private volatile long atrasoMs;
+    private volatile int capacidade = Integer.MAX_VALUE;
+    private volatile long msPorExcesso;
+    private volatile int teto = Integer.MAX_VALUE;
+    private volatile Random sorteio;
+    private volatile double fracaoLenta;
+    private volatile long lentoMs;
+    private volatile long maxAgeSegundos = -1;
+
+    public PokeApiFalsa(long atrasoMs) throws IOException {
+        this.atrasoMs = atrasoMs;
+        this.servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        servidor.createContext("/", this::responder);
+        servidor.setExecutor(threads);
+        servidor.start();
+    }
+
+    /** @return URL base, no formato de {@code centro.pokeapi.url} */
+    public String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    /** @return requisições recebidas */
+    public int chamadas() {
+        return chamadas.get();
+    }
+
+    public void atraso(long ms) {
+        this.atrasoMs = ms;
+    }
+
+    /**
+     * Latência dependente da carga: {@code atraso + msPorExcesso × (emCurso − capacidade)}
+     * acima da capacidade, e 429 imediato acima de {@code teto} requisições em andamento.
+     */
+    public void carga(int capacidade, long msPorExcesso, int teto) {
+        this.capacidade = capacidade;
+        this.msPorExcesso = msPorExcesso;
+        this.teto = teto;
+    }
+
+    /**
+     * Cauda longa: cada requisição, com probabilidade {@code fracao}, demora
+     * {@code lentoMs} a mais. Sorteio com semente fixa, reprodutível quando
+     * as requisições chegam em ordem.
+     */
+    public void cauda(double fracao, long lentoMs, long semente) {
+        this.fracaoLenta = fracao;
+        this.lentoMs = lentoMs;
+        this.sorteio = new Random(semente);
+    }
+
+    /** Passa a responder com {@code ETag} e {@code Cache-Control: max-age}, e 304 para ETag que confere. */
+    public void validadores(long maxAgeSegundos) {
+        this.maxAgeSegundos = maxAgeSegundos;
+    }
+
+    /** @return respostas 304 dadas */
+    public int naoModificadas() {
+        return naoModificadas.get();
+    }
+
+    /** @return respostas 429 dadas */
+    public int recusadas() {
+        return recusadas.get();
+    }
+
+    /** @return cliente apontado para esta PokeAPI, com limite fixo (mínimo = máximo) alto o bastante para não interferir */
+    public ClientePokeApi cliente(Duration timeout) {
+        return new ClientePokeApi(new SimpleMeterRegistry(), url(), timeout,
+                new LimiteAdaptativo(10_000, 10_000, 10_000, 0, Duration.ZERO));
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        chamadas.incrementAndGet();
+        int atual = emCurso.incrementAndGet();
+        try {
+            if (atual > teto) {
+                recusadas.incrementAndGet();
+                troca.sendResponseHeaders(429, -1);
+                troca.close();
+                return;
+            }
+            Random cauda = sorteio;
+            long extra = cauda != null && cauda.nextDouble() < fracaoLenta ? lentoMs : 0;
+            Thread.sleep(atrasoMs + extra + msPorExcesso * Math.max(0, atual - capacidade));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            emCurso.decrementAndGet();
+        }
+        String[] partes = troca.getRequestURI().getPath().split("/");
+        String id = partes[partes.length - 1];
+        int numero = id.chars().allMatch(Character::isDigit) ? Integer.parseInt(id) : 25;
+        String corpo = switch (partes.length > 1 ? partes[partes.length - 2] : "") {
+            case "pokemon" -> """
+                    {"id":%d,"name":"pokemon-%d","height":4,"weight":60,
+                     "sprites":{"front_default":"https://img/%d.png"},
+                     "abilities":[{"ability":{"name":"static"}}],
+                     "types":[{"type":{"name":"electric"}}],
+                     "stats":[{"base_stat":35,"stat":{"name":"hp"}},{"base_stat":55,"stat":{"name":"attack"}}]}
+                    """.formatted(numero, numero, numero);
+            case "pokemon-species" -> """
+                    {"names":[{"name":"Pokémon %d","language":{"name":"pt-BR"}}],
+                     "flavor_text_entries":[{"flavor_text":"Solta faíscas.","language":{"name":"en"}}]}
+                    """.formatted(numero);
+            default -> null;
+        };
+        if (corpo == null) {
+            troca.sendResponseHeaders(404, -1);
+            troca.close();
+            return;
+        }
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        if (maxAgeSegundos >= 0) {
+            String etag = "\"" + Integer.toHexString(corpo.hashCode()) + "\"";
+            troca.getResponseHeaders().set("ETag", etag);
+            troca.getResponseHeaders().set("Cache-Control", "public, max-age=" + maxAgeSegundos);
+            if (etag.equals(troca.getRequestHeaders().getFirst("If-None-Match"))) {
+                naoModificadas.incrementAndGet();
+                troca.sendResponseHeaders(304, -1);
+                troca.close();
+                return;
+            }
+        }
+        troca.getResponseHeaders().set("Content-Type", "application/json");
+        troca.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
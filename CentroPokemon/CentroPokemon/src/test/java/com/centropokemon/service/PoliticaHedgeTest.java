@@ -0,0 +1,69 @@
+package com.centropokemon.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoliticaHedgeTest {
+
+    private static final LimiteAdaptativo SEM_LIMITE = new LimiteAdaptativo(10_000, 10_000, 10_000, 0, Duration.ZERO);
+
+    @Test
+    @DisplayName("Chamada na cauda ganha cópia no espelho, que responde primeiro")
+    void cortaACauda() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        try (PokeApiFalsa api = new PokeApiFalsa(5);
+             PokeApiFalsa espelho = new PokeApiFalsa(5)) {
+            api.cauda(0.04, 1_000, 42);
+            PoliticaHedge politica = new PoliticaHedge(0.95, 0.10, Duration.ofMillis(1), 20);
+            ClientePokeApi cliente = new ClientePokeApi(metricas, api.url(), List.of(espelho.url()),
+                    Duration.ofSeconds(5), SEM_LIMITE, politica);
+
+            long[] latencias = new long[300];
+            for (int i = 0; i < latencias.length; i++) {
+                long inicio = System.nanoTime();
+                assertNotNull(cliente.buscar("/pokemon/" + (1 + i % 151)));
+                latencias[i] = (System.nanoTime() - inicio) / 1_000_000;
+            }
+
+            long[] aquecido = Arrays.copyOfRange(latencias, 20, latencias.length);
+            Arrays.sort(aquecido);
+            assertTrue(aquecido[aquecido.length - 1] < 500,
+                    "maior latência " + aquecido[aquecido.length - 1] + " ms com cauda de 1 s (" + politica + ")");
+            double disparados = metricas.get("centro.pokeapi.hedge.disparados").counter().count();
+            assertTrue(disparados > 0);
+            // cópia cancelada antes de sair (a original respondeu logo depois) não chega ao espelho
+            assertTrue(espelho.chamadas() > 0 && espelho.chamadas() <= disparados, "cópias vão para o espelho");
+            assertTrue(metricas.get("centro.pokeapi.hedge.vencedores").counter().count() > 0);
+            assertTrue(disparados <= 0.10 * latencias.length + 10, disparados + " cópias");
+        }
+    }
+
+    @Test
+    @DisplayName("Com o serviço todo lento, o orçamento segura as cópias")
+    void orcamentoLimitaCopias() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        try (PokeApiFalsa api = new PokeApiFalsa(2)) {
+            api.cauda(0.5, 20, 7);
+            PoliticaHedge politica = new PoliticaHedge(0.5, 0.05, Duration.ofMillis(1), 20);
+            ClientePokeApi cliente = new ClientePokeApi(metricas, api.url(), List.of(),
+                    Duration.ofSeconds(5), SEM_LIMITE, politica);
+            int total = 150;
+            for (int i = 0; i < total; i++) {
+                assertNotNull(cliente.buscar("/pokemon/" + (1 + i % 151)));
+            }
+
+            double disparados = metricas.get("centro.pokeapi.hedge.disparados").counter().count();
+            assertTrue(disparados <= 0.05 * total + 10, disparados + " cópias em " + total + " chamadas");
+            assertTrue(metricas.get("centro.pokeapi.hedge.sem-orcamento").counter().count() > 0);
+            assertTrue(api.chamadas() > total && api.chamadas() <= total + disparados,
+                    "sem espelho, a cópia vai à própria url");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.centropokemon.service;
+
+import com.centropokemon.exception.PrazoEsgotadoException;
+import com.centropokemon.security.PrazoFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrazoTest {
+
+    @AfterEach
+    void limparPrazo() {
+        Prazo.limpar();
+    }
+
+    @Test
+    @DisplayName("Chamada à PokeAPI para no prazo da requisição, sem contar como sobrecarga")
+    void pokeApiRespeitaPrazo() throws Exception {
+        try (PokeApiFalsa api = new PokeApiFalsa(60_000)) {
+            LimiteAdaptativo limite = new LimiteAdaptativo(8, 2, 64, 16, Duration.ofSeconds(30));
+            ClientePokeApi cliente = new ClientePokeApi(new SimpleMeterRegistry(), api.url(), Duration.ofSeconds(30), limite);
+
+            Prazo.definir(Duration.ofMillis(300));
+            long inicio = System.nanoTime();
+            assertThrows(PrazoEsgotadoException.class, () -> cliente.buscar("/pokemon/25"));
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            assertTrue(ms < 2_000, "abandonada em " + ms + " ms com timeout de 30 s");
+            assertEquals(8.0, limite.getLimite(), 1e-9);
+            assertEquals(0, limite.getEmVoo());
+
+            int chamadas = api.chamadas();
+            assertThrows(PrazoEsgotadoException.class, () -> cliente.buscar("/pokemon/26"));
+            assertEquals(chamadas, api.chamadas(), "prazo esgotado não sai para a PokeAPI");
+        }
+    }
+
+    @Test
+    @DisplayName("X-Prazo-Ms encurta o prazo padrão da rota, mas não o estende")
+    void cabecalhoEncurtaPrazo() throws Exception {
+        PrazoFilter filtro = new PrazoFilter(new MockEnvironment(), new SimpleMeterRegistry(), true);
+
+        assertEquals(150, restanteNoController(filtro, "150"), 50);
+        assertEquals(5_000, restanteNoController(filtro, "600000"), 50);
+        assertEquals(5_000, restanteNoController(filtro, null), 50);
+        assertFalse(Prazo.definido(), "prazo não vaza para a próxima requisição da thread");
+    }
+
+    /** @return ms de prazo que o controller de uma rota local enxerga */
+    private static long restanteNoController(PrazoFilter filtro, String cabecalho) throws Exception {
+        AtomicLong restante = new AtomicLong();
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/treinadores/1/pokemons");
+        if (cabecalho != null) req.addHeader(PrazoFilter.CABECALHO, cabecalho);
+        FilterChain controller = (q, s) -> restante.set(Prazo.restanteNanos() / 1_000_000);
+        filtro.doFilter(req, new MockHttpServletResponse(), controller);
+        return restante.get();
+    }
+}
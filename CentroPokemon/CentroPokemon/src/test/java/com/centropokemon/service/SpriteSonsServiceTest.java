@@ -0,0 +1,90 @@
+package com.centropokemon.service;
+
+import com.centropokemon.service.SpriteSonsService.Quadros;
+import com.centropokemon.service.SpriteSonsService.Sprite;
+import com.centropokemon.service.SpriteSonsService.Trecho;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpriteSonsServiceTest {
+
+    private static byte[] som(String nome) throws IOException {
+        try (InputStream in = new ClassPathResource("static/sons/" + SpriteSonsService.PASTA + "/" + nome).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("Quadros MPEG-2 Layer III são lidos pelo cabeçalho, sem tags ID3")
+    void quadros() throws IOException {
+        byte[] clique = som("btnClick01.mp3");
+        Quadros q = SpriteSonsService.quadros(clique);
+        assertNotNull(q);
+        assertEquals(22050, q.formato().taxa());
+        assertEquals(576, q.formato().amostrasPorQuadro());
+        assertEquals(8, q.quantidade());
+        assertArrayEquals(clique, q.dados());
+
+        byte[] comTags = new byte[10 + clique.length + 128];
+        comTags[0] = 'I'; comTags[1] = 'D'; comTags[2] = '3';
+        System.arraycopy(clique, 0, comTags, 10, clique.length);
+        comTags[10 + clique.length] = 'T'; comTags[11 + clique.length] = 'A'; comTags[12 + clique.length] = 'G';
+        assertArrayEquals(clique, SpriteSonsService.quadros(comTags).dados());
+
+        assertNull(SpriteSonsService.quadros(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    @DisplayName("O sprite concatena os sons com silêncio entre eles e deixa formatos diferentes avulsos")
+    void montar() throws IOException {
+        Map<String, byte[]> arquivos = new TreeMap<>();
+        for (String nome : new String[]{"btnClick01.mp3", "grass.mp3", "key.mp3", "open.mp3"}) {
+            arquivos.put(nome, som(nome));
+        }
+        Sprite sprite = SpriteSonsService.montar(arquivos, new ObjectMapper());
+
+        assertEquals(Map.of("grass", "grass.mp3"), sprite.avulsos());
+        assertEquals(List.of("btnClick01", "key", "open"), List.copyOf(sprite.trechos().keySet()));
+        int silencio = SpriteSonsService.quadroSilencio(som("btnClick01.mp3")).length;
+        assertEquals(som("btnClick01.mp3").length + som("key.mp3").length + som("open.mp3").length
+                + 2 * SpriteSonsService.QUADROS_SILENCIO * silencio, sprite.audio().length);
+
+        double quadro = 576 / 22050.0;
+        Trecho key = sprite.trechos().get("key");
+        assertEquals((8 + SpriteSonsService.QUADROS_SILENCIO) * quadro, key.inicio(), 1e-3);
+        assertEquals(SpriteSonsService.quadros(som("key.mp3")).quantidade() * quadro, key.duracao(), 1e-3);
+
+        JsonNode manifesto = new ObjectMapper().readTree(sprite.manifesto());
+        assertEquals("/api/sons/ui/" + sprite.arquivo(), manifesto.get("sprite").asText());
+        assertEquals(key.inicio(), manifesto.at("/sons/key/inicio").asDouble());
+        assertEquals(sprite.hash(), SpriteSonsService.montar(arquivos, new ObjectMapper()).hash());
+    }
+
+    @Test
+    @DisplayName("Pasta ilegível na subida não impede o serviço: sprite vazio, sons avulsos")
+    void pastaIlegivelNaSubida() {
+        AcervoSonsService acervo = mock(AcervoSonsService.class);
+        when(acervo.listar(any(), any())).thenThrow(new UncheckedIOException(new IOException("sem acesso")));
+
+        Sprite sprite = new SpriteSonsService(new ObjectMapper(), acervo, true, 500).getSprite();
+
+        assertTrue(sprite.trechos().isEmpty());
+        assertEquals(0, sprite.audio().length);
+        assertNotNull(sprite.manifesto());
+    }
+}
@@ -0,0 +1,78 @@
+package com.centropokemon.service;
+
+import com.centropokemon.repository.PokemonRepository;
+import com.centropokemon.repository.TipoRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vazão de requisições que dependem de uma PokeAPI lenta (cada
+ * {@link DataInicializacao#carregarPokemon} faz duas chamadas de
+ * {@code ATRASO_MS}) no modelo antigo, 200 threads de plataforma (o
+ * {@code server.tomcat.threads.max} padrão), contra uma thread virtual por
+ * requisição ({@code spring.threads.virtual.enabled}). Não roda no
+ * {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=ThreadsVirtuaisBenchmark -Dsurefire.failIfNoSpecifiedTests=false}
+ */
+class ThreadsVirtuaisBenchmark {
+
+    private static final int THREADS_TOMCAT = 200;
+    private static final long ATRASO_MS = 1_000;
+    private static final int[] REQUISICOES = {200, 400, 800};
+
+    @Test
+    void medir() throws Exception {
+        PokemonRepository pokemons = mock(PokemonRepository.class);
+        when(pokemons.save(any())).thenAnswer(i -> i.getArgument(0));
+        TipoRepository tipos = mock(TipoRepository.class);
+        when(tipos.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        try (PokeApiFalsa api = new PokeApiFalsa(ATRASO_MS)) {
+            DataInicializacao pokeApi = new DataInicializacao(pokemons, tipos, mock(CachePokedexService.class),
+                    api.cliente(Duration.ofSeconds(60)));
+            rodada(pokeApi, "aquecimento", Executors.newVirtualThreadPerTaskExecutor(), 200);
+
+            System.out.printf("%nPokeAPI com %d ms por chamada (2 chamadas por requisição), %d processadores%n"
+                            + "%-12s %8s %10s %10s %10s%n", ATRASO_MS, Runtime.getRuntime().availableProcessors(),
+                    "modelo", "requisições", "total ms", "req/s", "p99 ms");
+            for (int n : REQUISICOES) {
+                rodada(pokeApi, "plataforma", Executors.newFixedThreadPool(THREADS_TOMCAT), n);
+                rodada(pokeApi, "virtual", Executors.newVirtualThreadPerTaskExecutor(), n);
+            }
+        }
+    }
+
+    private static void rodada(DataInicializacao pokeApi, String modelo, ExecutorService executor, int n)
+            throws Exception {
+        long inicio = System.nanoTime();
+        List<Future<Long>> futuros = new ArrayList<>(n);
+        try (executor) {
+            for (int i = 0; i < n; i++) {
+                String id = String.valueOf(1 + i % 151);
+                futuros.add(executor.submit(() -> {
+                    pokeApi.carregarPokemon(id);
+                    // latência vista pelo cliente: fila do executor + atendimento
+                    return System.nanoTime() - inicio;
+                }));
+            }
+            long[] latencias = new long[n];
+            for (int i = 0; i < n; i++) latencias[i] = futuros.get(i).get();
+            long total = System.nanoTime() - inicio;
+            Arrays.sort(latencias);
+            if (modelo.equals("aquecimento")) return;
+            System.out.printf("%-12s %8d %10d %10.0f %10d%n", modelo, n, total / 1_000_000,
+                    n / (total / 1e9), latencias[(int) (n * 0.99) - 1] / 1_000_000);
+        }
+    }
+}
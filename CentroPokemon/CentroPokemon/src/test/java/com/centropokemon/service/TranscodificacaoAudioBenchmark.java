@@ -0,0 +1,75 @@
+package com.centropokemon.service;
+
+import com.centropokemon.service.TranscodificacaoAudioService.Formato;
+import com.centropokemon.service.TranscodificacaoAudioService.Origem;
+import com.centropokemon.service.TranscodificacaoAudioService.Som;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Relatório da conversão dos gritos para Opus: bytes economizados e tempo
+ * estimado até o áudio estar disponível em alguns perfis de rede (RTT +
+ * transferência do arquivo inteiro, que é como o {@code <audio>} trata
+ * clipes de 1 a 3 segundos). Não roda no {@code mvn test}; execute com:
+ * {@code mvn test -Dtest=TranscodificacaoAudioBenchmark -Dsurefire.failIfNoSpecifiedTests=false -Dffmpeg=/caminho/ffmpeg}
+ */
+class TranscodificacaoAudioBenchmark {
+
+    /** Perfis de rede: nome, kbit/s e RTT em ms. */
+    private static final Object[][] REDES = {
+            {"3G      ", 1_600, 150},
+            {"4G      ", 12_000, 60},
+            {"fibra   ", 100_000, 10},
+    };
+
+    @TempDir Path cache;
+
+    @Test
+    void relatorio() throws Exception {
+        TranscodificacaoAudioService audio = new TranscodificacaoAudioService(new SimpleMeterRegistry(),
+                System.getProperty("ffmpeg", "ffmpeg"), cache,
+                new AcervoSonsService(new ObjectMapper(), "", ""), System.getProperty("bitrate", "32k"), 0, 4096, 60_000);
+        Assumptions.assumeTrue(audio.isDisponivel(), "ffmpeg com libopus não encontrado");
+
+        Path raiz = Path.of("src/main/resources/static/sons");
+        List<String> wavs;
+        try (Stream<Path> s = Files.walk(raiz.resolve("cries"))) {
+            wavs = s.filter(p -> p.toString().endsWith(".wav")).sorted()
+                    .map(p -> raiz.relativize(p).toString().replace('\\', '/')).toList();
+        }
+        int passo = Integer.getInteger("passo", 1);
+
+        long totalWav = 0, totalOpus = 0, nanos = 0;
+        int n = 0;
+        for (int i = 0; i < wavs.size(); i += passo) {
+            Origem origem = audio.localizar(wavs.get(i));
+            long t0 = System.nanoTime();
+            Som som = audio.servir(origem, Formato.OPUS);
+            nanos += System.nanoTime() - t0;
+            if (som.formato() != Formato.OPUS) continue;
+            totalWav += origem.tamanho();
+            totalOpus += som.tamanho();
+            n++;
+        }
+        double mediaWav = (double) totalWav / n, mediaOpus = (double) totalOpus / n;
+        System.out.printf("%n%d gritos: WAV %.1f MB -> Opus %.1f MB (%.1f%% economizados, %.1fx menor)%n",
+                n, totalWav / 1e6, totalOpus / 1e6, 100.0 * (totalWav - totalOpus) / totalWav,
+                (double) totalWav / totalOpus);
+        System.out.printf("média por grito: WAV %.0f KB, Opus %.1f KB; conversão %.0f ms em média%n",
+                mediaWav / 1024, mediaOpus / 1024, nanos / 1e6 / n);
+        System.out.println("tempo até o áudio (RTT + transferência), grito médio:");
+        for (Object[] rede : REDES) {
+            int kbps = (int) rede[1], rtt = (int) rede[2];
+            System.out.printf("  %s WAV %6.0f ms   Opus %5.0f ms%n", rede[0],
+                    rtt + mediaWav * 8 / kbps, rtt + mediaOpus * 8 / kbps);
+        }
+    }
+}
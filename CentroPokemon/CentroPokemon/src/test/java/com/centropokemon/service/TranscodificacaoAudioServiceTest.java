@@ -0,0 +1,64 @@
+package com.centropokemon.service;
+
+import com.centropokemon.service.TranscodificacaoAudioService.Formato;
+import com.centropokemon.service.TranscodificacaoAudioService.Origem;
+import com.centropokemon.service.TranscodificacaoAudioService.Som;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscodificacaoAudioServiceTest {
+
+    private static final String GRITO = "cries/cries/Generation 1/SE_PV025.wav";
+
+    @TempDir Path cache;
+
+    private TranscodificacaoAudioService semFfmpeg() {
+        return new TranscodificacaoAudioService(new SimpleMeterRegistry(),
+                cache.resolve("ffmpeg-inexistente").toString(), cache,
+                new AcervoSonsService(new ObjectMapper(), "", ""), "32k", 1, 4, 100);
+    }
+
+    @Test
+    @DisplayName("Opus só quando pedido por parâmetro ou por Accept explícito")
+    void negociar() {
+        assertEquals(Formato.OPUS, TranscodificacaoAudioService.negociar("opus", null));
+        assertEquals(Formato.ORIGINAL, TranscodificacaoAudioService.negociar("wav", "audio/ogg"));
+        assertEquals(Formato.OPUS, TranscodificacaoAudioService.negociar(null,
+                "audio/webm,audio/ogg,audio/wav,audio/*;q=0.9,*/*;q=0.5"));
+        assertEquals(Formato.ORIGINAL, TranscodificacaoAudioService.negociar(null, "*/*"));
+        assertEquals(Formato.ORIGINAL, TranscodificacaoAudioService.negociar(null, "audio/ogg;q=0"));
+        assertEquals(Formato.ORIGINAL, TranscodificacaoAudioService.negociar(null, "isso não é um accept"));
+    }
+
+    @Test
+    @DisplayName("Sem ffmpeg o pedido de Opus recebe o WAV original com ETag própria")
+    void fallbackSemFfmpeg() {
+        TranscodificacaoAudioService audio = semFfmpeg();
+        assertFalse(audio.isDisponivel());
+
+        Origem origem = audio.localizar("/" + GRITO);
+        Som som = audio.servir(origem, Formato.OPUS);
+
+        assertEquals(Formato.ORIGINAL, som.formato());
+        assertEquals(origem.tamanho(), som.tamanho());
+        assertEquals(audio.etag(origem, Formato.ORIGINAL), som.etag());
+        assertNotEquals(audio.etag(origem, Formato.OPUS), som.etag());
+    }
+
+    @Test
+    @DisplayName("Caminhos fora de static/sons ou que não são áudio são recusados")
+    void caminhosInvalidos() {
+        TranscodificacaoAudioService audio = semFfmpeg();
+        assertThrows(IllegalArgumentException.class, () -> audio.localizar("../application.properties"));
+        assertThrows(IllegalArgumentException.class, () -> audio.localizar("cries/../../js/animacoes.js"));
+        assertThrows(IllegalArgumentException.class, () -> audio.localizar("cries/README.md"));
+        assertThrows(IllegalArgumentException.class, () -> audio.localizar("cries/inexistente.wav"));
+    }
+}
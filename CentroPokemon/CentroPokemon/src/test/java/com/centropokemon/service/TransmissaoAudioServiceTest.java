@@ -0,0 +1,112 @@
+package com.centropokemon.service;
+
+import com.centropokemon.exception.ServicoSobrecarregadoException;
+import com.centropokemon.service.TransmissaoAudioService.Intervalo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransmissaoAudioServiceTest {
+
+    private static final String ETAG = "\"som-abc\"";
+
+    @TempDir Path dir;
+
+    @Test
+    @DisplayName("Range simples vira 206; If-Range diferente, vários trechos ou lixo viram resposta completa")
+    void intervalos() {
+        assertEquals(new Intervalo(0, 1000, false), TransmissaoAudioService.intervalo(null, null, ETAG, 1000));
+        assertEquals(new Intervalo(100, 200, true), TransmissaoAudioService.intervalo("bytes=100-199", null, ETAG, 1000));
+        assertEquals(new Intervalo(900, 1000, true), TransmissaoAudioService.intervalo("bytes=-100", null, ETAG, 1000));
+        assertEquals(new Intervalo(500, 1000, true), TransmissaoAudioService.intervalo("bytes=500-", ETAG, ETAG, 1000));
+        assertFalse(TransmissaoAudioService.intervalo("bytes=500-", "\"outra\"", ETAG, 1000).parcial());
+        assertFalse(TransmissaoAudioService.intervalo("bytes=500-", "W/" + ETAG, ETAG, 1000).parcial());
+        assertFalse(TransmissaoAudioService.intervalo("bytes=0-1,5-6", null, ETAG, 1000).parcial());
+        assertFalse(TransmissaoAudioService.intervalo("itens=0-1", null, ETAG, 1000).parcial());
+        assertNull(TransmissaoAudioService.intervalo("bytes=1000-", null, ETAG, 1000));
+    }
+
+    @Test
+    @DisplayName("Com suporte do conector, arquivo grande só recebe atributos de sendfile; sem suporte vai pelo canal")
+    void modos() throws Exception {
+        byte[] dados = new byte[100_000];
+        Arrays.fill(dados, (byte) 7);
+        dados[10] = 1;
+        Path arquivo = Files.write(dir.resolve("grito.wav"), dados);
+        TransmissaoAudioService transmissao = new TransmissaoAudioService(new SimpleMeterRegistry(), 4, 49_152);
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.setETag(ETAG);
+
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/sons/grito.wav");
+        req.setAttribute(TransmissaoAudioService.SENDFILE_SUPORTADO, Boolean.TRUE);
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        transmissao.transmitir(req, resp, new FileSystemResource(arquivo), dados.length,
+                new Intervalo(0, dados.length, false), cabecalhos);
+        assertEquals(arquivo.toRealPath().toString(), req.getAttribute(TransmissaoAudioService.SENDFILE_ARQUIVO));
+        assertEquals((long) dados.length, req.getAttribute(TransmissaoAudioService.SENDFILE_FIM));
+        assertEquals(0, resp.getContentAsByteArray().length);
+        assertEquals(dados.length, resp.getContentLengthLong());
+        assertEquals(ETAG, resp.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletRequest semSuporte = new MockHttpServletRequest("GET", "/api/sons/grito.wav");
+        MockHttpServletResponse parcial = new MockHttpServletResponse();
+        transmissao.transmitir(semSuporte, parcial, new FileSystemResource(arquivo), dados.length,
+                new Intervalo(10, 20, true), cabecalhos);
+        assertEquals(206, parcial.getStatus());
+        assertEquals("bytes 10-19/100000", parcial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(dados, 10, 20), parcial.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("Sem vaga para envio bloqueante a resposta não é tocada e a operação falha com 503")
+    void limite() throws Exception {
+        Path arquivo = Files.write(dir.resolve("curto.wav"), new byte[10]);
+        TransmissaoAudioService transmissao = new TransmissaoAudioService(new SimpleMeterRegistry(), 1, 49_152);
+        MockHttpServletResponse lenta = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                MockHttpServletResponse outra = new MockHttpServletResponse();
+                MockHttpServletRequest req = new MockHttpServletRequest("GET", "/");
+                assertThrows(ServicoSobrecarregadoException.class, () -> transmissao.transmitir(req, outra,
+                        new FileSystemResource(arquivo), 10, new Intervalo(0, 10, false), new HttpHeaders()));
+                assertNull(outra.getHeader(HttpHeaders.ACCEPT_RANGES));
+                return super.getOutputStream();
+            }
+        };
+        transmissao.transmitir(new MockHttpServletRequest("GET", "/"), lenta, new FileSystemResource(arquivo),
+                10, new Intervalo(0, 10, false), new HttpHeaders());
+        assertEquals(10, lenta.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Arquivo menor que o anunciado aborta o envio pelo canal em vez de girar para sempre")
+    void arquivoEncolheu() throws Exception {
+        Path arquivo = Files.write(dir.resolve("encolheu.wav"), new byte[10]);
+        TransmissaoAudioService transmissao = new TransmissaoAudioService(new SimpleMeterRegistry(), 1, 49_152);
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        IOException erro = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(IOException.class,
+                () -> transmissao.transmitir(new MockHttpServletRequest("GET", "/"), resp,
+                        new FileSystemResource(arquivo), 20, new Intervalo(0, 20, false), new HttpHeaders())));
+        assertTrue(erro.getMessage().contains("terminou"));
+        assertEquals(10, resp.getContentAsByteArray().length);
+
+        MockHttpServletResponse seguinte = new MockHttpServletResponse();
+        transmissao.transmitir(new MockHttpServletRequest("GET", "/"), seguinte, new FileSystemResource(arquivo),
+                10, new Intervalo(0, 10, false), new HttpHeaders());
+        assertEquals(10, seguinte.getContentAsByteArray().length, "a vaga foi devolvida");
+    }
+}
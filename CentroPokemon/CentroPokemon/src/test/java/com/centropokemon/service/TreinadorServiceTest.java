@@ -0,0 +1,133 @@
+package com.centropokemon.service;
+
+import com.centropokemon.model.Treinador;
+import com.centropokemon.repository.TreinadorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TreinadorServiceTest {
+
+    @Mock private TreinadorRepository treinadores;
+
+    private HashSenhaService senhas;
+    private TreinadorService service;
+
+    @BeforeEach
+    void setup() {
+        senhas = new HashSenhaService(new SimpleMeterRegistry(), 1, 8, 5000, 0, 4);
+        service = new TreinadorService(treinadores, senhas, 1000, 0.01);
+    }
+
+    @AfterEach
+    void encerrar() {
+        senhas.encerrar();
+    }
+
+    private static Treinador treinador(int id, String usuario, String email, String senha) {
+        Treinador t = new Treinador();
+        t.setId(id);
+        t.setUsuario(usuario);
+        t.setEmail(email);
+        t.setSenha(senha);
+        t.setAtivo(true);
+        return t;
+    }
+
+    @Test
+    @DisplayName("Login faz uma única consulta por usuário ou e-mail")
+    void autenticar_umaConsulta() {
+        when(treinadores.findByUsuarioOuEmail("ash@kanto.com"))
+                .thenReturn(List.of(treinador(1, "ash", "ash@kanto.com", senhas.gerarHash("pikachu"))));
+
+        assertTrue(service.autenticar("ash@kanto.com", "pikachu").isPresent());
+        assertTrue(service.autenticar("ash@kanto.com", "errada").isEmpty());
+        verify(treinadores, never()).buscarPorUsuario(any());
+        verify(treinadores, never()).buscarPorEmail(any());
+    }
+
+    @Test
+    @DisplayName("Login prefere o treinador cujo usuário corresponde ao valor")
+    void autenticar_prefereUsuario() {
+        Treinador porEmail = treinador(1, "misty", "brock", senhas.gerarHash("agua"));
+        Treinador porUsuario = treinador(2, "brock", "brock@kanto.com", senhas.gerarHash("pedra"));
+        when(treinadores.findByUsuarioOuEmail("brock")).thenReturn(List.of(porEmail, porUsuario));
+
+        Optional<Treinador> t = service.autenticar("brock", "pedra");
+        assertEquals(2, t.orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Cadastro de usuário e e-mail novos não consulta existência após carregar o filtro")
+    void cadastrar_filtroDizNovo() {
+        when(treinadores.streamUsuariosEEmails()).thenReturn(Stream.<Object[]>of(new Object[]{"Ash", "ash@kanto.com"}));
+        when(treinadores.save(any(Treinador.class))).thenAnswer(inv -> inv.getArgument(0));
+        service.carregarFiltro();
+
+        service.cadastrar("Misty", "misty", "misty@kanto.com", "agua", null);
+
+        verify(treinadores, never()).existePorUsuario(any());
+        verify(treinadores, never()).existePorEmail(any());
+    }
+
+    @Test
+    @DisplayName("Cadastro consulta o banco quando o filtro indica possível duplicado")
+    void cadastrar_filtroTalvezExista() {
+        when(treinadores.streamUsuariosEEmails()).thenReturn(Stream.<Object[]>of(new Object[]{"Ash", "ash@kanto.com"}));
+        when(treinadores.existePorUsuario("ASH")).thenReturn(true);
+        service.carregarFiltro();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.cadastrar("Ash", "ASH", "outro@kanto.com", "pikachu", null));
+        verify(treinadores, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Antes de carregar o filtro, o cadastro sempre consulta o banco")
+    void cadastrar_filtroNaoCarregado() {
+        when(treinadores.save(any(Treinador.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.cadastrar("Misty", "misty", "misty@kanto.com", "agua", null);
+
+        verify(treinadores).existePorUsuario("misty");
+        verify(treinadores).existePorEmail("misty@kanto.com");
+    }
+
+    @Test
+    @DisplayName("Cadastro guarda a senha como BCrypt")
+    void cadastrar_guardaHash() {
+        when(treinadores.save(any(Treinador.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Treinador t = service.cadastrar("Misty", "misty", "misty@kanto.com", "agua", null);
+
+        assertTrue(t.getSenha().startsWith("$2a$04$"));
+        assertTrue(senhas.verificar("agua", t.getSenha()));
+    }
+
+    @Test
+    @DisplayName("Senha legada em texto claro é refeita como BCrypt no login")
+    void autenticar_rehashSenhaLegada() {
+        Treinador legado = treinador(1, "ash", "ash@kanto.com", "pikachu");
+        when(treinadores.findByUsuarioOuEmail("ash")).thenReturn(List.of(legado));
+
+        assertTrue(service.autenticar("ash", "pikachu").isPresent());
+
+        verify(treinadores).save(legado);
+        assertFalse(senhas.precisaRehash(legado.getSenha()));
+        assertTrue(senhas.verificar("pikachu", legado.getSenha()));
+    }
+}
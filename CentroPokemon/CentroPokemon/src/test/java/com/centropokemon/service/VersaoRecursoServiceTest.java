@@ -0,0 +1,68 @@
+package com.centropokemon.service;
+
+import com.centropokemon.model.Pokemon;
+import com.centropokemon.repository.TreinadorRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VersaoRecursoServiceTest {
+
+    @Mock private TreinadorRepository treinadores;
+
+    private static Pokemon pikachu() {
+        Pokemon p = new Pokemon();
+        p.setPokeApiId(25);
+        p.setNomeEn("pikachu");
+        p.setNomePt("Pikachu");
+        p.setSpriteUrl("http://img/25.png");
+        p.setHabilidades(List.of("static"));
+        return p;
+    }
+
+    @Test
+    @DisplayName("ETag da Pokédex fica registrada por nome e por ID e muda com o conteúdo")
+    void etagPokedex() {
+        VersaoRecursoService versoes = new VersaoRecursoService(treinadores, Duration.ofHours(1), 100);
+        Pokemon p = pikachu();
+
+        String etag = versoes.registrarPokedex(p, VersaoRecursoService.chaveNome("Pikachu"));
+
+        assertEquals(etag, versoes.etagPokedex(VersaoRecursoService.chaveNome("pikachu")));
+        assertEquals(etag, versoes.etagPokedex(VersaoRecursoService.chaveId(25)));
+        assertEquals(etag, VersaoRecursoService.etagConteudo(pikachu()));
+        p.setSpriteUrl("http://img/25-novo.png");
+        assertNotEquals(etag, VersaoRecursoService.etagConteudo(p));
+        verifyNoInteractions(treinadores);
+    }
+
+    @Test
+    @DisplayName("ETag da Pokédex expira após o TTL")
+    void etagPokedexExpira() {
+        VersaoRecursoService versoes = new VersaoRecursoService(treinadores, Duration.ZERO, 100);
+        versoes.registrarPokedex(pikachu(), VersaoRecursoService.chaveId(25));
+
+        assertNull(versoes.etagPokedex(VersaoRecursoService.chaveId(25)));
+    }
+
+    @Test
+    @DisplayName("ETag da coleção acompanha a versão do treinador")
+    void etagColecao() {
+        VersaoRecursoService versoes = new VersaoRecursoService(treinadores, Duration.ofHours(1), 100);
+        when(treinadores.buscarVersaoPokemons(7)).thenReturn(Optional.of(3L));
+        when(treinadores.buscarVersaoPokemons(8)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of("\"tp-7-3\""), versoes.etagPokemons(7));
+        assertTrue(versoes.etagPokemons(8).isEmpty());
+    }
+}
@@ -0,0 +1,220 @@
+-- ============================================================================
+-- CENTRO POKÉMON - PARTICIONAMENTO DA TABELA DE CONSULTAS
+-- Particionamento mensal por data_hora, criação automática de partições
+-- futuras e arquivamento (DETACH) das partições antigas
+-- ============================================================================
+-- Alvo: tabela public.consultas usada pela aplicação Spring Boot (entidade
+-- Consulta). Execute depois que a aplicação tiver criado a tabela:
+--   psql -U postgres -d centro_pokemon -f 09_particionamento_consultas.sql
+--
+-- O script é idempotente: se a tabela já estiver particionada, apenas
+-- (re)cria as funções de manutenção e garante as partições da janela atual.
+--
+-- FINALIDADE: SOMENTE ARQUIVAMENTO. Aplique este script só se precisar tirar
+-- meses antigos da tabela quente com DETACH (sem DELETE em massa nem VACUUM).
+-- Ele NÃO acelera a leitura: a listagem do painel (treinador + data_hora a
+-- partir do mês atual) é uma busca pontual no índice (treinador_id, data_hora),
+-- e na tabela comum essa busca já pula o histórico. O pruning funciona (o
+-- EXPLAIN mostra "Subplans Removed" para os meses passados e a DEFAULT vazia
+-- custa zero), mas cada consulta paga o planejamento e os locks de todas as
+-- partições restantes. Medido com 10_benchmark_particionamento_consultas.sql
+-- (PostgreSQL 16, 5M linhas, 1.000 treinadores, mês atual + 3 futuros + DEFAULT):
+--   tabela comum, janela ............................  22 ms
+--   particionada, janela (plano custom, padrão) ..... 236 ms
+--   particionada, janela (plano genérico) ...........  75 ms
+--   particionada, só o mês atual ....................  80 ms
+-- Sem o script, a tabela continua comum e a aplicação (entidade Consulta)
+-- cria o mesmo índice idx_consultas_treinador_data: é a configuração
+-- recomendada para leitura.
+-- ============================================================================
+
+\c centro_pokemon;
+
+SET search_path TO public;
+
+-- Schema que recebe as partições arquivadas (desanexadas da tabela principal)
+CREATE SCHEMA IF NOT EXISTS consultas_arquivo;
+
+COMMENT ON SCHEMA consultas_arquivo IS
+'Partições mensais de consultas desanexadas por consultas_manter_particoes()';
+
+-- ============================================================================
+-- 1. FUNÇÃO: Criar a partição de um mês
+-- ============================================================================
+-- Cria consultas_pAAAAMM cobrindo [mês, mês + 1). Se a partição DEFAULT já
+-- tiver linhas desse intervalo, elas são movidas antes do ATTACH para que a
+-- validação da partição padrão não falhe.
+
+CREATE OR REPLACE FUNCTION public.consultas_criar_particao(p_mes DATE)
+RETURNS TEXT AS $$
+DECLARE
+    v_inicio TIMESTAMP := date_trunc('month', p_mes)::TIMESTAMP;
+    v_fim    TIMESTAMP := (date_trunc('month', p_mes) + INTERVAL '1 month')::TIMESTAMP;
+    v_nome   TEXT      := 'consultas_p' || to_char(v_inicio, 'YYYYMM');
+BEGIN
+    IF to_regclass('public.' || v_nome) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.consultas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_nome);
+
+    IF to_regclass('public.consultas_padrao') IS NOT NULL THEN
+        EXECUTE format(
+            'WITH movidas AS (DELETE FROM public.consultas_padrao WHERE data_hora >= %L AND data_hora < %L RETURNING *) '
+            'INSERT INTO public.%I SELECT * FROM movidas',
+            v_inicio, v_fim, v_nome);
+    END IF;
+
+    EXECUTE format('ALTER TABLE public.consultas ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   v_nome, v_inicio, v_fim);
+    RETURN v_nome;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION public.consultas_criar_particao(DATE) IS
+'Cria (se não existir) a partição mensal de consultas que contém a data informada';
+
+-- ============================================================================
+-- 2. FUNÇÃO: Manutenção periódica das partições
+-- ============================================================================
+-- Garante as partições do mês atual até p_meses_futuros à frente e desanexa
+-- para o schema consultas_arquivo as partições que terminam antes do início
+-- da janela de retenção. Chamada pelo ConsultaParticionamentoService.
+--
+-- As linhas arquivadas somem de GET .../consultas?historico=true, então a
+-- versao_consultas de cada treinador com consultas no mês arquivado sobe na
+-- mesma transação do DETACH: a ETag "h" muda e o cliente não recebe 304 de
+-- uma lista que já não existe.
+
+CREATE OR REPLACE FUNCTION public.consultas_manter_particoes(
+    p_meses_futuros INTEGER DEFAULT 3,
+    p_meses_retencao INTEGER DEFAULT 24
+)
+RETURNS TABLE(acao TEXT, particao TEXT) AS $$
+DECLARE
+    v_mes_atual DATE := date_trunc('month', CURRENT_DATE)::DATE;
+    v_limite    DATE := (date_trunc('month', CURRENT_DATE) - make_interval(months => p_meses_retencao))::DATE;
+    v_criada    TEXT;
+    v_part      RECORD;
+BEGIN
+    FOR i IN 0..p_meses_futuros LOOP
+        v_criada := public.consultas_criar_particao((v_mes_atual + make_interval(months => i))::DATE);
+        IF v_criada IS NOT NULL THEN
+            acao := 'CRIADA';
+            particao := v_criada;
+            RETURN NEXT;
+        END IF;
+    END LOOP;
+
+    FOR v_part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.consultas'::regclass
+          AND c.relname ~ '^consultas_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM 12 FOR 6), 'YYYYMM') < v_limite
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format(
+            'UPDATE public.treinadores t SET versao_consultas = COALESCE(t.versao_consultas, 0) + 1 '
+            'WHERE t.id IN (SELECT DISTINCT treinador_id FROM public.%I)',
+            v_part.relname);
+        EXECUTE format('ALTER TABLE public.consultas DETACH PARTITION public.%I', v_part.relname);
+        EXECUTE format('ALTER TABLE public.%I SET SCHEMA consultas_arquivo', v_part.relname);
+        acao := 'ARQUIVADA';
+        particao := 'consultas_arquivo.' || v_part.relname;
+        RETURN NEXT;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION public.consultas_manter_particoes(INTEGER, INTEGER) IS
+'Cria partições futuras de consultas e arquiva as que saíram da janela de retenção';
+
+-- ============================================================================
+-- 3. MIGRAÇÃO: Converter consultas em tabela particionada
+-- ============================================================================
+-- A chave primária passa a ser (id, data_hora), exigência do PostgreSQL para
+-- tabelas particionadas. O id continua gerado por sequência, então o
+-- mapeamento IDENTITY do Hibernate segue funcionando sem alterações.
+
+DO $$
+DECLARE
+    v_min   TIMESTAMP;
+    v_max   TIMESTAMP;
+    v_mes   DATE;
+    v_max_id INTEGER;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'public.consultas'::regclass) THEN
+        RAISE NOTICE 'consultas já é particionada; migração ignorada';
+        RETURN;
+    END IF;
+
+    ALTER TABLE public.consultas RENAME TO consultas_legado;
+    ALTER TABLE public.consultas_legado RENAME CONSTRAINT consultas_pkey TO consultas_legado_pkey;
+
+    -- Libera o nome consultas_id_seq (sequência IDENTITY criada pelo Hibernate)
+    ALTER TABLE public.consultas_legado ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+    SELECT COALESCE(MAX(id), 0) INTO v_max_id FROM public.consultas_legado;
+    CREATE SEQUENCE IF NOT EXISTS public.consultas_id_seq AS INTEGER;
+    PERFORM setval('public.consultas_id_seq', v_max_id + 1, false);
+
+    CREATE TABLE public.consultas (
+        id            INTEGER      NOT NULL DEFAULT nextval('public.consultas_id_seq'),
+        atualizado_em TIMESTAMP(6) NOT NULL,
+        criado_em     TIMESTAMP(6) NOT NULL,
+        data_hora     TIMESTAMP(6) NOT NULL,
+        observacoes   TEXT,
+        tipo          VARCHAR(32)  NOT NULL,
+        pokemon_id    INTEGER      NOT NULL REFERENCES public.pokemons(id),
+        treinador_id  INTEGER      NOT NULL REFERENCES public.treinadores(id),
+        CONSTRAINT consultas_pkey PRIMARY KEY (id, data_hora)
+    ) PARTITION BY RANGE (data_hora);
+
+    ALTER SEQUENCE public.consultas_id_seq OWNED BY public.consultas.id;
+
+    -- Único caminho de acesso da aplicação: consultas de um treinador por data
+    CREATE INDEX idx_consultas_treinador_data ON public.consultas (treinador_id, data_hora);
+
+    -- Captura datas fora das partições mensais (ex.: agendamentos muito distantes)
+    CREATE TABLE public.consultas_padrao PARTITION OF public.consultas DEFAULT;
+
+    SELECT MIN(data_hora), MAX(data_hora) INTO v_min, v_max FROM public.consultas_legado;
+    IF v_min IS NOT NULL THEN
+        v_mes := date_trunc('month', v_min)::DATE;
+        WHILE v_mes <= v_max LOOP
+            PERFORM public.consultas_criar_particao(v_mes);
+            v_mes := (v_mes + INTERVAL '1 month')::DATE;
+        END LOOP;
+    END IF;
+
+    INSERT INTO public.consultas (id, atualizado_em, criado_em, data_hora, observacoes, tipo, pokemon_id, treinador_id)
+    SELECT id, atualizado_em, criado_em, data_hora, observacoes, tipo, pokemon_id, treinador_id
+    FROM public.consultas_legado;
+
+    DROP TABLE public.consultas_legado;
+END;
+$$;
+
+-- Janela inicial: mês atual + 3 meses, retenção de 24 meses
+SELECT * FROM public.consultas_manter_particoes(3, 24);
+
+ANALYZE public.consultas;
+
+-- ============================================================================
+-- 4. VERIFICAÇÃO
+-- ============================================================================
+
+SELECT
+    c.relname AS particao,
+    pg_get_expr(c.relpartbound, c.oid) AS intervalo,
+    c.reltuples::BIGINT AS linhas_estimadas
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'public.consultas'::regclass
+ORDER BY c.relname;
+
+-- ============================================================================
+-- FIM DO PARTICIONAMENTO DE CONSULTAS
+-- ============================================================================
@@ -0,0 +1,188 @@
+-- ============================================================================
+-- CENTRO POKÉMON - BENCHMARK DO PARTICIONAMENTO DE CONSULTAS
+-- Compara a listagem de consultas de um treinador em uma tabela comum e na
+-- tabela particionada por mês, com vários milhões de linhas sintéticas
+-- ============================================================================
+-- Uso (banco descartável, leva alguns minutos):
+--   psql -U postgres -d centro_pokemon -f 10_benchmark_particionamento_consultas.sql
+--
+-- Tudo é criado no schema bench_consultas e removido ao final. Ajuste
+-- :linhas e :treinadores para escalar o volume.
+--
+-- Resultado: a janela na tabela comum é mais rápida. Com o pruning, a tabela
+-- particionada lê as mesmas linhas, mas cada consulta planeja e trava várias
+-- partições (ver a nota de finalidade em 09_particionamento_consultas.sql).
+-- ============================================================================
+
+\set linhas 5000000
+\set treinadores 20000
+\timing on
+
+DROP SCHEMA IF EXISTS bench_consultas CASCADE;
+CREATE SCHEMA bench_consultas;
+SET search_path TO bench_consultas, public;
+
+-- ============================================================================
+-- 1. Tabela comum (modelo anterior: índice em treinador_id + data_hora)
+-- ============================================================================
+
+CREATE TABLE consultas_comum (
+    id           INTEGER      NOT NULL,
+    data_hora    TIMESTAMP(6) NOT NULL,
+    tipo         VARCHAR(32)  NOT NULL,
+    pokemon_id   INTEGER      NOT NULL,
+    treinador_id INTEGER      NOT NULL,
+    observacoes  TEXT,
+    PRIMARY KEY (id)
+);
+
+-- Seis anos de histórico: cinco anos passados e um ano à frente
+INSERT INTO consultas_comum
+SELECT g,
+       date_trunc('month', CURRENT_DATE) - INTERVAL '5 years'
+           + random() * INTERVAL '6 years',
+       (ARRAY['CONSULTA', 'VACINACAO', 'CHECKUP', 'EMERGENCIA'])[1 + (g % 4)],
+       1 + (g % 100000),
+       1 + (g % :treinadores),
+       'sintética'
+FROM generate_series(1, :linhas) g;
+
+CREATE INDEX ON consultas_comum (treinador_id, data_hora);
+ANALYZE consultas_comum;
+
+-- ============================================================================
+-- 2. Tabela particionada (mesma estrutura e horizonte do script 09: partições
+--    até 3 meses à frente; o que vier depois cai na DEFAULT)
+-- ============================================================================
+
+CREATE TABLE consultas_part (
+    id           INTEGER      NOT NULL,
+    data_hora    TIMESTAMP(6) NOT NULL,
+    tipo         VARCHAR(32)  NOT NULL,
+    pokemon_id   INTEGER      NOT NULL,
+    treinador_id INTEGER      NOT NULL,
+    observacoes  TEXT,
+    PRIMARY KEY (id, data_hora)
+) PARTITION BY RANGE (data_hora);
+
+CREATE INDEX ON consultas_part (treinador_id, data_hora);
+CREATE TABLE consultas_part_padrao PARTITION OF consultas_part DEFAULT;
+
+DO $$
+DECLARE
+    v_mes DATE := (date_trunc('month', CURRENT_DATE) - INTERVAL '5 years')::DATE;
+BEGIN
+    WHILE v_mes < date_trunc('month', CURRENT_DATE) + INTERVAL '4 months' LOOP
+        EXECUTE format('CREATE TABLE bench_consultas.%I PARTITION OF bench_consultas.consultas_part FOR VALUES FROM (%L) TO (%L)',
+                       'consultas_part_p' || to_char(v_mes, 'YYYYMM'), v_mes, v_mes + INTERVAL '1 month');
+        v_mes := (v_mes + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO consultas_part SELECT * FROM consultas_comum;
+
+-- Mesma retenção padrão da aplicação (24 meses): partições mais antigas são
+-- desanexadas, como faz consultas_manter_particoes()
+DO $$
+DECLARE
+    v_part RECORD;
+BEGIN
+    FOR v_part IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bench_consultas.consultas_part'::regclass
+          AND c.relname ~ '^consultas_part_p[0-9]{6}$'
+          AND to_date(right(c.relname, 6), 'YYYYMM') < date_trunc('month', CURRENT_DATE) - INTERVAL '24 months'
+    LOOP
+        EXECUTE format('ALTER TABLE bench_consultas.consultas_part DETACH PARTITION bench_consultas.%I', v_part.relname);
+    END LOOP;
+END;
+$$;
+
+ANALYZE consultas_part;
+
+-- ============================================================================
+-- 3. Tamanhos
+-- ============================================================================
+
+SELECT 'comum' AS tabela, pg_size_pretty(pg_total_relation_size('consultas_comum')) AS tamanho
+UNION ALL
+SELECT 'particionada (janela atual)', pg_size_pretty(SUM(pg_total_relation_size(c.oid)))
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'consultas_part'::regclass
+  AND c.relname >= 'consultas_part_p' || to_char(CURRENT_DATE, 'YYYYMM');
+
+-- ============================================================================
+-- 4. Listagem antiga: todo o histórico do treinador (findByTreinadorIdOrderByDataHoraAsc)
+-- ============================================================================
+
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT * FROM consultas_comum WHERE treinador_id = 4242 ORDER BY data_hora;
+
+-- ============================================================================
+-- 5. Listagem nova na tabela comum: filtro pela janela atual, sem pruning
+-- ============================================================================
+
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT * FROM consultas_comum
+WHERE treinador_id = 4242 AND data_hora >= date_trunc('month', CURRENT_DATE)
+ORDER BY data_hora;
+
+-- ============================================================================
+-- 6. Listagem nova na tabela particionada: apenas as partições atual e futuras
+-- ============================================================================
+-- O plano deve mostrar "Subplans Removed" para as partições anteriores ao mês
+-- atual (pruning em tempo de execução, já que o limite vem de um parâmetro).
+
+PREPARE listar_janela(INTEGER, TIMESTAMP) AS
+SELECT * FROM consultas_part
+WHERE treinador_id = $1 AND data_hora >= $2
+ORDER BY data_hora;
+
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+EXECUTE listar_janela(4242, date_trunc('month', CURRENT_DATE)::TIMESTAMP);
+
+-- ============================================================================
+-- 7. Carga repetida (1.000 treinadores distintos) nas três variantes
+-- ============================================================================
+
+DO $$
+DECLARE
+    v_inicio TIMESTAMP;
+    v_janela TIMESTAMP := date_trunc('month', CURRENT_DATE);
+    v_total  BIGINT;
+BEGIN
+    v_inicio := clock_timestamp();
+    FOR t IN 1..1000 LOOP
+        SELECT count(*) INTO v_total FROM (
+            SELECT * FROM bench_consultas.consultas_comum WHERE treinador_id = t ORDER BY data_hora) s;
+    END LOOP;
+    RAISE NOTICE 'comum, histórico completo : % ms', round(extract(epoch FROM clock_timestamp() - v_inicio) * 1000);
+
+    v_inicio := clock_timestamp();
+    FOR t IN 1..1000 LOOP
+        SELECT count(*) INTO v_total FROM (
+            SELECT * FROM bench_consultas.consultas_comum
+            WHERE treinador_id = t AND data_hora >= v_janela ORDER BY data_hora) s;
+    END LOOP;
+    RAISE NOTICE 'comum, janela atual       : % ms', round(extract(epoch FROM clock_timestamp() - v_inicio) * 1000);
+
+    v_inicio := clock_timestamp();
+    FOR t IN 1..1000 LOOP
+        SELECT count(*) INTO v_total FROM (
+            SELECT * FROM bench_consultas.consultas_part
+            WHERE treinador_id = t AND data_hora >= v_janela ORDER BY data_hora) s;
+    END LOOP;
+    RAISE NOTICE 'particionada, janela atual: % ms', round(extract(epoch FROM clock_timestamp() - v_inicio) * 1000);
+END;
+$$;
+
+-- ============================================================================
+-- 8. Limpeza
+-- ============================================================================
+
+DEALLOCATE listar_janela;
+RESET search_path;
+DROP SCHEMA bench_consultas CASCADE;
+
+\timing off
@@ -0,0 +1,57 @@
+-- ============================================================================
+-- CENTRO POKÉMON - UNICIDADE DE USUÁRIO E E-MAIL DOS TREINADORES
+-- Índices únicos sem distinção de maiúsculas/minúsculas em public.treinadores
+-- ============================================================================
+-- Alvo: tabela public.treinadores usada pela aplicação Spring Boot (entidade
+-- Treinador). Execute depois que a aplicação tiver criado a tabela:
+--   psql -U postgres -d centro_pokemon -f 11_unicidade_treinadores.sql
+--
+-- O cadastro pode pular as consultas de existência quando o filtro de Bloom
+-- do TreinadorService garante que usuário e e-mail são novos. Nesse caso a
+-- restrição única é quem decide, e por isso ela precisa comparar como a
+-- aplicação compara: lower(usuario) e lower(email). Os mesmos índices servem
+-- ao login, que busca "lower(usuario) = ? OR lower(email) = ?" em uma única
+-- consulta (BitmapOr sobre os dois índices).
+-- ============================================================================
+
+\c centro_pokemon;
+
+SET search_path TO public;
+
+-- ============================================================================
+-- 1. VERIFICAÇÃO: duplicados que impediriam a criação dos índices
+-- ============================================================================
+
+SELECT 'usuario' AS campo, lower(usuario) AS valor, COUNT(*) AS ocorrencias
+FROM public.treinadores
+GROUP BY lower(usuario)
+HAVING COUNT(*) > 1
+UNION ALL
+SELECT 'email', lower(email), COUNT(*)
+FROM public.treinadores
+GROUP BY lower(email)
+HAVING COUNT(*) > 1;
+
+-- ============================================================================
+-- 2. ÍNDICES ÚNICOS
+-- ============================================================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_treinadores_usuario_lower
+    ON public.treinadores (lower(usuario));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_treinadores_email_lower
+    ON public.treinadores (lower(email));
+
+ANALYZE public.treinadores;
+
+-- ============================================================================
+-- 3. VERIFICAÇÃO: plano do login
+-- ============================================================================
+
+EXPLAIN
+SELECT * FROM public.treinadores
+WHERE lower(usuario) = lower('ash') OR lower(email) = lower('ash');
+
+-- ============================================================================
+-- FIM DA UNICIDADE DE TREINADORES
+-- ============================================================================